@@ -13,11 +13,13 @@ import com.aac.kpi.model.EventSession;
 import com.aac.kpi.model.ScenarioTestCase;
 import com.aac.kpi.model.Patient;
 import com.aac.kpi.model.Practitioner;
-import com.aac.kpi.service.ExcelReader;
+import com.aac.kpi.service.WorkbookSnapshot;
 import com.aac.kpi.service.ExcelWriter;
 import com.aac.kpi.service.LinkService;
 import com.aac.kpi.service.MasterDataService;
+import com.aac.kpi.service.RulesConfigService;
 import com.aac.kpi.service.AppState;
+import com.aac.kpi.ui.BackgroundTasks;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -95,6 +97,7 @@ public class MainController {
 
     @FXML
     private void initialize() throws IOException {
+        loadRulesConfig();
         MasterDataService.MasterData masterData = ensureMasterData();
         updatePractitionersFromMaster(masterData);
         // Load Patient Master view
@@ -210,12 +213,20 @@ public class MainController {
         File f = fc.showOpenDialog(owner);
         if (f == null)
             return;
-        try {
-            List<Patient> p = ExcelReader.readPatients(f);
-            List<EventSession> s = ExcelReader.readEventSessions(f);
-            List<com.aac.kpi.model.Practitioner> pr = ExcelReader.readPractitioners(f);
-            List<com.aac.kpi.model.Encounter> en = ExcelReader.readEncounters(f);
-            List<com.aac.kpi.model.QuestionnaireResponse> qs = ExcelReader.readQuestionnaires(f);
+        BackgroundTasks.run("Load", statusLabel, progress -> {
+            progress.phase("Reading " + f.getName());
+            return WorkbookSnapshot.load(f, java.util.EnumSet.of(
+                    WorkbookSnapshot.Part.PATIENTS,
+                    WorkbookSnapshot.Part.SESSIONS,
+                    WorkbookSnapshot.Part.PRACTITIONERS,
+                    WorkbookSnapshot.Part.ENCOUNTERS,
+                    WorkbookSnapshot.Part.QUESTIONNAIRES));
+        }, snapshot -> {
+            List<Patient> p = snapshot.patients();
+            List<EventSession> s = snapshot.sessions();
+            List<com.aac.kpi.model.Practitioner> pr = snapshot.practitioners();
+            List<com.aac.kpi.model.Encounter> en = snapshot.encounters();
+            List<com.aac.kpi.model.QuestionnaireResponse> qs = snapshot.questionnaires();
             if (!p.isEmpty())
                 patients.setAll(p);
             if (!s.isEmpty())
@@ -238,9 +249,7 @@ public class MainController {
             commonController.refreshTable();
             if (jsonController != null)
                 jsonController.setExcelPath(f);
-        } catch (Exception ex) {
-            new Alert(Alert.AlertType.ERROR, "Failed to load: " + ex.getMessage(), ButtonType.OK).showAndWait();
-        }
+        });
     }
 
     @FXML
@@ -289,18 +298,11 @@ public class MainController {
                     && commonController != null) ? commonControllerItems() : java.util.List.of();
             reporting.ifPresent(fields -> applyReportingFields(commons, fields));
             regCfg.ifPresent(this::applyRegistrationConfig);
-            File file = ExcelWriter.saveToExcel(patients, sessions, practitioners, encounters, questionnaires, commons,
-                    chosen);
-            AppState.setCurrentExcelFile(file);
-            AppState.setDirty(false);
-            new Alert(Alert.AlertType.INFORMATION, "Exported to: " + file.getAbsolutePath(), ButtonType.OK)
-                    .showAndWait();
-            statusLabel.setText(String.format(
-                    "Generated %d patients | %d sessions | %d practitioners | %d encounters | %d questionnaires | Last export: %s",
-                    patients.size(), sessions.size(), practitioners.size(), encounters.size(), questionnaires.size(),
-                    ExcelWriter.nowStamp()));
-            if (jsonController != null)
-                jsonController.setExcelPath(file);
+            writeExcelInBackground("Export", commons, chosen, file -> {
+                AppState.setCurrentExcelFile(file);
+                new Alert(Alert.AlertType.INFORMATION, "Exported to: " + file.getAbsolutePath(), ButtonType.OK)
+                        .showAndWait();
+            });
         } catch (Exception ex) {
             new Alert(Alert.AlertType.ERROR, "Export failed: " + ex.getMessage(), ButtonType.OK).showAndWait();
         }
@@ -316,10 +318,12 @@ public class MainController {
                     ButtonType.OK).showAndWait();
             return;
         }
-        try {
-            MasterDataService.MasterData masterData = ensureMasterData();
-            var result = com.aac.kpi.service.ScenarioGenerationService.generate(new ArrayList<>(scenarios));
-
+        ensureMasterData();
+        List<ScenarioTestCase> scenarioSnapshot = new ArrayList<>(scenarios);
+        BackgroundTasks.run("Scenario generation", statusLabel, progress -> {
+            progress.phase("Generating " + scenarioSnapshot.size() + " scenarios");
+            return com.aac.kpi.service.ScenarioGenerationService.generate(scenarioSnapshot);
+        }, result -> {
             patients.setAll(result.patients);
             sessions.setAll(result.sessions);
             practitioners.setAll(result.practitioners);
@@ -338,10 +342,7 @@ public class MainController {
 
             // After data is in place, run the usual export flow (Save As)
             onExportExcelAs();
-        } catch (Exception ex) {
-            new Alert(Alert.AlertType.ERROR, "Scenario generation failed: " + ex.getMessage(), ButtonType.OK)
-                    .showAndWait();
-        }
+        });
     }
 
     @FXML
@@ -389,19 +390,45 @@ public class MainController {
                     && commonController != null) ? commonControllerItems() : java.util.List.of();
             reporting.ifPresent(fields -> applyReportingFields(commons, fields));
             regCfg.ifPresent(this::applyRegistrationConfig);
-            File file = ExcelWriter.saveToExcel(patients, sessions, practitioners, encounters, questionnaires, commons,
-                    ensureFileName(dest));
+            writeExcelInBackground("Save", commons, ensureFileName(dest), file ->
+                    new Alert(Alert.AlertType.INFORMATION, "Saved: " + file.getAbsolutePath(), ButtonType.OK)
+                            .showAndWait());
+        } catch (Exception ex) {
+            new Alert(Alert.AlertType.ERROR, "Save failed: " + ex.getMessage(), ButtonType.OK).showAndWait();
+        }
+    }
+
+    /**
+     * Writes the workbook on the background worker from snapshots of the tables taken here, then
+     * runs {@code onWritten} and updates the status bar on the FX thread.
+     */
+    private void writeExcelInBackground(String name, List<CommonRow> commons, File target,
+                                        java.util.function.Consumer<File> onWritten) {
+        List<Patient> patientSnapshot = List.copyOf(patients);
+        List<EventSession> sessionSnapshot = List.copyOf(sessions);
+        List<com.aac.kpi.model.Practitioner> practitionerSnapshot = List.copyOf(practitioners);
+        List<com.aac.kpi.model.Encounter> encounterSnapshot = List.copyOf(encounters);
+        List<com.aac.kpi.model.QuestionnaireResponse> questionnaireSnapshot = List.copyOf(questionnaires);
+        List<CommonRow> commonSnapshot = List.copyOf(commons);
+        BackgroundTasks.run(name, statusLabel, progress -> {
+            progress.phase("Writing " + target.getName());
+            return ExcelWriter.saveToExcel(patientSnapshot, sessionSnapshot, practitionerSnapshot,
+                    encounterSnapshot, questionnaireSnapshot, commonSnapshot, target);
+        }, file -> {
             AppState.setDirty(false);
-            new Alert(Alert.AlertType.INFORMATION, "Saved: " + file.getAbsolutePath(), ButtonType.OK).showAndWait();
+            onWritten.accept(file);
             statusLabel.setText(String.format(
                     "Generated %d patients | %d sessions | %d practitioners | %d encounters | %d questionnaires | Last export: %s",
                     patients.size(), sessions.size(), practitioners.size(), encounters.size(), questionnaires.size(),
                     ExcelWriter.nowStamp()));
             if (jsonController != null)
                 jsonController.setExcelPath(file);
-        } catch (Exception ex) {
-            new Alert(Alert.AlertType.ERROR, "Save failed: " + ex.getMessage(), ButtonType.OK).showAndWait();
-        }
+        });
+    }
+
+    @FXML
+    private void onCancelTask() {
+        BackgroundTasks.cancelAll();
     }
 
     private java.util.List<com.aac.kpi.model.CommonRow> commonControllerItems() {
@@ -562,6 +589,15 @@ public class MainController {
             practitionerController.refreshTable();
     }
 
+    private static void loadRulesConfig() {
+        try {
+            AppState.setRulesConfig(RulesConfigService.load());
+        } catch (IllegalArgumentException ex) {
+            // Invalid KPI tiers: keep the built-in config until the file is fixed
+            System.err.println("[MainController] " + ex.getMessage());
+        }
+    }
+
     private MasterDataService.MasterData ensureMasterData() {
         MasterDataService.MasterData data = AppState.getMasterData();
         if (data == null) {
@@ -2,10 +2,11 @@ package com.aac.kpi.controller;
 
 import com.aac.kpi.model.*;
 import com.aac.kpi.service.AppState;
+import com.aac.kpi.service.WorkbookSnapshot;
 import com.aac.kpi.service.CommonBuilderService;
-import com.aac.kpi.service.ExcelReader;
 import com.aac.kpi.service.ExcelWriter;
 import com.aac.kpi.controller.KpiRegistrationDialog;
+import com.aac.kpi.ui.BackgroundTasks;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
@@ -14,6 +15,7 @@ import javafx.scene.layout.GridPane;
 import javafx.stage.FileChooser;
 
 import java.io.File;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -100,11 +102,13 @@ public class CommonController {
         fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel", "*.xlsx"));
         File f = fc.showOpenDialog(table.getScene() != null ? table.getScene().getWindow() : null);
         if (f == null) return;
-        try {
-            List<CommonRow> list = ExcelReader.readCommon(f);
+        BackgroundTasks.run("Load Common", statusLabel, progress -> {
+            progress.phase("Reading " + f.getName());
+            return WorkbookSnapshot.load(f, EnumSet.of(WorkbookSnapshot.Part.COMMON)).commonRows();
+        }, list -> {
             if (!list.isEmpty()) commons.setAll(list);
             updateStatus();
-        } catch (Exception ex) { showAlert("Failed to load Common: " + ex.getMessage()); }
+        });
     }
 
     @FXML private void onAnalyze() {
@@ -157,9 +161,21 @@ public class CommonController {
             } else {
                 com.aac.kpi.service.AppState.setVolunteerPractitionerCount(0);
             }
-            File file = ExcelWriter.saveToExcel(patients, sessions, practitioners, encounters, questionnaires, commons, dest);
-            showInfo("Exported to: " + file.getAbsolutePath());
-            updateStatus();
+            File target = dest;
+            List<Patient> patientSnapshot = List.copyOf(patients);
+            List<EventSession> sessionSnapshot = List.copyOf(sessions);
+            List<Practitioner> practitionerSnapshot = practitioners != null ? List.copyOf(practitioners) : List.of();
+            List<Encounter> encounterSnapshot = List.copyOf(encounters);
+            List<QuestionnaireResponse> questionnaireSnapshot = List.copyOf(questionnaires);
+            List<CommonRow> commonSnapshot = List.copyOf(commons);
+            BackgroundTasks.run("Export", statusLabel, progress -> {
+                progress.phase("Writing " + target.getName());
+                return ExcelWriter.saveToExcel(patientSnapshot, sessionSnapshot, practitionerSnapshot, encounterSnapshot,
+                        questionnaireSnapshot, commonSnapshot, target);
+            }, file -> {
+                showInfo("Exported to: " + file.getAbsolutePath());
+                updateStatus();
+            });
         } catch (Exception ex) { showAlert("Export failed: " + ex.getMessage()); }
     }
 
@@ -5,9 +5,10 @@ import com.aac.kpi.model.EventSession;
 import com.aac.kpi.model.Patient;
 import com.aac.kpi.model.Practitioner;
 import com.aac.kpi.service.AppState;
-import com.aac.kpi.service.ExcelReader;
+import com.aac.kpi.service.WorkbookSnapshot;
 import com.aac.kpi.service.ExcelWriter;
 import com.aac.kpi.service.RandomDataUtil;
+import com.aac.kpi.ui.BackgroundTasks;
 import com.aac.kpi.ui.TableHighlightSupport;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -89,19 +90,24 @@ public class EncounterMasterController {
         if (opt.isEmpty()) return;
         var cfg = opt.get();
         LocalDate start = cfg.start; LocalDate end = cfg.end;
-        List<Encounter> list = new ArrayList<>();
         String selectedPurpose = purpose.get().getValue();
-        for (int i = 0; i < cfg.total; i++) list.add(randomEncounter(start, end, selectedPurpose));
-        // Link each generated encounter to a patient (round-robin) so resident_report rules apply
-        if (patients != null && !patients.isEmpty()) {
-            for (int i = 0; i < list.size(); i++) {
-                String pid = patients.get(i % patients.size()).getPatientId();
-                list.get(i).setEncounterPatientReference(pid);
+        List<String> patientIds = patients == null ? List.of() : patients.stream().map(Patient::getPatientId).toList();
+        BackgroundTasks.run("Generate encounters", statusLabel, progress -> {
+            progress.phase("Generating encounters");
+            List<Encounter> list = new ArrayList<>();
+            for (int i = 0; i < cfg.total; i++) list.add(randomEncounter(start, end, selectedPurpose));
+            // Link each generated encounter to a patient (round-robin) so resident_report rules apply
+            if (!patientIds.isEmpty()) {
+                for (int i = 0; i < list.size(); i++) {
+                    list.get(i).setEncounterPatientReference(patientIds.get(i % patientIds.size()));
+                }
             }
-        }
-        encounters.addAll(list);
-        markGeneratedEncounters(list);
-        updateStatus();
+            return list;
+        }, list -> {
+            encounters.addAll(list);
+            markGeneratedEncounters(list);
+            updateStatus();
+        });
     }
 
     private Encounter randomEncounter(LocalDate startDate, LocalDate endDate, String purpose) {
@@ -123,12 +129,14 @@ public class EncounterMasterController {
         fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel", "*.xlsx"));
         File f = fc.showOpenDialog(table.getScene() != null ? table.getScene().getWindow() : null);
         if (f == null) return;
-        try {
-            List<Encounter> list = ExcelReader.readEncounters(f);
+        BackgroundTasks.run("Load encounters", statusLabel, progress -> {
+            progress.phase("Reading " + f.getName());
+            return WorkbookSnapshot.load(f, EnumSet.of(WorkbookSnapshot.Part.ENCOUNTERS)).encounters();
+        }, list -> {
             if (!list.isEmpty()) encounters.setAll(list);
             updateStatus();
             clearGeneratedEncountersHighlight();
-        } catch (Exception ex) { showAlert("Failed to load encounters: " + ex.getMessage()); }
+        });
     }
 
     @FXML private void onAnalyze() {
@@ -145,21 +153,29 @@ public class EncounterMasterController {
     }
 
     @FXML private void onExport() {
-        try {
-            java.io.File dest = com.aac.kpi.service.AppState.getCurrentExcelFile();
-            if (dest == null) {
-                FileChooser fc = new FileChooser();
-                fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel", "*.xlsx"));
-                fc.setInitialFileName("KPI_Data.xlsx");
-                dest = fc.showSaveDialog(table.getScene().getWindow());
-                if (dest == null) return;
-            }
-            File file = ExcelWriter.saveToExcel(patients, sessions, practitioners, encounters, java.util.List.of(), java.util.List.of(), dest);
+        java.io.File dest = com.aac.kpi.service.AppState.getCurrentExcelFile();
+        if (dest == null) {
+            FileChooser fc = new FileChooser();
+            fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel", "*.xlsx"));
+            fc.setInitialFileName("KPI_Data.xlsx");
+            dest = fc.showSaveDialog(table.getScene().getWindow());
+            if (dest == null) return;
+        }
+        File target = dest;
+        List<Patient> patientSnapshot = List.copyOf(patients);
+        List<EventSession> sessionSnapshot = List.copyOf(sessions);
+        List<Practitioner> practitionerSnapshot = List.copyOf(practitioners);
+        List<Encounter> encounterSnapshot = List.copyOf(encounters);
+        BackgroundTasks.run("Export", statusLabel, progress -> {
+            progress.phase("Writing " + target.getName());
+            return ExcelWriter.saveToExcel(patientSnapshot, sessionSnapshot, practitionerSnapshot, encounterSnapshot,
+                    java.util.List.of(), java.util.List.of(), target);
+        }, file -> {
+            com.aac.kpi.service.AppState.setDirty(false);
             showInfo("Exported to: " + file.getAbsolutePath());
             statusLabel.setText(String.format("Generated %d patients | %d sessions | %d practitioners | %d encounters | Last export: %s",
                     patients.size(), sessions.size(), practitioners.size(), encounters.size(), ExcelWriter.nowStamp()));
-            com.aac.kpi.service.AppState.setDirty(false);
-        } catch (Exception ex) { showAlert("Export failed: " + ex.getMessage()); }
+        });
     }
 
     public void refreshTable() { if (table != null) table.refresh(); }
@@ -3,10 +3,11 @@ package com.aac.kpi.controller;
 import com.aac.kpi.model.EventSession;
 import com.aac.kpi.model.Patient;
 import com.aac.kpi.service.AppState;
-import com.aac.kpi.service.ExcelReader;
+import com.aac.kpi.service.WorkbookSnapshot;
 import com.aac.kpi.service.RandomDataUtil;
 import com.aac.kpi.service.LinkService;
 import com.aac.kpi.service.ValidatorService;
+import com.aac.kpi.ui.BackgroundTasks;
 import com.aac.kpi.ui.TableHighlightSupport;
 import com.aac.kpi.util.StringUtils;
 import javafx.collections.ObservableList;
@@ -163,11 +164,29 @@ public class EventSessionController {
         confirm.setHeaderText(null);
         Optional<ButtonType> ans = confirm.showAndWait();
         boolean append = ans.isPresent() && ans.get() == ButtonType.OK;
-        if (!append) {
-            sessions.clear();
-            clearSessionHighlights();
-        }
 
+        List<String> patientIds = patients.stream().map(Patient::getPatientId).toList();
+        String sessionMode = mode.get().getValue();
+        int sessionsPerPatient = baseCount;
+        BackgroundTasks.run("Generate sessions", statusLabel, progress -> {
+            progress.phase("Generating sessions");
+            return generateSessions(patientIds, kpi, sessionsPerPatient, sessionMode, range, progress);
+        }, newSessions -> {
+            if (append) {
+                sessions.addAll(newSessions);
+            } else {
+                clearSessionHighlights();
+                sessions.setAll(newSessions);
+            }
+            LinkService.fillPatientAttendedRefs(patients, sessions);
+            markGeneratedSessions(newSessions);
+            updateStatus();
+        });
+    }
+
+    private static List<EventSession> generateSessions(List<String> patientIds, String kpi, int baseCount,
+                                                       String sessionMode, DateRange range,
+                                                       BackgroundTasks.Progress progress) {
         List<EventSession> newSessions = new ArrayList<>();
         Random rnd = new Random();
         LocalDateTime fixedStart = range.startDate().atTime(9, 0);
@@ -177,7 +196,9 @@ public class EventSessionController {
         int durationValue = (int) Math.max(1, durationMinutes);
         String startText = RandomDataUtil.formatEventDateTime(fixedStart);
         String endText = RandomDataUtil.formatEventDateTime(fixedEnd);
-        for (Patient p : patients) {
+        for (int n = 0; n < patientIds.size(); n++) {
+            progress.checkCancelled();
+            progress.progress(n, patientIds.size());
             int count = baseCount;
             if ("Befriending".equals(kpi)) count += rnd.nextInt(10); // 52..61
             if ("Budding".equals(kpi)) count += rnd.nextInt(10); // 12..21
@@ -186,20 +207,17 @@ public class EventSessionController {
                 s.setCompositionId(com.aac.kpi.service.RandomDataUtil.uuid32());
                 s.setNumberOfEventSessions(1);
                 s.setEventSessionId1(RandomDataUtil.randomEventId());
-                s.setEventSessionMode1(mode.get().getValue());
+                s.setEventSessionMode1(sessionMode);
                 s.setEventSessionStartDate1(startText);
                 s.setEventSessionEndDate1(endText);
                 s.setEventSessionDuration1(durationValue);
                 s.setEventSessionVenue1(RandomDataUtil.randomVenue());
                 s.setEventSessionCapacity1(RandomDataUtil.randomCapacity());
-                s.setEventSessionPatientReferences1(p.getPatientId());
+                s.setEventSessionPatientReferences1(patientIds.get(n));
                 newSessions.add(s);
             }
         }
-        sessions.addAll(newSessions);
-        LinkService.fillPatientAttendedRefs(patients, sessions);
-        markGeneratedSessions(newSessions);
-        updateStatus();
+        return newSessions;
     }
 
     @FXML
@@ -208,15 +226,15 @@ public class EventSessionController {
         fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel", "*.xlsx"));
         File f = fc.showOpenDialog(table.getScene() != null ? table.getScene().getWindow() : null);
         if (f == null) return;
-        try {
-            List<EventSession> list = ExcelReader.readEventSessions(f);
+        BackgroundTasks.run("Load sessions", statusLabel, progress -> {
+            progress.phase("Reading " + f.getName());
+            return WorkbookSnapshot.load(f, EnumSet.of(WorkbookSnapshot.Part.SESSIONS)).sessions();
+        }, list -> {
             sessions.setAll(list);
             LinkService.fillPatientAttendedRefs(patients, sessions);
             updateStatus();
             clearSessionHighlights();
-        } catch (Exception ex) {
-            showAlert("Failed to load sessions: " + ex.getMessage());
-        }
+        });
     }
 
     @FXML
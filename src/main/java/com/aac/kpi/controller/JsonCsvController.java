@@ -16,6 +16,8 @@ import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.io.StringReader;
@@ -31,6 +33,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 public class JsonCsvController {
     @FXML private TextField tfInputDir;
@@ -122,17 +125,26 @@ public class JsonCsvController {
     }
 
     private void processFolder(Path folder, Path output) throws IOException {
-        List<Path> jsonFiles = Files.list(folder)
-                .filter(p -> {
-                    String name = p.getFileName().toString().toLowerCase(Locale.ROOT);
-                    return name.endsWith(".json") && !name.startsWith("all_");
-                })
-                .sorted()
-                .toList();
-        if (jsonFiles.isEmpty()) {
+        List<Path> jsonFiles;
+        List<Path> ndjsonParts;
+        try (var files = Files.list(folder)) {
+            List<Path> all = files.sorted().toList();
+            jsonFiles = all.stream().filter(p -> {
+                String name = p.getFileName().toString().toLowerCase(Locale.ROOT);
+                return name.endsWith(".json") && !name.startsWith("all_");
+            }).toList();
+            ndjsonParts = all.stream().filter(p -> {
+                String name = p.getFileName().toString().toLowerCase(Locale.ROOT);
+                return (name.endsWith(".ndjson") || name.endsWith(".ndjson.gz")) && !name.startsWith("all_");
+            }).toList();
+        }
+        if (jsonFiles.isEmpty() && ndjsonParts.isEmpty()) {
             log("Skipping " + folder.getFileName() + ": no JSON files");
             return;
         }
+        if (!ndjsonParts.isEmpty() && !jsonFiles.isEmpty()) {
+            log("Using NDJSON parts in " + folder.getFileName() + "; ignoring " + jsonFiles.size() + " JSON file(s)");
+        }
         String timestamp = NAME_FMT.format(LocalDateTime.now());
         String sanitizedName = folder.getFileName().toString().replaceAll("[^A-Za-z0-9._-]", "_");
         String filePrefix = resolveFilePrefix(folder.getFileName().toString(), sanitizedName);
@@ -140,15 +152,20 @@ public class JsonCsvController {
         Path csv = output.resolve(fileName);
         try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
             writer.write("AAC_ID,Raw_Resource\n");
-            for (Path json : jsonFiles) {
-                String content = Files.readString(json);
-                JsonElement parsed = JsonParser.parseReader(lenientReader(content));
-                String normalizedJson = gson.toJson(parsed);
-                String aacId = findAacId(parsed).orElse("");
-                writer.write(quote(aacId));
-                writer.write(',');
-                writer.write(quote(toCsvSafe(normalizedJson)));
-                writer.write('\n');
+            if (!ndjsonParts.isEmpty()) {
+                // One report per non-blank line, parts in name (= report) order
+                for (Path part : ndjsonParts) {
+                    try (BufferedReader reader = openNdjson(part)) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            if (!line.isBlank()) writeRow(writer, line);
+                        }
+                    }
+                }
+            } else {
+                for (Path json : jsonFiles) {
+                    writeRow(writer, Files.readString(json));
+                }
             }
         }
         if (isAacFolder(folder)) {
@@ -157,6 +174,29 @@ public class JsonCsvController {
         log("Generated " + csv.getFileName());
     }
 
+    private BufferedReader openNdjson(Path part) throws IOException {
+        InputStream in = Files.newInputStream(part);
+        try {
+            if (part.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz")) {
+                in = new GZIPInputStream(in, 64 * 1024);
+            }
+            return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private void writeRow(BufferedWriter writer, String content) throws IOException {
+        JsonElement parsed = JsonParser.parseReader(lenientReader(content));
+        String normalizedJson = gson.toJson(parsed);
+        String aacId = findAacId(parsed).orElse("");
+        writer.write(quote(aacId));
+        writer.write(',');
+        writer.write(quote(toCsvSafe(normalizedJson)));
+        writer.write('\n');
+    }
+
     private String resolveFilePrefix(String folderName, String sanitizedFallback) {
         String lower = folderName.toLowerCase(Locale.ROOT);
         return switch (lower) {
@@ -1,5 +1,6 @@
 package com.aac.kpi.controller;
 
+import com.aac.kpi.converter.ReportOutput;
 import com.aac.kpi.model.CommonRow;
 import com.aac.kpi.model.Encounter;
 import com.aac.kpi.model.EventSession;
@@ -17,10 +18,6 @@ import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 
 import org.apache.poi.openxml4j.util.ZipSecureFile;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.File;
@@ -28,6 +25,10 @@ import java.io.FileInputStream;
 import java.io.IOException;
 
 public class JsonExportController {
+    private static final String OUTPUT_FILES = "One JSON file per report";
+    private static final String OUTPUT_NDJSON = "NDJSON per family";
+    private static final String OUTPUT_NDJSON_GZIP = "NDJSON per family (gzip)";
+
     @FXML private TextField jarPathField;
     @FXML private Button jarBrowseButton;
     @FXML private TextField excelPathField;
@@ -41,10 +42,16 @@ public class JsonExportController {
     @FXML private TextField eventCountField;
     @FXML private TextField organizationCountField;
     @FXML private TextField locationCountField;
+    @FXML private ComboBox<String> outputFormatBox;
 
     @FXML private Button autoFillButton;
     @FXML private Button runButton;
     @FXML private Button useCurrentExcelButton;
+    @FXML private Button runFromDataButton;
+    @FXML private Button cancelButton;
+    @FXML private CheckBox saveExcelCheckBox;
+    @FXML private CheckBox externalJarCheckBox;
+    @FXML private ProgressBar progressBar;
 
     @FXML private TextArea logArea;
     @FXML private Label statusLabel;
@@ -56,7 +63,10 @@ public class JsonExportController {
     private ObservableList<QuestionnaireResponse> questionnaires;
     private ObservableList<CommonRow> commonRows;
 
+    private Task<JsonExportService.Result> currentTask;
+
     private final FileChooser excelChooser = new FileChooser();
+    private final FileChooser excelCopyChooser = new FileChooser();
     private final FileChooser jarChooser = new FileChooser();
     private final DirectoryChooser directoryChooser = new DirectoryChooser();
 
@@ -75,6 +85,9 @@ public class JsonExportController {
         directoryChooser.setTitle("Select output folder");
         excelChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel Files", "*.xlsx", "*.xls"));
         excelChooser.setTitle("Select KPI Excel");
+        excelCopyChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel Files", "*.xlsx"));
+        excelCopyChooser.setTitle("Save Excel copy");
+        excelCopyChooser.setInitialFileName("KPI_Data.xlsx");
         jarChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("JAR Files", "*.jar"));
         jarChooser.setTitle("Select converter JAR");
         updateCountsFromData();
@@ -87,6 +100,12 @@ public class JsonExportController {
         statusLabel.setText("Ready to export KPI JSON");
         setDefaultCounts();
         setDefaultJarPath();
+        externalJarCheckBox.setSelected(AppState.isUseExternalJsonConverter());
+        outputFormatBox.getItems().setAll(OUTPUT_FILES, OUTPUT_NDJSON, OUTPUT_NDJSON_GZIP);
+        ReportOutput output = AppState.getJsonReportOutput();
+        outputFormatBox.setValue(!output.isNdjson() ? OUTPUT_FILES : output.gzip() ? OUTPUT_NDJSON_GZIP : OUTPUT_NDJSON);
+        cancelButton.setDisable(true);
+        progressBar.setVisible(false);
     }
 
     public void setExcelPath(File file) {
@@ -143,7 +162,8 @@ public class JsonExportController {
         try {
             File excel = requireFile(excelPathField.getText(), "Excel input file");
             File outputFolder = requireDirectory(outputFolderField.getText(), "Output folder");
-            File jarFile = requireFile(jarPathField.getText(), "Converter JAR");
+            boolean external = externalJarCheckBox.isSelected();
+            File jarFile = external ? requireFile(jarPathField.getText(), "Converter JAR") : null;
 
             int aacCount = parseCountField(aacCountField.getText(), "AAC count");
             int residentCount = parseCountField(residentCountField.getText(), "Resident count");
@@ -159,7 +179,14 @@ public class JsonExportController {
                 return;
             }
 
-            AppState.setJsonConverterJarPath(jarFile.getAbsolutePath());
+            AppState.setUseExternalJsonConverter(external);
+            AppState.setJsonReportOutput(selectedOutput());
+            if (external && AppState.getJsonReportOutput().isNdjson()) {
+                appendLog("The converter JAR always writes one JSON file per report; NDJSON output is ignored.");
+            }
+            if (jarFile != null) {
+                AppState.setJsonConverterJarPath(jarFile.getAbsolutePath());
+            }
 
             Task<JsonExportService.Result> task = new Task<>() {
                 @Override
@@ -173,45 +200,138 @@ public class JsonExportController {
                             volunteerCount,
                             eventCount,
                             organizationCount,
-                            locationCount);
+                            locationCount,
+                            (step, completed, total) -> {
+                                updateMessage(step + "…");
+                                updateProgress(completed, total);
+                            },
+                            this::isCancelled);
                     updateMessage("Completed with exit code " + result.getExitCode());
                     return result;
                 }
             };
 
-            task.setOnRunning(e -> {
-                runButton.setDisable(true);
-                autoFillButton.setDisable(true);
-                statusLabel.setText("Running JSON conversion...");
-            });
-            task.setOnSucceeded(e -> {
-                JsonExportService.Result result = task.getValue();
-                appendLog("Command: " + result.getCommand());
-                appendLog(result.getOutput());
-                if (result.isSuccess()) {
-                    statusLabel.setText("JSON export succeeded");
-                } else {
-                    statusLabel.setText("JSON export failed (exit " + result.getExitCode() + ")");
-                    showAlert("JSON converter exited with code " + result.getExitCode());
+            bindExportTask(task);
+            new Thread(task, "JsonExportRunner").start();
+        } catch (IllegalArgumentException ex) {
+            showAlert(ex.getMessage());
+        }
+    }
+
+    @FXML
+    private void onRunFromData() {
+        try {
+            File outputFolder = requireDirectory(outputFolderField.getText(), "Output folder");
+            File excelCopy = null;
+            if (saveExcelCheckBox != null && saveExcelCheckBox.isSelected()) {
+                // Ask where to save rather than reusing the Excel input field; the save dialog confirms overwrites
+                excelCopyChooser.setInitialDirectory(outputFolder);
+                excelCopy = excelCopyChooser.showSaveDialog(outputFolderField.getScene().getWindow());
+                if (excelCopy == null) {
+                    return;
                 }
-                runButton.setDisable(false);
-                autoFillButton.setDisable(false);
-            });
-            task.setOnFailed(e -> {
-                Throwable t = task.getException();
-                appendLog("Error: " + (t != null ? t.getMessage() : "unknown"));
-                statusLabel.setText("JSON export failed");
-                showAlert("JSON export failed: " + (t == null ? "unknown error" : t.getMessage()));
-                runButton.setDisable(false);
-                autoFillButton.setDisable(false);
-            });
+            }
+            File excelTarget = excelCopy;
+            AppState.setJsonReportOutput(selectedOutput());
 
+            // Snapshot the tables on the FX thread; the export itself runs in the background
+            java.util.List<Patient> patientSnapshot = java.util.List.copyOf(patients);
+            java.util.List<EventSession> sessionSnapshot = java.util.List.copyOf(sessions);
+            java.util.List<Practitioner> practitionerSnapshot = java.util.List.copyOf(practitioners);
+            java.util.List<Encounter> encounterSnapshot = java.util.List.copyOf(encounters);
+            java.util.List<QuestionnaireResponse> questionnaireSnapshot = java.util.List.copyOf(questionnaires);
+            java.util.List<CommonRow> commonSnapshot = java.util.List.copyOf(commonRows);
+
+            Task<JsonExportService.Result> task = new Task<>() {
+                @Override
+                protected JsonExportService.Result call() {
+                    updateMessage("Converting current data…");
+                    return JsonExportService.runInProcess(
+                            patientSnapshot,
+                            sessionSnapshot,
+                            practitionerSnapshot,
+                            encounterSnapshot,
+                            questionnaireSnapshot,
+                            commonSnapshot,
+                            outputFolder,
+                            excelTarget,
+                            (step, completed, total) -> {
+                                updateMessage(step + "…");
+                                updateProgress(completed, total);
+                            },
+                            this::isCancelled);
+                }
+            };
+            bindExportTask(task);
             new Thread(task, "JsonExportRunner").start();
         } catch (IllegalArgumentException ex) {
             showAlert(ex.getMessage());
         }
     }
 
+    @FXML
+    private void onCancelExport() {
+        Task<JsonExportService.Result> task = currentTask;
+        if (task != null && task.isRunning()) {
+            task.cancel();
+            appendLog("Cancelling JSON export…");
+        }
+    }
+
+    private void bindExportTask(Task<JsonExportService.Result> task) {
+        currentTask = task;
+        task.setOnRunning(e -> {
+            setRunning(true);
+            statusLabel.textProperty().bind(task.messageProperty());
+            progressBar.progressProperty().bind(task.progressProperty());
+        });
+        task.setOnSucceeded(e -> {
+            setRunning(false);
+            JsonExportService.Result result = task.getValue();
+            appendLog("Command: " + result.getCommand());
+            appendLog(result.getOutput());
+            if (result.isSuccess()) {
+                statusLabel.setText("JSON export succeeded");
+            } else if (result.getExitCode() == JsonExportService.CANCELLED_EXIT_CODE) {
+                statusLabel.setText("JSON export cancelled");
+            } else {
+                statusLabel.setText("JSON export failed (exit " + result.getExitCode() + ")");
+                showAlert("JSON converter exited with code " + result.getExitCode());
+            }
+        });
+        task.setOnCancelled(e -> {
+            setRunning(false);
+            statusLabel.setText("JSON export cancelled");
+        });
+        task.setOnFailed(e -> {
+            setRunning(false);
+            Throwable t = task.getException();
+            appendLog("Error: " + (t != null ? t.getMessage() : "unknown"));
+            statusLabel.setText("JSON export failed");
+            showAlert("JSON export failed: " + (t == null ? "unknown error" : t.getMessage()));
+        });
+    }
+
+    private void setRunning(boolean running) {
+        if (!running) {
+            statusLabel.textProperty().unbind();
+            progressBar.progressProperty().unbind();
+            currentTask = null;
+        }
+        progressBar.setVisible(running);
+        runButton.setDisable(running);
+        runFromDataButton.setDisable(running);
+        autoFillButton.setDisable(running);
+        cancelButton.setDisable(!running);
+    }
+
+    private ReportOutput selectedOutput() {
+        String value = outputFormatBox.getValue();
+        if (OUTPUT_NDJSON.equals(value)) return ReportOutput.ndjson(false, 0);
+        if (OUTPUT_NDJSON_GZIP.equals(value)) return ReportOutput.ndjson(true, 0);
+        return ReportOutput.FILES;
+    }
+
     private File requireFile(String path, String name) {
         if (path == null || path.isBlank()) {
             throw new IllegalArgumentException(name + " is required.");
@@ -289,46 +409,8 @@ public class JsonExportController {
         ZipSecureFile.setMinInflateRatio(0.001d);
         try (FileInputStream fis = new FileInputStream(excel);
              XSSFWorkbook wb = new XSSFWorkbook(fis)) {
-            Sheet sheet = wb.getSheet("Common");
-            java.util.Map<String, Integer> counts = new java.util.HashMap<>();
-            if (sheet == null) return counts;
-            java.util.Set<String> sections = java.util.Set.of(
-                    "aac_report",
-                    "resident_report",
-                    "volunteer_attendance_report",
-                    "event_report",
-                    "organization_report",
-                    "location_report"
-            );
-            String currentSection = null;
-            boolean skipHeader = false;
-            for (Row row : sheet) {
-                Cell first = row.getCell(0);
-                String text = first != null ? first.toString().trim() : "";
-                if (!text.isBlank() && sections.contains(text)) {
-                    currentSection = text;
-                    skipHeader = true;
-                    continue;
-                }
-                if (currentSection == null) continue;
-                if (skipHeader) {
-                    skipHeader = false;
-                    continue;
-                }
-                if (isRowEmpty(row)) continue;
-                counts.merge(currentSection, 1, Integer::sum);
-            }
-            return counts;
-        }
-    }
-
-    private boolean isRowEmpty(Row row) {
-        for (Cell cell : row) {
-            if (cell == null) continue;
-            if (cell.getCellType() == CellType.BLANK) continue;
-            if (!cell.toString().isBlank()) return false;
+            return JsonExportService.countCommonSections(wb);
         }
-        return true;
     }
 
     private void appendLog(String text) {
@@ -42,6 +42,7 @@ public class KpiSettingsDialog extends Dialog<KpiConfig> {
                 out.frailMinInPerson = spFrail.getValue();
                 out.buddyingMinInPerson = spBuddy.getValue();
                 out.befriendingMinInPerson = spBef.getValue();
+                out.tiers = cfg.tiers;
                 return out;
             }
         });
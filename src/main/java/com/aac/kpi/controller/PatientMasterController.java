@@ -2,6 +2,7 @@ package com.aac.kpi.controller;
 
 import com.aac.kpi.model.Patient;
 import com.aac.kpi.service.*;
+import com.aac.kpi.ui.BackgroundTasks;
 import com.aac.kpi.ui.TableHighlightSupport;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -16,14 +17,19 @@ import java.io.File;
 import java.util.*;
 
 public class PatientMasterController {
+    private static final java.time.LocalDate FY_START = java.time.LocalDate.of(2025, 4, 1);
+    private static final java.time.LocalDate FY_END = java.time.LocalDate.of(2026, 3, 31);
+
     private ObservableList<Patient> patients;
     private ObservableList<com.aac.kpi.model.EventSession> sessions;
     private ObservableList<com.aac.kpi.model.Practitioner> practitioners;
     private Runnable clearAllHandler;
     private Label statusLabel;
     private final Set<Patient> highlightedGeneratedPatients = new HashSet<>();
+    private IncrementalKpiEngine liveKpi;
 
     @FXML private TableView<Patient> table;
+    @FXML private CheckBox liveKpiCheckBox;
     @FXML private TableColumn<Patient, String> cPatientId;
     @FXML private TableColumn<Patient, String> cIdentifier;
     @FXML private TableColumn<Patient, String> cBirthdate;
@@ -52,6 +58,23 @@ public class PatientMasterController {
         table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         installCopyHandler();
         TableHighlightSupport.install(table, highlightedGeneratedPatients);
+        if (liveKpiCheckBox != null) {
+            liveKpiCheckBox.selectedProperty().addListener((obs, was, on) -> setLiveKpi(on));
+        }
+    }
+
+    /**
+     * Live KPI keeps kpiType/kpiGroup in sync with edits instead of waiting for Analyze. Off by
+     * default: scenario generation writes its own kpiType overrides that a recompute would replace.
+     */
+    private void setLiveKpi(boolean on) {
+        if (on) {
+            if (liveKpi == null) liveKpi = new IncrementalKpiEngine(patients, sessions, FY_START, FY_END);
+            liveKpi.start();
+            refreshTable();
+        } else if (liveKpi != null) {
+            liveKpi.stop();
+        }
     }
 
     @FXML
@@ -124,22 +147,27 @@ public class PatientMasterController {
         if (res.isEmpty()) return;
         GeneratePatientsDialog.Config cfg = res.get();
 
-        List<Patient> newOnes = new ArrayList<>();
-        // Fixed age buckets
-        for (var e : cfg.fixedAges.entrySet()) {
-            int age = e.getKey();
-            int count = e.getValue();
-            for (int i = 0; i < count; i++) newOnes.add(newPatientWith(RandomDataUtil.dobForExactAge(age), cfg.nricMode));
-        }
-        // Random-age bucket in given range
-        for (int i = 0; i < Math.max(0, cfg.randomCount); i++) {
-            newOnes.add(newPatientWith(RandomDataUtil.randomDOBBetweenAges(cfg.randomMinAge, cfg.randomMaxAge), cfg.nricMode));
-        }
-
-        patients.addAll(newOnes);
-        markGeneratedPatients(newOnes);
-        com.aac.kpi.service.AppState.setDirty(true);
-        updateStatus();
+        BackgroundTasks.run("Generate patients", statusLabel, progress -> {
+            progress.phase("Generating patients");
+            List<Patient> newOnes = new ArrayList<>();
+            // Fixed age buckets
+            for (var e : cfg.fixedAges.entrySet()) {
+                int age = e.getKey();
+                int count = e.getValue();
+                for (int i = 0; i < count; i++) newOnes.add(newPatientWith(RandomDataUtil.dobForExactAge(age), cfg.nricMode));
+                progress.checkCancelled();
+            }
+            // Random-age bucket in given range
+            for (int i = 0; i < Math.max(0, cfg.randomCount); i++) {
+                newOnes.add(newPatientWith(RandomDataUtil.randomDOBBetweenAges(cfg.randomMinAge, cfg.randomMaxAge), cfg.nricMode));
+            }
+            return newOnes;
+        }, newOnes -> {
+            patients.addAll(newOnes);
+            markGeneratedPatients(newOnes);
+            com.aac.kpi.service.AppState.setDirty(true);
+            updateStatus();
+        });
     }
 
     private Patient newPatientWith(String birthDate, com.aac.kpi.service.NricMode nricMode) {
@@ -161,61 +189,80 @@ public class PatientMasterController {
         fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel", "*.xlsx"));
         File f = fc.showOpenDialog(table.getScene() != null ? table.getScene().getWindow() : null);
         if (f == null) return;
-        try {
-            List<Patient> list = ExcelReader.readPatients(f);
+        BackgroundTasks.run("Load patients", statusLabel, progress -> {
+            progress.phase("Reading " + f.getName());
+            return WorkbookSnapshot.load(f, EnumSet.of(WorkbookSnapshot.Part.PATIENTS)).patients();
+        }, list -> {
             patients.setAll(list);
             com.aac.kpi.service.AppState.setDirty(false);
             updateStatus();
             clearGeneratedPatientsHighlight();
-        } catch (Exception ex) {
-            showAlert("Failed to load: " + ex.getMessage());
-        }
+        });
     }
 
     @FXML
     private void onAnalyze() {
-        List<String> issues = ValidatorService.validatePatients(patients);
-        StringBuilder msg = new StringBuilder();
-        if (!issues.isEmpty()) {
-            msg.append(String.join("\n", issues)).append("\n\n");
-        }
-        // Compute KPI classification for FY 2025-04-01..2026-03-31
-        java.time.LocalDate fyStart = java.time.LocalDate.of(2025,4,1);
-        java.time.LocalDate fyEnd = java.time.LocalDate.of(2026,3,31);
-        com.aac.kpi.service.KpiService.computeForFY(patients, (java.util.List) sessions, fyStart, fyEnd);
-        refreshTable();
-        long robust = patients.stream().filter(p -> "Robust".equals(p.getKpiType())).count();
-        long robustG2 = patients.stream().filter(p -> "Robust (Group 2 – CFS 6-9)".equals(p.getKpiType())).count();
-        long frail = patients.stream().filter(p -> "Frail".equals(p.getKpiType())).count();
-        long frailG2 = patients.stream().filter(p -> "Frail (Group 2 – Very Frail)".equals(p.getKpiType())).count();
-        long buddy = patients.stream().filter(p -> p.getKpiType()!=null && p.getKpiType().startsWith("Buddying")).count();
-        long bef = patients.stream().filter(p -> p.getKpiType()!=null && p.getKpiType().startsWith("Befriending")).count();
-        msg.append(String.format("KPI: Robust=%d (G2=%d) | Frail=%d (G2=%d) | Buddy=%d | Bef=%d",
-                robust, robustG2, frail, frailG2, buddy, bef));
-        showInfo(msg.toString());
+        // Validate and classify off the FX thread; kpiType/kpiGroup are applied in one batch afterwards
+        List<Patient> patientSnapshot = List.copyOf(patients);
+        List<com.aac.kpi.model.EventSession> sessionSnapshot = List.copyOf(sessions);
+        com.aac.kpi.service.KpiConfig config = com.aac.kpi.service.AppState.getKpiConfig();
+        BackgroundTasks.run("Analyze", statusLabel, progress -> {
+            progress.phase("Validating");
+            List<String> issues = ValidatorService.validatePatients(patientSnapshot);
+            progress.phase("Classifying");
+            // Compute KPI classification for FY 2025-04-01..2026-03-31
+            return new AnalyzeResult(issues,
+                    KpiService.classifyAll(patientSnapshot, sessionSnapshot, FY_START, FY_END, config));
+        }, result -> {
+            result.classification().apply();
+            refreshTable();
+            List<String> issues = result.issues();
+            StringBuilder msg = new StringBuilder();
+            if (!issues.isEmpty()) {
+                msg.append(String.join("\n", issues)).append("\n\n");
+            }
+            long robust = patients.stream().filter(p -> "Robust".equals(p.getKpiType())).count();
+            long robustG2 = patients.stream().filter(p -> "Robust (Group 2 – CFS 6-9)".equals(p.getKpiType())).count();
+            long frail = patients.stream().filter(p -> "Frail".equals(p.getKpiType())).count();
+            long frailG2 = patients.stream().filter(p -> "Frail (Group 2 – Very Frail)".equals(p.getKpiType())).count();
+            long buddy = patients.stream().filter(p -> p.getKpiType()!=null && p.getKpiType().startsWith("Buddying")).count();
+            long bef = patients.stream().filter(p -> p.getKpiType()!=null && p.getKpiType().startsWith("Befriending")).count();
+            msg.append(String.format("KPI: Robust=%d (G2=%d) | Frail=%d (G2=%d) | Buddy=%d | Bef=%d",
+                    robust, robustG2, frail, frailG2, buddy, bef));
+            showInfo(msg.toString());
+        });
+    }
+
+    private record AnalyzeResult(List<String> issues, KpiService.Classification classification) {
     }
 
     @FXML
     private void onExport() {
-        try {
-            java.io.File dest = com.aac.kpi.service.AppState.getCurrentExcelFile();
-            if (dest == null) {
-                // If no known file, default to chooser to make intent clear
-                javafx.stage.FileChooser fc = new javafx.stage.FileChooser();
-                fc.getExtensionFilters().add(new javafx.stage.FileChooser.ExtensionFilter("Excel", "*.xlsx"));
-                fc.setInitialFileName("KPI_Data.xlsx");
-                dest = fc.showSaveDialog(table.getScene().getWindow());
-                if (dest == null) return;
-            }
-            com.aac.kpi.service.LinkService.fillPatientAttendedRefs(patients, sessions);
-            File file = ExcelWriter.saveToExcel(patients, sessions, practitioners, dest);
+        java.io.File dest = com.aac.kpi.service.AppState.getCurrentExcelFile();
+        if (dest == null) {
+            // If no known file, default to chooser to make intent clear
+            javafx.stage.FileChooser fc = new javafx.stage.FileChooser();
+            fc.getExtensionFilters().add(new javafx.stage.FileChooser.ExtensionFilter("Excel", "*.xlsx"));
+            fc.setInitialFileName("KPI_Data.xlsx");
+            dest = fc.showSaveDialog(table.getScene().getWindow());
+            if (dest == null) return;
+        }
+        com.aac.kpi.service.LinkService.fillPatientAttendedRefs(patients, sessions);
+        // Write from snapshots on the background worker; the tables stay editable meanwhile
+        File target = dest;
+        List<Patient> patientSnapshot = List.copyOf(patients);
+        List<com.aac.kpi.model.EventSession> sessionSnapshot = List.copyOf(sessions);
+        List<com.aac.kpi.model.Practitioner> practitionerSnapshot =
+                practitioners != null ? List.copyOf(practitioners) : List.of();
+        BackgroundTasks.run("Export", statusLabel, progress -> {
+            progress.phase("Writing " + target.getName());
+            return ExcelWriter.saveToExcel(patientSnapshot, sessionSnapshot, practitionerSnapshot, target);
+        }, file -> {
+            com.aac.kpi.service.AppState.setDirty(false);
             showInfo("Exported to: " + file.getAbsolutePath());
             statusLabel.setText(String.format("Generated %d patients | %d sessions | %d practitioners | Last export: %s",
                     patients.size(), sessions.size(), practitioners != null ? practitioners.size() : 0, ExcelWriter.nowStamp()));
-            com.aac.kpi.service.AppState.setDirty(false);
-        } catch (Exception ex) {
-            showAlert("Export failed: " + ex.getMessage());
-        }
+        });
     }
 
     private void updateStatus() {
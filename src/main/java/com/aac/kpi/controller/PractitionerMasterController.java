@@ -4,10 +4,11 @@ import com.aac.kpi.model.EventSession;
 import com.aac.kpi.model.Patient;
 import com.aac.kpi.model.Practitioner;
 import com.aac.kpi.service.AppState;
-import com.aac.kpi.service.ExcelReader;
+import com.aac.kpi.service.WorkbookSnapshot;
 import com.aac.kpi.service.ExcelWriter;
 import com.aac.kpi.service.NRICGeneratorUtil;
 import com.aac.kpi.service.RandomDataUtil;
+import com.aac.kpi.ui.BackgroundTasks;
 import com.aac.kpi.ui.TableHighlightSupport;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -82,12 +83,17 @@ public class PractitionerMasterController {
         if (res.isEmpty()) return;
         int n; try { n = Integer.parseInt(res.get()); } catch (Exception ex) { showAlert("Invalid number"); return; }
 
-        List<Practitioner> list = new ArrayList<>();
-        int startSuffix = 500 + new java.util.Random().nextInt(400);
-        for (int i = 0; i < n; i++) list.add(randomPractitioner(startSuffix + i));
-        practitioners.addAll(list);
-        markGeneratedPractitioners(list);
-        updateStatus();
+        BackgroundTasks.run("Generate practitioners", statusLabel, progress -> {
+            progress.phase("Generating practitioners");
+            List<Practitioner> list = new ArrayList<>();
+            int startSuffix = 500 + new java.util.Random().nextInt(400);
+            for (int i = 0; i < n; i++) list.add(randomPractitioner(startSuffix + i));
+            return list;
+        }, list -> {
+            practitioners.addAll(list);
+            markGeneratedPractitioners(list);
+            updateStatus();
+        });
     }
 
     private Practitioner randomPractitioner(int suffix) {
@@ -135,14 +141,14 @@ public class PractitionerMasterController {
         fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel", "*.xlsx"));
         File f = fc.showOpenDialog(table.getScene() != null ? table.getScene().getWindow() : null);
         if (f == null) return;
-        try {
-            java.util.List<Practitioner> list = ExcelReader.readPractitioners(f);
+        BackgroundTasks.run("Load practitioners", statusLabel, progress -> {
+            progress.phase("Reading " + f.getName());
+            return WorkbookSnapshot.load(f, EnumSet.of(WorkbookSnapshot.Part.PRACTITIONERS)).practitioners();
+        }, list -> {
             if (!list.isEmpty()) practitioners.setAll(list);
             updateStatus();
             clearGeneratedPractitionersHighlight();
-        } catch (Exception ex) {
-            showAlert("Failed to load practitioners: " + ex.getMessage());
-        }
+        });
     }
 
     @FXML private void onAnalyze() {
@@ -161,24 +167,29 @@ public class PractitionerMasterController {
     }
 
     @FXML private void onExport() {
-        try {
-            com.aac.kpi.service.LinkService.fillPatientAttendedRefs(patients, sessions);
-            java.io.File dest = com.aac.kpi.service.AppState.getCurrentExcelFile();
-            if (dest == null) {
-                FileChooser fc = new FileChooser();
-                fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel", "*.xlsx"));
-                fc.setInitialFileName("KPI_Data.xlsx");
-                dest = fc.showSaveDialog(table.getScene().getWindow());
-                if (dest == null) return;
-            }
-            File file = ExcelWriter.saveToExcel(patients, sessions, practitioners, java.util.List.of(), java.util.List.of(), java.util.List.of(), dest);
+        com.aac.kpi.service.LinkService.fillPatientAttendedRefs(patients, sessions);
+        java.io.File dest = com.aac.kpi.service.AppState.getCurrentExcelFile();
+        if (dest == null) {
+            FileChooser fc = new FileChooser();
+            fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel", "*.xlsx"));
+            fc.setInitialFileName("KPI_Data.xlsx");
+            dest = fc.showSaveDialog(table.getScene().getWindow());
+            if (dest == null) return;
+        }
+        File target = dest;
+        List<Patient> patientSnapshot = List.copyOf(patients);
+        List<EventSession> sessionSnapshot = List.copyOf(sessions);
+        List<Practitioner> practitionerSnapshot = List.copyOf(practitioners);
+        BackgroundTasks.run("Export", statusLabel, progress -> {
+            progress.phase("Writing " + target.getName());
+            return ExcelWriter.saveToExcel(patientSnapshot, sessionSnapshot, practitionerSnapshot,
+                    java.util.List.of(), java.util.List.of(), java.util.List.of(), target);
+        }, file -> {
+            com.aac.kpi.service.AppState.setDirty(false);
             showInfo("Exported to: " + file.getAbsolutePath());
             statusLabel.setText(String.format("Generated %d patients | %d sessions | %d practitioners | Last export: %s",
                     patients.size(), sessions.size(), practitioners.size(), ExcelWriter.nowStamp()));
-            com.aac.kpi.service.AppState.setDirty(false);
-        } catch (Exception ex) {
-            showAlert("Export failed: " + ex.getMessage());
-        }
+        });
     }
 
     public void refreshTable() { if (table != null) table.refresh(); }
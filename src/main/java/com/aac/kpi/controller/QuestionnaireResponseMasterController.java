@@ -2,9 +2,10 @@ package com.aac.kpi.controller;
 
 import com.aac.kpi.model.*;
 import com.aac.kpi.service.AppState;
-import com.aac.kpi.service.ExcelReader;
+import com.aac.kpi.service.WorkbookSnapshot;
 import com.aac.kpi.service.ExcelWriter;
 import com.aac.kpi.service.RandomDataUtil;
+import com.aac.kpi.ui.BackgroundTasks;
 import com.aac.kpi.ui.TableHighlightSupport;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -85,13 +86,18 @@ public class QuestionnaireResponseMasterController {
         var res = dlg.showAndWait();
         if (res.isEmpty()) return;
         var cfg = res.get();
-        List<QuestionnaireResponse> list = new ArrayList<>();
-        for (int i = 0; i < cfg.total; i++) {
-            list.add(randomQuestionnaire(i, cfg));
-        }
-        questionnaires.addAll(list);
-        markGeneratedQuestionnaires(list);
-        updateStatus();
+        BackgroundTasks.run("Generate questionnaires", statusLabel, progress -> {
+            progress.phase("Generating questionnaires");
+            List<QuestionnaireResponse> list = new ArrayList<>();
+            for (int i = 0; i < cfg.total; i++) {
+                list.add(randomQuestionnaire(i, cfg));
+            }
+            return list;
+        }, list -> {
+            questionnaires.addAll(list);
+            markGeneratedQuestionnaires(list);
+            updateStatus();
+        });
     }
 
     private QuestionnaireResponse randomQuestionnaire(int index, GenerateQuestionnairesDialog.Config cfg) {
@@ -130,12 +136,14 @@ public class QuestionnaireResponseMasterController {
         fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel", "*.xlsx"));
         File f = fc.showOpenDialog(table.getScene() != null ? table.getScene().getWindow() : null);
         if (f == null) return;
-        try {
-            List<QuestionnaireResponse> list = ExcelReader.readQuestionnaires(f);
+        BackgroundTasks.run("Load questionnaires", statusLabel, progress -> {
+            progress.phase("Reading " + f.getName());
+            return WorkbookSnapshot.load(f, EnumSet.of(WorkbookSnapshot.Part.QUESTIONNAIRES)).questionnaires();
+        }, list -> {
             if (!list.isEmpty()) questionnaires.setAll(list);
             updateStatus();
             clearGeneratedQuestionnairesHighlight();
-        } catch (Exception ex) { showAlert("Failed to load questionnaires: " + ex.getMessage()); }
+        });
     }
 
     @FXML private void onAnalyze() {
@@ -162,21 +170,30 @@ public class QuestionnaireResponseMasterController {
     }
 
     @FXML private void onExport() {
-        try {
-            java.io.File dest = com.aac.kpi.service.AppState.getCurrentExcelFile();
-            if (dest == null) {
-                FileChooser fc = new FileChooser();
-                fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel", "*.xlsx"));
-                fc.setInitialFileName("KPI_Data.xlsx");
-                dest = fc.showSaveDialog(table.getScene().getWindow());
-                if (dest == null) return;
-            }
-            File file = ExcelWriter.saveToExcel(patients, sessions, practitioners, encounters, questionnaires, java.util.List.of(), dest);
+        java.io.File dest = com.aac.kpi.service.AppState.getCurrentExcelFile();
+        if (dest == null) {
+            FileChooser fc = new FileChooser();
+            fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Excel", "*.xlsx"));
+            fc.setInitialFileName("KPI_Data.xlsx");
+            dest = fc.showSaveDialog(table.getScene().getWindow());
+            if (dest == null) return;
+        }
+        File target = dest;
+        List<Patient> patientSnapshot = List.copyOf(patients);
+        List<EventSession> sessionSnapshot = List.copyOf(sessions);
+        List<Practitioner> practitionerSnapshot = List.copyOf(practitioners);
+        List<Encounter> encounterSnapshot = List.copyOf(encounters);
+        List<QuestionnaireResponse> questionnaireSnapshot = List.copyOf(questionnaires);
+        BackgroundTasks.run("Export", statusLabel, progress -> {
+            progress.phase("Writing " + target.getName());
+            return ExcelWriter.saveToExcel(patientSnapshot, sessionSnapshot, practitionerSnapshot, encounterSnapshot,
+                    questionnaireSnapshot, java.util.List.of(), target);
+        }, file -> {
+            com.aac.kpi.service.AppState.setDirty(false);
             showInfo("Exported to: " + file.getAbsolutePath());
             statusLabel.setText(String.format("Generated %d patients | %d sessions | %d practitioners | %d encounters | %d questionnaires | Last export: %s",
                     patients.size(), sessions.size(), practitioners.size(), encounters.size(), questionnaires.size(), ExcelWriter.nowStamp()));
-            com.aac.kpi.service.AppState.setDirty(false);
-        } catch (Exception ex) { showAlert("Export failed: " + ex.getMessage()); }
+        });
     }
 
     public void refreshTable() { if (table != null) table.refresh(); }
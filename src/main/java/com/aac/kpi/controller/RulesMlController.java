@@ -9,7 +9,10 @@ import com.aac.kpi.service.KpiService;
 import com.aac.kpi.service.RulesConfigService;
 import com.aac.kpi.service.RuleGraphService;
 import com.aac.kpi.service.RulesSuggestionService;
+import com.aac.kpi.ui.BackgroundTasks;
+import javafx.animation.PauseTransition;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.fxml.FXML;
@@ -18,6 +21,7 @@ import javafx.scene.control.cell.TextFieldTableCell;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
+import javafx.util.Duration;
 import javafx.util.converter.IntegerStringConverter;
 
 import java.io.File;
@@ -81,8 +85,21 @@ public class RulesMlController {
     private ObservableList<Patient> patients;
     private ObservableList<EventSession> sessions;
     private File configFile;
+    // Not edited on this tab; carried over so saving keeps the file's values
+    private RulesConfig.ExportSettings exportSettings = new RulesConfig.ExportSettings();
+    // Tiers have no editor on this tab; kept from the loaded config so saving does not drop them
+    private List<RulesConfig.KpiTier> tiers = RulesConfig.defaultTiers();
     private final LocalDate fyStart = LocalDate.of(2025, 4, 1);
     private final LocalDate fyEnd = LocalDate.of(2026, 3, 31);
+    // Threshold edits re-run the preview once typing pauses, not on every keystroke
+    private final PauseTransition previewDelay = new PauseTransition(Duration.millis(300));
+    // Sessions tallied and patient inputs read for the preview; only rule tables change between
+    // threshold edits, so this is kept until the lists change or Refresh Preview is pressed
+    private KpiService.Evaluation previewInputs;
+    // Bumped whenever previewInputs is dropped, so an evaluation prepared from older lists is not kept
+    private int previewInputsVersion;
+    // Bumped per preview request; only the latest result is shown
+    private int previewRequest;
 
     public void init(ObservableList<Patient> patients,
                      ObservableList<EventSession> sessions) {
@@ -91,8 +108,22 @@ public class RulesMlController {
         configFile = RulesConfigService.defaultFile();
         setupTables();
         setupRuleGraphUi();
-        loadConfig(RulesConfigService.ensureFile());
+        try {
+            loadConfig(RulesConfigService.ensureFile());
+        } catch (IllegalArgumentException ex) {
+            showError(ex.getMessage() + "\nUsing the default rules until the config is fixed and saved.");
+            loadConfig(RulesConfig.defaults());
+        }
+        AppState.setKpiTiers(tiers);
         loadRuleGraph(RuleGraphService.ensureFile());
+        // The preview follows threshold edits live, reusing the prepared cohort
+        ListChangeListener<Object> invalidate = change -> dropPreviewInputs();
+        if (patients != null) patients.addListener(invalidate);
+        if (sessions != null) sessions.addListener(invalidate);
+        previewDelay.setOnFinished(e -> refreshPreview());
+        for (TextField field : List.of(robustMinField, frailMinField, buddyMinField, befMinField)) {
+            field.textProperty().addListener((obs, was, now) -> previewDelay.playFromStart());
+        }
     }
 
     private void setupTables() {
@@ -227,7 +258,13 @@ public class RulesMlController {
 
     @FXML
     private void onLoadConfig() {
-        RulesConfig cfg = RulesConfigService.ensureFile();
+        RulesConfig cfg;
+        try {
+            cfg = RulesConfigService.ensureFile();
+        } catch (IllegalArgumentException ex) {
+            showError(ex.getMessage());
+            return;
+        }
         loadConfig(cfg);
         showInfo("Config loaded from " + configFile.getPath());
     }
@@ -260,6 +297,7 @@ public class RulesMlController {
             cfg.applyToGeneration = applyConfigCheckbox.isSelected();
             RulesConfigService.save(cfg, configFile);
             AppState.setRulesConfig(cfg);
+            AppState.setKpiTiers(cfg.tiers);
             showInfo("Config saved to " + configFile.getPath());
         } catch (Exception ex) {
             showError("Failed to save config: " + ex.getMessage());
@@ -299,6 +337,18 @@ public class RulesMlController {
 
     @FXML
     private void onRefreshPreview() {
+        // Row edits do not change the lists, so an explicit refresh re-reads the cohort
+        dropPreviewInputs();
+        refreshPreview();
+    }
+
+    private void dropPreviewInputs() {
+        previewInputs = null;
+        previewInputsVersion++;
+    }
+
+    private void refreshPreview() {
+        previewDelay.stop();
         RulesConfig cfg = collectConfigFromUi();
         StringBuilder sb = new StringBuilder();
         sb.append("Built-in thresholds: ")
@@ -311,21 +361,42 @@ public class RulesMlController {
                 .append(cfg.thresholds.befriendingMinInPerson).append(" (contacts ").append(cfg.thresholds.befriendingMinContacts)
                 .append(")\n\n");
 
+        int request = ++previewRequest;
         if (patients == null || patients.isEmpty()) {
             sb.append("No loaded patients; preview shows thresholds only.");
             previewArea.setText(sb.toString());
             return;
         }
-        try {
-            PreviewCounts base = simulateCounts(AppState.getKpiConfig());
-            PreviewCounts ui = simulateCounts(cfg.toKpiConfig());
-            sb.append("FY Window: ").append(fyStart).append(" to ").append(fyEnd).append("\n");
-            sb.append("Built-in classification -> ").append(base.summary).append("\n");
-            sb.append("UI config classification -> ").append(ui.summary).append("\n");
-        } catch (Exception ex) {
-            sb.append("Preview error: ").append(ex.getMessage());
-        }
-        previewArea.setText(sb.toString());
+        List<com.aac.kpi.service.KpiConfig> configs = List.of(AppState.getKpiConfig(), cfg.toKpiConfig());
+        KpiService.Evaluation cached = previewInputs;
+        int version = previewInputsVersion;
+        // Snapshots are taken here because the worker must not read the live lists
+        List<Patient> patientSnapshot = cached == null ? List.copyOf(patients) : null;
+        List<EventSession> sessionSnapshot = cached == null && sessions != null ? List.copyOf(sessions) : List.of();
+        previewArea.setText(sb + "Evaluating…");
+        BackgroundTasks.preview("Preview", progress -> {
+            KpiService.Evaluation inputs = cached;
+            try {
+                if (inputs == null) {
+                    inputs = KpiService.Evaluation.prepare(patientSnapshot, sessionSnapshot,
+                            List.of(new KpiService.FyWindow(fyStart, fyEnd)));
+                }
+                return new PreviewResult(inputs, simulateCounts(inputs, configs), null);
+            } catch (Exception ex) {
+                return new PreviewResult(inputs, List.of(), ex.getMessage());
+            }
+        }, result -> {
+            if (version == previewInputsVersion) previewInputs = result.inputs();
+            if (request != previewRequest) return;
+            if (result.error() != null) {
+                sb.append("Preview error: ").append(result.error());
+            } else {
+                sb.append("FY Window: ").append(fyStart).append(" to ").append(fyEnd).append("\n");
+                sb.append("Built-in classification -> ").append(result.counts().get(0).summary).append("\n");
+                sb.append("UI config classification -> ").append(result.counts().get(1).summary).append("\n");
+            }
+            previewArea.setText(sb.toString());
+        });
     }
 
     @FXML
@@ -467,6 +538,8 @@ public class RulesMlController {
 
         purposeRules.setAll(cfg.purposes == null ? List.of() : cfg.purposes);
         columnSpecs.setAll(cfg.columns == null ? List.of() : cfg.columns);
+        tiers = cfg.tiers == null || cfg.tiers.isEmpty() ? RulesConfig.defaultTiers() : cfg.tiers;
+        exportSettings = cfg.export == null ? new RulesConfig.ExportSettings() : cfg.export;
     }
 
     private RulesConfig collectConfigFromUi() {
@@ -479,57 +552,25 @@ public class RulesMlController {
         cfg.screening.purpose = screeningPurposeField.getText();
         cfg.purposes = new ArrayList<>(purposeRules);
         cfg.columns = new ArrayList<>(columnSpecs);
+        cfg.tiers = new ArrayList<>(tiers);
         cfg.applyToGeneration = applyConfigCheckbox.isSelected();
+        cfg.export = exportSettings;
         return cfg;
     }
 
-    private PreviewCounts simulateCounts(com.aac.kpi.service.KpiConfig config) {
-        List<Patient> previewPatients = copyPatients(patients);
-        List<EventSession> previewSessions = copySessions(sessions);
-        KpiService.computeForFY(previewPatients, previewSessions, fyStart, fyEnd, config);
-        long robust = previewPatients.stream().filter(p -> "Robust".equals(p.getKpiType())).count();
-        long robustG2 = previewPatients.stream().filter(p -> p.getKpiType() != null && p.getKpiType().contains("CFS 6-9")).count();
-        long frail = previewPatients.stream().filter(p -> "Frail".equals(p.getKpiType())).count();
-        long frailG2 = previewPatients.stream().filter(p -> p.getKpiType() != null && p.getKpiType().contains("Very Frail")).count();
-        long buddy = previewPatients.stream().filter(p -> p.getKpiType() != null && p.getKpiType().startsWith("Buddying")).count();
-        long bef = previewPatients.stream().filter(p -> p.getKpiType() != null && p.getKpiType().startsWith("Befriending")).count();
-        String summary = String.format("Robust=%d(G2=%d) Frail=%d(G2=%d) Buddy=%d Bef=%d",
-                robust, robustG2, frail, frailG2, buddy, bef);
-        return new PreviewCounts(summary);
-    }
-
-    private List<Patient> copyPatients(List<Patient> src) {
-        List<Patient> out = new ArrayList<>();
-        if (src == null) return out;
-        for (Patient p : src) {
-            Patient c = new Patient();
-            c.setPatientId(p.getPatientId());
-            c.setCfs(p.getCfs());
-            c.setSocialRiskFactor(p.getSocialRiskFactor());
-            c.setBuddyingProgramStartDate(p.getBuddyingProgramStartDate());
-            c.setBuddyingProgramEndDate(p.getBuddyingProgramEndDate());
-            c.setBefriendingProgramStartDate(p.getBefriendingProgramStartDate());
-            c.setBefriendingProgramEndDate(p.getBefriendingProgramEndDate());
-            c.setKpiType(p.getKpiType());
-            c.setKpiGroup(p.getKpiGroup());
-            out.add(c);
-        }
-        return out;
-    }
-
-    private List<EventSession> copySessions(List<EventSession> src) {
-        List<EventSession> out = new ArrayList<>();
-        if (src == null) return out;
-        for (EventSession s : src) {
-            EventSession c = new EventSession();
-            c.setCompositionId(s.getCompositionId());
-            c.setEventSessionMode1(s.getEventSessionMode1());
-            c.setEventSessionStartDate1(s.getEventSessionStartDate1());
-            c.setEventSessionEndDate1(s.getEventSessionEndDate1());
-            c.setEventSessionPatientReferences1(s.getEventSessionPatientReferences1());
-            c.setPurposeOfContact(s.getPurposeOfContact());
-            c.setAttendedIndicator(s.isAttendedIndicator());
-            out.add(c);
+    private static List<PreviewCounts> simulateCounts(KpiService.Evaluation inputs,
+                                                      List<com.aac.kpi.service.KpiConfig> configs) {
+        List<KpiService.KpiCounts> results = inputs.counts(configs);
+        List<PreviewCounts> out = new ArrayList<>(results.size());
+        for (KpiService.KpiCounts counts : results) {
+            int robust = counts.count("Robust"::equals);
+            int robustG2 = counts.count(t -> t.contains("CFS 6-9"));
+            int frail = counts.count("Frail"::equals);
+            int frailG2 = counts.count(t -> t.contains("Very Frail"));
+            int buddy = counts.count(t -> t.startsWith("Buddying"));
+            int bef = counts.count(t -> t.startsWith("Befriending"));
+            out.add(new PreviewCounts(String.format("Robust=%d(G2=%d) Frail=%d(G2=%d) Buddy=%d Bef=%d",
+                    robust, robustG2, frail, frailG2, buddy, bef)));
         }
         return out;
     }
@@ -561,4 +602,6 @@ public class RulesMlController {
     }
 
     private record PreviewCounts(String summary) {}
+
+    private record PreviewResult(KpiService.Evaluation inputs, List<PreviewCounts> counts, String error) {}
 }
@@ -3,8 +3,6 @@ package com.aac.kpi.converter;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
-import java.util.HashMap;
-
 public class Encounter {
     JsonObject encounterObject = new JsonObject();
 
@@ -16,14 +14,28 @@ public class Encounter {
     String encounter_contactedstaffname;
     String encounter_referredby;
 
-    public Encounter(HashMap<String, String> encounter) {
-        this.encounter_id = encounter.get("encounter_id");
-        this.encounter_status = encounter.get("encounter_status");
-        this.encounter_display = encounter.get("encounter_display");
-        this.encounter_start = encounter.get("encounter_start");
-        this.encounter_purpose = encounter.get("encounter_purpose");
-        this.encounter_contactedstaffname = encounter.get("encounter_contactedstaffname");
-        this.encounter_referredby = encounter.get("encounter_referredby");
+    private Encounter(String id, String status, String display, String start,
+                      String purpose, String contactedStaffName, String referredBy) {
+        this.encounter_id = id;
+        this.encounter_status = status;
+        this.encounter_display = display;
+        this.encounter_start = start;
+        this.encounter_purpose = purpose;
+        this.encounter_contactedstaffname = contactedStaffName;
+        this.encounter_referredby = referredBy;
+    }
+
+    /** Decodes rows of the encounter sheet, resolving its columns once. */
+    static SheetColumns.RowDecoder<Encounter> decoder(SheetColumns columns) {
+        int id = columns.of("encounter_id");
+        int status = columns.of("encounter_status");
+        int display = columns.of("encounter_display");
+        int start = columns.of("encounter_start");
+        int purpose = columns.of("encounter_purpose");
+        int contactedStaffName = columns.of("encounter_contactedstaffname");
+        int referredBy = columns.of("encounter_referredby");
+        return row -> new Encounter(row.get(id), row.get(status), row.get(display), row.get(start),
+                row.get(purpose), row.get(contactedStaffName), row.get(referredBy));
     }
 
     public JsonObject generateEncounterObject() {
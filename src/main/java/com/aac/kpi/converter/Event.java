@@ -3,24 +3,76 @@ package com.aac.kpi.converter;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+import static com.aac.kpi.converter.SheetColumns.numberedValue;
 import static com.aac.kpi.converter.ValueUtil.splitRefs;
 import static com.aac.kpi.converter.ValueUtil.toInteger;
 
 public class Event {
 
-    private final HashMap<String, String> event;
     Integer numEventSessions;
+    // Session columns, element i holding session i + 1; reference lists are split once here
+    private final String[] sessionIds;
+    private final String[] sessionModes;
+    private final String[] sessionStartDates;
+    private final String[] sessionEndDates;
+    private final String[] sessionDurations;
+    private final String[] sessionVenues;
+    private final String[] sessionCapacities;
+    private final List<List<String>> sessionPatientReferences;
     private HashMap<String, Integer> patientSessionMapping;
 
-    public Event(HashMap<String, String> event) {
-        this.event = event;
-        this.numEventSessions = toInteger(event.get("number_of_event_sessions"));
+    private Event(Integer numEventSessions, String[] sessionIds, String[] sessionModes, String[] sessionStartDates,
+                  String[] sessionEndDates, String[] sessionDurations, String[] sessionVenues,
+                  String[] sessionCapacities, String[] sessionPatientReferences) {
+        this.numEventSessions = numEventSessions;
+        this.sessionIds = sessionIds;
+        this.sessionModes = sessionModes;
+        this.sessionStartDates = sessionStartDates;
+        this.sessionEndDates = sessionEndDates;
+        this.sessionDurations = sessionDurations;
+        this.sessionVenues = sessionVenues;
+        this.sessionCapacities = sessionCapacities;
+        List<List<String>> references = new ArrayList<>(sessionPatientReferences.length);
+        for (String raw : sessionPatientReferences) {
+            references.add(splitRefs(raw));
+        }
+        this.sessionPatientReferences = references;
         this.patientSessionMapping = mapPatientSessionCount();
     }
 
+    /** Decodes rows of the event sessions sheet, resolving its numbered session columns once. */
+    static SheetColumns.RowDecoder<Event> decoder(SheetColumns columns) {
+        int numEventSessions = columns.of("number_of_event_sessions");
+        int[] ids = columns.numbered("event_session_id");
+        int[] modes = columns.numbered("event_session_mode");
+        int[] startDates = columns.numbered("event_session_start_date");
+        int[] endDates = columns.numbered("event_session_end_date");
+        int[] durations = columns.numbered("event_session_duration");
+        int[] venues = columns.numbered("event_session_venue");
+        int[] capacities = columns.numbered("event_session_capacity");
+        int[] patientReferences = columns.numbered("event_session_patient_references");
+        return row -> new Event(toInteger(row.get(numEventSessions)),
+                SheetColumns.read(row, ids),
+                SheetColumns.read(row, modes),
+                SheetColumns.read(row, startDates),
+                SheetColumns.read(row, endDates),
+                SheetColumns.read(row, durations),
+                SheetColumns.read(row, venues),
+                SheetColumns.read(row, capacities),
+                SheetColumns.read(row, patientReferences));
+    }
+
+    // Patients referenced by session number (1-based); empty past the last session column
+    private List<String> patientReferences(int session) {
+        return session >= 1 && session <= sessionPatientReferences.size()
+                ? sessionPatientReferences.get(session - 1)
+                : List.of();
+    }
+
     private HashMap<String, Integer> mapPatientSessionCount() {
         HashMap<String, Integer> patientSessionMapping = new HashMap<String, Integer>();
 
@@ -29,7 +81,7 @@ public class Event {
         }
 
         for (int i = 0; i < numEventSessions; i++) {
-            List<String> patientKeys = splitRefs(this.event.get("event_session_patient_references" + (i + 1)));
+            List<String> patientKeys = patientReferences(i + 1);
 
             for (int j = 0; j < patientKeys.size(); j++) {
                 if (patientSessionMapping.get(patientKeys.get(j)) == null) {
@@ -48,7 +100,7 @@ public class Event {
         return patientSessionMapping;
     }
 
-    public JsonArray generateEventSessionsSection(HashMap<String, HashMap<String, String>> eventSessionsNricMap) {
+    public JsonArray generateEventSessionsSection(HashMap<String, EventRegistration> eventSessionsNricMap) {
         JsonArray eventArray = new JsonArray();
 
         if (numEventSessions == null || eventSessionsNricMap == null) {
@@ -62,31 +114,31 @@ public class Event {
             JsonArray extensionArray = new JsonArray();
             JsonObject eventSessionIdObject = new JsonObject();
             eventSessionIdObject.addProperty("url", "http://ihis.sg/extension/asg-event-session-id");
-            eventSessionIdObject.addProperty("valueString", this.event.get("event_session_id" + (i + 1)));
+            eventSessionIdObject.addProperty("valueString", numberedValue(sessionIds, i + 1));
 
             JsonObject eventSessionModeObject = new JsonObject();
             eventSessionModeObject.addProperty("url", "http://ihis.sg/extension/asg-event-session-mode");
-            eventSessionModeObject.addProperty("valueString", this.event.get("event_session_mode" + (i + 1)));
+            eventSessionModeObject.addProperty("valueString", numberedValue(sessionModes, i + 1));
 
             JsonObject eventSessionStartDateObject = new JsonObject();
             eventSessionStartDateObject.addProperty("url", "http://ihis.sg/extension/asg-event-session-start-date");
-            eventSessionStartDateObject.addProperty("valueDateTime", this.event.get("event_session_start_date" + (i + 1)));
+            eventSessionStartDateObject.addProperty("valueDateTime", numberedValue(sessionStartDates, i + 1));
 
             JsonObject eventSessionEndDateObject = new JsonObject();
             eventSessionEndDateObject.addProperty("url", "http://ihis.sg/extension/asg-event-session-end-date");
-            eventSessionEndDateObject.addProperty("valueDateTime", this.event.get("event_session_end_date" + (i + 1)));
+            eventSessionEndDateObject.addProperty("valueDateTime", numberedValue(sessionEndDates, i + 1));
 
             JsonObject eventSessionDurationObject = new JsonObject();
             eventSessionDurationObject.addProperty("url", "http://ihis.sg/extension/asg-event-session-duration");
-            eventSessionDurationObject.addProperty("valueInteger", toInteger(this.event.get("event_session_duration" + (i + 1))));
+            eventSessionDurationObject.addProperty("valueInteger", toInteger(numberedValue(sessionDurations, i + 1)));
 
             JsonObject eventSessionVenueObject = new JsonObject();
             eventSessionVenueObject.addProperty("url", "http://ihis.sg/extension/asg-event-session-venue");
-            eventSessionVenueObject.addProperty("valueString", this.event.get("event_session_venue" + (i + 1)));
+            eventSessionVenueObject.addProperty("valueString", numberedValue(sessionVenues, i + 1));
 
             JsonObject eventSessionCapacityObject = new JsonObject();
             eventSessionCapacityObject.addProperty("url", "http://ihis.sg/extension/asg-event-session-capacity");
-            eventSessionCapacityObject.addProperty("valueInteger", toInteger(event.get("event_session_capacity" + (i + 1))));
+            eventSessionCapacityObject.addProperty("valueInteger", toInteger(numberedValue(sessionCapacities, i + 1)));
 
             extensionArray.add(eventSessionIdObject);
             extensionArray.add(eventSessionModeObject);
@@ -109,22 +161,22 @@ public class Event {
 
             // Entry.
             JsonArray entryArray = new JsonArray();
-            List<String> patientKeys = splitRefs(this.event.get("event_session_patient_references" + (i + 1)));
+            List<String> patientKeys = patientReferences(i + 1);
             for (int j = 0; j < patientKeys.size(); j++) {
                 String currentPatientNric = patientKeys.get(j);
-                HashMap<String, String> patientRegistration = eventSessionsNricMap.get(currentPatientNric);
+                EventRegistration patientRegistration = eventSessionsNricMap.get(currentPatientNric);
                 if (patientRegistration == null) {
                     continue;
                 }
 
-                Integer numRegistrationId = toInteger(patientRegistration.get("number_of_attended_indicator"));
+                Integer numRegistrationId = patientRegistration.attendedIndicator();
                 if (numRegistrationId == null) {
                     continue;
                 }
 
                 for (int k = 0; k < numRegistrationId; k++) {
                     JsonObject referenceObject = new JsonObject();
-                    referenceObject.addProperty("reference", "#" + patientRegistration.get("registration_id" + (k + 1)));
+                    referenceObject.addProperty("reference", "#" + patientRegistration.registrationId(k + 1));
                     entryArray.add(referenceObject);
                 }
             }
@@ -0,0 +1,41 @@
+package com.aac.kpi.converter;
+
+import static com.aac.kpi.converter.ValueUtil.toInteger;
+
+/**
+ * One row of the event sessions NRIC sheet: how many sessions a resident registered for, with
+ * the registration id and attended flag of each, numbered from 1.
+ */
+public final class EventRegistration {
+    private final Integer attendedIndicator;
+    private final String[] registrationIds;
+    private final String[] registrationValues;
+
+    private EventRegistration(Integer attendedIndicator, String[] registrationIds, String[] registrationValues) {
+        this.attendedIndicator = attendedIndicator;
+        this.registrationIds = registrationIds;
+        this.registrationValues = registrationValues;
+    }
+
+    /** Decodes rows of the event sessions NRIC sheet, resolving its columns once. */
+    static SheetColumns.RowDecoder<EventRegistration> decoder(SheetColumns columns) {
+        int attendedIndicator = columns.of("number_of_attended_indicator");
+        int[] registrationIds = columns.numbered("registration_id");
+        int[] registrationValues = columns.numbered("registration_value");
+        return row -> new EventRegistration(toInteger(row.get(attendedIndicator)),
+                SheetColumns.read(row, registrationIds), SheetColumns.read(row, registrationValues));
+    }
+
+    /** The number_of_attended_indicator column, or null when it is blank or not a number. */
+    Integer attendedIndicator() {
+        return attendedIndicator;
+    }
+
+    String registrationId(int number) {
+        return SheetColumns.numberedValue(registrationIds, number);
+    }
+
+    boolean isAttended(int number) {
+        return Boolean.parseBoolean(SheetColumns.numberedValue(registrationValues, number));
+    }
+}
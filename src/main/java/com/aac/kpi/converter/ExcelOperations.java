@@ -1,25 +1,33 @@
-package com.aac.kpi.converter;
-
+package com.aac.kpi.converter;
+
 import org.apache.poi.openxml4j.util.ZipSecureFile;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-
+
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static com.aac.kpi.converter.ReportConstants.*;
 
-public class ExcelOperations {
-    private String filePath;
+/**
+ * Reads report tables and master sheets out of the KPI workbook. The workbook is parsed at most
+ * once per instance and shared by every lookup; close the instance to release it.
+ */
+public class ExcelOperations implements AutoCloseable {
+    private final String filePath;
     private Workbook workbook;
+    // Header keys per (sheet index, header row), in the order the key row's cells iterate
+    private final Map<Long, List<String>> headerKeysCache = new HashMap<>();
 
     static {
         // Allow slightly denser compression to avoid false zip-bomb hits on style-heavy workbooks.
@@ -29,64 +37,86 @@ public class ExcelOperations {
     public ExcelOperations(String filePath) {
         this.filePath = filePath;
     }
-
-    private Sheet getSheet(Workbook workbook, int sheetNumber) throws IOException {
-        this.workbook = workbook;
-        Sheet sheet = workbook.getSheetAt(sheetNumber);
-        return sheet;
-    }
-
-    public HashMap<String, HashMap<String, String>> getReportsMap(String typeOfReport, int numAacReports, int startRow) throws IOException {
-        FileInputStream fis = new FileInputStream(filePath);
-        Workbook workbook = new XSSFWorkbook(fis);
-        Sheet sheet = getSheet(workbook, 0); // common sheet
-
-        String reportMapPrefix;
-        switch (typeOfReport) {
-            case AAC_TYPE:
-                reportMapPrefix = "aac_report_";
-                break;
-            case RESIDENT_TYPE:
-                reportMapPrefix = "resident_report_";
-                break;
-            case VOLUNTEER_ATTENDANCE_TYPE:
-                reportMapPrefix = "volunteer_attendance_report_";
-                break;
-            case EVENT_TYPE:
-                reportMapPrefix = "event_report_";
-                break;
-            case ORGANIZATION_TYPE:
-                reportMapPrefix = "organization_report_";
-                break;
-            case LOCATION_TYPE:
-                reportMapPrefix = "location_report_";
-                break;
-            default:
-                reportMapPrefix = "";
-        }
-
-        HashMap<String, HashMap<String, String>> reportMap = new HashMap<String, HashMap<String, String>>();
-        for (int i = 0; i < numAacReports; i++) {
-            String reportMapKey = reportMapPrefix + (i + 1);
-
-            HashMap<String, String> valueMap = new HashMap<String, String>();
-            Row keyRow = sheet.getRow(startRow);
-            Row valueRow = sheet.getRow((startRow + 1) + i);
-
-            int valueRowIndex = 0;
-            for (Cell cell : keyRow) {
-                String rowKey = getCellValueAsString(cell);
-                String rowValue = getCellValueAsString(valueRow.getCell(valueRowIndex));
-                valueMap.put(rowKey, rowValue);
-                valueRowIndex++;
-            }
-
-            reportMap.put(reportMapKey, valueMap);
-        }
-
+
+    private Workbook openWorkbook() throws IOException {
+        if (workbook == null) {
+            try (FileInputStream fis = new FileInputStream(filePath)) {
+                workbook = new XSSFWorkbook(fis);
+            }
+        }
+        return workbook;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (workbook != null) {
+            workbook.close();
+        }
+        workbook = null;
+        headerKeysCache.clear();
+    }
+
+    private Sheet getSheet(Workbook workbook, int sheetNumber) throws IOException {
+        Sheet sheet = workbook.getSheetAt(sheetNumber);
+        return sheet;
+    }
+
+    private List<String> headerKeys(Workbook workbook, Sheet sheet, int headerRow) {
+        long key = ((long) workbook.getSheetIndex(sheet) << 32) | (headerRow & 0xFFFFFFFFL);
+        return headerKeysCache.computeIfAbsent(key, k -> {
+            List<String> keys = new ArrayList<>();
+            for (Cell cell : sheet.getRow(headerRow)) {
+                keys.add(getCellValueAsString(cell));
+            }
+            return keys;
+        });
+    }
+
+    public HashMap<String, HashMap<String, String>> getReportsMap(String typeOfReport, int numAacReports, int startRow) throws IOException {
+        Workbook workbook = openWorkbook();
+        Sheet sheet = getSheet(workbook, 0); // common sheet
+
+        String reportMapPrefix = reportKeyPrefix(typeOfReport);
+
+        HashMap<String, HashMap<String, String>> reportMap = new HashMap<String, HashMap<String, String>>();
+        List<String> keys = numAacReports > 0 ? headerKeys(workbook, sheet, startRow) : List.of();
+        for (int i = 0; i < numAacReports; i++) {
+            String reportMapKey = reportMapPrefix + (i + 1);
+
+            HashMap<String, String> valueMap = new HashMap<String, String>();
+            Row valueRow = sheet.getRow((startRow + 1) + i);
+
+            for (int valueRowIndex = 0; valueRowIndex < keys.size(); valueRowIndex++) {
+                String rowValue = getCellValueAsString(valueRow.getCell(valueRowIndex));
+                valueMap.put(keys.get(valueRowIndex), rowValue);
+            }
+
+            reportMap.put(reportMapKey, valueMap);
+        }
+
         return reportMap;
     }
 
+    /** Prefix of the keys in a report map: aac_report_ for {@code AAC_TYPE}, and so on. */
+    static String reportKeyPrefix(String typeOfReport) {
+        switch (typeOfReport) {
+            case AAC_TYPE:
+                return "aac_report_";
+            case RESIDENT_TYPE:
+                return "resident_report_";
+            case VOLUNTEER_ATTENDANCE_TYPE:
+                return "volunteer_attendance_report_";
+            case EVENT_TYPE:
+                return "event_report_";
+            case ORGANIZATION_TYPE:
+                return "organization_report_";
+            case LOCATION_TYPE:
+                return "location_report_";
+            default:
+                return "";
+        }
+    }
+
     /**
      * Auto-detect the number of rows for each report table in the common sheet by
      * scanning the first column for names like aac_report_<anyType>_<index> and
@@ -94,45 +124,43 @@ public class ExcelOperations {
      * between blocks.
      */
     public ReportCounts detectCountsFromCommonSheet() throws IOException {
-        try (FileInputStream fis = new FileInputStream(filePath);
-             Workbook workbook = new XSSFWorkbook(fis)) {
-            Sheet sheet = getSheet(workbook, 0); // common sheet
-
-            int aacMax = 0;
-            int residentMax = 0;
-            int volunteerMax = 0;
-            int eventMax = 0;
-            int orgMax = 0;
-            int locationMax = 0;
-
-            // Capture any digits at the end, with or without an extra type token.
-            Pattern aacPattern = Pattern.compile("^aac_report_.*?(\\d+)$", Pattern.CASE_INSENSITIVE);
-            Pattern residentPattern = Pattern.compile("^resident_report_.*?(\\d+)$", Pattern.CASE_INSENSITIVE);
-            Pattern volunteerPattern = Pattern.compile("^volunteer_attendance_report_.*?(\\d+)$", Pattern.CASE_INSENSITIVE);
-            Pattern eventPattern = Pattern.compile("^event_report_.*?(\\d+)$", Pattern.CASE_INSENSITIVE);
-            Pattern orgPattern = Pattern.compile("^organization_report_.*?(\\d+)$", Pattern.CASE_INSENSITIVE);
-            Pattern locationPattern = Pattern.compile("^location_report_.*?(\\d+)$", Pattern.CASE_INSENSITIVE);
-
-            for (int rowIndex = 0; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
-                Row row = sheet.getRow(rowIndex);
-                if (row == null) {
-                    continue;
-                }
-                String value = getCellValueAsString(row.getCell(0));
-                if (value == null || value.trim().isEmpty()) {
-                    continue;
-                }
-                String trimmed = value.trim();
-                aacMax = Math.max(aacMax, extractIndex(trimmed, aacPattern));
-                residentMax = Math.max(residentMax, extractIndex(trimmed, residentPattern));
-                volunteerMax = Math.max(volunteerMax, extractIndex(trimmed, volunteerPattern));
-                eventMax = Math.max(eventMax, extractIndex(trimmed, eventPattern));
-                orgMax = Math.max(orgMax, extractIndex(trimmed, orgPattern));
-                locationMax = Math.max(locationMax, extractIndex(trimmed, locationPattern));
-            }
+        Workbook workbook = openWorkbook();
+        Sheet sheet = getSheet(workbook, 0); // common sheet
 
-            return new ReportCounts(aacMax, residentMax, volunteerMax, eventMax, orgMax, locationMax);
+        int aacMax = 0;
+        int residentMax = 0;
+        int volunteerMax = 0;
+        int eventMax = 0;
+        int orgMax = 0;
+        int locationMax = 0;
+
+        // Capture any digits at the end, with or without an extra type token.
+        Pattern aacPattern = Pattern.compile("^aac_report_.*?(\\d+)$", Pattern.CASE_INSENSITIVE);
+        Pattern residentPattern = Pattern.compile("^resident_report_.*?(\\d+)$", Pattern.CASE_INSENSITIVE);
+        Pattern volunteerPattern = Pattern.compile("^volunteer_attendance_report_.*?(\\d+)$", Pattern.CASE_INSENSITIVE);
+        Pattern eventPattern = Pattern.compile("^event_report_.*?(\\d+)$", Pattern.CASE_INSENSITIVE);
+        Pattern orgPattern = Pattern.compile("^organization_report_.*?(\\d+)$", Pattern.CASE_INSENSITIVE);
+        Pattern locationPattern = Pattern.compile("^location_report_.*?(\\d+)$", Pattern.CASE_INSENSITIVE);
+
+        for (int rowIndex = 0; rowIndex <= sheet.getLastRowNum(); rowIndex++) {
+            Row row = sheet.getRow(rowIndex);
+            if (row == null) {
+                continue;
+            }
+            String value = getCellValueAsString(row.getCell(0));
+            if (value == null || value.trim().isEmpty()) {
+                continue;
+            }
+            String trimmed = value.trim();
+            aacMax = Math.max(aacMax, extractIndex(trimmed, aacPattern));
+            residentMax = Math.max(residentMax, extractIndex(trimmed, residentPattern));
+            volunteerMax = Math.max(volunteerMax, extractIndex(trimmed, volunteerPattern));
+            eventMax = Math.max(eventMax, extractIndex(trimmed, eventPattern));
+            orgMax = Math.max(orgMax, extractIndex(trimmed, orgPattern));
+            locationMax = Math.max(locationMax, extractIndex(trimmed, locationPattern));
         }
+
+        return new ReportCounts(aacMax, residentMax, volunteerMax, eventMax, orgMax, locationMax);
     }
 
     private int extractIndex(String value, Pattern pattern) {
@@ -160,108 +188,111 @@ public class ExcelOperations {
         return true;
     }
 
-    public HashMap<String, HashMap<String, String>> getMasterDataMap(String typeOfSheet) throws IOException {
-        FileInputStream fis = new FileInputStream(filePath);
-        Workbook workbook = new XSSFWorkbook(fis);
+    /**
+     * Decodes every row of a master sheet into a typed object keyed by its first cell, without a
+     * map per row: {@code decoder} resolves the columns it needs once from the header row and then
+     * reads each row by ordinal.
+     */
+    <T> HashMap<String, T> getMasterRows(String typeOfSheet,
+                                         Function<SheetColumns, SheetColumns.RowDecoder<T>> decoder) throws IOException {
+        Workbook workbook = openWorkbook();
+        Sheet sheet = getSheet(workbook, masterSheetNumber(typeOfSheet));
 
+        HashMap<String, T> mastersMap = new HashMap<>();
+        if (sheet.getLastRowNum() <= 0) {
+            return mastersMap;
+        }
+
+        int startRow = 0;
+        List<String> keys = headerKeys(workbook, sheet, startRow);
+        SheetColumns.RowDecoder<T> rowDecoder = decoder.apply(new SheetColumns(keys));
+        int width = keys.size();
+        for (int i = 0; i < sheet.getLastRowNum(); i++) {
+            Row valueRow = sheet.getRow((startRow + 1) + i);
+            String key = getCellValueAsString(valueRow.getCell(0));
+            mastersMap.put(key, rowDecoder.decode(ordinal ->
+                    ordinal < 0 || ordinal >= width ? null : getCellValueAsString(valueRow.getCell(ordinal))));
+        }
+
+        return mastersMap;
+    }
+
+    private int masterSheetNumber(String typeOfSheet) {
         int sheetNumber;
-        switch (typeOfSheet) {
-            case EVENT_SESSIONS_TYPE:
-                sheetNumber = EVENT_SESSIONS_SHEET_NO;
-                break;
-            case EVENT_SESSIONS_NRIC_TYPE:
-                sheetNumber = EVENT_SESSIONS_NRIC_SHEET_NO;
-                break;
-            case PATIENT_TYPE:
-                sheetNumber = PATIENT_SHEET_NO;
-                break;
-            case PRACTITIONER_TYPE:
-                sheetNumber = PRACTITIONER_SHEET_NO;
-                break;
-            case ENCOUNTER_TYPE:
-                sheetNumber = ENCOUNTER_SHEET_NO;
-                break;
-            case QUESTIONNAIRE_TYPE:
-                sheetNumber = QUESTIONNAIRE_SHEET_NO;
-                break;
-            default:
-                sheetNumber = 0;
-        }
-
-        Sheet sheet = getSheet(workbook, sheetNumber);
-
-        HashMap<String, HashMap<String, String>> mastersMap = new HashMap<String, HashMap<String, String>>();
-
-        int startRow = 0;
-        for (int i = 0; i < sheet.getLastRowNum(); i++) {
-            HashMap<String, String> valueMap = new HashMap<String, String>();
-            Row keyRow = sheet.getRow(startRow);
-            Row valueRow = sheet.getRow((startRow + 1) + i);
-
-            int valueRowIndex = 0;
-            for (Cell cell : keyRow) {
-                String rowKey = getCellValueAsString(cell);
-                //System.out.println(rowKey);
-                String rowValue = getCellValueAsString(valueRow.getCell(valueRowIndex));
-                //System.out.println(rowValue);
-                valueMap.put(rowKey, rowValue);
-                valueRowIndex++;
-            }
-
-            String practitionersMapKey = getCellValueAsString(valueRow.getCell(0));
-            mastersMap.put(practitionersMapKey, valueMap);
-        }
-
-        return mastersMap;
-    }
-
-
-    public List<HashMap<String, String>> getExcelAsMap() throws IOException {
-
-        FileInputStream fis = new FileInputStream(filePath);
-        Workbook workbook = new XSSFWorkbook(fis);
-        int sheetCount = workbook.getNumberOfSheets();
-
-        List<HashMap<String, String>> completeSheetData = new ArrayList<HashMap<String, String>>();
-        HashMap<String, String> singleRowData = null;
-
-        for (int i = 0; i < workbook.getSheetAt(0).getLastRowNum(); i++) {
-            singleRowData = new HashMap<String, String>();
-            for (int j = 0; j < sheetCount; j++) {
-                Sheet sheet = getSheet(workbook, j);
-
-                Row keyRow = sheet.getRow(0);
-                Row valueRow = sheet.getRow(i + 1);
-                int index = 0;
-
-                if (valueRow != null) {
-                    for (Cell mycell : keyRow) {
-                        String rowKey = getCellValueAsString(mycell);
-                        String rowValue = getCellValueAsString(valueRow.getCell(index));
-                        System.out.println(rowKey);
-                        singleRowData.put(rowKey, rowValue);
-                        index++;
-                    }
-                }
-            }
-            completeSheetData.add(singleRowData);
-        }
-        workbook.close();
-        fis.close();
-        return completeSheetData;
-    }
-
+        switch (typeOfSheet) {
+            case EVENT_SESSIONS_TYPE:
+                sheetNumber = EVENT_SESSIONS_SHEET_NO;
+                break;
+            case EVENT_SESSIONS_NRIC_TYPE:
+                sheetNumber = EVENT_SESSIONS_NRIC_SHEET_NO;
+                break;
+            case PATIENT_TYPE:
+                sheetNumber = PATIENT_SHEET_NO;
+                break;
+            case PRACTITIONER_TYPE:
+                sheetNumber = PRACTITIONER_SHEET_NO;
+                break;
+            case ENCOUNTER_TYPE:
+                sheetNumber = ENCOUNTER_SHEET_NO;
+                break;
+            case QUESTIONNAIRE_TYPE:
+                sheetNumber = QUESTIONNAIRE_SHEET_NO;
+                break;
+            default:
+                sheetNumber = 0;
+        }
+        return sheetNumber;
+    }
+
+
+    public List<HashMap<String, String>> getExcelAsMap() throws IOException {
+
+        Workbook workbook = openWorkbook();
+        int sheetCount = workbook.getNumberOfSheets();
+
+        List<HashMap<String, String>> completeSheetData = new ArrayList<HashMap<String, String>>();
+        HashMap<String, String> singleRowData = null;
+
+        for (int i = 0; i < workbook.getSheetAt(0).getLastRowNum(); i++) {
+            singleRowData = new HashMap<String, String>();
+            for (int j = 0; j < sheetCount; j++) {
+                Sheet sheet = getSheet(workbook, j);
+
+                Row keyRow = sheet.getRow(0);
+                Row valueRow = sheet.getRow(i + 1);
+                int index = 0;
+
+                if (valueRow != null) {
+                    for (Cell mycell : keyRow) {
+                        String rowKey = getCellValueAsString(mycell);
+                        String rowValue = getCellValueAsString(valueRow.getCell(index));
+                        System.out.println(rowKey);
+                        singleRowData.put(rowKey, rowValue);
+                        index++;
+                    }
+                }
+            }
+            completeSheetData.add(singleRowData);
+        }
+        return completeSheetData;
+    }
+
     public String getCellValueAsString(Cell cell) {
         if (cell == null) {
             return null;
         }
 
         return switch (cell.getCellType()) {
-            case NUMERIC -> String.valueOf(cell.getNumericCellValue());
+            case NUMERIC -> numericCellText(cell.getNumericCellValue());
             case STRING -> cell.getStringCellValue();
             case BOOLEAN -> String.valueOf(cell.getBooleanCellValue());
             case FORMULA, BLANK -> null;
             default -> cell.getStringCellValue();
         };
     }
+
+    /** Text of a numeric (or date-formatted) cell: the double as Java prints it, so 1 reads "1.0". */
+    static String numericCellText(double value) {
+        return String.valueOf(value);
+    }
 }
@@ -0,0 +1,215 @@
+package com.aac.kpi.converter;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes rendered reports to disk. Finished files, and lines of NDJSON families, are handed to
+ * one I/O thread through a bounded queue: renderers block once {@link #QUEUE_CAPACITY} jobs are
+ * waiting, which keeps memory flat while the disk catches up.
+ */
+final class JsonReportWriter {
+    private static final int QUEUE_CAPACITY = 256;
+    private static final int STREAM_BUFFER = 64 * 1024;
+    private static final BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+    static {
+        Thread io = new Thread(JsonReportWriter::drain, "json-report-io");
+        io.setDaemon(true);
+        io.start();
+    }
+
+    private JsonReportWriter() {}
+
+    /**
+     * Queues {@code bytes} for {@code path}, replacing any existing file. Blocks while the queue
+     * is full; the future completes once the file is on disk.
+     */
+    static CompletableFuture<Void> write(Path path, byte[] bytes) {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        try {
+            queue.put(() -> writeFile(path, bytes, written));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            written.completeExceptionally(e);
+        }
+        return written;
+    }
+
+    private static void writeFile(Path path, byte[] bytes, CompletableFuture<Void> written) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) channel.write(buffer);
+            written.complete(null);
+        } catch (IOException | RuntimeException e) {
+            written.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Starts an NDJSON family of {@code count} reports in {@code folder}, first deleting parts a
+     * previous NDJSON run left there under the same prefix (plain or gzip).
+     */
+    static NdjsonFamily ndjson(Path folder, String prefix, ReportOutput output, int count) throws IOException {
+        deleteParts(folder, prefix);
+        return new NdjsonFamily(folder, prefix, output, count);
+    }
+
+    /**
+     * Deletes the NDJSON parts (plain or gzip) written under {@code prefix} in {@code folder}. A
+     * one-file-per-report run calls this too, so parts from an earlier NDJSON run are not read
+     * back in place of its files.
+     */
+    static void deleteParts(Path folder, String prefix) throws IOException {
+        Pattern stale = Pattern.compile(Pattern.quote(prefix) + "part\\d+\\.ndjson(\\.gz)?");
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder)) {
+            for (Path file : files) {
+                if (stale.matcher(file.getFileName().toString()).matches()) Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * One family written as newline-delimited JSON. Reports are submitted from any thread in any
+     * order and queued for the I/O thread in index order; {@link #done()} completes once the last
+     * part is closed, or exceptionally after {@link #fail}.
+     */
+    static final class NdjsonFamily {
+        private final Path folder;
+        private final String prefix;
+        private final ReportOutput output;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        // Reports that arrived ahead of their turn; guarded by this
+        private final byte[][] ready;
+        private int next;
+        private boolean closed;
+        // Touched on the I/O thread only
+        private OutputStream out;
+        private int part;
+        private long partBytes;
+
+        private NdjsonFamily(Path folder, String prefix, ReportOutput output, int count) {
+            this.folder = folder;
+            this.prefix = prefix;
+            this.output = output;
+            this.ready = new byte[count][];
+            if (count == 0) {
+                closed = true;
+                enqueue(this::finish);
+            }
+        }
+
+        CompletableFuture<Void> done() {
+            return done;
+        }
+
+        synchronized void submit(int index, byte[] json) {
+            if (closed || done.isDone()) return;
+            ready[index] = json;
+            while (next < ready.length && ready[next] != null) {
+                byte[] line = ready[next];
+                ready[next++] = null;
+                enqueue(() -> append(line));
+            }
+            if (next == ready.length) {
+                closed = true;
+                enqueue(this::finish);
+            }
+        }
+
+        /** Drops reports not yet queued and fails the family once the queued ones are written. */
+        synchronized void fail(Throwable cause) {
+            if (closed) return;
+            closed = true;
+            Arrays.fill(ready, null);
+            enqueue(() -> abort(cause));
+        }
+
+        // Called with the lock held, so lines reach the queue in report order
+        private void enqueue(Runnable job) {
+            try {
+                queue.put(job);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                closed = true;
+                done.completeExceptionally(e);
+            }
+        }
+
+        private void append(byte[] line) {
+            if (done.isDone()) return;
+            try {
+                long split = output.splitBytes();
+                if (out == null || split > 0 && partBytes > 0 && partBytes + line.length + 1 > split) {
+                    nextPart();
+                }
+                out.write(line);
+                out.write('\n');
+                partBytes += line.length + 1;
+            } catch (IOException | RuntimeException e) {
+                abort(e);
+            }
+        }
+
+        private void nextPart() throws IOException {
+            if (out != null) out.close();
+            out = null;
+            Path file = folder.resolve(output.partName(prefix, ++part));
+            OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file), STREAM_BUFFER);
+            out = output.gzip() ? new GZIPOutputStream(stream, STREAM_BUFFER) : stream;
+            partBytes = 0;
+        }
+
+        private void finish() {
+            if (done.isDone()) return;
+            try {
+                if (out != null) out.close();
+                done.complete(null);
+            } catch (IOException | RuntimeException e) {
+                done.completeExceptionally(e);
+            } finally {
+                out = null;
+            }
+        }
+
+        private void abort(Throwable cause) {
+            try {
+                if (out != null) out.close();
+            } catch (IOException ignored) {
+                // The family has already failed
+            }
+            out = null;
+            done.completeExceptionally(cause);
+        }
+    }
+
+    private static void drain() {
+        while (true) {
+            Runnable job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                job.run();
+            } catch (RuntimeException e) {
+                // Jobs report their own failures; keep the thread alive for the next one
+            }
+        }
+    }
+}
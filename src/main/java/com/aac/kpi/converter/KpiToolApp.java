@@ -168,7 +168,10 @@ public class KpiToolApp extends Application {
         Task<Void> task = new Task<>() {
             @Override
             protected Void call() throws Exception {
-                runner.generateReports(config);
+                runner.generateReports(config, (step, completed, total) -> {
+                    updateMessage(step);
+                    updateProgress(completed, total);
+                }, this::isCancelled);
                 return null;
             }
         };
@@ -232,8 +235,7 @@ public class KpiToolApp extends Application {
             return;
         }
 
-        try {
-            ExcelOperations ops = new ExcelOperations(inputPath);
+        try (ExcelOperations ops = new ExcelOperations(inputPath)) {
             ReportCounts counts = ops.detectCountsFromCommonSheet();
             aacSpinner.getValueFactory().setValue(counts.aac());
             residentSpinner.getValueFactory().setValue(counts.resident());
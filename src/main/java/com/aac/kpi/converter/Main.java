@@ -12,6 +12,8 @@ public class Main {
      *             args[5] - Number of event reports.
      *             args[6] - Number of organization reports.
      *             args[7] - Number of location reports.
+     *             args[8] - Optional output format: files (default), ndjson or ndjson.gz, with an
+     *                       optional ":&lt;MB&gt;" part size, e.g. ndjson.gz:512.
      */
     public static void main(String[] args) throws Exception {
         ReportRunner runner = new ReportRunner();
@@ -1,203 +1,229 @@
-package com.aac.kpi.converter;
-
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.text.ParseException;
-import java.util.HashMap;
-
-public class MainJson {
-    public static String generateAacReportsJson(HashMap<String, HashMap<String, String>> aacReports,
-                                                HashMap<String, Practitioner> practitioners,
-                                                String outputFolder) throws IOException, ParseException {
-
-        StringBuilder fullPayload = new StringBuilder();
-        File folder = new File(outputFolder,"aac_reports");
-        folder.mkdirs();
-
-        for (int i = 0; i < aacReports.size(); i++) {
-            String currentReportName = "aac_report_" + (i + 1);
-            System.out.println(currentReportName);
-            JsonObject aacReportObject = Skeleton.generateAacReportObject(aacReports.get(currentReportName), practitioners);
-            Gson gson = new Gson();
-            String aacReportJson = toJsonWithoutNulls(aacReportObject, gson);
-
-            writeJsonToFile(folder.getAbsolutePath(), currentReportName, aacReportJson);
-            fullPayload.append("\n" + aacReportJson);
-        }
+package com.aac.kpi.converter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
-        return fullPayload.toString();
+/**
+ * Writes the report families, as one JSON file per report or as NDJSON parts per family (see
+ * {@link ReportOutput}). Skeleton fills its compiled {@link ReportTemplate}s from the
+ * report maps without side effects on them, so every report of every family is filled and
+ * rendered to UTF-8 as its own task on the common fork-join pool, and {@link JsonReportWriter}
+ * writes it on its I/O thread. The *Async methods return without waiting, letting callers run the six
+ * families side by side; the synchronous methods wait and return the full payload (all reports
+ * of the family, each preceded by a newline), which the *Async variants only assemble when
+ * {@code fullPayload} is set.
+ */
+public class MainJson {
+    private static final BooleanSupplier NEVER = () -> false;
+
+    public static String generateAacReportsJson(HashMap<String, HashMap<String, String>> aacReports,
+                                                HashMap<String, Practitioner> practitioners,
+                                                String outputFolder) throws IOException, ParseException {
+        return await(generateAacReportsJsonAsync(aacReports, practitioners, outputFolder, ReportOutput.FILES, true, NEVER));
     }
-
-    public static String generateResidentReportsJson(HashMap<String, HashMap<String, String>> residentReports,
-                                                     HashMap<String, Patient> patientsMap,
-                                                     HashMap<String, Encounter> encountersMap,
-                                                     HashMap<String, Questionnaire> questionnairesMap,
-                                                     String outputFolder) throws IOException, ParseException {
-
-        StringBuilder fullPayload = new StringBuilder();
-        File folder = new File(outputFolder,"resident_reports");
-        folder.mkdirs();
-
-        for (int i = 0; i < residentReports.size(); i++) {
-            String currentReportName = "resident_report_" + (i + 1);
-            System.out.println(currentReportName);
-            JsonObject residentReportObject = Skeleton.generateResidentReportObject(residentReports.get(currentReportName),
-                                                                                    patientsMap,
-                                                                                    encountersMap,
-                                                                                    questionnairesMap);
-            Gson gson = new GsonBuilder().disableHtmlEscaping().create();
-            String residentReportJson = toJsonWithoutNulls(residentReportObject, gson);
-
-            writeJsonToFile(folder.getAbsolutePath(), currentReportName, residentReportJson);
-            fullPayload.append("\n" + residentReportJson);
-        }
 
-        return fullPayload.toString();
+    public static CompletableFuture<String> generateAacReportsJsonAsync(HashMap<String, HashMap<String, String>> aacReports,
+                                                                        HashMap<String, Practitioner> practitioners,
+                                                                        String outputFolder,
+                                                                        ReportOutput output,
+                                                                        boolean fullPayload,
+                                                                        BooleanSupplier cancelled) {
+        return generateFamily(aacReports, outputFolder, "aac_reports", "aac_report_", true, output, fullPayload, cancelled,
+                report -> Skeleton.generateAacReport(report, practitioners));
     }
-
-    public static String generateVolunteerAttendanceReportsJson(HashMap<String, HashMap<String, String>> volunteerAttendanceReports,
-                                                                HashMap<String, Practitioner> practitioners,
-                                                                String outputFolder) throws IOException, ParseException {
-        StringBuilder fullPayload = new StringBuilder();
-        File folder = new File(outputFolder,"volunteer_attendance_reports");
-        folder.mkdirs();
-
-        for (int i = 0; i < volunteerAttendanceReports.size(); i++) {
-            String currentReportName = "volunteer_attendance_report_" + (i + 1);
-            System.out.println(currentReportName);
-            JsonObject volunteerAttendanceReportObject = Skeleton.generateVolunteerAttendanceReportObject(volunteerAttendanceReports.get(currentReportName),
-                                                                                                          practitioners);
-            Gson gson = new Gson();
-            String volunteerAttendanceReportJson = toJsonWithoutNulls(volunteerAttendanceReportObject, gson);
-
-            writeJsonToFile(folder.getAbsolutePath(), currentReportName, volunteerAttendanceReportJson);
-            fullPayload.append("\n" + volunteerAttendanceReportJson);
-        }
 
-        return fullPayload.toString();
+    public static String generateResidentReportsJson(HashMap<String, HashMap<String, String>> residentReports,
+                                                     HashMap<String, Patient> patientsMap,
+                                                     HashMap<String, Encounter> encountersMap,
+                                                     HashMap<String, Questionnaire> questionnairesMap,
+                                                     String outputFolder) throws IOException, ParseException {
+        return await(generateResidentReportsJsonAsync(residentReports, patientsMap, encountersMap, questionnairesMap,
+                outputFolder, ReportOutput.FILES, true, NEVER));
     }
-
-    public static String generateEventReportsJson(HashMap<String, HashMap<String, String>> eventReports,
-                                                  HashMap<String, HashMap<String, String>> eventSessionsNricMap,
-                                                  HashMap<String, Patient> patientsByNric,
-                                                  HashMap<String, Event> events,
-                                                  String outputFolder) throws IOException, ParseException {
-
-        StringBuilder fullPayload = new StringBuilder();
-        File folder = new File(outputFolder,"event_reports");
-        folder.mkdirs();
-
-        for (int i = 0; i < eventReports.size(); i++) {
-            String currentReportName = "event_report_" + (i + 1);
-            System.out.println(currentReportName);
-            JsonObject eventReportObject = Skeleton.generateEventReportObject(eventReports.get(currentReportName),
-                                                                              eventSessionsNricMap,
-                                                                              patientsByNric,
-                                                                              events);
-            Gson gson = new GsonBuilder().disableHtmlEscaping().create();
-            String eventReportJson = toJsonWithoutNulls(eventReportObject, gson);
-
-            writeJsonToFile(folder.getAbsolutePath(), currentReportName, eventReportJson);
-            fullPayload.append("\n" + eventReportJson);
-        }
 
-        return fullPayload.toString();
+    public static CompletableFuture<String> generateResidentReportsJsonAsync(HashMap<String, HashMap<String, String>> residentReports,
+                                                                             HashMap<String, Patient> patientsMap,
+                                                                             HashMap<String, Encounter> encountersMap,
+                                                                             HashMap<String, Questionnaire> questionnairesMap,
+                                                                             String outputFolder,
+                                                                             ReportOutput output,
+                                                                             boolean fullPayload,
+                                                                             BooleanSupplier cancelled) {
+        return generateFamily(residentReports, outputFolder, "resident_reports", "resident_report_",
+                false, output, fullPayload, cancelled,
+                report -> Skeleton.generateResidentReport(report, patientsMap, encountersMap, questionnairesMap));
     }
-
-    public static String generateOrganizationReportsJson(HashMap<String, HashMap<String, String>> organizationReports,
-                                                         String outputFolder) throws IOException, ParseException {
-
-        StringBuilder fullPayload = new StringBuilder();
-        File folder = new File(outputFolder,"organization_reports");
-        folder.mkdirs();
-
-        for (int i = 0; i < organizationReports.size(); i++) {
-            String currentReportName = "organization_report_" + (i + 1);
-            System.out.println(currentReportName);
-            JsonObject organizationReportObject = Skeleton.generateOrganizationReportObject(organizationReports.get(currentReportName));
-
-            Gson gson = new GsonBuilder().disableHtmlEscaping().create();
-            String organizationReportJson = toJsonWithoutNulls(organizationReportObject, gson);
-
-            writeJsonToFile(folder.getAbsolutePath(), currentReportName, organizationReportJson);
-            fullPayload.append("\n" + organizationReportJson);
-        }
 
-        return fullPayload.toString();
+    public static String generateVolunteerAttendanceReportsJson(HashMap<String, HashMap<String, String>> volunteerAttendanceReports,
+                                                                HashMap<String, Practitioner> practitioners,
+                                                                String outputFolder) throws IOException, ParseException {
+        return await(generateVolunteerAttendanceReportsJsonAsync(volunteerAttendanceReports, practitioners, outputFolder,
+                ReportOutput.FILES, true, NEVER));
     }
-
-    public static String generateLocationReportsJson(HashMap<String, HashMap<String, String>> locationReports,
-                                                     String outputFolder) throws IOException, ParseException {
-
-        StringBuilder fullPayload = new StringBuilder();
-        File folder = new File(outputFolder,"location_reports");
-        folder.mkdirs();
-
-        for (int i = 0; i < locationReports.size(); i++) {
-            String currentReportName = "location_report_" + (i + 1);
-            System.out.println(currentReportName);
-            JsonObject locationReportObject = Skeleton.generateLocationReportObject(locationReports.get(currentReportName));
-
-            Gson gson = new GsonBuilder().disableHtmlEscaping().create();
-            String locationReportJson = toJsonWithoutNulls(locationReportObject, gson);
-
-            writeJsonToFile(folder.getAbsolutePath(), currentReportName, locationReportJson);
-            fullPayload.append("\n" + locationReportJson);
-        }
 
-        return fullPayload.toString();
+    public static CompletableFuture<String> generateVolunteerAttendanceReportsJsonAsync(HashMap<String, HashMap<String, String>> volunteerAttendanceReports,
+                                                                                        HashMap<String, Practitioner> practitioners,
+                                                                                        String outputFolder,
+                                                                                        ReportOutput output,
+                                                                                        boolean fullPayload,
+                                                                                        BooleanSupplier cancelled) {
+        return generateFamily(volunteerAttendanceReports, outputFolder, "volunteer_attendance_reports",
+                "volunteer_attendance_report_", true, output, fullPayload, cancelled,
+                report -> Skeleton.generateVolunteerAttendanceReport(report, practitioners));
     }
-
-    public static void writeJsonToFile(String outputFolder, String fileName, String txtToWrite) throws IOException {
-        File file = new File(outputFolder + "/" + fileName + ".json");
-
-        if (!file.exists()) {
-            file.createNewFile();
-        }
-
-        BufferedWriter output = new BufferedWriter(new FileWriter(file));
-        output.write(txtToWrite);
-        output.close();
+
+    public static String generateEventReportsJson(HashMap<String, HashMap<String, String>> eventReports,
+                                                  HashMap<String, EventRegistration> eventSessionsNricMap,
+                                                  HashMap<String, Patient> patientsByNric,
+                                                  HashMap<String, Event> events,
+                                                  String outputFolder) throws IOException, ParseException {
+        return await(generateEventReportsJsonAsync(eventReports, eventSessionsNricMap, patientsByNric, events,
+                outputFolder, ReportOutput.FILES, true, NEVER));
     }
 
-    private static String toJsonWithoutNulls(JsonObject source, Gson gson) {
-        JsonElement cleaned = stripNulls(source);
-        return gson.toJson(cleaned);
+    public static CompletableFuture<String> generateEventReportsJsonAsync(HashMap<String, HashMap<String, String>> eventReports,
+                                                                          HashMap<String, EventRegistration> eventSessionsNricMap,
+                                                                          HashMap<String, Patient> patientsByNric,
+                                                                          HashMap<String, Event> events,
+                                                                          String outputFolder,
+                                                                          ReportOutput output,
+                                                                          boolean fullPayload,
+                                                                          BooleanSupplier cancelled) {
+        return generateFamily(eventReports, outputFolder, "event_reports", "event_report_",
+                false, output, fullPayload, cancelled,
+                report -> Skeleton.generateEventReport(report, eventSessionsNricMap, patientsByNric, events));
     }
 
-    private static JsonElement stripNulls(JsonElement element) {
-        if (element == null || element.isJsonNull()) {
-            return null;
-        }
-        if (element.isJsonObject()) {
-            JsonObject src = element.getAsJsonObject();
-            JsonObject dest = new JsonObject();
-            for (var entry : src.entrySet()) {
-                JsonElement cleaned = stripNulls(entry.getValue());
-                if (cleaned != null && !cleaned.isJsonNull()) {
-                    dest.add(entry.getKey(), cleaned);
-                }
+    public static String generateOrganizationReportsJson(HashMap<String, HashMap<String, String>> organizationReports,
+                                                         String outputFolder) throws IOException, ParseException {
+        return await(generateOrganizationReportsJsonAsync(organizationReports, outputFolder, ReportOutput.FILES, true, NEVER));
+    }
+
+    public static CompletableFuture<String> generateOrganizationReportsJsonAsync(HashMap<String, HashMap<String, String>> organizationReports,
+                                                                                 String outputFolder,
+                                                                                 ReportOutput output,
+                                                                                 boolean fullPayload,
+                                                                                 BooleanSupplier cancelled) {
+        return generateFamily(organizationReports, outputFolder, "organization_reports", "organization_report_",
+                false, output, fullPayload, cancelled,
+                Skeleton::generateOrganizationReport);
+    }
+
+    public static String generateLocationReportsJson(HashMap<String, HashMap<String, String>> locationReports,
+                                                     String outputFolder) throws IOException, ParseException {
+        return await(generateLocationReportsJsonAsync(locationReports, outputFolder, ReportOutput.FILES, true, NEVER));
+    }
+
+    public static CompletableFuture<String> generateLocationReportsJsonAsync(HashMap<String, HashMap<String, String>> locationReports,
+                                                                             String outputFolder,
+                                                                             ReportOutput output,
+                                                                             boolean fullPayload,
+                                                                             BooleanSupplier cancelled) {
+        return generateFamily(locationReports, outputFolder, "location_reports", "location_report_",
+                false, output, fullPayload, cancelled,
+                Skeleton::generateLocationReport);
+    }
+
+    /**
+     * Fills and renders {@code <prefix>1..n}, one pool task per report, and hands them to the
+     * {@link JsonReportWriter} I/O thread for {@code outputFolder/<folderName>}: one file per
+     * report, or NDJSON parts in report order as {@code output} says. Each task checks
+     * {@code cancelled} before it starts; the future completes once everything is on disk, with
+     * the full payload in report order, or "" when {@code fullPayload} is false. It fails only
+     * after every task of the family has finished, so nothing is still written once it completes.
+     */
+    private static CompletableFuture<String> generateFamily(HashMap<String, HashMap<String, String>> reports,
+                                                            String outputFolder,
+                                                            String folderName,
+                                                            String prefix,
+                                                            boolean htmlSafe,
+                                                            ReportOutput output,
+                                                            boolean fullPayload,
+                                                            BooleanSupplier cancelled,
+                                                            Function<HashMap<String, String>, ReportTemplate.Fill> build) {
+        File folder = new File(outputFolder, folderName);
+        folder.mkdirs();
+
+        int count = reports.size();
+        JsonReportWriter.NdjsonFamily ndjson = null;
+        try {
+            if (output.isNdjson()) {
+                ndjson = JsonReportWriter.ndjson(folder.toPath(), prefix, output, count);
+            } else {
+                JsonReportWriter.deleteParts(folder.toPath(), prefix);
             }
-            return dest;
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
         }
-        if (element.isJsonArray()) {
-            JsonArray dest = new JsonArray();
-            for (JsonElement item : element.getAsJsonArray()) {
-                JsonElement cleaned = stripNulls(item);
-                if (cleaned != null && !cleaned.isJsonNull()) {
-                    dest.add(cleaned);
+        JsonReportWriter.NdjsonFamily family = ndjson;
+        String[] payload = fullPayload ? new String[count] : null;
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[count];
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            String currentReportName = prefix + (i + 1);
+            CompletableFuture<byte[]> rendered = CompletableFuture.supplyAsync(() -> {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException("Report generation cancelled");
                 }
+                byte[] json = build.apply(reports.get(currentReportName)).render(htmlSafe);
+                if (payload != null) payload[index] = new String(json, StandardCharsets.UTF_8);
+                return json;
+            }, pool);
+            if (family == null) {
+                Path file = folder.toPath().resolve(currentReportName + ".json");
+                tasks[i] = rendered.thenCompose(json -> JsonReportWriter.write(file, json));
+            } else {
+                tasks[i] = rendered.whenComplete((json, e) -> {
+                    if (e != null) family.fail(e);
+                    else family.submit(index, json);
+                });
             }
-            return dest;
         }
-        return element;
+        CompletableFuture<Void> written = CompletableFuture.allOf(tasks);
+        if (family != null) {
+            // Wait for the I/O thread to close or abort the part even when a report failed
+            written = written.handle((done, e) -> e).thenCompose(e -> family.done().<Void>handle((done, io) -> {
+                Throwable cause = e != null ? e : io;
+                if (cause == null) return null;
+                throw cause instanceof CompletionException ce ? ce : new CompletionException(cause);
+            }));
+        }
+        return written.thenApply(done -> {
+            if (payload == null) return "";
+            StringBuilder fullPayloadText = new StringBuilder();
+            for (String json : payload) fullPayloadText.append("\n").append(json);
+            return fullPayloadText.toString();
+        });
+    }
+
+    /** Waits for a family started by one of the *Async methods, rethrowing write failures as IOException. */
+    static String await(CompletableFuture<String> family) throws IOException {
+        try {
+            return family.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) throw io.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    public static void writeJsonToFile(String outputFolder, String fileName, String txtToWrite) throws IOException {
+        Files.writeString(Path.of(outputFolder, fileName + ".json"), txtToWrite, StandardCharsets.UTF_8);
     }
 }
@@ -12,7 +12,6 @@ import static com.aac.kpi.converter.DateTime.convertToDate;
 import static com.aac.kpi.converter.ValueUtil.normalizeNumberString;
 import static com.aac.kpi.converter.ValueUtil.splitRefs;
 import static com.aac.kpi.converter.ValueUtil.cleanPostalCode;
-import static com.aac.kpi.converter.ValueUtil.toInteger;
 
 public class Patient {
 
@@ -32,20 +31,22 @@ public class Patient {
     List<String> attended_event_references;
     Integer number_of_sessions_attended;
 
-    public Patient(HashMap<String, String> patient) {
-        this.patient_id = patient.get("patient_id");
-        this.patient_identifier_value = patient.get("patient_identifier_value");
-        this.patient_name = patient.get("patient_name");
-        this.patient_telecom_system = patient.get("patient_telecom_system");
-        this.patient_telecom_value = normalizeNumberString(patient.get("patient_telecom_value"));
-        this.patient_gender = patient.get("patient_gender");
-        this.patient_birthdate = convertToDate(patient.get("patient_birthdate"));
-        this.patient_postalcode = patient.get("patient_postalcode");
-        this.patient_residentialstatuscode = patient.get("patient_residentialstatuscode");
-        this.patient_residentialstatusdisplay = patient.get("patient_residentialstatusdisplay");
-        this.patient_racecode = patient.get("patient_racecode");
-        this.patient_racedisplay = patient.get("patient_racedisplay");
-        this.attended_event_references = splitRefs(patient.get("attended_event_references"));
+    private Patient(String id, String identifierValue, String name, String telecomSystem, String telecomValue,
+                    String gender, String birthdate, String postalcode, String residentialStatusCode,
+                    String residentialStatusDisplay, String raceCode, String raceDisplay, String attendedEventReferences) {
+        this.patient_id = id;
+        this.patient_identifier_value = identifierValue;
+        this.patient_name = name;
+        this.patient_telecom_system = telecomSystem;
+        this.patient_telecom_value = normalizeNumberString(telecomValue);
+        this.patient_gender = gender;
+        this.patient_birthdate = convertToDate(birthdate);
+        this.patient_postalcode = postalcode;
+        this.patient_residentialstatuscode = residentialStatusCode;
+        this.patient_residentialstatusdisplay = residentialStatusDisplay;
+        this.patient_racecode = raceCode;
+        this.patient_racedisplay = raceDisplay;
+        this.attended_event_references = splitRefs(attendedEventReferences);
         String birthDate = this.patient_birthdate;
         if (birthDate != null) {
             Period period = Period.between(LocalDate.parse(birthDate), LocalDate.now());
@@ -53,7 +54,32 @@ public class Patient {
         } else {
             this.patient_age = null;
         }
-        this.number_of_sessions_attended = toInteger(patient.get("number_of_sessions_attended"));
+    }
+
+    /** Decodes rows of the patient sheet, resolving its columns once. */
+    static SheetColumns.RowDecoder<Patient> decoder(SheetColumns columns) {
+        int id = columns.of("patient_id");
+        int identifierValue = columns.of("patient_identifier_value");
+        int name = columns.of("patient_name");
+        int telecomSystem = columns.of("patient_telecom_system");
+        int telecomValue = columns.of("patient_telecom_value");
+        int gender = columns.of("patient_gender");
+        int birthdate = columns.of("patient_birthdate");
+        int postalcode = columns.of("patient_postalcode");
+        int residentialStatusCode = columns.of("patient_residentialstatuscode");
+        int residentialStatusDisplay = columns.of("patient_residentialstatusdisplay");
+        int raceCode = columns.of("patient_racecode");
+        int raceDisplay = columns.of("patient_racedisplay");
+        int attendedEventReferences = columns.of("attended_event_references");
+        return row -> new Patient(row.get(id), row.get(identifierValue), row.get(name), row.get(telecomSystem),
+                row.get(telecomValue), row.get(gender), row.get(birthdate), row.get(postalcode),
+                row.get(residentialStatusCode), row.get(residentialStatusDisplay), row.get(raceCode),
+                row.get(raceDisplay), row.get(attendedEventReferences));
+    }
+
+    /** Sessions attended across all events, counted from the event sessions sheet. */
+    void setNumberOfSessionsAttended(int count) {
+        this.number_of_sessions_attended = count;
     }
 
     public JsonObject generatePatientObject() {
@@ -122,13 +148,13 @@ public class Patient {
         return patientObject;
     }
 
-    public JsonObject generatePatientEventDetailsObject(HashMap<String, HashMap<String, String>> eventSessionsNricMap, int registrationIndex) {
+    public JsonObject generatePatientEventDetailsObject(HashMap<String, EventRegistration> eventSessionsNricMap, int registrationIndex) {
         JsonObject patientObject = new JsonObject();
 
-        HashMap<String, String> registrationDetails = eventSessionsNricMap.get(this.patient_identifier_value);
+        EventRegistration registrationDetails = eventSessionsNricMap.get(this.patient_identifier_value);
 
         patientObject.addProperty("resourceType", "Patient");
-        patientObject.addProperty("id", registrationDetails != null ? registrationDetails.get("registration_id" + registrationIndex) : null);
+        patientObject.addProperty("id", registrationDetails != null ? registrationDetails.registrationId(registrationIndex) : null);
 
         JsonArray identifierArray = new JsonArray();
         JsonObject identifierObject = new JsonObject();
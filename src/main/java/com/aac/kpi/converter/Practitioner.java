@@ -6,7 +6,6 @@ import org.apache.commons.math3.util.Pair;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 
 import static com.aac.kpi.converter.ValueUtil.toFloat;
@@ -23,14 +22,28 @@ public class Practitioner {
     Integer practitioner_volunteer_age;
     private final ArrayList<Pair<String, LocalDate>> activitiesVolunteeredFor = new ArrayList<Pair<String, LocalDate>>();;
 
-    public Practitioner(HashMap<String, String> practitioner) {
-        this.practitioner_id = practitioner.get("practitioner_id");
-        this.practitioner_identifier_value = practitioner.get("practitioner_identifier_value");
-        this.practitioner_identifier_system = practitioner.get("practitioner_identifier_system");
-        this.practitioner_manpower_position = practitioner.get("practitioner_manpower_position");
-        this.practitioner_volunteer_name = practitioner.get("practitioner_volunteer_name");
-        this.practitioner_manpower_capacity = toFloat(practitioner.get("practitioner_manpower_capacity"));
-        this.practitioner_volunteer_age = toInteger(practitioner.get("practitioner_volunteer_age"));
+    private Practitioner(String id, String identifierValue, String identifierSystem, String manpowerPosition,
+                         String volunteerName, String manpowerCapacity, String volunteerAge) {
+        this.practitioner_id = id;
+        this.practitioner_identifier_value = identifierValue;
+        this.practitioner_identifier_system = identifierSystem;
+        this.practitioner_manpower_position = manpowerPosition;
+        this.practitioner_volunteer_name = volunteerName;
+        this.practitioner_manpower_capacity = toFloat(manpowerCapacity);
+        this.practitioner_volunteer_age = toInteger(volunteerAge);
+    }
+
+    /** Decodes rows of the practitioner sheet, resolving its columns once. */
+    static SheetColumns.RowDecoder<Practitioner> decoder(SheetColumns columns) {
+        int id = columns.of("practitioner_id");
+        int identifierValue = columns.of("practitioner_identifier_value");
+        int identifierSystem = columns.of("practitioner_identifier_system");
+        int manpowerPosition = columns.of("practitioner_manpower_position");
+        int volunteerName = columns.of("practitioner_volunteer_name");
+        int manpowerCapacity = columns.of("practitioner_manpower_capacity");
+        int volunteerAge = columns.of("practitioner_volunteer_age");
+        return row -> new Practitioner(row.get(id), row.get(identifierValue), row.get(identifierSystem),
+                row.get(manpowerPosition), row.get(volunteerName), row.get(manpowerCapacity), row.get(volunteerAge));
     }
 
     public JsonObject generatePractitionerObject() {
@@ -2,8 +2,6 @@ package com.aac.kpi.converter;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
-
-import java.util.HashMap;
 
 import static com.aac.kpi.converter.DateTime.convertToDate;
 import static com.aac.kpi.converter.ValueUtil.toInteger;
@@ -24,19 +22,30 @@ public class Questionnaire {
     String questionnaire_q9_answer;
     String questionnaire_q10_answer;
 
-    public Questionnaire(HashMap<String, String> questionnaire) {
-        this.questionnaire_id = questionnaire.get("questionnaire_id");
-        this.questionnaire_status = questionnaire.get("questionnaire_status");
-        this.questionnaire_q1_answer = questionnaire.get("questionnaire_q1_answer");
-        this.questionnaire_q2_answer = questionnaire.get("questionnaire_q2_answer");
-        this.questionnaire_q3_answer = questionnaire.get("questionnaire_q3_answer");
-        this.questionnaire_q4_answer = questionnaire.get("questionnaire_q4_answer");
-        this.questionnaire_q5_answer = questionnaire.get("questionnaire_q5_answer");
-        this.questionnaire_q6_answer = questionnaire.get("questionnaire_q6_answer");
-        this.questionnaire_q7_answer = questionnaire.get("questionnaire_q7_answer");
-        this.questionnaire_q8_answer = questionnaire.get("questionnaire_q8_answer");
-        this.questionnaire_q9_answer = questionnaire.get("questionnaire_q9_answer");
-        this.questionnaire_q10_answer = questionnaire.get("questionnaire_q10_answer");
+    private Questionnaire(String id, String status, String[] answers) {
+        this.questionnaire_id = id;
+        this.questionnaire_status = status;
+        this.questionnaire_q1_answer = answers[0];
+        this.questionnaire_q2_answer = answers[1];
+        this.questionnaire_q3_answer = answers[2];
+        this.questionnaire_q4_answer = answers[3];
+        this.questionnaire_q5_answer = answers[4];
+        this.questionnaire_q6_answer = answers[5];
+        this.questionnaire_q7_answer = answers[6];
+        this.questionnaire_q8_answer = answers[7];
+        this.questionnaire_q9_answer = answers[8];
+        this.questionnaire_q10_answer = answers[9];
+    }
+
+    /** Decodes rows of the questionnaire sheet, resolving its columns once. */
+    static SheetColumns.RowDecoder<Questionnaire> decoder(SheetColumns columns) {
+        int id = columns.of("questionnaire_id");
+        int status = columns.of("questionnaire_status");
+        int[] answers = new int[10];
+        for (int q = 0; q < answers.length; q++) {
+            answers[q] = columns.of("questionnaire_q" + (q + 1) + "_answer");
+        }
+        return row -> new Questionnaire(row.get(id), row.get(status), SheetColumns.read(row, answers));
     }
 
     public JsonObject generateQuestionnaireObject() {
@@ -3,7 +3,7 @@ package com.aac.kpi.converter;
 import java.util.Objects;
 
 /**
- * Immutable container for user-supplied input/output locations and report counts.
+ * Immutable container for user-supplied input/output locations, report counts and output format.
  */
 public record ReportConfig(String inputPath,
                            String outputFolder,
@@ -12,9 +12,24 @@ public record ReportConfig(String inputPath,
                            int volunteerAttendanceReports,
                            int eventReports,
                            int organizationReports,
-                           int locationReports) {
+                           int locationReports,
+                           ReportOutput output) {
+
+    /** One JSON file per report. */
+    public ReportConfig(String inputPath,
+                        String outputFolder,
+                        int aacReports,
+                        int residentReports,
+                        int volunteerAttendanceReports,
+                        int eventReports,
+                        int organizationReports,
+                        int locationReports) {
+        this(inputPath, outputFolder, aacReports, residentReports, volunteerAttendanceReports, eventReports,
+                organizationReports, locationReports, ReportOutput.FILES);
+    }
 
     public ReportConfig {
+        Objects.requireNonNull(output, "Output format is required");
         inputPath = Objects.requireNonNull(inputPath, "Input Excel path is required").trim();
         outputFolder = Objects.requireNonNull(outputFolder, "Output folder is required").trim();
 
@@ -38,7 +53,8 @@ public record ReportConfig(String inputPath,
             throw new IllegalArgumentException("""
                     Expected arguments:
                     <inputExcelPath> <outputFolder> <numAacReports> <numResidentReports> \
-<numVolunteerAttendanceReports> <numEventReports> <numOrganizationReports> <numLocationReports>""");
+<numVolunteerAttendanceReports> <numEventReports> <numOrganizationReports> <numLocationReports> \
+[files|ndjson|ndjson.gz[:splitMB]]""");
         }
 
         return new ReportConfig(
@@ -49,7 +65,8 @@ public record ReportConfig(String inputPath,
                 parseCount(args[4], "Volunteer attendance reports"),
                 parseCount(args[5], "Event reports"),
                 parseCount(args[6], "Organization reports"),
-                parseCount(args[7], "Location reports")
+                parseCount(args[7], "Location reports"),
+                args.length > 8 ? ReportOutput.parse(args[8]) : ReportOutput.FILES
         );
     }
 
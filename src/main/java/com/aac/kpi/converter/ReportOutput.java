@@ -0,0 +1,67 @@
+package com.aac.kpi.converter;
+
+import java.util.Locale;
+
+/**
+ * How each report family is written under its folder (aac_reports/, resident_reports/, ...).
+ * {@link Format#FILES} is one &lt;prefix&gt;N.json per report. {@link Format#NDJSON} writes the
+ * family as newline-delimited JSON, one report per line in report order, to
+ * &lt;prefix&gt;part0001.ndjson (.ndjson.gz when {@code gzip} is set); with {@code splitBytes} &gt; 0
+ * a new part is started before a part would grow past that many bytes of JSON (measured before
+ * compression).
+ */
+public record ReportOutput(Format format, boolean gzip, long splitBytes) {
+    public enum Format { FILES, NDJSON }
+
+    public static final ReportOutput FILES = new ReportOutput(Format.FILES, false, 0);
+
+    public ReportOutput {
+        if (format == null) {
+            throw new IllegalArgumentException("Output format is required");
+        }
+        if (splitBytes < 0) {
+            throw new IllegalArgumentException("Split size cannot be negative");
+        }
+    }
+
+    public static ReportOutput ndjson(boolean gzip, long splitBytes) {
+        return new ReportOutput(Format.NDJSON, gzip, splitBytes);
+    }
+
+    public boolean isNdjson() {
+        return format == Format.NDJSON;
+    }
+
+    /** File name of part {@code part} (1-based) of the family written with {@code prefix}. */
+    String partName(String prefix, int part) {
+        return String.format("%spart%04d.ndjson%s", prefix, part, gzip ? ".gz" : "");
+    }
+
+    /**
+     * Parses a command-line output spec: "files", "ndjson" or "ndjson.gz", optionally followed by
+     * ":&lt;MB&gt;" to split NDJSON parts at that size, e.g. "ndjson.gz:512".
+     */
+    public static ReportOutput parse(String spec) {
+        String value = spec == null ? "" : spec.trim().toLowerCase(Locale.ROOT);
+        long splitBytes = 0;
+        int colon = value.indexOf(':');
+        if (colon >= 0) {
+            try {
+                splitBytes = Long.parseLong(value.substring(colon + 1).trim()) * 1024 * 1024;
+            } catch (NumberFormatException ex) {
+                throw new IllegalArgumentException("Split size must be a whole number of MB: " + spec, ex);
+            }
+            value = value.substring(0, colon).trim();
+        }
+        return switch (value) {
+            case "files", "json" -> {
+                if (splitBytes != 0) throw new IllegalArgumentException("Only NDJSON output can be split: " + spec);
+                yield FILES;
+            }
+            case "ndjson" -> ndjson(false, splitBytes);
+            case "ndjson.gz", "ndjson-gz" -> ndjson(true, splitBytes);
+            default -> throw new IllegalArgumentException("Unknown output format: " + spec
+                    + " (expected files, ndjson or ndjson.gz)");
+        };
+    }
+}
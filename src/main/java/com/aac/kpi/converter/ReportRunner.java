@@ -1,9 +1,17 @@
 package com.aac.kpi.converter;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 import static com.aac.kpi.converter.ReportConstants.AAC_TYPE;
 import static com.aac.kpi.converter.ReportConstants.ENCOUNTER_TYPE;
@@ -26,46 +34,85 @@ import static com.aac.kpi.converter.ReportConstants.VOLUNTEER_ATTENDANCE_TYPE;
  */
 public class ReportRunner {
 
+    /**
+     * Receives coarse progress while reports are generated: one call before each sheet read and
+     * each report family, then a final call with {@code completed == total}.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        ProgressListener NONE = (step, completed, total) -> { };
+
+        void onProgress(String step, int completed, int total);
+    }
+
+    // 6 Common-sheet tables + 6 master sheets read, then 6 report families written
+    private static final int TOTAL_STEPS = 18;
+
     public void generateReports(ReportConfig config) throws Exception {
+        generateReports(config, ProgressListener.NONE, () -> false);
+    }
+
+    /**
+     * Same as {@link #generateReports(ReportConfig)} but reports progress and checks
+     * {@code cancelled} between steps, throwing {@link CancellationException} once it returns true.
+     */
+    public void generateReports(ReportConfig config, ProgressListener listener, BooleanSupplier cancelled) throws Exception {
         Path inputPath = Path.of(config.inputPath());
         if (!Files.isRegularFile(inputPath)) {
             throw new IllegalArgumentException("Input Excel file not found: " + inputPath.toAbsolutePath());
         }
 
-        Files.createDirectories(Path.of(config.outputFolder()));
+        // One parse of the workbook serves all twelve table/sheet lookups and is released on exit
+        try (ExcelOperations excelOperations = new ExcelOperations(inputPath.toString())) {
+            generateReports(new WorkbookSource(excelOperations, new ReportCounts(
+                    config.aacReports(),
+                    config.residentReports(),
+                    config.volunteerAttendanceReports(),
+                    config.eventReports(),
+                    config.organizationReports(),
+                    config.locationReports())), config.outputFolder(), config.output(), new Steps(listener, cancelled));
+        }
+    }
+
+    /**
+     * Generates the same report folders from tables the caller built in memory, so no workbook is
+     * written or parsed. Every row of each table is reported; see {@link ReportTables#counts()}.
+     */
+    public void generateReports(ReportTables tables, String outputFolder, ReportOutput output,
+                                ProgressListener listener, BooleanSupplier cancelled) throws Exception {
+        Objects.requireNonNull(tables, "Report tables are required");
+        Objects.requireNonNull(output, "Output format is required");
+        if (outputFolder == null || outputFolder.isBlank()) {
+            throw new IllegalArgumentException("Output folder cannot be blank");
+        }
+        generateReports(new TableSource(tables), outputFolder.trim(), output, new Steps(listener, cancelled));
+    }
+
+    private void generateReports(ReportSource source, String outputFolder, ReportOutput output, Steps steps)
+            throws Exception {
+        Files.createDirectories(Path.of(outputFolder));
 
-        ExcelOperations excelOperations = new ExcelOperations(inputPath.toString());
-        HashMap<String, HashMap<String, String>> aacReportsMap =
-                excelOperations.getReportsMap(AAC_TYPE, config.aacReports(), START_ROW);
+        steps.next("Reading AAC reports");
+        HashMap<String, HashMap<String, String>> aacReportsMap = source.reports(AAC_TYPE);
 
-        int residentReportsStartRow = START_ROW + config.aacReports() + FILLER_ROWS;
-        HashMap<String, HashMap<String, String>> residentReportsMap =
-                excelOperations.getReportsMap(RESIDENT_TYPE, config.residentReports(), residentReportsStartRow);
+        steps.next("Reading resident reports");
+        HashMap<String, HashMap<String, String>> residentReportsMap = source.reports(RESIDENT_TYPE);
 
-        int volunteerAttendanceReportsStartRow = residentReportsStartRow + config.residentReports() + FILLER_ROWS;
+        steps.next("Reading volunteer attendance reports");
         HashMap<String, HashMap<String, String>> volunteerAttendanceReportsMap =
-                excelOperations.getReportsMap(VOLUNTEER_ATTENDANCE_TYPE, config.volunteerAttendanceReports(), volunteerAttendanceReportsStartRow);
+                source.reports(VOLUNTEER_ATTENDANCE_TYPE);
 
-        int eventReportsStartRow = volunteerAttendanceReportsStartRow + config.volunteerAttendanceReports() + FILLER_ROWS;
-        HashMap<String, HashMap<String, String>> eventReportsMap =
-                excelOperations.getReportsMap(EVENT_TYPE, config.eventReports(), eventReportsStartRow);
+        steps.next("Reading event reports");
+        HashMap<String, HashMap<String, String>> eventReportsMap = source.reports(EVENT_TYPE);
 
-        int organizationReportsStartRow = eventReportsStartRow + config.eventReports() + FILLER_ROWS;
-        HashMap<String, HashMap<String, String>> organizationReportsMap =
-                excelOperations.getReportsMap(ORGANIZATION_TYPE, config.organizationReports(), organizationReportsStartRow);
+        steps.next("Reading organization reports");
+        HashMap<String, HashMap<String, String>> organizationReportsMap = source.reports(ORGANIZATION_TYPE);
 
-        int locationReportsStartRow = organizationReportsStartRow + config.organizationReports() + FILLER_ROWS;
-        HashMap<String, HashMap<String, String>> locationReportsMap =
-                excelOperations.getReportsMap(LOCATION_TYPE, config.locationReports(), locationReportsStartRow);
+        steps.next("Reading location reports");
+        HashMap<String, HashMap<String, String>> locationReportsMap = source.reports(LOCATION_TYPE);
 
-        HashMap<String, HashMap<String, String>> eventSessionsMap = excelOperations.getMasterDataMap(EVENT_SESSIONS_TYPE);
-        HashMap<String, Event> events = new HashMap<>();
-        for (Map.Entry<String, HashMap<String, String>> eventEntry : eventSessionsMap.entrySet()) {
-            String eventCompositionId = eventEntry.getKey();
-            HashMap<String, String> eventDetails = eventEntry.getValue();
-            Event event = new Event(eventDetails);
-            events.put(eventCompositionId, event);
-        }
+        steps.next("Reading event sessions");
+        HashMap<String, Event> events = source.masterRows(EVENT_SESSIONS_TYPE, Event::decoder);
 
         HashMap<String, Integer> globalPatientSessionMapping = new HashMap<>();
         for (Map.Entry<String, Event> eventEntry : events.entrySet()) {
@@ -84,59 +131,168 @@ public class ReportRunner {
             }
         }
 
-        HashMap<String, HashMap<String, String>> eventSessionsNricMap = excelOperations.getMasterDataMap(EVENT_SESSIONS_NRIC_TYPE);
+        steps.next("Reading event session registrations");
+        HashMap<String, EventRegistration> eventSessionsNricMap =
+                source.masterRows(EVENT_SESSIONS_NRIC_TYPE, EventRegistration::decoder);
 
-        HashMap<String, HashMap<String, String>> patientsMap = excelOperations.getMasterDataMap(PATIENT_TYPE);
-        HashMap<String, Patient> patients = new HashMap<>();
+        steps.next("Reading patients");
+        HashMap<String, Patient> patients = source.masterRows(PATIENT_TYPE, Patient::decoder);
         HashMap<String, Patient> patientsByNric = new HashMap<>(); // For event reports only
-        for (Map.Entry<String, HashMap<String, String>> patientEntry : patientsMap.entrySet()) {
+        for (Map.Entry<String, Patient> patientEntry : patients.entrySet()) {
             String patientId = patientEntry.getKey();
-            String patientNric = patientEntry.getValue().get("patient_identifier_value");
-            HashMap<String, String> patientDetails = patientEntry.getValue();
+            Patient patient = patientEntry.getValue();
+            patient.setNumberOfSessionsAttended(globalPatientSessionMapping.getOrDefault(patientId, 0));
+            patientsByNric.put(patient.patient_identifier_value, patient);
+        }
+
+        steps.next("Reading practitioners");
+        HashMap<String, Practitioner> practitioners = source.masterRows(PRACTITIONER_TYPE, Practitioner::decoder);
+
+        steps.next("Reading encounters");
+        HashMap<String, Encounter> encounters = source.masterRows(ENCOUNTER_TYPE, Encounter::decoder);
+
+        steps.next("Reading questionnaires");
+        HashMap<String, Questionnaire> questionnaires = source.masterRows(QUESTIONNAIRE_TYPE, Questionnaire::decoder);
+
+        // All six families start at once and share the pool report by report; progress then
+        // advances as each family completes, in the usual order. Nobody reads the concatenated
+        // payloads, so they are not assembled.
+        AtomicBoolean abort = new AtomicBoolean();
+        BooleanSupplier stop = () -> abort.get() || steps.isCancelled();
+        List<CompletableFuture<String>> families = List.of(
+                MainJson.generateAacReportsJsonAsync(aacReportsMap, practitioners, outputFolder, output, false, stop),
+                MainJson.generateResidentReportsJsonAsync(residentReportsMap, patients, encounters, questionnaires,
+                        outputFolder, output, false, stop),
+                MainJson.generateVolunteerAttendanceReportsJsonAsync(volunteerAttendanceReportsMap, practitioners,
+                        outputFolder, output, false, stop),
+                MainJson.generateEventReportsJsonAsync(eventReportsMap, eventSessionsNricMap, patientsByNric, events,
+                        outputFolder, output, false, stop),
+                MainJson.generateOrganizationReportsJsonAsync(organizationReportsMap, outputFolder, output, false, stop),
+                MainJson.generateLocationReportsJsonAsync(locationReportsMap, outputFolder, output, false, stop));
+        String[] familySteps = {
+                "Writing AAC reports",
+                "Writing resident reports",
+                "Writing volunteer attendance reports",
+                "Writing event reports",
+                "Writing organization reports",
+                "Writing location reports"};
+        try {
+            for (int i = 0; i < families.size(); i++) {
+                steps.next(familySteps[i]);
+                MainJson.await(families.get(i));
+            }
+        } finally {
+            // On failure or cancellation, reports not yet started are skipped; the ones already
+            // running finish before we return, so no file is written after the run has ended
+            abort.set(true);
+            CompletableFuture.allOf(families.toArray(new CompletableFuture<?>[0]))
+                    .exceptionally(t -> null)
+                    .join();
+        }
+        steps.finish();
+    }
+
+    /**
+     * Reads the Common-sheet tables of a saved workbook, which sit one under another starting at
+     * {@code START_ROW}, {@code FILLER_ROWS} apart, with as many rows each as {@code counts} says.
+     */
+    private static final class WorkbookSource implements ReportSource {
+        private static final List<String> TABLE_ORDER = List.of(AAC_TYPE, RESIDENT_TYPE,
+                VOLUNTEER_ATTENDANCE_TYPE, EVENT_TYPE, ORGANIZATION_TYPE, LOCATION_TYPE);
 
-            if (globalPatientSessionMapping.get(patientId) == null) {
-                patientDetails.put("number_of_sessions_attended", "0");
-            } else {
-                patientDetails.put("number_of_sessions_attended", String.valueOf(globalPatientSessionMapping.get(patientId)));
+        private final ExcelOperations excelOperations;
+        private final ReportCounts counts;
+
+        WorkbookSource(ExcelOperations excelOperations, ReportCounts counts) {
+            this.excelOperations = excelOperations;
+            this.counts = counts;
+        }
+
+        @Override
+        public HashMap<String, HashMap<String, String>> reports(String typeOfReport) throws IOException {
+            int startRow = START_ROW;
+            for (String type : TABLE_ORDER) {
+                if (type.equals(typeOfReport)) {
+                    break;
+                }
+                startRow += count(type) + FILLER_ROWS;
             }
+            return excelOperations.getReportsMap(typeOfReport, count(typeOfReport), startRow);
+        }
+
+        @Override
+        public <T> HashMap<String, T> masterRows(String typeOfSheet,
+                                                 Function<SheetColumns, SheetColumns.RowDecoder<T>> decoder)
+                throws IOException {
+            return excelOperations.getMasterRows(typeOfSheet, decoder);
+        }
+
+        private int count(String typeOfReport) {
+            switch (typeOfReport) {
+                case AAC_TYPE:
+                    return counts.aac();
+                case RESIDENT_TYPE:
+                    return counts.resident();
+                case VOLUNTEER_ATTENDANCE_TYPE:
+                    return counts.volunteerAttendance();
+                case EVENT_TYPE:
+                    return counts.eventReports();
+                case ORGANIZATION_TYPE:
+                    return counts.organization();
+                case LOCATION_TYPE:
+                    return counts.location();
+                default:
+                    return 0;
+            }
+        }
+    }
 
-            Patient patient = new Patient(patientDetails);
-            patients.put(patientId, patient);
-            patientsByNric.put(patientNric, patient);
+    private static final class TableSource implements ReportSource {
+        private final ReportTables tables;
+
+        TableSource(ReportTables tables) {
+            this.tables = tables;
+        }
+
+        @Override
+        public HashMap<String, HashMap<String, String>> reports(String typeOfReport) {
+            return tables.reports(typeOfReport);
         }
 
-        HashMap<String, HashMap<String, String>> practitionersMap = excelOperations.getMasterDataMap(PRACTITIONER_TYPE);
-        HashMap<String, Practitioner> practitioners = new HashMap<>();
-        for (Map.Entry<String, HashMap<String, String>> practitionerEntry : practitionersMap.entrySet()) {
-            String practitionerId = practitionerEntry.getKey();
-            HashMap<String, String> practitionerDetails = practitionerEntry.getValue();
-            Practitioner practitioner = new Practitioner(practitionerDetails);
-            practitioners.put(practitionerId, practitioner);
+        @Override
+        public <T> HashMap<String, T> masterRows(String typeOfSheet,
+                                                 Function<SheetColumns, SheetColumns.RowDecoder<T>> decoder) {
+            return tables.masterRows(typeOfSheet, decoder);
         }
+    }
+
+    private static final class Steps {
+        private final ProgressListener listener;
+        private final BooleanSupplier cancelled;
+        private int completed;
 
-        HashMap<String, HashMap<String, String>> encountersMap = excelOperations.getMasterDataMap(ENCOUNTER_TYPE);
-        HashMap<String, Encounter> encounters = new HashMap<>();
-        for (Map.Entry<String, HashMap<String, String>> encounterEntry : encountersMap.entrySet()) {
-            String encounterId = encounterEntry.getKey();
-            HashMap<String, String> encounterDetails = encounterEntry.getValue();
-            Encounter encounter = new Encounter(encounterDetails);
-            encounters.put(encounterId, encounter);
+        Steps(ProgressListener listener, BooleanSupplier cancelled) {
+            this.listener = listener == null ? ProgressListener.NONE : listener;
+            this.cancelled = cancelled == null ? () -> false : cancelled;
         }
 
-        HashMap<String, HashMap<String, String>> questionnairesMap = excelOperations.getMasterDataMap(QUESTIONNAIRE_TYPE);
-        HashMap<String, Questionnaire> questionnaires = new HashMap<>();
-        for (Map.Entry<String, HashMap<String, String>> questionnaireEntry : questionnairesMap.entrySet()) {
-            String questionnaireId = questionnaireEntry.getKey();
-            HashMap<String, String> questionnaireDetails = questionnaireEntry.getValue();
-            Questionnaire questionnaire = new Questionnaire(questionnaireDetails);
-            questionnaires.put(questionnaireId, questionnaire);
+        void next(String step) {
+            checkCancelled();
+            listener.onProgress(step, completed++, TOTAL_STEPS);
         }
 
-        MainJson.generateAacReportsJson(aacReportsMap, practitioners, config.outputFolder());
-        MainJson.generateResidentReportsJson(residentReportsMap, patients, encounters, questionnaires, config.outputFolder());
-        MainJson.generateVolunteerAttendanceReportsJson(volunteerAttendanceReportsMap, practitioners, config.outputFolder());
-        MainJson.generateEventReportsJson(eventReportsMap, eventSessionsNricMap, patientsByNric, events, config.outputFolder());
-        MainJson.generateOrganizationReportsJson(organizationReportsMap, config.outputFolder());
-        MainJson.generateLocationReportsJson(locationReportsMap, config.outputFolder());
+        void finish() {
+            listener.onProgress("Done", TOTAL_STEPS, TOTAL_STEPS);
+        }
+
+        boolean isCancelled() {
+            return cancelled.getAsBoolean();
+        }
+
+        private void checkCancelled() {
+            if (cancelled.getAsBoolean() || Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Report generation cancelled");
+            }
+        }
     }
 }
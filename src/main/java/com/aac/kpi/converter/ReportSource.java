@@ -0,0 +1,22 @@
+package com.aac.kpi.converter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.function.Function;
+
+/**
+ * Where {@link ReportRunner} reads its input: the six report tables of the Common sheet and the
+ * master sheets. Implemented over a saved workbook and over {@link ReportTables} built in memory.
+ */
+interface ReportSource {
+
+    /**
+     * The rows of one report table keyed {@code aac_report_1}, {@code aac_report_2}, ... (see
+     * {@link ExcelOperations#reportKeyPrefix}), each mapping header to cell text.
+     */
+    HashMap<String, HashMap<String, String>> reports(String typeOfReport) throws IOException;
+
+    /** Every row of one master sheet decoded by {@code decoder}, keyed by its first cell. */
+    <T> HashMap<String, T> masterRows(String typeOfSheet,
+                                      Function<SheetColumns, SheetColumns.RowDecoder<T>> decoder) throws IOException;
+}
@@ -0,0 +1,136 @@
+package com.aac.kpi.converter;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static com.aac.kpi.converter.ReportConstants.AAC_TYPE;
+import static com.aac.kpi.converter.ReportConstants.EVENT_TYPE;
+import static com.aac.kpi.converter.ReportConstants.LOCATION_TYPE;
+import static com.aac.kpi.converter.ReportConstants.ORGANIZATION_TYPE;
+import static com.aac.kpi.converter.ReportConstants.RESIDENT_TYPE;
+import static com.aac.kpi.converter.ReportConstants.VOLUNTEER_ATTENDANCE_TYPE;
+
+/**
+ * Report tables and master sheets filled cell by cell, for callers that already have the data in
+ * memory and would otherwise build a workbook only for the converter to read it back. Text,
+ * number and date cells are stored as the text {@link ExcelOperations#getCellValueAsString} reads
+ * from the matching workbook cell, so {@link ReportRunner} produces the same reports from either
+ * input. Types are the {@link ReportConstants} report and sheet names.
+ */
+public final class ReportTables {
+    private final Map<String, Table> reports = new HashMap<>();
+    private final Map<String, Table> masterSheets = new HashMap<>();
+
+    /** Adds (or replaces) the report table of {@code typeOfReport}; fill it with {@link Table#addRow()}. */
+    public Table addReports(String typeOfReport, String... headers) {
+        Table table = new Table(headers);
+        reports.put(typeOfReport, table);
+        return table;
+    }
+
+    /** Adds (or replaces) the master sheet of {@code typeOfSheet}; its rows are keyed by their first cell. */
+    public Table addMasterSheet(String typeOfSheet, String... headers) {
+        Table table = new Table(headers);
+        masterSheets.put(typeOfSheet, table);
+        return table;
+    }
+
+    /** Row counts of the six report tables; a table that was never added counts 0. */
+    public ReportCounts counts() {
+        return new ReportCounts(
+                size(reports.get(AAC_TYPE)),
+                size(reports.get(RESIDENT_TYPE)),
+                size(reports.get(VOLUNTEER_ATTENDANCE_TYPE)),
+                size(reports.get(EVENT_TYPE)),
+                size(reports.get(ORGANIZATION_TYPE)),
+                size(reports.get(LOCATION_TYPE)));
+    }
+
+    private static int size(Table table) {
+        return table == null ? 0 : table.rows.size();
+    }
+
+    HashMap<String, HashMap<String, String>> reports(String typeOfReport) {
+        HashMap<String, HashMap<String, String>> reportMap = new HashMap<>();
+        Table table = reports.get(typeOfReport);
+        if (table == null) {
+            return reportMap;
+        }
+        String prefix = ExcelOperations.reportKeyPrefix(typeOfReport);
+        for (int i = 0; i < table.rows.size(); i++) {
+            String[] row = table.rows.get(i);
+            HashMap<String, String> valueMap = new HashMap<>();
+            for (int column = 0; column < table.headers.size(); column++) {
+                valueMap.put(table.headers.get(column), Table.cell(row, column));
+            }
+            reportMap.put(prefix + (i + 1), valueMap);
+        }
+        return reportMap;
+    }
+
+    <T> HashMap<String, T> masterRows(String typeOfSheet,
+                                      Function<SheetColumns, SheetColumns.RowDecoder<T>> decoder) {
+        HashMap<String, T> mastersMap = new HashMap<>();
+        Table table = masterSheets.get(typeOfSheet);
+        if (table == null || table.rows.isEmpty()) {
+            return mastersMap;
+        }
+        SheetColumns.RowDecoder<T> rowDecoder = decoder.apply(new SheetColumns(table.headers));
+        int width = table.headers.size();
+        for (String[] row : table.rows) {
+            mastersMap.put(Table.cell(row, 0), rowDecoder.decode(ordinal ->
+                    ordinal < 0 || ordinal >= width ? null : Table.cell(row, ordinal)));
+        }
+        return mastersMap;
+    }
+
+    /** One table: a header row and the data rows under it, in order. */
+    public static final class Table {
+        private final List<String> headers;
+        private final List<String[]> rows = new ArrayList<>();
+        private String[] current;
+        private int column;
+
+        private Table(String[] headers) {
+            this.headers = List.of(headers);
+        }
+
+        /**
+         * Starts a data row, filled left to right by the cell methods. Cells never written read as
+         * null, like missing workbook cells; cells past the last header are dropped.
+         */
+        public Table addRow() {
+            current = new String[headers.size()];
+            column = 0;
+            rows.add(current);
+            return this;
+        }
+
+        public Table text(String value) {
+            if (column < current.length)
+                current[column] = value;
+            column++;
+            return this;
+        }
+
+        /** A numeric cell; 1 reads as "1.0". */
+        public Table number(double value) {
+            return text(ExcelOperations.numericCellText(value));
+        }
+
+        /** A date-formatted cell, which reads as its Excel serial number ("45778.0"). */
+        public Table date(LocalDate value) {
+            return text(value == null ? null : ExcelOperations.numericCellText(DateUtil.getExcelDate(value)));
+        }
+
+        private static String cell(String[] row, int column) {
+            return column < row.length ? row[column] : null;
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.aac.kpi.converter;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A report shape compiled once into constant UTF-8 fragments and typed slots. The shape is JSON
+ * text in which a string value "{{name}}" marks a slot; every other key and value is escaped and
+ * encoded at compile time, and runs of constants are merged into single fragments. Rendering is
+ * one pass over the compiled ops, appending fragments and slot values to a per-thread buffer.
+ *
+ * <p>A slot is typed by what is put in it: a String, Number or Boolean is written as that JSON
+ * value, a JsonElement (the resources the model classes build) is written with null members and
+ * items left out, and a {@link Fill} of another template is written inline. "{{refs:name}}" takes
+ * a list of ids and writes {@code [{"reference":"#id"},...]}. A null leaves the member or array
+ * item out, so the output is byte-for-byte what Gson writes for the same tree with nulls dropped,
+ * including its escaping with and without {@code htmlSafe}.
+ */
+final class ReportTemplate {
+    private static final Pattern SLOT = Pattern.compile("\\{\\{(refs:)?(\\w+)}}");
+    private static final String[] REPLACEMENTS = new String[128];
+    private static final String[] HTML_SAFE_REPLACEMENTS;
+    private static final byte[] REFERENCE_OPEN = ascii("{\"reference\":\"#");
+    private static final byte[] REFERENCE_CLOSE = ascii("\"}");
+    private static final ThreadLocal<Out> buffers = ThreadLocal.withInitial(() -> new Out(16 * 1024));
+
+    // Container states while compiling: nothing written yet, something written, depends on slots
+    private static final int EMPTY = 0;
+    private static final int NONEMPTY = 1;
+    private static final int UNKNOWN = 2;
+
+    static {
+        for (int c = 0; c < 0x20; c++) REPLACEMENTS[c] = String.format("\\u%04x", c);
+        REPLACEMENTS['"'] = "\\\"";
+        REPLACEMENTS['\\'] = "\\\\";
+        REPLACEMENTS['\t'] = "\\t";
+        REPLACEMENTS['\b'] = "\\b";
+        REPLACEMENTS['\n'] = "\\n";
+        REPLACEMENTS['\r'] = "\\r";
+        REPLACEMENTS['\f'] = "\\f";
+        HTML_SAFE_REPLACEMENTS = REPLACEMENTS.clone();
+        HTML_SAFE_REPLACEMENTS['<'] = "\\u003c";
+        HTML_SAFE_REPLACEMENTS['>'] = "\\u003e";
+        HTML_SAFE_REPLACEMENTS['&'] = "\\u0026";
+        HTML_SAFE_REPLACEMENTS['='] = "\\u003d";
+        HTML_SAFE_REPLACEMENTS['\''] = "\\u0027";
+    }
+
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final int containers;
+    private final Op[] plainOps;
+    private final Op[] htmlSafeOps;
+
+    private ReportTemplate(JsonObject shape) {
+        Compiler plain = new Compiler(false);
+        plain.value(shape);
+        Compiler htmlSafe = new Compiler(true);
+        htmlSafe.value(shape);
+        containers = plain.containers;
+        plainOps = plain.finish();
+        htmlSafeOps = htmlSafe.finish();
+    }
+
+    /** Compiles {@code shape}, a JSON object with "{{name}}" slots. */
+    static ReportTemplate compile(String shape) {
+        return new ReportTemplate(JsonParser.parseString(shape).getAsJsonObject());
+    }
+
+    /** An empty set of slot values for one report; unset slots are left out. */
+    Fill fill() {
+        return new Fill(this);
+    }
+
+    /** Slot values for one rendering of a template. */
+    static final class Fill {
+        private final ReportTemplate template;
+        private final Object[] values;
+
+        private Fill(ReportTemplate template) {
+            this.template = template;
+            this.values = new Object[template.slots.size()];
+        }
+
+        Fill put(String slot, Object value) {
+            Integer index = template.slots.get(slot);
+            if (index == null) throw new IllegalArgumentException("No slot named " + slot);
+            values[index] = value;
+            return this;
+        }
+
+        /** The report as compact UTF-8 JSON; {@code htmlSafe} escapes &lt;, &gt;, &amp;, = and ' as Gson does by default. */
+        byte[] render(boolean htmlSafe) {
+            Out out = buffers.get();
+            out.reset();
+            emit(out, htmlSafe);
+            return out.toByteArray();
+        }
+
+        private void emit(Out out, boolean htmlSafe) {
+            boolean[] written = new boolean[template.containers];
+            for (Op op : htmlSafe ? template.htmlSafeOps : template.plainOps) {
+                op.emit(out, values, written, htmlSafe);
+            }
+        }
+    }
+
+    private interface Op {
+        void emit(Out out, Object[] values, boolean[] written, boolean htmlSafe);
+    }
+
+    private record Literal(byte[] bytes) implements Op {
+        @Override
+        public void emit(Out out, Object[] values, boolean[] written, boolean htmlSafe) {
+            out.write(bytes);
+        }
+    }
+
+    /** A comma before a constant member whose container may or may not have members yet. */
+    private record Separator(int container) implements Op {
+        @Override
+        public void emit(Out out, Object[] values, boolean[] written, boolean htmlSafe) {
+            if (written[container]) out.write(',');
+            written[container] = true;
+        }
+    }
+
+    private record Slot(int index, boolean refs, int container, int state, byte[] first, byte[] next) implements Op {
+        @Override
+        public void emit(Out out, Object[] values, boolean[] written, boolean htmlSafe) {
+            Object value = values[index];
+            if (value == null || value instanceof JsonElement e && e.isJsonNull()) return;
+            boolean comma = state == NONEMPTY || state == UNKNOWN && written[container];
+            out.write(comma ? next : first);
+            written[container] = true;
+            if (refs) {
+                writeRefs(out, (List<?>) value, htmlSafe);
+            } else if (value instanceof Fill fill) {
+                fill.emit(out, htmlSafe);
+            } else if (value instanceof JsonElement element) {
+                writeElement(out, element, htmlSafe);
+            } else if (value instanceof String s) {
+                out.string(s, htmlSafe);
+            } else if (value instanceof Number || value instanceof Boolean) {
+                out.ascii(value.toString());
+            } else {
+                throw new IllegalArgumentException("Unsupported slot value " + value.getClass().getName());
+            }
+        }
+    }
+
+    private static void writeRefs(Out out, List<?> ids, boolean htmlSafe) {
+        out.write('[');
+        for (int i = 0; i < ids.size(); i++) {
+            if (i > 0) out.write(',');
+            out.write(REFERENCE_OPEN);
+            out.escaped(String.valueOf(ids.get(i)), htmlSafe);
+            out.write(REFERENCE_CLOSE);
+        }
+        out.write(']');
+    }
+
+    private static void writeElement(Out out, JsonElement element, boolean htmlSafe) {
+        if (element.isJsonObject()) {
+            out.write('{');
+            boolean first = true;
+            for (Map.Entry<String, JsonElement> e : ((JsonObject) element).entrySet()) {
+                if (e.getValue() == null || e.getValue().isJsonNull()) continue;
+                if (!first) out.write(',');
+                first = false;
+                out.string(e.getKey(), htmlSafe);
+                out.write(':');
+                writeElement(out, e.getValue(), htmlSafe);
+            }
+            out.write('}');
+        } else if (element.isJsonArray()) {
+            out.write('[');
+            boolean first = true;
+            for (JsonElement item : (JsonArray) element) {
+                if (item == null || item.isJsonNull()) continue;
+                if (!first) out.write(',');
+                first = false;
+                writeElement(out, item, htmlSafe);
+            }
+            out.write(']');
+        } else {
+            JsonPrimitive p = element.getAsJsonPrimitive();
+            if (p.isNumber()) out.ascii(p.getAsNumber().toString());
+            else if (p.isBoolean()) out.ascii(Boolean.toString(p.getAsBoolean()));
+            else out.string(p.getAsString(), htmlSafe);
+        }
+    }
+
+    /** Walks a shape once, merging constants into literals and assigning slot and container indexes. */
+    private final class Compiler {
+        private final boolean htmlSafe;
+        private final List<Op> ops = new ArrayList<>();
+        private final Out pending = new Out(256);
+        private int containers;
+
+        Compiler(boolean htmlSafe) {
+            this.htmlSafe = htmlSafe;
+        }
+
+        void value(JsonElement node) {
+            if (node.isJsonObject()) {
+                int container = containers++;
+                int state = EMPTY;
+                pending.write('{');
+                for (Map.Entry<String, JsonElement> e : node.getAsJsonObject().entrySet()) {
+                    Out name = new Out(32);
+                    name.string(e.getKey(), htmlSafe);
+                    name.write(':');
+                    state = member(container, state, name.toByteArray(), e.getValue());
+                }
+                pending.write('}');
+            } else if (node.isJsonArray()) {
+                int container = containers++;
+                int state = EMPTY;
+                pending.write('[');
+                for (JsonElement item : node.getAsJsonArray()) {
+                    state = member(container, state, new byte[0], item);
+                }
+                pending.write(']');
+            } else if (node.isJsonNull()) {
+                throw new IllegalArgumentException("Template constants cannot be null");
+            } else {
+                writeElement(pending, node, htmlSafe);
+            }
+        }
+
+        private int member(int container, int state, byte[] prefix, JsonElement value) {
+            Matcher slot = value.isJsonPrimitive() && value.getAsJsonPrimitive().isString()
+                    ? SLOT.matcher(value.getAsString()) : null;
+            if (slot == null || !slot.matches()) {
+                if (state == UNKNOWN) {
+                    flush();
+                    ops.add(new Separator(container));
+                } else if (state == NONEMPTY) {
+                    pending.write(',');
+                }
+                pending.write(prefix);
+                value(value);
+                return NONEMPTY;
+            }
+            flush();
+            int index = slots.computeIfAbsent(slot.group(2), k -> slots.size());
+            byte[] next = new byte[prefix.length + 1];
+            next[0] = ',';
+            System.arraycopy(prefix, 0, next, 1, prefix.length);
+            ops.add(new Slot(index, slot.group(1) != null, container, state, prefix, next));
+            return state == NONEMPTY ? NONEMPTY : UNKNOWN;
+        }
+
+        private void flush() {
+            if (pending.size() == 0) return;
+            ops.add(new Literal(pending.toByteArray()));
+            pending.reset();
+        }
+
+        Op[] finish() {
+            flush();
+            return ops.toArray(new Op[0]);
+        }
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * A growable byte buffer with Gson's string escaping and UTF-8 encoding, where an unpaired
+     * surrogate becomes '?' as it does through an OutputStreamWriter.
+     */
+    private static final class Out {
+        private byte[] bytes;
+        private int size;
+
+        Out(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        void write(int b) {
+            if (size == bytes.length) bytes = Arrays.copyOf(bytes, size * 2);
+            bytes[size++] = (byte) b;
+        }
+
+        void write(byte[] b) {
+            if (size + b.length > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(size * 2, size + b.length));
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+        }
+
+        void ascii(String s) {
+            for (int i = 0; i < s.length(); i++) write(s.charAt(i));
+        }
+
+        void string(String s, boolean htmlSafe) {
+            write('"');
+            escaped(s, htmlSafe);
+            write('"');
+        }
+
+        void escaped(String s, boolean htmlSafe) {
+            String[] replacements = htmlSafe ? HTML_SAFE_REPLACEMENTS : REPLACEMENTS;
+            int n = s.length();
+            for (int i = 0; i < n; i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    String replacement = replacements[c];
+                    if (replacement == null) write(c);
+                    else ascii(replacement);
+                } else if (c == '\u2028') {
+                    ascii("\\u2028");
+                } else if (c == '\u2029') {
+                    ascii("\\u2029");
+                } else if (c < 0x800) {
+                    write(0xC0 | c >> 6);
+                    write(0x80 | c & 0x3F);
+                } else if (Character.isSurrogate(c)) {
+                    if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                        int cp = Character.toCodePoint(c, s.charAt(++i));
+                        write(0xF0 | cp >> 18);
+                        write(0x80 | cp >> 12 & 0x3F);
+                        write(0x80 | cp >> 6 & 0x3F);
+                        write(0x80 | cp & 0x3F);
+                    } else {
+                        write('?');
+                    }
+                } else {
+                    write(0xE0 | c >> 12);
+                    write(0x80 | c >> 6 & 0x3F);
+                    write(0x80 | c & 0x3F);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.aac.kpi.converter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column ordinals of one master sheet, resolved once from its header row. Decoders look their
+ * columns up here when the sheet is opened and then read every row by position, so no per-row
+ * map keyed by header text is built. A header that is missing resolves to -1, which reads as null.
+ */
+final class SheetColumns {
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<String> keys;
+
+    /** A data row of the sheet; {@link #get} reads one cell by ordinal, null for -1. */
+    @FunctionalInterface
+    interface Cells {
+        String get(int ordinal);
+    }
+
+    /** Turns a row into a model object using ordinals it resolved up front. */
+    @FunctionalInterface
+    interface RowDecoder<T> {
+        T decode(Cells row);
+    }
+
+    SheetColumns(List<String> keys) {
+        this.keys = keys;
+        // Later duplicates win, as they did when rows were maps
+        for (int i = 0; i < keys.size(); i++) {
+            ordinals.put(keys.get(i), i);
+        }
+    }
+
+    int of(String header) {
+        Integer ordinal = ordinals.get(header);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Ordinals of the numbered columns {@code header1}, {@code header2}, ...: element k - 1 holds
+     * {@code header + k}, or -1 where that column is missing. The array ends at the highest number present.
+     */
+    int[] numbered(String header) {
+        int max = 0;
+        for (String key : keys) {
+            max = Math.max(max, number(key, header));
+        }
+        int[] result = new int[max];
+        for (int k = 1; k <= max; k++) {
+            result[k - 1] = of(header + k);
+        }
+        return result;
+    }
+
+    // The n in header + n, or 0 when key is not such a column
+    private static int number(String key, String header) {
+        if (key == null || key.length() <= header.length() || !key.startsWith(header)) return 0;
+        if (key.charAt(header.length()) == '0') return 0;
+        int n = 0;
+        for (int i = header.length(); i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9' || n > (Integer.MAX_VALUE - 9) / 10) return 0;
+            n = n * 10 + (c - '0');
+        }
+        return n;
+    }
+
+    /** Reads the numbered columns resolved by {@link #numbered} from {@code row}. */
+    static String[] read(Cells row, int[] ordinals) {
+        String[] values = new String[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            values[i] = row.get(ordinals[i]);
+        }
+        return values;
+    }
+
+    /** Element {@code number - 1} of {@code values}, or null past its end. */
+    static String numberedValue(String[] values, int number) {
+        return number >= 1 && number <= values.length ? values[number - 1] : null;
+    }
+}
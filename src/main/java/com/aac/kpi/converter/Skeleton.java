@@ -1,45 +1,257 @@
-package com.aac.kpi.converter;
-
-import com.google.gson.JsonObject;
-import com.google.gson.JsonArray;
-
-import java.time.LocalDate;
+package com.aac.kpi.converter;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonArray;
+
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import static com.aac.kpi.converter.DateTime.convertToDate;
 import static com.aac.kpi.converter.ValueUtil.splitRefs;
 import static com.aac.kpi.converter.ValueUtil.stripDecimal;
 import static com.aac.kpi.converter.ValueUtil.toInteger;
-
-public class Skeleton {
-
-    // In MainJson, iterate through map of AAC reports and pass each AAC report to this function.
-    public static JsonObject generateAacReportObject(HashMap<String, String> aacReportMap,
-                                                     HashMap<String, Practitioner> practitioners) {
-        JsonObject resource = new JsonObject();
-        resource.addProperty("resourceType", "Composition");
-        resource.addProperty("id", aacReportMap.get("composition_id"));
-
-        JsonObject meta = new JsonObject();
-        meta.addProperty("versionId", stripDecimal(aacReportMap.get("version_id")));
-        meta.addProperty("lastUpdated", aacReportMap.get("last_updated"));
-
-        JsonArray profileArray = new JsonArray();
-        profileArray.add("http://ihis.sg/StructureDefinition/Composition-put-asg-aac-report");
-        meta.add("profile", profileArray);
-
-        JsonArray tagArray = new JsonArray();
-        JsonObject tagObject = new JsonObject();
-        tagObject.addProperty("system", "http://ihis.sg/coding/correlationid");
-        tagObject.addProperty("code", aacReportMap.get("meta_code"));
-        tagArray.add(tagObject);
-
-        meta.add("tag", tagArray);
-        resource.add("meta", meta);
-
-        // Contained section.
+
+/**
+ * Report shapes, compiled once into {@link ReportTemplate}s, and the code that fills them from a
+ * report row. Contained resources still come from the model classes as JsonObjects and are
+ * written into their slot as they are.
+ */
+public class Skeleton {
+
+    private static final ReportTemplate AAC_REPORT = ReportTemplate.compile("""
+            {
+              "resourceType": "Composition",
+              "id": "{{id}}",
+              "meta": {
+                "versionId": "{{versionId}}",
+                "lastUpdated": "{{lastUpdated}}",
+                "profile": ["http://ihis.sg/StructureDefinition/Composition-put-asg-aac-report"],
+                "tag": [{"system": "http://ihis.sg/coding/correlationid", "code": "{{metaCode}}"}]
+              },
+              "contained": "{{contained}}",
+              "extension": [
+                {"url": "http://ihis.sg/extension/asg-reporting-month", "valueDate": "{{reportingMonth}}"},
+                {"url": "http://ihis.sg/extension/asg-total-operating-days", "valueInteger": "{{totalOperatingDays}}"},
+                {"url": "http://ihis.sg/extension/asg-total-clients", "valueInteger": "{{totalClients}}"}
+              ],
+              "status": "{{status}}",
+              "type": {
+                "coding": [{"system": "http://ihis.sg/CodeSystem/asg-document-type", "code": "aac-report", "display": "AAC Report"}]
+              },
+              "date": "{{date}}",
+              "author": [{
+                "identifier": {"system": "http://ihis.sg/identifier/aac-center-id", "value": "{{authorValue}}"},
+                "display": "{{authorDisplay}}"
+              }],
+              "title": "AAC Report Submission",
+              "section": [{
+                "code": {"coding": [{"system": "http://ihis.sg/CodeSystem/asg-aac-report-section", "code": "section-aac-manpower"}]},
+                "entry": "{{refs:entries}}"
+              }]
+            }
+            """);
+
+    private static final ReportTemplate RESIDENT_REPORT = ReportTemplate.compile("""
+            {
+              "resourceType": "Composition",
+              "id": "{{id}}",
+              "meta": {
+                "versionId": "{{versionId}}",
+                "lastUpdated": "{{lastUpdated}}",
+                "profile": ["http://ihis.sg/StructureDefinition/Composition-put-asg-resident-report"],
+                "tag": [{"system": "http://ihis.sg/coding/correlationid", "code": "{{metaCode}}"}]
+              },
+              "contained": "{{contained}}",
+              "extension": [
+                {"url": "http://ihis.sg/extension/asg-reporting-month", "valueDate": "{{reportingMonth}}"}
+              ],
+              "status": "{{status}}",
+              "type": {
+                "coding": [{"system": "http://ihis.sg/CodeSystem/asg-document-type", "code": "resident-report", "display": "Resident Report"}]
+              },
+              "date": "{{date}}",
+              "author": [{
+                "identifier": {"system": "http://ihis.sg/identifier/aac-center-id", "value": "{{authorValue}}"},
+                "display": "{{authorDisplay}}"
+              }],
+              "title": "Resident Report Submission",
+              "section": [
+                "{{profileSection}}",
+                {
+                  "code": {"coding": [{"system": "http://ihis.sg/CodeSystem/asg-resident-report-section", "code": "section-contact-log"}]},
+                  "entry": "{{refs:encounterEntries}}"
+                },
+                {
+                  "code": {"coding": [{"system": "http://ihis.sg/CodeSystem/asg-resident-report-section", "code": "section-resident-satisfaction-statistics"}]},
+                  "entry": [{"reference": "{{questionnaireReference}}"}]
+                }
+              ]
+            }
+            """);
+
+    // Only present when the report's patient is found.
+    private static final ReportTemplate RESIDENT_PROFILE_SECTION = ReportTemplate.compile("""
+            {
+              "code": {"coding": [{"system": "http://ihis.sg/CodeSystem/asg-resident-report-section", "code": "section-resident-profile"}]},
+              "extension": [
+                {"url": "http://ihis.sg/extension/asg-resident-volunteer-status", "valueBoolean": "{{volunteerStatus}}"},
+                {"url": "http://ihis.sg/extension/asg-cst-date", "valueDate": "{{cstDate}}"},
+                {"url": "http://ihis.sg/extension/asg-clinical-frailty-score", "valueString": "{{cfs}}"},
+                {"url": "http://ihis.sg/extension/asg-social-risk-factor-score", "valueString": "{{socialRiskFactorScore}}"},
+                {"url": "http://ihis.sg/extension/asg-aap-recommendation", "valueString": "{{aapRecommendation}}"},
+                {"url": "http://ihis.sg/extension/asg-social-support-recommendation", "valueString": "{{socialSupportRecommendation}}"},
+                {"url": "http://ihis.sg/extension/asg-aac-opt-out-status", "valueBoolean": "{{aacOptOutStatus}}"},
+                {"url": "http://ihis.sg/extension/asg-aap-opt-out-status", "valueBoolean": "{{aapOptOutStatus}}"},
+                {"url": "http://ihis.sg/extension/asg-screening-declaration-date", "valueDate": "{{screeningDeclarationDate}}"},
+                {"url": "http://ihis.sg/extension/asg-befriending-programme-opt-out-status", "valueBoolean": "{{befriendingOptOutStatus}}"},
+                {"url": "http://ihis.sg/extension/asg-buddying-programme-opt-out-status", "valueBoolean": "{{buddyingOptOutStatus}}"},
+                {
+                  "url": "http://ihis.sg/extension/asg-resident-befriending-programme-period",
+                  "valuePeriod": {"start": "{{befriendingStart}}", "end": "{{befriendingEnd}}"}
+                },
+                {
+                  "url": "http://ihis.sg/extension/asg-resident-buddying-programme-period",
+                  "valuePeriod": {"start": "{{buddyingStart}}", "end": "{{buddyingEnd}}"}
+                },
+                {"url": "http://ihis.sg/extension/asg-irms-referral-raised-date", "valueDate": "{{referralRaisedDate}}"},
+                {"url": "http://ihis.sg/extension/asg-irms-referral-accepted-date", "valueDate": "{{referralAcceptedDate}}"},
+                {"url": "http://ihis.sg/extension/asg-referral-raised-by", "valueString": "{{referralRaisedBy}}"},
+                {"url": "http://ihis.sg/extension/asg-referral-accepted-by", "valueString": "{{referralAcceptedBy}}"}
+              ],
+              "entry": [{"reference": "{{patientReference}}"}]
+            }
+            """);
+
+    private static final ReportTemplate VOLUNTEER_ATTENDANCE_REPORT = ReportTemplate.compile("""
+            {
+              "resourceType": "Composition",
+              "id": "{{id}}",
+              "meta": {
+                "versionId": "{{versionId}}",
+                "lastUpdated": "{{lastUpdated}}",
+                "profile": ["http://ihis.sg/StructureDefinition/Composition-put-asg-volunteer-attendance-report"],
+                "tag": [{"system": "http://ihis.sg/coding/correlationid", "code": "{{metaCode}}"}]
+              },
+              "contained": "{{contained}}",
+              "extension": [
+                {"url": "http://ihis.sg/extension/asg-reporting-month", "valueDate": "{{reportingMonth}}"}
+              ],
+              "status": "{{status}}",
+              "type": {
+                "coding": [{
+                  "system": "http://ihis.sg/CodeSystem/asg-document-type",
+                  "code": "volunteer-attendance-report",
+                  "display": "Volunteer Attendance Report"
+                }]
+              },
+              "date": "{{date}}",
+              "author": [{
+                "identifier": {"system": "http://ihis.sg/identifier/aac-center-id", "value": "{{authorValue}}"},
+                "display": "{{authorDisplay}}"
+              }],
+              "title": "Volunteer Attendance Report Submission",
+              "section": [{
+                "code": {
+                  "coding": [{
+                    "system": "http://ihis.sg/CodeSystem/asg-volunteer-attendance-report-section",
+                    "code": "section-aac-volunteer-attendance"
+                  }]
+                },
+                "entry": "{{refs:entries}}"
+              }]
+            }
+            """);
+
+    private static final ReportTemplate EVENT_REPORT = ReportTemplate.compile("""
+            {
+              "resourceType": "Composition",
+              "id": "{{id}}",
+              "meta": {
+                "versionId": "{{versionId}}",
+                "lastUpdated": "{{lastUpdated}}",
+                "profile": ["http://ihis.sg/StructureDefinition/Composition-put-asg-event-report"],
+                "tag": [{"system": "http://ihis.sg/coding/correlationid", "code": "{{metaCode}}"}]
+              },
+              "contained": "{{contained}}",
+              "extension": [
+                {"url": "http://ihis.sg/extension/asg-reporting-month", "valueDate": "{{reportingMonth}}"},
+                {"url": "http://ihis.sg/extension/asg-event-id", "valueString": "{{eventId}}"},
+                {"url": "http://ihis.sg/extension/asg-event-name", "valueString": "{{eventName}}"},
+                {"url": "http://ihis.sg/extension/asg-event-type", "valueString": "{{eventType}}"},
+                {"url": "http://ihis.sg/extension/asg-event-domain", "valueString": "{{eventDomain}}"},
+                {"url": "http://ihis.sg/extension/asg-event-target-attendees", "valueString": "{{eventTargetAttendees}}"},
+                {"url": "http://ihis.sg/extension/asg-event-category", "valueString": "{{eventCategory}}"},
+                {"url": "http://ihis.sg/extension/asg-aap-provider", "valueString": "{{aapProvider}}"},
+                {"url": "http://ihis.sg/extension/asg-minimum-required-sessions", "valueInteger": "{{minimumRequiredSessions}}"},
+                {"url": "http://ihis.sg/extension/asg-event-is-ground-up-initiative", "valueBoolean": "{{isGui}}"},
+                {"url": "http://ihis.sg/extension/asg-ground-up-initiative-partner", "valueString": "{{guiPartner}}"}
+              ],
+              "status": "{{status}}",
+              "type": {
+                "coding": [{"system": "http://ihis.sg/CodeSystem/asg-document-type", "code": "event-report", "display": "Event Report"}]
+              },
+              "date": "{{date}}",
+              "author": [{
+                "identifier": {"system": "http://ihis.sg/identifier/aac-center-id", "value": "{{authorValue}}"},
+                "display": "{{authorDisplay}}"
+              }],
+              "title": "Event Report Submission",
+              "section": "{{section}}"
+            }
+            """);
+
+    private static final ReportTemplate ORGANIZATION_REPORT = ReportTemplate.compile("""
+            {
+              "resourceType": "Organization",
+              "id": "{{id}}",
+              "meta": {
+                "versionId": "{{versionId}}",
+                "lastUpdated": "{{lastUpdated}}",
+                "source": "http://ihis.sg/programme-owner/age-well",
+                "profile": ["http://ihis.sg/StructureDefinition/Organization-put-asg-aac"],
+                "tag": [{"system": "http://ihis.sg/coding/correlationid", "code": "{{metaCode}}"}]
+              },
+              "extension": [{
+                "url": "http://ihis.sg/extension/organization-period",
+                "valuePeriod": {"start": "{{start}}", "end": "{{end}}"}
+              }],
+              "identifier": [
+                {"system": "http://ihis.sg/identifier/aac-center-id", "value": "{{aacCenterId}}"},
+                {"system": "http://ihis.sg/identifier/uen", "value": "{{uen}}"}
+              ],
+              "active": "{{active}}",
+              "type": [{
+                "coding": [{"system": "http://ihis.sg/CodeSystem/organization-type", "code": "{{typeCode}}", "display": "{{typeDisplay}}"}]
+              }],
+              "name": "{{name}}"
+            }
+            """);
+
+    private static final ReportTemplate LOCATION_REPORT = ReportTemplate.compile("""
+            {
+              "resourceType": "Location",
+              "id": "{{id}}",
+              "meta": {
+                "versionId": "{{versionId}}",
+                "lastUpdated": "{{lastUpdated}}",
+                "source": "http://ihis.sg/programme-owner/age-well",
+                "profile": ["http://ihis.sg/StructureDefinition/Location-put-asg-aac-service-boundary"],
+                "tag": [{"system": "http://ihis.sg/coding/correlationid", "code": "{{metaCode}}"}]
+              },
+              "extension": [{
+                "url": "http://ihis.sg/extension/effective-period",
+                "valuePeriod": {"start": "{{start}}", "end": "{{end}}"}
+              }],
+              "address": {"postalCode": "{{postalCode}}"},
+              "managingOrganization": {"reference": "{{reference}}"}
+            }
+            """);
+
+    // In MainJson, iterate through map of AAC reports and pass each AAC report to this function.
+    static ReportTemplate.Fill generateAacReport(HashMap<String, String> aacReportMap,
+                                                HashMap<String, Practitioner> practitioners) {
+        // Contained section.
         JsonArray containedArray = new JsonArray();
         List<String> practitionerKeys = splitRefs(aacReportMap.get("practitioner_references"));
         List<String> resolvedPractitionerIds = new java.util.ArrayList<>();
@@ -53,108 +265,19 @@ public class Skeleton {
             containedArray.add(practitionerObject);
             resolvedPractitionerIds.add(practitionerId);
         }
-        resource.add("contained", containedArray);
-
-        // Extension section.
-        JsonArray extensionArray = new JsonArray();
-        JsonObject asgReportingMonthObject = new JsonObject();
-        asgReportingMonthObject.addProperty("url", "http://ihis.sg/extension/asg-reporting-month");
-        asgReportingMonthObject.addProperty("valueDate", aacReportMap.get("extension_reporting_month"));
-
-        JsonObject asgTotalOperatingDaysObject = new JsonObject();
-        asgTotalOperatingDaysObject.addProperty("url", "http://ihis.sg/extension/asg-total-operating-days");
-        asgTotalOperatingDaysObject.addProperty("valueInteger", toInteger(aacReportMap.get("extension_total_operating_days")));
-
-        JsonObject asgTotalClients = new JsonObject();
-        asgTotalClients.addProperty("url", "http://ihis.sg/extension/asg-total-clients");
-        asgTotalClients.addProperty("valueInteger", toInteger(aacReportMap.get("extension_total_clients")));
-
-        extensionArray.add(asgReportingMonthObject);
-        extensionArray.add(asgTotalOperatingDaysObject);
-        extensionArray.add(asgTotalClients);
-        resource.add("extension", extensionArray);
-
-        resource.addProperty("status", aacReportMap.get("status"));
-
-        // Type section.
-        JsonObject type = new JsonObject();
-        JsonArray codingArray = new JsonArray();
-        JsonObject codingObject = new JsonObject();
-        codingObject.addProperty("system", "http://ihis.sg/CodeSystem/asg-document-type");
-        codingObject.addProperty("code", "aac-report");
-        codingObject.addProperty("display", "AAC Report");
-        codingArray.add(codingObject);
-        type.add("coding", codingArray);
-        resource.add("type", type);
-
-        resource.addProperty("date", aacReportMap.get("date"));
-
-        // Author section.
-        JsonArray authorArray = new JsonArray();
-        JsonObject authorObject = new JsonObject();
-        JsonObject identifierObject = new JsonObject();
-        identifierObject.addProperty("system", "http://ihis.sg/identifier/aac-center-id");
-        identifierObject.addProperty("value", aacReportMap.get("author_value"));
-        authorObject.add("identifier", identifierObject);
-        authorObject.addProperty("display", aacReportMap.get("author_display"));
-        authorArray.add(authorObject);
-        resource.add("author", authorArray);
-
-        resource.addProperty("title", "AAC Report Submission");
-
-        // Section.
-        JsonArray sectionArray = new JsonArray();
-        JsonObject outerCodeObject = new JsonObject();
-        JsonObject innerCodeObject = new JsonObject();
-        codingArray = new JsonArray();
-        codingObject = new JsonObject();
-        codingObject.addProperty("system", "http://ihis.sg/CodeSystem/asg-aac-report-section");
-        codingObject.addProperty("code", "section-aac-manpower");
-        codingArray.add(codingObject);
-        innerCodeObject.add("coding", codingArray);
-        outerCodeObject.add("code", innerCodeObject);
-
-        JsonArray entryArray = new JsonArray();
-        for (String practitionerId : resolvedPractitionerIds) {
-            JsonObject referenceObject = new JsonObject();
-            referenceObject.addProperty("reference", "#" + practitionerId);
-            entryArray.add(referenceObject);
-        }
-
-        outerCodeObject.add("entry", entryArray);
-        sectionArray.add(outerCodeObject);
-        resource.add("section", sectionArray);
-
-        return resource;
-    }
-
-    public static JsonObject generateResidentReportObject(HashMap<String, String> residentReportMap,
-                                                          HashMap<String, Patient> patients,
-                                                          HashMap<String, Encounter> encounters,
-                                                          HashMap<String, Questionnaire> questionnaires) {
-        JsonObject resource = new JsonObject();
-        resource.addProperty("resourceType", "Composition");
-        resource.addProperty("id", residentReportMap.get("composition_id"));
-        //printHashMap(residentReportMap);
-
-        JsonObject meta = new JsonObject();
-        meta.addProperty("versionId", stripDecimal(residentReportMap.get("version_id")));
-        meta.addProperty("lastUpdated", residentReportMap.get("last_updated"));
-
-        JsonArray profileArray = new JsonArray();
-        profileArray.add("http://ihis.sg/StructureDefinition/Composition-put-asg-resident-report");
-        meta.add("profile", profileArray);
-
-        JsonArray tagArray = new JsonArray();
-        JsonObject tagObject = new JsonObject();
-        tagObject.addProperty("system", "http://ihis.sg/coding/correlationid");
-        tagObject.addProperty("code", residentReportMap.get("meta_code"));
-        tagArray.add(tagObject);
-
-        meta.add("tag", tagArray);
-        resource.add("meta", meta);
-
-        // Contained section.
+
+        return composition(AAC_REPORT, aacReportMap)
+                .put("contained", containedArray)
+                .put("totalOperatingDays", toInteger(aacReportMap.get("extension_total_operating_days")))
+                .put("totalClients", toInteger(aacReportMap.get("extension_total_clients")))
+                .put("entries", resolvedPractitionerIds);
+    }
+
+    static ReportTemplate.Fill generateResidentReport(HashMap<String, String> residentReportMap,
+                                                     HashMap<String, Patient> patients,
+                                                     HashMap<String, Encounter> encounters,
+                                                     HashMap<String, Questionnaire> questionnaires) {
+        // Contained section.
         JsonArray containedArray = new JsonArray();
         String patientId = residentReportMap.get("patient_reference"); // Each resident report should only have 1 patient.
         Patient patient = patients.get(patientId);
@@ -179,227 +302,43 @@ public class Skeleton {
             JsonObject questionnaireObject = questionnaire.generateQuestionnaireObject();
             containedArray.add(questionnaireObject);
         }
-        resource.add("contained", containedArray);
-
-        //Extension section.
-        JsonArray extensionArray = new JsonArray();
-        JsonObject asgReportingMonthObject = new JsonObject();
-        asgReportingMonthObject.addProperty("url", "http://ihis.sg/extension/asg-reporting-month");
-        asgReportingMonthObject.addProperty("valueDate", residentReportMap.get("extension_reporting_month"));
-        extensionArray.add(asgReportingMonthObject);
-        resource.add("extension", extensionArray);
-
-        resource.addProperty("status", residentReportMap.get("status"));
-
-        // Type section.
-        JsonObject type = new JsonObject();
-        JsonArray codingArray = new JsonArray();
-        JsonObject codingObject = new JsonObject();
-        codingObject.addProperty("system", "http://ihis.sg/CodeSystem/asg-document-type");
-        codingObject.addProperty("code", "resident-report");
-        codingObject.addProperty("display", "Resident Report");
-        codingArray.add(codingObject);
-        type.add("coding", codingArray);
-        resource.add("type", type);
-
-        resource.addProperty("date", residentReportMap.get("date"));
-
-        // Author section.
-        JsonArray authorArray = new JsonArray();
-        JsonObject authorObject = new JsonObject();
-        JsonObject identifierObject = new JsonObject();
-        identifierObject.addProperty("system", "http://ihis.sg/identifier/aac-center-id");
-        identifierObject.addProperty("value", residentReportMap.get("author_value"));
-        authorObject.add("identifier", identifierObject);
-        authorObject.addProperty("display", residentReportMap.get("author_display"));
-        authorArray.add(authorObject);
-        resource.add("author", authorArray);
-
-        resource.addProperty("title", "Resident Report Submission");
-
-        // Section.
-        JsonArray sectionArray = new JsonArray();
-        JsonObject outerCodeObject = new JsonObject();
-        JsonObject innerCodeObject = new JsonObject();
-        codingArray = new JsonArray();
-        codingObject = new JsonObject();
-        codingObject.addProperty("system", "http://ihis.sg/CodeSystem/asg-resident-report-section");
-        codingObject.addProperty("code", "section-resident-profile");
-        codingArray.add(codingObject);
-        innerCodeObject.add("coding", codingArray);
-        outerCodeObject.add("code", innerCodeObject);
-
-        JsonArray sectionExtensionArray = new JsonArray();
-
-        JsonObject asgResidentVolunteerStatusObject = new JsonObject();
-        asgResidentVolunteerStatusObject.addProperty("url", "http://ihis.sg/extension/asg-resident-volunteer-status");
-        asgResidentVolunteerStatusObject.addProperty("valueBoolean", Boolean.parseBoolean(residentReportMap.get("resident_volunteer_status")));
-
-        JsonObject asgCstDateObject = new JsonObject();
-        asgCstDateObject.addProperty("url", "http://ihis.sg/extension/asg-cst-date");
-        asgCstDateObject.addProperty("valueDate", convertToDate(residentReportMap.get("cst_date")));
-
-        JsonObject asgCfsObject = new JsonObject();
-        asgCfsObject.addProperty("url", "http://ihis.sg/extension/asg-clinical-frailty-score");
-        asgCfsObject.addProperty("valueString", residentReportMap.get("cfs"));
-
-        JsonObject asgSocialRiskFactorScoreObject = new JsonObject();
-        asgSocialRiskFactorScoreObject.addProperty("url", "http://ihis.sg/extension/asg-social-risk-factor-score");
-        asgSocialRiskFactorScoreObject.addProperty("valueString", stripDecimal(residentReportMap.get("social_risk_factor_score")));
-
-        JsonObject asgAapRecommendation = new JsonObject();
-        asgAapRecommendation.addProperty("url", "http://ihis.sg/extension/asg-aap-recommendation");
-        asgAapRecommendation.addProperty("valueString", residentReportMap.get("aap_recommendation"));
-
-        JsonObject asgSocialSupportRecommendationObject = new JsonObject();
-        asgSocialSupportRecommendationObject.addProperty("url", "http://ihis.sg/extension/asg-social-support-recommendation");
-        asgSocialSupportRecommendationObject.addProperty("valueString", residentReportMap.get("social_support_recommendation"));
-
-        JsonObject asgAacOptOutStatusObject = new JsonObject();
-        asgAacOptOutStatusObject.addProperty("url", "http://ihis.sg/extension/asg-aac-opt-out-status");
-        asgAacOptOutStatusObject.addProperty("valueBoolean", Boolean.parseBoolean(residentReportMap.get("aac_opt_out_status")));
-
-        JsonObject asgAapOptOutStatusObject = new JsonObject();
-        asgAapOptOutStatusObject.addProperty("url", "http://ihis.sg/extension/asg-aap-opt-out-status");
-        asgAapOptOutStatusObject.addProperty("valueBoolean", Boolean.parseBoolean(residentReportMap.get("aap_opt_out_status")));
-
-        JsonObject asgScreeningDeclarationDateObject = new JsonObject();
-        asgScreeningDeclarationDateObject.addProperty("url", "http://ihis.sg/extension/asg-screening-declaration-date");
-        asgScreeningDeclarationDateObject.addProperty("valueDate", convertToDate(residentReportMap.get("screening_declaration_date")));
-
-        JsonObject asgBefriendingOptOutStatusObject = new JsonObject();
-        asgBefriendingOptOutStatusObject.addProperty("url", "http://ihis.sg/extension/asg-befriending-programme-opt-out-status");
-        asgBefriendingOptOutStatusObject.addProperty("valueBoolean", Boolean.parseBoolean(residentReportMap.get("befriending_opt_out_status")));
-
-        JsonObject asgBuddyingOptOutStatusObject = new JsonObject();
-        asgBuddyingOptOutStatusObject.addProperty("url", "http://ihis.sg/extension/asg-buddying-programme-opt-out-status");
-        asgBuddyingOptOutStatusObject.addProperty("valueBoolean", Boolean.parseBoolean(residentReportMap.get("buddying_opt_out_status")));
-
-        JsonObject asgBefriendingPeriodObject = new JsonObject();
-        asgBefriendingPeriodObject.addProperty("url", "http://ihis.sg/extension/asg-resident-befriending-programme-period");
-        JsonObject befriendingValuePeriodObject = new JsonObject();
-        befriendingValuePeriodObject.addProperty("start", convertToDate(residentReportMap.get("resident_befriending_programme_period_start")));
-        befriendingValuePeriodObject.addProperty("end", convertToDate(residentReportMap.get("resident_befriending_programme_period_end")));
-        asgBefriendingPeriodObject.add("valuePeriod", befriendingValuePeriodObject);
-
-        JsonObject asgBuddyingPeriodObject = new JsonObject();
-        asgBuddyingPeriodObject.addProperty("url", "http://ihis.sg/extension/asg-resident-buddying-programme-period");
-        JsonObject buddyingValuePeriodObject = new JsonObject();
-        buddyingValuePeriodObject.addProperty("start", convertToDate(residentReportMap.get("resident_buddying_programme_period_start")));
-        buddyingValuePeriodObject.addProperty("end", convertToDate(residentReportMap.get("resident_buddying_programme_period_end")));
-        asgBuddyingPeriodObject.add("valuePeriod", buddyingValuePeriodObject);
-
-        JsonObject asgReferralRaisedDateObject = new JsonObject();
-        asgReferralRaisedDateObject.addProperty("url", "http://ihis.sg/extension/asg-irms-referral-raised-date");
-        asgReferralRaisedDateObject.addProperty("valueDate", convertToDate(residentReportMap.get("irms_referral_raised_date")));
-
-        JsonObject asgReferralAcceptedDateObject = new JsonObject();
-        asgReferralAcceptedDateObject.addProperty("url", "http://ihis.sg/extension/asg-irms-referral-accepted-date");
-        asgReferralAcceptedDateObject.addProperty("valueDate", convertToDate(residentReportMap.get("irms_referral_accepted_date")));
-
-        JsonObject asgReferralRaisedByObject = new JsonObject();
-        asgReferralRaisedByObject.addProperty("url", "http://ihis.sg/extension/asg-referral-raised-by");
-        asgReferralRaisedByObject.addProperty("valueString", residentReportMap.get("asg_referral_raised_by"));
-
-        JsonObject asgReferralAcceptedByObject = new JsonObject();
-        asgReferralAcceptedByObject.addProperty("url", "http://ihis.sg/extension/asg-referral-accepted-by");
-        asgReferralAcceptedByObject.addProperty("valueString", residentReportMap.get("asg_referral_accepted_by"));
-
-        sectionExtensionArray.add(asgResidentVolunteerStatusObject);
-        sectionExtensionArray.add(asgCstDateObject);
-        sectionExtensionArray.add(asgCfsObject);
-        sectionExtensionArray.add(asgSocialRiskFactorScoreObject);
-        sectionExtensionArray.add(asgAapRecommendation);
-        sectionExtensionArray.add(asgSocialSupportRecommendationObject);
-        sectionExtensionArray.add(asgAacOptOutStatusObject);
-        sectionExtensionArray.add(asgAapOptOutStatusObject);
-        sectionExtensionArray.add(asgScreeningDeclarationDateObject);
-        sectionExtensionArray.add(asgBefriendingOptOutStatusObject);
-        sectionExtensionArray.add(asgBuddyingOptOutStatusObject);
-        sectionExtensionArray.add(asgBefriendingPeriodObject);
-        sectionExtensionArray.add(asgBuddyingPeriodObject);
-        sectionExtensionArray.add(asgReferralRaisedDateObject);
-        sectionExtensionArray.add(asgReferralAcceptedDateObject);
-        sectionExtensionArray.add(asgReferralRaisedByObject);
-        sectionExtensionArray.add(asgReferralAcceptedByObject);
-        outerCodeObject.add("extension", sectionExtensionArray);
-
-        // Patient reference.
+
+        // Resident profile section, with the patient reference.
+        ReportTemplate.Fill profileSection = null;
         if (patient != null) {
-            JsonArray patientEntryArray = new JsonArray();
-            JsonObject patientEntryObject = new JsonObject();
-            patientEntryObject.addProperty("reference", "#" + residentReportMap.get("patient_reference"));
-            patientEntryArray.add(patientEntryObject);
-            outerCodeObject.add("entry", patientEntryArray);
-            sectionArray.add(outerCodeObject);
+            profileSection = RESIDENT_PROFILE_SECTION.fill()
+                    .put("volunteerStatus", Boolean.parseBoolean(residentReportMap.get("resident_volunteer_status")))
+                    .put("cstDate", convertToDate(residentReportMap.get("cst_date")))
+                    .put("cfs", residentReportMap.get("cfs"))
+                    .put("socialRiskFactorScore", stripDecimal(residentReportMap.get("social_risk_factor_score")))
+                    .put("aapRecommendation", residentReportMap.get("aap_recommendation"))
+                    .put("socialSupportRecommendation", residentReportMap.get("social_support_recommendation"))
+                    .put("aacOptOutStatus", Boolean.parseBoolean(residentReportMap.get("aac_opt_out_status")))
+                    .put("aapOptOutStatus", Boolean.parseBoolean(residentReportMap.get("aap_opt_out_status")))
+                    .put("screeningDeclarationDate", convertToDate(residentReportMap.get("screening_declaration_date")))
+                    .put("befriendingOptOutStatus", Boolean.parseBoolean(residentReportMap.get("befriending_opt_out_status")))
+                    .put("buddyingOptOutStatus", Boolean.parseBoolean(residentReportMap.get("buddying_opt_out_status")))
+                    .put("befriendingStart", convertToDate(residentReportMap.get("resident_befriending_programme_period_start")))
+                    .put("befriendingEnd", convertToDate(residentReportMap.get("resident_befriending_programme_period_end")))
+                    .put("buddyingStart", convertToDate(residentReportMap.get("resident_buddying_programme_period_start")))
+                    .put("buddyingEnd", convertToDate(residentReportMap.get("resident_buddying_programme_period_end")))
+                    .put("referralRaisedDate", convertToDate(residentReportMap.get("irms_referral_raised_date")))
+                    .put("referralAcceptedDate", convertToDate(residentReportMap.get("irms_referral_accepted_date")))
+                    .put("referralRaisedBy", residentReportMap.get("asg_referral_raised_by"))
+                    .put("referralAcceptedBy", residentReportMap.get("asg_referral_accepted_by"))
+                    .put("patientReference", "#" + residentReportMap.get("patient_reference"));
         }
-
-        // Encounter references.
-        outerCodeObject = new JsonObject();
-        innerCodeObject = new JsonObject();
-        codingArray = new JsonArray();
-        codingObject = new JsonObject();
-        codingObject.addProperty("system", "http://ihis.sg/CodeSystem/asg-resident-report-section");
-        codingObject.addProperty("code", "section-contact-log");
-        codingArray.add(codingObject);
-        innerCodeObject.add("coding", codingArray);
-        outerCodeObject.add("code", innerCodeObject);
-
-        JsonArray encounterEntryArray = new JsonArray();
-        for (String encounterId : encounterKeys) {
-            JsonObject referenceObject = new JsonObject();
-            referenceObject.addProperty("reference", "#" + encounterId);
-            encounterEntryArray.add(referenceObject);
-        }
-        outerCodeObject.add("entry", encounterEntryArray);
-        sectionArray.add(outerCodeObject);
-
-        //Questionnaire reference.
-        outerCodeObject = new JsonObject();
-        innerCodeObject = new JsonObject();
-        codingArray = new JsonArray();
-        codingObject = new JsonObject();
-        codingObject.addProperty("system", "http://ihis.sg/CodeSystem/asg-resident-report-section");
-        codingObject.addProperty("code", "section-resident-satisfaction-statistics");
-        codingArray.add(codingObject);
-        innerCodeObject.add("coding", codingArray);
-        outerCodeObject.add("code", innerCodeObject);
-        JsonArray questionnaireEntryArray = new JsonArray();
-        JsonObject questionnaireEntryObject = new JsonObject();
-        questionnaireEntryObject.addProperty("reference", "#" + residentReportMap.get("questionnaire_reference"));
-        questionnaireEntryArray.add(questionnaireEntryObject);
-        outerCodeObject.add("entry", questionnaireEntryArray);
-        sectionArray.add(outerCodeObject);
-
-        resource.add("section", sectionArray);
-
-        return resource;
-    }
-
-    public static JsonObject generateVolunteerAttendanceReportObject(HashMap<String, String> volunteerAttendanceReportMap,
-                                                                     HashMap<String, Practitioner> practitioners) {
-        JsonObject resource = new JsonObject();
-        resource.addProperty("resourceType", "Composition");
-        resource.addProperty("id", volunteerAttendanceReportMap.get("composition_id"));
-
-        JsonObject meta = new JsonObject();
-        meta.addProperty("versionId", stripDecimal(volunteerAttendanceReportMap.get("version_id")));
-        meta.addProperty("lastUpdated", volunteerAttendanceReportMap.get("last_updated"));
-
-        JsonArray profileArray = new JsonArray();
-        profileArray.add("http://ihis.sg/StructureDefinition/Composition-put-asg-volunteer-attendance-report");
-        meta.add("profile", profileArray);
-
-        JsonArray tagArray = new JsonArray();
-        JsonObject tagObject = new JsonObject();
-        tagObject.addProperty("system", "http://ihis.sg/coding/correlationid");
-        tagObject.addProperty("code", volunteerAttendanceReportMap.get("meta_code"));
-        tagArray.add(tagObject);
-
-        meta.add("tag", tagArray);
-        resource.add("meta", meta);
-
-        // Contained section.
+
+        return composition(RESIDENT_REPORT, residentReportMap)
+                .put("contained", containedArray)
+                .put("profileSection", profileSection)
+                .put("encounterEntries", encounterKeys)
+                .put("questionnaireReference", "#" + residentReportMap.get("questionnaire_reference"));
+    }
+
+    static ReportTemplate.Fill generateVolunteerAttendanceReport(HashMap<String, String> volunteerAttendanceReportMap,
+                                                                HashMap<String, Practitioner> practitioners) {
+        // Contained section.
         JsonArray containedArray = new JsonArray();
         List<String> practitionerKeys = splitRefs(volunteerAttendanceReportMap.get("practitioner_references"));
 
@@ -442,110 +381,29 @@ public class Skeleton {
 
             practitionerCount++;
         }
-        resource.add("contained", containedArray);
-
-        // Extension section.
-        JsonArray extensionArray = new JsonArray();
-        JsonObject asgReportingMonthObject = new JsonObject();
-        asgReportingMonthObject.addProperty("url", "http://ihis.sg/extension/asg-reporting-month");
-        asgReportingMonthObject.addProperty("valueDate", volunteerAttendanceReportMap.get("extension_reporting_month"));
-        extensionArray.add(asgReportingMonthObject);
-        resource.add("extension", extensionArray);
-
-        resource.addProperty("status", volunteerAttendanceReportMap.get("status"));
-
-        // Type section.
-        JsonObject type = new JsonObject();
-        JsonArray codingArray = new JsonArray();
-        JsonObject codingObject = new JsonObject();
-        codingObject.addProperty("system", "http://ihis.sg/CodeSystem/asg-document-type");
-        codingObject.addProperty("code", "volunteer-attendance-report");
-        codingObject.addProperty("display", "Volunteer Attendance Report");
-        codingArray.add(codingObject);
-        type.add("coding", codingArray);
-        resource.add("type", type);
-
-        resource.addProperty("date", volunteerAttendanceReportMap.get("date"));
-
-        // Author section.
-        JsonArray authorArray = new JsonArray();
-        JsonObject authorObject = new JsonObject();
-        JsonObject identifierObject = new JsonObject();
-        identifierObject.addProperty("system", "http://ihis.sg/identifier/aac-center-id");
-        identifierObject.addProperty("value", volunteerAttendanceReportMap.get("author_value"));
-        authorObject.add("identifier", identifierObject);
-        authorObject.addProperty("display", volunteerAttendanceReportMap.get("author_display"));
-        authorArray.add(authorObject);
-        resource.add("author", authorArray);
-
-        resource.addProperty("title", "Volunteer Attendance Report Submission");
-
-        // Section.
-        JsonArray sectionArray = new JsonArray();
-        JsonObject outerCodeObject = new JsonObject();
-        JsonObject innerCodeObject = new JsonObject();
-        codingArray = new JsonArray();
-        codingObject = new JsonObject();
-        codingObject.addProperty("system", "http://ihis.sg/CodeSystem/asg-volunteer-attendance-report-section");
-        codingObject.addProperty("code", "section-aac-volunteer-attendance");
-        codingArray.add(codingObject);
-        innerCodeObject.add("coding", codingArray);
-        outerCodeObject.add("code", innerCodeObject);
-
-        JsonArray entryArray = new JsonArray();
-        for (String practitionerId : resolvedPractitionerIds) {
-            JsonObject referenceObject = new JsonObject();
-            referenceObject.addProperty("reference", "#" + practitionerId);
-            entryArray.add(referenceObject);
-        }
-
-        outerCodeObject.add("entry", entryArray);
-        sectionArray.add(outerCodeObject);
-        resource.add("section", sectionArray);
-
-        return resource;
-    }
-
-    public static JsonObject generateEventReportObject(HashMap<String, String> eventReportMap,
-                                                       HashMap<String, HashMap<String, String>> eventSessionsNricMap,
-                                                       HashMap<String, Patient> patients,
-                                                       HashMap<String, Event> events) {
-        JsonObject resource = new JsonObject();
-        resource.addProperty("resourceType", "Composition");
-        resource.addProperty("id", eventReportMap.get("composition_id"));
-
-        JsonObject meta = new JsonObject();
-        meta.addProperty("versionId", stripDecimal(eventReportMap.get("version_id")));
-        meta.addProperty("lastUpdated", eventReportMap.get("last_updated"));
-
-        JsonArray profileArray = new JsonArray();
-        profileArray.add("http://ihis.sg/StructureDefinition/Composition-put-asg-event-report");
-        meta.add("profile", profileArray);
-
-        JsonArray tagArray = new JsonArray();
-        JsonObject tagObject = new JsonObject();
-        tagObject.addProperty("system", "http://ihis.sg/coding/correlationid");
-        tagObject.addProperty("code", eventReportMap.get("meta_code"));
-        tagArray.add(tagObject);
-
-        meta.add("tag", tagArray);
-        resource.add("meta", meta);
-
-        // Contained section.
+
+        return composition(VOLUNTEER_ATTENDANCE_REPORT, volunteerAttendanceReportMap)
+                .put("contained", containedArray)
+                .put("entries", resolvedPractitionerIds);
+    }
+
+    static ReportTemplate.Fill generateEventReport(HashMap<String, String> eventReportMap,
+                                                  HashMap<String, EventRegistration> eventSessionsNricMap,
+                                                  HashMap<String, Patient> patients,
+                                                  HashMap<String, Event> events) {
+        // Contained section.
         JsonArray containedArray = new JsonArray();
         List<String> patientKeys = splitRefs(eventReportMap.get("patient_references"));
-
-        int patientCount = 0;
-
-        // For event report, patientId is NRIC and we are using patients map with NRIC key.
-        for (String patientId : patientKeys) {
+
+        // For event report, patientId is NRIC and we are using patients map with NRIC key.
+        for (String patientId : patientKeys) {
             Patient patient = patients.get(patientId);
-            HashMap<String, String> registrationDetails = eventSessionsNricMap.get(patientId);
+            EventRegistration registrationDetails = eventSessionsNricMap.get(patientId);
             if (patient == null || registrationDetails == null) {
                 continue;
             }
 
-            Integer registrationIndex = toInteger(registrationDetails.get("number_of_attended_indicator"));
+            Integer registrationIndex = registrationDetails.attendedIndicator();
             if (registrationIndex == null) {
                 continue;
             }
@@ -557,231 +415,74 @@ public class Skeleton {
                 JsonArray extensionArray = patientObject.getAsJsonArray("extension");
                 JsonObject asgIsAttendedSessionObject = new JsonObject();
                 asgIsAttendedSessionObject.addProperty("url", "http://ihis.sg/extension/asg-is-attended-session");
-                asgIsAttendedSessionObject.addProperty("valueBoolean", Boolean.parseBoolean(registrationDetails.get("registration_value" + (i + 1))));
+                asgIsAttendedSessionObject.addProperty("valueBoolean", registrationDetails.isAttended(i + 1));
                 extensionArray.add(asgIsAttendedSessionObject);
 
                 containedArray.add(patientObject);
             }
-
-            patientCount++;
-        }
-
-
-        resource.add("contained", containedArray);
-
-        // Extension section.
-        JsonArray extensionArray = new JsonArray();
-
-        JsonObject asgReportingMonthObject = new JsonObject();
-        asgReportingMonthObject.addProperty("url", "http://ihis.sg/extension/asg-reporting-month");
-        asgReportingMonthObject.addProperty("valueDate", eventReportMap.get("extension_reporting_month"));
-
-        JsonObject asgEventIdObject = new JsonObject();
-        asgEventIdObject.addProperty("url", "http://ihis.sg/extension/asg-event-id");
-        asgEventIdObject.addProperty("valueString", eventReportMap.get("event_id"));
-
-        JsonObject asgEventNameObject = new JsonObject();
-        asgEventNameObject.addProperty("url", "http://ihis.sg/extension/asg-event-name");
-        asgEventNameObject.addProperty("valueString", eventReportMap.get("event_name"));
-
-        JsonObject asgEventTypeObject = new JsonObject();
-        asgEventTypeObject.addProperty("url", "http://ihis.sg/extension/asg-event-type");
-        asgEventTypeObject.addProperty("valueString", eventReportMap.get("event_type"));
-
-        JsonObject asgEventDomainObject = new JsonObject();
-        asgEventDomainObject.addProperty("url", "http://ihis.sg/extension/asg-event-domain");
-        asgEventDomainObject.addProperty("valueString", eventReportMap.get("event_domain"));
-
-        JsonObject asgEventTargetAttendeesObject = new JsonObject();
-        asgEventTargetAttendeesObject.addProperty("url", "http://ihis.sg/extension/asg-event-target-attendees");
-        asgEventTargetAttendeesObject.addProperty("valueString", eventReportMap.get("event_target_attendees"));
-
-        JsonObject asgEventCategory = new JsonObject();
-        asgEventCategory.addProperty("url", "http://ihis.sg/extension/asg-event-category");
-        asgEventCategory.addProperty("valueString", eventReportMap.get("event_category"));
-
-        JsonObject asgAapProvider = new JsonObject();
-        asgAapProvider.addProperty("url", "http://ihis.sg/extension/asg-aap-provider");
-        asgAapProvider.addProperty("valueString", eventReportMap.get("aap_provider"));
-
-        JsonObject asgMinimumRequiredSessionsObject = new JsonObject();
-        asgMinimumRequiredSessionsObject.addProperty("url", "http://ihis.sg/extension/asg-minimum-required-sessions");
-        asgMinimumRequiredSessionsObject.addProperty("valueInteger", toInteger(eventReportMap.get("minimum_required_sessions")));
-
-        JsonObject asgIsGuiObject = new JsonObject();
-        asgIsGuiObject.addProperty("url", "http://ihis.sg/extension/asg-event-is-ground-up-initiative");
-        asgIsGuiObject.addProperty("valueBoolean", Boolean.parseBoolean(eventReportMap.get("event_is_gui")));
-
-        JsonObject asgGuiPartnerObject = new JsonObject();
-        asgGuiPartnerObject.addProperty("url", "http://ihis.sg/extension/asg-ground-up-initiative-partner");
-        asgGuiPartnerObject.addProperty("valueString", eventReportMap.get("gui_partner"));
-
-        extensionArray.add(asgReportingMonthObject);
-        extensionArray.add(asgEventIdObject);
-        extensionArray.add(asgEventNameObject);
-        extensionArray.add(asgEventTypeObject);
-        extensionArray.add(asgEventDomainObject);
-        extensionArray.add(asgEventTargetAttendeesObject);
-        extensionArray.add(asgEventCategory);
-        extensionArray.add(asgAapProvider);
-        extensionArray.add(asgMinimumRequiredSessionsObject);
-        extensionArray.add(asgIsGuiObject);
-        extensionArray.add(asgGuiPartnerObject);
-        resource.add("extension", extensionArray);
-
-        resource.addProperty("status", eventReportMap.get("status"));
-
-        // Type section.
-        JsonObject type = new JsonObject();
-        JsonArray codingArray = new JsonArray();
-        JsonObject codingObject = new JsonObject();
-        codingObject.addProperty("system", "http://ihis.sg/CodeSystem/asg-document-type");
-        codingObject.addProperty("code", "event-report");
-        codingObject.addProperty("display", "Event Report");
-        codingArray.add(codingObject);
-        type.add("coding", codingArray);
-        resource.add("type", type);
-
-        resource.addProperty("date", eventReportMap.get("date"));
-
-        // Author section.
-        JsonArray authorArray = new JsonArray();
-        JsonObject authorObject = new JsonObject();
-        JsonObject identifierObject = new JsonObject();
-        identifierObject.addProperty("system", "http://ihis.sg/identifier/aac-center-id");
-        identifierObject.addProperty("value", eventReportMap.get("author_value"));
-        authorObject.add("identifier", identifierObject);
-        authorObject.addProperty("display", eventReportMap.get("author_display"));
-        authorArray.add(authorObject);
-        resource.add("author", authorArray);
-
-        resource.addProperty("title", "Event Report Submission");
+        }
 
         // Section.
         String eventKey = eventReportMap.get("composition_id");
         Event event = eventKey == null ? null : events.get(eventKey);
         JsonArray sectionArray = event != null ? event.generateEventSessionsSection(eventSessionsNricMap) : new JsonArray();
-        resource.add("section", sectionArray);
 
-        return resource;
+        return composition(EVENT_REPORT, eventReportMap)
+                .put("contained", containedArray)
+                .put("eventId", eventReportMap.get("event_id"))
+                .put("eventName", eventReportMap.get("event_name"))
+                .put("eventType", eventReportMap.get("event_type"))
+                .put("eventDomain", eventReportMap.get("event_domain"))
+                .put("eventTargetAttendees", eventReportMap.get("event_target_attendees"))
+                .put("eventCategory", eventReportMap.get("event_category"))
+                .put("aapProvider", eventReportMap.get("aap_provider"))
+                .put("minimumRequiredSessions", toInteger(eventReportMap.get("minimum_required_sessions")))
+                .put("isGui", Boolean.parseBoolean(eventReportMap.get("event_is_gui")))
+                .put("guiPartner", eventReportMap.get("gui_partner"))
+                .put("section", sectionArray);
+    }
+
+    static ReportTemplate.Fill generateOrganizationReport(HashMap<String, String> organizationReportMap) {
+        String end = organizationReportMap.get("end");
+        return ORGANIZATION_REPORT.fill()
+                .put("id", organizationReportMap.get("id"))
+                .put("versionId", stripDecimal(organizationReportMap.get("version_id")))
+                .put("lastUpdated", organizationReportMap.get("last_updated"))
+                .put("metaCode", organizationReportMap.get("meta_code"))
+                .put("start", convertToDate(organizationReportMap.get("start")))
+                .put("end", end != null ? convertToDate(end) : null)
+                .put("aacCenterId", organizationReportMap.get("aac_center_id"))
+                .put("uen", organizationReportMap.get("uen"))
+                .put("active", Boolean.parseBoolean(organizationReportMap.get("active")))
+                .put("typeCode", organizationReportMap.get("organization_type_code"))
+                .put("typeDisplay", organizationReportMap.get("organization_type_display"))
+                .put("name", organizationReportMap.get("name"));
+    }
+
+    static ReportTemplate.Fill generateLocationReport(HashMap<String, String> locationReportMap) {
+        String end = locationReportMap.get("end");
+        return LOCATION_REPORT.fill()
+                .put("id", locationReportMap.get("id"))
+                .put("versionId", stripDecimal(locationReportMap.get("version_id")))
+                .put("lastUpdated", locationReportMap.get("last_updated"))
+                .put("metaCode", locationReportMap.get("meta_code"))
+                .put("start", convertToDate(locationReportMap.get("start")))
+                .put("end", end != null ? convertToDate(end) : null)
+                .put("postalCode", stripDecimal(locationReportMap.get("postal_code")))
+                .put("reference", locationReportMap.get("reference"));
+    }
+
+    // Slots shared by the four Composition reports: header, meta, reporting month and author.
+    private static ReportTemplate.Fill composition(ReportTemplate template, HashMap<String, String> reportMap) {
+        return template.fill()
+                .put("id", reportMap.get("composition_id"))
+                .put("versionId", stripDecimal(reportMap.get("version_id")))
+                .put("lastUpdated", reportMap.get("last_updated"))
+                .put("metaCode", reportMap.get("meta_code"))
+                .put("reportingMonth", reportMap.get("extension_reporting_month"))
+                .put("status", reportMap.get("status"))
+                .put("date", reportMap.get("date"))
+                .put("authorValue", reportMap.get("author_value"))
+                .put("authorDisplay", reportMap.get("author_display"));
     }
-
-    public static JsonObject generateOrganizationReportObject(HashMap<String, String> organizationReportMap) {
-        JsonObject resource = new JsonObject();
-        resource.addProperty("resourceType", "Organization");
-        resource.addProperty("id", organizationReportMap.get("id"));
-
-        JsonObject meta = new JsonObject();
-        meta.addProperty("versionId", stripDecimal(organizationReportMap.get("version_id")));
-        meta.addProperty("lastUpdated", organizationReportMap.get("last_updated"));
-        meta.addProperty("source", "http://ihis.sg/programme-owner/age-well");
-
-        JsonArray profileArray = new JsonArray();
-        profileArray.add("http://ihis.sg/StructureDefinition/Organization-put-asg-aac");
-        meta.add("profile", profileArray);
-
-        JsonArray tagArray = new JsonArray();
-        JsonObject tagObject = new JsonObject();
-        tagObject.addProperty("system", "http://ihis.sg/coding/correlationid");
-        tagObject.addProperty("code", organizationReportMap.get("meta_code"));
-        tagArray.add(tagObject);
-
-        meta.add("tag", tagArray);
-        resource.add("meta", meta);
-
-        // Extension section.
-        JsonArray extensionArray = new JsonArray();
-        JsonObject asgOrganizationPeriodObject = new JsonObject();
-        asgOrganizationPeriodObject.addProperty("url", "http://ihis.sg/extension/organization-period");
-        JsonObject valuePeriodObject = new JsonObject();
-        valuePeriodObject.addProperty("start", convertToDate(organizationReportMap.get("start")));
-
-        if (organizationReportMap.get("end") != null) {
-            valuePeriodObject.addProperty("end", convertToDate(organizationReportMap.get("end")));
-        }
-
-        asgOrganizationPeriodObject.add("valuePeriod", valuePeriodObject);
-        extensionArray.add(asgOrganizationPeriodObject);
-        resource.add("extension", extensionArray);
-
-        // Identifier section.
-        JsonArray identifierArray = new JsonArray();
-        JsonObject aacCenterIdObject = new JsonObject();
-        aacCenterIdObject.addProperty("system", "http://ihis.sg/identifier/aac-center-id");
-        aacCenterIdObject.addProperty("value", organizationReportMap.get("aac_center_id"));
-        JsonObject uenObject = new JsonObject();
-        uenObject.addProperty("system", "http://ihis.sg/identifier/uen");
-        uenObject.addProperty("value", organizationReportMap.get("uen"));
-        identifierArray.add(aacCenterIdObject);
-        identifierArray.add(uenObject);
-        resource.add("identifier", identifierArray);
-
-        resource.addProperty("active", Boolean.parseBoolean(organizationReportMap.get("active")));
-
-        // Type section.
-        JsonArray typeArray = new JsonArray();
-        JsonObject outerCodingObject = new JsonObject();
-        JsonArray codingArray = new JsonArray();
-        JsonObject innerCodingObject = new JsonObject();
-        innerCodingObject.addProperty("system", "http://ihis.sg/CodeSystem/organization-type");
-        innerCodingObject.addProperty("code", organizationReportMap.get("organization_type_code"));
-        innerCodingObject.addProperty("display", organizationReportMap.get("organization_type_display"));
-        codingArray.add(innerCodingObject);
-        outerCodingObject.add("coding", codingArray);
-        typeArray.add(outerCodingObject);
-        resource.add("type", typeArray);
-
-        resource.addProperty("name", organizationReportMap.get("name"));
-
-        return resource;
-    }
-
-    public static JsonObject generateLocationReportObject(HashMap<String, String> locationReportMap) {
-        JsonObject resource = new JsonObject();
-        resource.addProperty("resourceType", "Location");
-        resource.addProperty("id", locationReportMap.get("id"));
-
-        JsonObject meta = new JsonObject();
-        meta.addProperty("versionId", stripDecimal(locationReportMap.get("version_id")));
-        meta.addProperty("lastUpdated", locationReportMap.get("last_updated"));
-        meta.addProperty("source", "http://ihis.sg/programme-owner/age-well");
-
-        JsonArray profileArray = new JsonArray();
-        profileArray.add("http://ihis.sg/StructureDefinition/Location-put-asg-aac-service-boundary");
-        meta.add("profile", profileArray);
-
-        JsonArray tagArray = new JsonArray();
-        JsonObject tagObject = new JsonObject();
-        tagObject.addProperty("system", "http://ihis.sg/coding/correlationid");
-        tagObject.addProperty("code", locationReportMap.get("meta_code"));
-        tagArray.add(tagObject);
-
-        meta.add("tag", tagArray);
-        resource.add("meta", meta);
-
-        // Extension section.
-        JsonArray extensionArray = new JsonArray();
-        JsonObject asgEffectivePeriodObject = new JsonObject();
-        asgEffectivePeriodObject.addProperty("url", "http://ihis.sg/extension/effective-period");
-        JsonObject valuePeriodObject = new JsonObject();
-        valuePeriodObject.addProperty("start", convertToDate(locationReportMap.get("start")));
-
-        if (locationReportMap.get("end") != null) {
-            valuePeriodObject.addProperty("end", convertToDate(locationReportMap.get("end")));
-        }
-
-        asgEffectivePeriodObject.add("valuePeriod", valuePeriodObject);
-        extensionArray.add(asgEffectivePeriodObject);
-        resource.add("extension", extensionArray);
-
-        JsonObject addressObject = new JsonObject();
-        addressObject.addProperty("postalCode", stripDecimal(locationReportMap.get("postal_code")));
-        resource.add("address", addressObject);
-
-        JsonObject managingOrganizationObject = new JsonObject();
-        managingOrganizationObject.addProperty("reference", locationReportMap.get("reference"));
-        resource.add("managingOrganization", managingOrganizationObject);
-
-        return resource;
-    }
-}
+}
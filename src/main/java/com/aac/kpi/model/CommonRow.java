@@ -3,181 +3,321 @@ package com.aac.kpi.model;
 import javafx.beans.property.*;
 
 public class CommonRow {
-    private final StringProperty compositionId = new SimpleStringProperty();
-    private final IntegerProperty versionId = new SimpleIntegerProperty(1);
-    private final StringProperty lastUpdated = new SimpleStringProperty();
-    private final StringProperty metaCode = new SimpleStringProperty();
-    private final StringProperty reportingMonth = new SimpleStringProperty();
-    private final IntegerProperty totalOperatingDays = new SimpleIntegerProperty(20);
-    private final IntegerProperty totalClients = new SimpleIntegerProperty(0);
-    private final StringProperty status = new SimpleStringProperty("final");
-    private final StringProperty authorValue = new SimpleStringProperty();
-    private final StringProperty authorDisplay = new SimpleStringProperty();
-    private final StringProperty patientReference = new SimpleStringProperty();
-    private final StringProperty encounterReferences = new SimpleStringProperty();
-    private final StringProperty questionnaireReference = new SimpleStringProperty();
-    private final StringProperty attendedEventReferences = new SimpleStringProperty();
+    private String compositionId;
+    private volatile StringProperty compositionIdProperty;
+    private int versionId = 1;
+    private volatile IntegerProperty versionIdProperty;
+    private String lastUpdated;
+    private volatile StringProperty lastUpdatedProperty;
+    private String metaCode;
+    private volatile StringProperty metaCodeProperty;
+    private String reportingMonth;
+    private volatile StringProperty reportingMonthProperty;
+    private int totalOperatingDays = 20;
+    private volatile IntegerProperty totalOperatingDaysProperty;
+    private int totalClients = 0;
+    private volatile IntegerProperty totalClientsProperty;
+    private String status = "final";
+    private volatile StringProperty statusProperty;
+    private String authorValue;
+    private volatile StringProperty authorValueProperty;
+    private String authorDisplay;
+    private volatile StringProperty authorDisplayProperty;
+    private String patientReference;
+    private volatile StringProperty patientReferenceProperty;
+    private String encounterReferences;
+    private volatile StringProperty encounterReferencesProperty;
+    private String questionnaireReference;
+    private volatile StringProperty questionnaireReferenceProperty;
+    private String attendedEventReferences;
+    private volatile StringProperty attendedEventReferencesProperty;
 
     // Resident report extended fields
-    private final StringProperty residentVolunteerStatus = new SimpleStringProperty();
-    private final StringProperty cstDate = new SimpleStringProperty();
-    private final IntegerProperty cfs = new SimpleIntegerProperty();
-    private final StringProperty cfsLabel = new SimpleStringProperty();
-    private final IntegerProperty socialRiskFactorScore = new SimpleIntegerProperty();
-    private final StringProperty socialRiskLabel = new SimpleStringProperty();
-    private final StringProperty aapRecommendation = new SimpleStringProperty();
-    private final StringProperty socialSupportRecommendation = new SimpleStringProperty();
-    private final StringProperty aacOptOutStatus = new SimpleStringProperty();
-    private final StringProperty aapOptOutStatus = new SimpleStringProperty();
-    private final StringProperty screeningDeclarationDate = new SimpleStringProperty();
-    private final StringProperty befriendingOptOutStatus = new SimpleStringProperty();
-    private final StringProperty buddyingOptOutStatus = new SimpleStringProperty();
-    private final StringProperty residentBefriendingProgrammePeriodStart = new SimpleStringProperty();
-    private final StringProperty residentBefriendingProgrammePeriodEnd = new SimpleStringProperty();
-    private final StringProperty residentBuddyingProgrammePeriodStart = new SimpleStringProperty();
-    private final StringProperty residentBuddyingProgrammePeriodEnd = new SimpleStringProperty();
-    private final StringProperty irmsReferralRaisedDate = new SimpleStringProperty();
-    private final StringProperty irmsReferralAcceptedDate = new SimpleStringProperty();
-    private final StringProperty asgReferralRaisedBy = new SimpleStringProperty();
-    private final StringProperty asgReferralAcceptedBy = new SimpleStringProperty();
-
-    public String getCompositionId() { return compositionId.get(); }
-    public void setCompositionId(String v) { compositionId.set(v); }
-    public StringProperty compositionIdProperty() { return compositionId; }
-
-    public int getVersionId() { return versionId.get(); }
-    public void setVersionId(int v) { versionId.set(v); }
-    public IntegerProperty versionIdProperty() { return versionId; }
-
-    public String getLastUpdated() { return lastUpdated.get(); }
-    public void setLastUpdated(String v) { lastUpdated.set(v); }
-    public StringProperty lastUpdatedProperty() { return lastUpdated; }
-
-    public String getMetaCode() { return metaCode.get(); }
-    public void setMetaCode(String v) { metaCode.set(v); }
-    public StringProperty metaCodeProperty() { return metaCode; }
-
-    public String getReportingMonth() { return reportingMonth.get(); }
-    public void setReportingMonth(String v) { reportingMonth.set(v); }
-    public StringProperty reportingMonthProperty() { return reportingMonth; }
-
-    public int getTotalOperatingDays() { return totalOperatingDays.get(); }
-    public void setTotalOperatingDays(int v) { totalOperatingDays.set(v); }
-    public IntegerProperty totalOperatingDaysProperty() { return totalOperatingDays; }
-
-    public int getTotalClients() { return totalClients.get(); }
-    public void setTotalClients(int v) { totalClients.set(v); }
-    public IntegerProperty totalClientsProperty() { return totalClients; }
-
-    public String getStatus() { return status.get(); }
-    public void setStatus(String v) { status.set(v); }
-    public StringProperty statusProperty() { return status; }
-
-    public String getAuthorValue() { return authorValue.get(); }
-    public void setAuthorValue(String v) { authorValue.set(v); }
-    public StringProperty authorValueProperty() { return authorValue; }
-
-    public String getAuthorDisplay() { return authorDisplay.get(); }
-    public void setAuthorDisplay(String v) { authorDisplay.set(v); }
-    public StringProperty authorDisplayProperty() { return authorDisplay; }
-
-    public String getPatientReference() { return patientReference.get(); }
-    public void setPatientReference(String v) { patientReference.set(v); }
-    public StringProperty patientReferenceProperty() { return patientReference; }
-
-    public String getEncounterReferences() { return encounterReferences.get(); }
-    public void setEncounterReferences(String v) { encounterReferences.set(v); }
-    public StringProperty encounterReferencesProperty() { return encounterReferences; }
-
-    public String getQuestionnaireReference() { return questionnaireReference.get(); }
-    public void setQuestionnaireReference(String v) { questionnaireReference.set(v); }
-    public StringProperty questionnaireReferenceProperty() { return questionnaireReference; }
-
-    public String getAttendedEventReferences() { return attendedEventReferences.get(); }
-    public void setAttendedEventReferences(String v) { attendedEventReferences.set(v); }
-    public StringProperty attendedEventReferencesProperty() { return attendedEventReferences; }
-
-    public String getResidentVolunteerStatus() { return residentVolunteerStatus.get(); }
-    public void setResidentVolunteerStatus(String v) { residentVolunteerStatus.set(v); }
-    public StringProperty residentVolunteerStatusProperty() { return residentVolunteerStatus; }
-
-    public String getCstDate() { return cstDate.get(); }
-    public void setCstDate(String v) { cstDate.set(v); }
-    public StringProperty cstDateProperty() { return cstDate; }
-
-    public int getCfs() { return cfs.get(); }
-    public void setCfs(int v) { cfs.set(v); }
-    public IntegerProperty cfsProperty() { return cfs; }
-
-    public String getCfsLabel() { return cfsLabel.get(); }
-    public void setCfsLabel(String v) { cfsLabel.set(v); }
-    public StringProperty cfsLabelProperty() { return cfsLabel; }
-
-    public int getSocialRiskFactorScore() { return socialRiskFactorScore.get(); }
-    public void setSocialRiskFactorScore(int v) { socialRiskFactorScore.set(v); }
-    public IntegerProperty socialRiskFactorScoreProperty() { return socialRiskFactorScore; }
-
-    public String getSocialRiskLabel() { return socialRiskLabel.get(); }
-    public void setSocialRiskLabel(String v) { socialRiskLabel.set(v); }
-    public StringProperty socialRiskLabelProperty() { return socialRiskLabel; }
-
-    public String getAapRecommendation() { return aapRecommendation.get(); }
-    public void setAapRecommendation(String v) { aapRecommendation.set(v); }
-    public StringProperty aapRecommendationProperty() { return aapRecommendation; }
-
-    public String getSocialSupportRecommendation() { return socialSupportRecommendation.get(); }
-    public void setSocialSupportRecommendation(String v) { socialSupportRecommendation.set(v); }
-    public StringProperty socialSupportRecommendationProperty() { return socialSupportRecommendation; }
-
-    public String getAacOptOutStatus() { return aacOptOutStatus.get(); }
-    public void setAacOptOutStatus(String v) { aacOptOutStatus.set(v); }
-    public StringProperty aacOptOutStatusProperty() { return aacOptOutStatus; }
-
-    public String getAapOptOutStatus() { return aapOptOutStatus.get(); }
-    public void setAapOptOutStatus(String v) { aapOptOutStatus.set(v); }
-    public StringProperty aapOptOutStatusProperty() { return aapOptOutStatus; }
-
-    public String getScreeningDeclarationDate() { return screeningDeclarationDate.get(); }
-    public void setScreeningDeclarationDate(String v) { screeningDeclarationDate.set(v); }
-    public StringProperty screeningDeclarationDateProperty() { return screeningDeclarationDate; }
-
-    public String getBefriendingOptOutStatus() { return befriendingOptOutStatus.get(); }
-    public void setBefriendingOptOutStatus(String v) { befriendingOptOutStatus.set(v); }
-    public StringProperty befriendingOptOutStatusProperty() { return befriendingOptOutStatus; }
-
-    public String getBuddyingOptOutStatus() { return buddyingOptOutStatus.get(); }
-    public void setBuddyingOptOutStatus(String v) { buddyingOptOutStatus.set(v); }
-    public StringProperty buddyingOptOutStatusProperty() { return buddyingOptOutStatus; }
-
-    public String getResidentBefriendingProgrammePeriodStart() { return residentBefriendingProgrammePeriodStart.get(); }
-    public void setResidentBefriendingProgrammePeriodStart(String v) { residentBefriendingProgrammePeriodStart.set(v); }
-    public StringProperty residentBefriendingProgrammePeriodStartProperty() { return residentBefriendingProgrammePeriodStart; }
-
-    public String getResidentBefriendingProgrammePeriodEnd() { return residentBefriendingProgrammePeriodEnd.get(); }
-    public void setResidentBefriendingProgrammePeriodEnd(String v) { residentBefriendingProgrammePeriodEnd.set(v); }
-    public StringProperty residentBefriendingProgrammePeriodEndProperty() { return residentBefriendingProgrammePeriodEnd; }
-
-    public String getResidentBuddyingProgrammePeriodStart() { return residentBuddyingProgrammePeriodStart.get(); }
-    public void setResidentBuddyingProgrammePeriodStart(String v) { residentBuddyingProgrammePeriodStart.set(v); }
-    public StringProperty residentBuddyingProgrammePeriodStartProperty() { return residentBuddyingProgrammePeriodStart; }
-
-    public String getResidentBuddyingProgrammePeriodEnd() { return residentBuddyingProgrammePeriodEnd.get(); }
-    public void setResidentBuddyingProgrammePeriodEnd(String v) { residentBuddyingProgrammePeriodEnd.set(v); }
-    public StringProperty residentBuddyingProgrammePeriodEndProperty() { return residentBuddyingProgrammePeriodEnd; }
-
-    public String getIrmsReferralRaisedDate() { return irmsReferralRaisedDate.get(); }
-    public void setIrmsReferralRaisedDate(String v) { irmsReferralRaisedDate.set(v); }
-    public StringProperty irmsReferralRaisedDateProperty() { return irmsReferralRaisedDate; }
-
-    public String getIrmsReferralAcceptedDate() { return irmsReferralAcceptedDate.get(); }
-    public void setIrmsReferralAcceptedDate(String v) { irmsReferralAcceptedDate.set(v); }
-    public StringProperty irmsReferralAcceptedDateProperty() { return irmsReferralAcceptedDate; }
-
-    public String getAsgReferralRaisedBy() { return asgReferralRaisedBy.get(); }
-    public void setAsgReferralRaisedBy(String v) { asgReferralRaisedBy.set(v); }
-    public StringProperty asgReferralRaisedByProperty() { return asgReferralRaisedBy; }
-
-    public String getAsgReferralAcceptedBy() { return asgReferralAcceptedBy.get(); }
-    public void setAsgReferralAcceptedBy(String v) { asgReferralAcceptedBy.set(v); }
-    public StringProperty asgReferralAcceptedByProperty() { return asgReferralAcceptedBy; }
+    private String residentVolunteerStatus;
+    private volatile StringProperty residentVolunteerStatusProperty;
+    private String cstDate;
+    private volatile StringProperty cstDateProperty;
+    private int cfs;
+    private volatile IntegerProperty cfsProperty;
+    private String cfsLabel;
+    private volatile StringProperty cfsLabelProperty;
+    private int socialRiskFactorScore;
+    private volatile IntegerProperty socialRiskFactorScoreProperty;
+    private String socialRiskLabel;
+    private volatile StringProperty socialRiskLabelProperty;
+    private String aapRecommendation;
+    private volatile StringProperty aapRecommendationProperty;
+    private String socialSupportRecommendation;
+    private volatile StringProperty socialSupportRecommendationProperty;
+    private String aacOptOutStatus;
+    private volatile StringProperty aacOptOutStatusProperty;
+    private String aapOptOutStatus;
+    private volatile StringProperty aapOptOutStatusProperty;
+    private String screeningDeclarationDate;
+    private volatile StringProperty screeningDeclarationDateProperty;
+    private String befriendingOptOutStatus;
+    private volatile StringProperty befriendingOptOutStatusProperty;
+    private String buddyingOptOutStatus;
+    private volatile StringProperty buddyingOptOutStatusProperty;
+    private String residentBefriendingProgrammePeriodStart;
+    private volatile StringProperty residentBefriendingProgrammePeriodStartProperty;
+    private String residentBefriendingProgrammePeriodEnd;
+    private volatile StringProperty residentBefriendingProgrammePeriodEndProperty;
+    private String residentBuddyingProgrammePeriodStart;
+    private volatile StringProperty residentBuddyingProgrammePeriodStartProperty;
+    private String residentBuddyingProgrammePeriodEnd;
+    private volatile StringProperty residentBuddyingProgrammePeriodEndProperty;
+    private String irmsReferralRaisedDate;
+    private volatile StringProperty irmsReferralRaisedDateProperty;
+    private String irmsReferralAcceptedDate;
+    private volatile StringProperty irmsReferralAcceptedDateProperty;
+    private String asgReferralRaisedBy;
+    private volatile StringProperty asgReferralRaisedByProperty;
+    private String asgReferralAcceptedBy;
+    private volatile StringProperty asgReferralAcceptedByProperty;
+
+    public String getCompositionId() { return compositionIdProperty == null ? compositionId : compositionIdProperty.get(); }
+    public void setCompositionId(String v) { if (compositionIdProperty == null) compositionId = v; else compositionIdProperty.set(v); }
+    public StringProperty compositionIdProperty() {
+        if (compositionIdProperty == null) compositionIdProperty = new SimpleStringProperty(this, "compositionId", compositionId);
+        return compositionIdProperty;
+    }
+
+    public int getVersionId() { return versionIdProperty == null ? versionId : versionIdProperty.get(); }
+    public void setVersionId(int v) { if (versionIdProperty == null) versionId = v; else versionIdProperty.set(v); }
+    public IntegerProperty versionIdProperty() {
+        if (versionIdProperty == null) versionIdProperty = new SimpleIntegerProperty(this, "versionId", versionId);
+        return versionIdProperty;
+    }
+
+    public String getLastUpdated() { return lastUpdatedProperty == null ? lastUpdated : lastUpdatedProperty.get(); }
+    public void setLastUpdated(String v) { if (lastUpdatedProperty == null) lastUpdated = v; else lastUpdatedProperty.set(v); }
+    public StringProperty lastUpdatedProperty() {
+        if (lastUpdatedProperty == null) lastUpdatedProperty = new SimpleStringProperty(this, "lastUpdated", lastUpdated);
+        return lastUpdatedProperty;
+    }
+
+    public String getMetaCode() { return metaCodeProperty == null ? metaCode : metaCodeProperty.get(); }
+    public void setMetaCode(String v) { if (metaCodeProperty == null) metaCode = v; else metaCodeProperty.set(v); }
+    public StringProperty metaCodeProperty() {
+        if (metaCodeProperty == null) metaCodeProperty = new SimpleStringProperty(this, "metaCode", metaCode);
+        return metaCodeProperty;
+    }
+
+    public String getReportingMonth() { return reportingMonthProperty == null ? reportingMonth : reportingMonthProperty.get(); }
+    public void setReportingMonth(String v) { if (reportingMonthProperty == null) reportingMonth = v; else reportingMonthProperty.set(v); }
+    public StringProperty reportingMonthProperty() {
+        if (reportingMonthProperty == null) reportingMonthProperty = new SimpleStringProperty(this, "reportingMonth", reportingMonth);
+        return reportingMonthProperty;
+    }
+
+    public int getTotalOperatingDays() { return totalOperatingDaysProperty == null ? totalOperatingDays : totalOperatingDaysProperty.get(); }
+    public void setTotalOperatingDays(int v) { if (totalOperatingDaysProperty == null) totalOperatingDays = v; else totalOperatingDaysProperty.set(v); }
+    public IntegerProperty totalOperatingDaysProperty() {
+        if (totalOperatingDaysProperty == null) totalOperatingDaysProperty = new SimpleIntegerProperty(this, "totalOperatingDays", totalOperatingDays);
+        return totalOperatingDaysProperty;
+    }
+
+    public int getTotalClients() { return totalClientsProperty == null ? totalClients : totalClientsProperty.get(); }
+    public void setTotalClients(int v) { if (totalClientsProperty == null) totalClients = v; else totalClientsProperty.set(v); }
+    public IntegerProperty totalClientsProperty() {
+        if (totalClientsProperty == null) totalClientsProperty = new SimpleIntegerProperty(this, "totalClients", totalClients);
+        return totalClientsProperty;
+    }
+
+    public String getStatus() { return statusProperty == null ? status : statusProperty.get(); }
+    public void setStatus(String v) { if (statusProperty == null) status = v; else statusProperty.set(v); }
+    public StringProperty statusProperty() {
+        if (statusProperty == null) statusProperty = new SimpleStringProperty(this, "status", status);
+        return statusProperty;
+    }
+
+    public String getAuthorValue() { return authorValueProperty == null ? authorValue : authorValueProperty.get(); }
+    public void setAuthorValue(String v) { if (authorValueProperty == null) authorValue = v; else authorValueProperty.set(v); }
+    public StringProperty authorValueProperty() {
+        if (authorValueProperty == null) authorValueProperty = new SimpleStringProperty(this, "authorValue", authorValue);
+        return authorValueProperty;
+    }
+
+    public String getAuthorDisplay() { return authorDisplayProperty == null ? authorDisplay : authorDisplayProperty.get(); }
+    public void setAuthorDisplay(String v) { if (authorDisplayProperty == null) authorDisplay = v; else authorDisplayProperty.set(v); }
+    public StringProperty authorDisplayProperty() {
+        if (authorDisplayProperty == null) authorDisplayProperty = new SimpleStringProperty(this, "authorDisplay", authorDisplay);
+        return authorDisplayProperty;
+    }
+
+    public String getPatientReference() { return patientReferenceProperty == null ? patientReference : patientReferenceProperty.get(); }
+    public void setPatientReference(String v) { if (patientReferenceProperty == null) patientReference = v; else patientReferenceProperty.set(v); }
+    public StringProperty patientReferenceProperty() {
+        if (patientReferenceProperty == null) patientReferenceProperty = new SimpleStringProperty(this, "patientReference", patientReference);
+        return patientReferenceProperty;
+    }
+
+    public String getEncounterReferences() { return encounterReferencesProperty == null ? encounterReferences : encounterReferencesProperty.get(); }
+    public void setEncounterReferences(String v) { if (encounterReferencesProperty == null) encounterReferences = v; else encounterReferencesProperty.set(v); }
+    public StringProperty encounterReferencesProperty() {
+        if (encounterReferencesProperty == null) encounterReferencesProperty = new SimpleStringProperty(this, "encounterReferences", encounterReferences);
+        return encounterReferencesProperty;
+    }
+
+    public String getQuestionnaireReference() { return questionnaireReferenceProperty == null ? questionnaireReference : questionnaireReferenceProperty.get(); }
+    public void setQuestionnaireReference(String v) { if (questionnaireReferenceProperty == null) questionnaireReference = v; else questionnaireReferenceProperty.set(v); }
+    public StringProperty questionnaireReferenceProperty() {
+        if (questionnaireReferenceProperty == null) questionnaireReferenceProperty = new SimpleStringProperty(this, "questionnaireReference", questionnaireReference);
+        return questionnaireReferenceProperty;
+    }
+
+    public String getAttendedEventReferences() { return attendedEventReferencesProperty == null ? attendedEventReferences : attendedEventReferencesProperty.get(); }
+    public void setAttendedEventReferences(String v) { if (attendedEventReferencesProperty == null) attendedEventReferences = v; else attendedEventReferencesProperty.set(v); }
+    public StringProperty attendedEventReferencesProperty() {
+        if (attendedEventReferencesProperty == null) attendedEventReferencesProperty = new SimpleStringProperty(this, "attendedEventReferences", attendedEventReferences);
+        return attendedEventReferencesProperty;
+    }
+
+    public String getResidentVolunteerStatus() { return residentVolunteerStatusProperty == null ? residentVolunteerStatus : residentVolunteerStatusProperty.get(); }
+    public void setResidentVolunteerStatus(String v) { if (residentVolunteerStatusProperty == null) residentVolunteerStatus = v; else residentVolunteerStatusProperty.set(v); }
+    public StringProperty residentVolunteerStatusProperty() {
+        if (residentVolunteerStatusProperty == null) residentVolunteerStatusProperty = new SimpleStringProperty(this, "residentVolunteerStatus", residentVolunteerStatus);
+        return residentVolunteerStatusProperty;
+    }
+
+    public String getCstDate() { return cstDateProperty == null ? cstDate : cstDateProperty.get(); }
+    public void setCstDate(String v) { if (cstDateProperty == null) cstDate = v; else cstDateProperty.set(v); }
+    public StringProperty cstDateProperty() {
+        if (cstDateProperty == null) cstDateProperty = new SimpleStringProperty(this, "cstDate", cstDate);
+        return cstDateProperty;
+    }
+
+    public int getCfs() { return cfsProperty == null ? cfs : cfsProperty.get(); }
+    public void setCfs(int v) { if (cfsProperty == null) cfs = v; else cfsProperty.set(v); }
+    public IntegerProperty cfsProperty() {
+        if (cfsProperty == null) cfsProperty = new SimpleIntegerProperty(this, "cfs", cfs);
+        return cfsProperty;
+    }
+
+    public String getCfsLabel() { return cfsLabelProperty == null ? cfsLabel : cfsLabelProperty.get(); }
+    public void setCfsLabel(String v) { if (cfsLabelProperty == null) cfsLabel = v; else cfsLabelProperty.set(v); }
+    public StringProperty cfsLabelProperty() {
+        if (cfsLabelProperty == null) cfsLabelProperty = new SimpleStringProperty(this, "cfsLabel", cfsLabel);
+        return cfsLabelProperty;
+    }
+
+    public int getSocialRiskFactorScore() { return socialRiskFactorScoreProperty == null ? socialRiskFactorScore : socialRiskFactorScoreProperty.get(); }
+    public void setSocialRiskFactorScore(int v) { if (socialRiskFactorScoreProperty == null) socialRiskFactorScore = v; else socialRiskFactorScoreProperty.set(v); }
+    public IntegerProperty socialRiskFactorScoreProperty() {
+        if (socialRiskFactorScoreProperty == null) socialRiskFactorScoreProperty = new SimpleIntegerProperty(this, "socialRiskFactorScore", socialRiskFactorScore);
+        return socialRiskFactorScoreProperty;
+    }
+
+    public String getSocialRiskLabel() { return socialRiskLabelProperty == null ? socialRiskLabel : socialRiskLabelProperty.get(); }
+    public void setSocialRiskLabel(String v) { if (socialRiskLabelProperty == null) socialRiskLabel = v; else socialRiskLabelProperty.set(v); }
+    public StringProperty socialRiskLabelProperty() {
+        if (socialRiskLabelProperty == null) socialRiskLabelProperty = new SimpleStringProperty(this, "socialRiskLabel", socialRiskLabel);
+        return socialRiskLabelProperty;
+    }
+
+    public String getAapRecommendation() { return aapRecommendationProperty == null ? aapRecommendation : aapRecommendationProperty.get(); }
+    public void setAapRecommendation(String v) { if (aapRecommendationProperty == null) aapRecommendation = v; else aapRecommendationProperty.set(v); }
+    public StringProperty aapRecommendationProperty() {
+        if (aapRecommendationProperty == null) aapRecommendationProperty = new SimpleStringProperty(this, "aapRecommendation", aapRecommendation);
+        return aapRecommendationProperty;
+    }
+
+    public String getSocialSupportRecommendation() { return socialSupportRecommendationProperty == null ? socialSupportRecommendation : socialSupportRecommendationProperty.get(); }
+    public void setSocialSupportRecommendation(String v) { if (socialSupportRecommendationProperty == null) socialSupportRecommendation = v; else socialSupportRecommendationProperty.set(v); }
+    public StringProperty socialSupportRecommendationProperty() {
+        if (socialSupportRecommendationProperty == null) socialSupportRecommendationProperty = new SimpleStringProperty(this, "socialSupportRecommendation", socialSupportRecommendation);
+        return socialSupportRecommendationProperty;
+    }
+
+    public String getAacOptOutStatus() { return aacOptOutStatusProperty == null ? aacOptOutStatus : aacOptOutStatusProperty.get(); }
+    public void setAacOptOutStatus(String v) { if (aacOptOutStatusProperty == null) aacOptOutStatus = v; else aacOptOutStatusProperty.set(v); }
+    public StringProperty aacOptOutStatusProperty() {
+        if (aacOptOutStatusProperty == null) aacOptOutStatusProperty = new SimpleStringProperty(this, "aacOptOutStatus", aacOptOutStatus);
+        return aacOptOutStatusProperty;
+    }
+
+    public String getAapOptOutStatus() { return aapOptOutStatusProperty == null ? aapOptOutStatus : aapOptOutStatusProperty.get(); }
+    public void setAapOptOutStatus(String v) { if (aapOptOutStatusProperty == null) aapOptOutStatus = v; else aapOptOutStatusProperty.set(v); }
+    public StringProperty aapOptOutStatusProperty() {
+        if (aapOptOutStatusProperty == null) aapOptOutStatusProperty = new SimpleStringProperty(this, "aapOptOutStatus", aapOptOutStatus);
+        return aapOptOutStatusProperty;
+    }
+
+    public String getScreeningDeclarationDate() { return screeningDeclarationDateProperty == null ? screeningDeclarationDate : screeningDeclarationDateProperty.get(); }
+    public void setScreeningDeclarationDate(String v) { if (screeningDeclarationDateProperty == null) screeningDeclarationDate = v; else screeningDeclarationDateProperty.set(v); }
+    public StringProperty screeningDeclarationDateProperty() {
+        if (screeningDeclarationDateProperty == null) screeningDeclarationDateProperty = new SimpleStringProperty(this, "screeningDeclarationDate", screeningDeclarationDate);
+        return screeningDeclarationDateProperty;
+    }
+
+    public String getBefriendingOptOutStatus() { return befriendingOptOutStatusProperty == null ? befriendingOptOutStatus : befriendingOptOutStatusProperty.get(); }
+    public void setBefriendingOptOutStatus(String v) { if (befriendingOptOutStatusProperty == null) befriendingOptOutStatus = v; else befriendingOptOutStatusProperty.set(v); }
+    public StringProperty befriendingOptOutStatusProperty() {
+        if (befriendingOptOutStatusProperty == null) befriendingOptOutStatusProperty = new SimpleStringProperty(this, "befriendingOptOutStatus", befriendingOptOutStatus);
+        return befriendingOptOutStatusProperty;
+    }
+
+    public String getBuddyingOptOutStatus() { return buddyingOptOutStatusProperty == null ? buddyingOptOutStatus : buddyingOptOutStatusProperty.get(); }
+    public void setBuddyingOptOutStatus(String v) { if (buddyingOptOutStatusProperty == null) buddyingOptOutStatus = v; else buddyingOptOutStatusProperty.set(v); }
+    public StringProperty buddyingOptOutStatusProperty() {
+        if (buddyingOptOutStatusProperty == null) buddyingOptOutStatusProperty = new SimpleStringProperty(this, "buddyingOptOutStatus", buddyingOptOutStatus);
+        return buddyingOptOutStatusProperty;
+    }
+
+    public String getResidentBefriendingProgrammePeriodStart() { return residentBefriendingProgrammePeriodStartProperty == null ? residentBefriendingProgrammePeriodStart : residentBefriendingProgrammePeriodStartProperty.get(); }
+    public void setResidentBefriendingProgrammePeriodStart(String v) { if (residentBefriendingProgrammePeriodStartProperty == null) residentBefriendingProgrammePeriodStart = v; else residentBefriendingProgrammePeriodStartProperty.set(v); }
+    public StringProperty residentBefriendingProgrammePeriodStartProperty() {
+        if (residentBefriendingProgrammePeriodStartProperty == null) residentBefriendingProgrammePeriodStartProperty = new SimpleStringProperty(this, "residentBefriendingProgrammePeriodStart", residentBefriendingProgrammePeriodStart);
+        return residentBefriendingProgrammePeriodStartProperty;
+    }
+
+    public String getResidentBefriendingProgrammePeriodEnd() { return residentBefriendingProgrammePeriodEndProperty == null ? residentBefriendingProgrammePeriodEnd : residentBefriendingProgrammePeriodEndProperty.get(); }
+    public void setResidentBefriendingProgrammePeriodEnd(String v) { if (residentBefriendingProgrammePeriodEndProperty == null) residentBefriendingProgrammePeriodEnd = v; else residentBefriendingProgrammePeriodEndProperty.set(v); }
+    public StringProperty residentBefriendingProgrammePeriodEndProperty() {
+        if (residentBefriendingProgrammePeriodEndProperty == null) residentBefriendingProgrammePeriodEndProperty = new SimpleStringProperty(this, "residentBefriendingProgrammePeriodEnd", residentBefriendingProgrammePeriodEnd);
+        return residentBefriendingProgrammePeriodEndProperty;
+    }
+
+    public String getResidentBuddyingProgrammePeriodStart() { return residentBuddyingProgrammePeriodStartProperty == null ? residentBuddyingProgrammePeriodStart : residentBuddyingProgrammePeriodStartProperty.get(); }
+    public void setResidentBuddyingProgrammePeriodStart(String v) { if (residentBuddyingProgrammePeriodStartProperty == null) residentBuddyingProgrammePeriodStart = v; else residentBuddyingProgrammePeriodStartProperty.set(v); }
+    public StringProperty residentBuddyingProgrammePeriodStartProperty() {
+        if (residentBuddyingProgrammePeriodStartProperty == null) residentBuddyingProgrammePeriodStartProperty = new SimpleStringProperty(this, "residentBuddyingProgrammePeriodStart", residentBuddyingProgrammePeriodStart);
+        return residentBuddyingProgrammePeriodStartProperty;
+    }
+
+    public String getResidentBuddyingProgrammePeriodEnd() { return residentBuddyingProgrammePeriodEndProperty == null ? residentBuddyingProgrammePeriodEnd : residentBuddyingProgrammePeriodEndProperty.get(); }
+    public void setResidentBuddyingProgrammePeriodEnd(String v) { if (residentBuddyingProgrammePeriodEndProperty == null) residentBuddyingProgrammePeriodEnd = v; else residentBuddyingProgrammePeriodEndProperty.set(v); }
+    public StringProperty residentBuddyingProgrammePeriodEndProperty() {
+        if (residentBuddyingProgrammePeriodEndProperty == null) residentBuddyingProgrammePeriodEndProperty = new SimpleStringProperty(this, "residentBuddyingProgrammePeriodEnd", residentBuddyingProgrammePeriodEnd);
+        return residentBuddyingProgrammePeriodEndProperty;
+    }
+
+    public String getIrmsReferralRaisedDate() { return irmsReferralRaisedDateProperty == null ? irmsReferralRaisedDate : irmsReferralRaisedDateProperty.get(); }
+    public void setIrmsReferralRaisedDate(String v) { if (irmsReferralRaisedDateProperty == null) irmsReferralRaisedDate = v; else irmsReferralRaisedDateProperty.set(v); }
+    public StringProperty irmsReferralRaisedDateProperty() {
+        if (irmsReferralRaisedDateProperty == null) irmsReferralRaisedDateProperty = new SimpleStringProperty(this, "irmsReferralRaisedDate", irmsReferralRaisedDate);
+        return irmsReferralRaisedDateProperty;
+    }
+
+    public String getIrmsReferralAcceptedDate() { return irmsReferralAcceptedDateProperty == null ? irmsReferralAcceptedDate : irmsReferralAcceptedDateProperty.get(); }
+    public void setIrmsReferralAcceptedDate(String v) { if (irmsReferralAcceptedDateProperty == null) irmsReferralAcceptedDate = v; else irmsReferralAcceptedDateProperty.set(v); }
+    public StringProperty irmsReferralAcceptedDateProperty() {
+        if (irmsReferralAcceptedDateProperty == null) irmsReferralAcceptedDateProperty = new SimpleStringProperty(this, "irmsReferralAcceptedDate", irmsReferralAcceptedDate);
+        return irmsReferralAcceptedDateProperty;
+    }
+
+    public String getAsgReferralRaisedBy() { return asgReferralRaisedByProperty == null ? asgReferralRaisedBy : asgReferralRaisedByProperty.get(); }
+    public void setAsgReferralRaisedBy(String v) { if (asgReferralRaisedByProperty == null) asgReferralRaisedBy = v; else asgReferralRaisedByProperty.set(v); }
+    public StringProperty asgReferralRaisedByProperty() {
+        if (asgReferralRaisedByProperty == null) asgReferralRaisedByProperty = new SimpleStringProperty(this, "asgReferralRaisedBy", asgReferralRaisedBy);
+        return asgReferralRaisedByProperty;
+    }
+
+    public String getAsgReferralAcceptedBy() { return asgReferralAcceptedByProperty == null ? asgReferralAcceptedBy : asgReferralAcceptedByProperty.get(); }
+    public void setAsgReferralAcceptedBy(String v) { if (asgReferralAcceptedByProperty == null) asgReferralAcceptedBy = v; else asgReferralAcceptedByProperty.set(v); }
+    public StringProperty asgReferralAcceptedByProperty() {
+        if (asgReferralAcceptedByProperty == null) asgReferralAcceptedByProperty = new SimpleStringProperty(this, "asgReferralAcceptedBy", asgReferralAcceptedBy);
+        return asgReferralAcceptedByProperty;
+    }
 }
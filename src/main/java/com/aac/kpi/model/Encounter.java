@@ -4,44 +4,76 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
 public class Encounter {
-    private final StringProperty encounterId = new SimpleStringProperty();
-    private final StringProperty encounterStatus = new SimpleStringProperty("finished");
-    private final StringProperty encounterDisplay = new SimpleStringProperty();
-    private final StringProperty encounterStart = new SimpleStringProperty();
-    private final StringProperty encounterPurpose = new SimpleStringProperty();
-    private final StringProperty encounterContactedStaffName = new SimpleStringProperty();
-    private final StringProperty encounterReferredBy = new SimpleStringProperty();
-    private final StringProperty encounterPatientReference = new SimpleStringProperty();
-
-    public String getEncounterId() { return encounterId.get(); }
-    public void setEncounterId(String v) { encounterId.set(v); }
-    public StringProperty encounterIdProperty() { return encounterId; }
-
-    public String getEncounterStatus() { return encounterStatus.get(); }
-    public void setEncounterStatus(String v) { encounterStatus.set(v); }
-    public StringProperty encounterStatusProperty() { return encounterStatus; }
-
-    public String getEncounterDisplay() { return encounterDisplay.get(); }
-    public void setEncounterDisplay(String v) { encounterDisplay.set(v); }
-    public StringProperty encounterDisplayProperty() { return encounterDisplay; }
-
-    public String getEncounterStart() { return encounterStart.get(); }
-    public void setEncounterStart(String v) { encounterStart.set(v); }
-    public StringProperty encounterStartProperty() { return encounterStart; }
-
-    public String getEncounterPurpose() { return encounterPurpose.get(); }
-    public void setEncounterPurpose(String v) { encounterPurpose.set(v); }
-    public StringProperty encounterPurposeProperty() { return encounterPurpose; }
-
-    public String getEncounterContactedStaffName() { return encounterContactedStaffName.get(); }
-    public void setEncounterContactedStaffName(String v) { encounterContactedStaffName.set(v); }
-    public StringProperty encounterContactedStaffNameProperty() { return encounterContactedStaffName; }
-
-    public String getEncounterReferredBy() { return encounterReferredBy.get(); }
-    public void setEncounterReferredBy(String v) { encounterReferredBy.set(v); }
-    public StringProperty encounterReferredByProperty() { return encounterReferredBy; }
-
-    public String getEncounterPatientReference() { return encounterPatientReference.get(); }
-    public void setEncounterPatientReference(String v) { encounterPatientReference.set(v); }
-    public StringProperty encounterPatientReferenceProperty() { return encounterPatientReference; }
+    private String encounterId;
+    private volatile StringProperty encounterIdProperty;
+    private String encounterStatus = "finished";
+    private volatile StringProperty encounterStatusProperty;
+    private String encounterDisplay;
+    private volatile StringProperty encounterDisplayProperty;
+    private String encounterStart;
+    private volatile StringProperty encounterStartProperty;
+    private String encounterPurpose;
+    private volatile StringProperty encounterPurposeProperty;
+    private String encounterContactedStaffName;
+    private volatile StringProperty encounterContactedStaffNameProperty;
+    private String encounterReferredBy;
+    private volatile StringProperty encounterReferredByProperty;
+    private String encounterPatientReference;
+    private volatile StringProperty encounterPatientReferenceProperty;
+
+    public String getEncounterId() { return encounterIdProperty == null ? encounterId : encounterIdProperty.get(); }
+    public void setEncounterId(String v) { if (encounterIdProperty == null) encounterId = v; else encounterIdProperty.set(v); }
+    public StringProperty encounterIdProperty() {
+        if (encounterIdProperty == null) encounterIdProperty = new SimpleStringProperty(this, "encounterId", encounterId);
+        return encounterIdProperty;
+    }
+
+    public String getEncounterStatus() { return encounterStatusProperty == null ? encounterStatus : encounterStatusProperty.get(); }
+    public void setEncounterStatus(String v) { if (encounterStatusProperty == null) encounterStatus = v; else encounterStatusProperty.set(v); }
+    public StringProperty encounterStatusProperty() {
+        if (encounterStatusProperty == null) encounterStatusProperty = new SimpleStringProperty(this, "encounterStatus", encounterStatus);
+        return encounterStatusProperty;
+    }
+
+    public String getEncounterDisplay() { return encounterDisplayProperty == null ? encounterDisplay : encounterDisplayProperty.get(); }
+    public void setEncounterDisplay(String v) { if (encounterDisplayProperty == null) encounterDisplay = v; else encounterDisplayProperty.set(v); }
+    public StringProperty encounterDisplayProperty() {
+        if (encounterDisplayProperty == null) encounterDisplayProperty = new SimpleStringProperty(this, "encounterDisplay", encounterDisplay);
+        return encounterDisplayProperty;
+    }
+
+    public String getEncounterStart() { return encounterStartProperty == null ? encounterStart : encounterStartProperty.get(); }
+    public void setEncounterStart(String v) { if (encounterStartProperty == null) encounterStart = v; else encounterStartProperty.set(v); }
+    public StringProperty encounterStartProperty() {
+        if (encounterStartProperty == null) encounterStartProperty = new SimpleStringProperty(this, "encounterStart", encounterStart);
+        return encounterStartProperty;
+    }
+
+    public String getEncounterPurpose() { return encounterPurposeProperty == null ? encounterPurpose : encounterPurposeProperty.get(); }
+    public void setEncounterPurpose(String v) { if (encounterPurposeProperty == null) encounterPurpose = v; else encounterPurposeProperty.set(v); }
+    public StringProperty encounterPurposeProperty() {
+        if (encounterPurposeProperty == null) encounterPurposeProperty = new SimpleStringProperty(this, "encounterPurpose", encounterPurpose);
+        return encounterPurposeProperty;
+    }
+
+    public String getEncounterContactedStaffName() { return encounterContactedStaffNameProperty == null ? encounterContactedStaffName : encounterContactedStaffNameProperty.get(); }
+    public void setEncounterContactedStaffName(String v) { if (encounterContactedStaffNameProperty == null) encounterContactedStaffName = v; else encounterContactedStaffNameProperty.set(v); }
+    public StringProperty encounterContactedStaffNameProperty() {
+        if (encounterContactedStaffNameProperty == null) encounterContactedStaffNameProperty = new SimpleStringProperty(this, "encounterContactedStaffName", encounterContactedStaffName);
+        return encounterContactedStaffNameProperty;
+    }
+
+    public String getEncounterReferredBy() { return encounterReferredByProperty == null ? encounterReferredBy : encounterReferredByProperty.get(); }
+    public void setEncounterReferredBy(String v) { if (encounterReferredByProperty == null) encounterReferredBy = v; else encounterReferredByProperty.set(v); }
+    public StringProperty encounterReferredByProperty() {
+        if (encounterReferredByProperty == null) encounterReferredByProperty = new SimpleStringProperty(this, "encounterReferredBy", encounterReferredBy);
+        return encounterReferredByProperty;
+    }
+
+    public String getEncounterPatientReference() { return encounterPatientReferenceProperty == null ? encounterPatientReference : encounterPatientReferenceProperty.get(); }
+    public void setEncounterPatientReference(String v) { if (encounterPatientReferenceProperty == null) encounterPatientReference = v; else encounterPatientReferenceProperty.set(v); }
+    public StringProperty encounterPatientReferenceProperty() {
+        if (encounterPatientReferenceProperty == null) encounterPatientReferenceProperty = new SimpleStringProperty(this, "encounterPatientReference", encounterPatientReference);
+        return encounterPatientReferenceProperty;
+    }
 }
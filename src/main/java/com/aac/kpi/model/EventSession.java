@@ -2,65 +2,163 @@ package com.aac.kpi.model;
 
 import javafx.beans.property.*;
 
+import java.util.function.Consumer;
+
+/**
+ * One event session row. Values live in plain fields; the JavaFX property for a column is only
+ * created when something asks for it (a rendered or edited table cell, a listener), after which
+ * the property holds the value. The property fields are volatile because the FX thread creates
+ * them while pool threads (KPI evaluation, export) read through the getters.
+ */
 public class EventSession {
-    private final StringProperty compositionId = new SimpleStringProperty();
-    private final IntegerProperty numberOfEventSessions = new SimpleIntegerProperty(1);
-    private final StringProperty eventSessionId1 = new SimpleStringProperty();
-    private final StringProperty eventSessionMode1 = new SimpleStringProperty();
-    private final StringProperty eventSessionStartDate1 = new SimpleStringProperty();
-    private final StringProperty eventSessionEndDate1 = new SimpleStringProperty();
-    private final IntegerProperty eventSessionDuration1 = new SimpleIntegerProperty();
-    private final StringProperty eventSessionVenue1 = new SimpleStringProperty();
-    private final IntegerProperty eventSessionCapacity1 = new SimpleIntegerProperty();
-    private final StringProperty eventSessionPatientReferences1 = new SimpleStringProperty();
-    private final javafx.beans.property.BooleanProperty attendedIndicator = new javafx.beans.property.SimpleBooleanProperty(true);
-    private final StringProperty purposeOfContact = new SimpleStringProperty("");
-
-    public String getCompositionId() { return compositionId.get(); }
-    public void setCompositionId(String v) { compositionId.set(v); }
-    public StringProperty compositionIdProperty() { return compositionId; }
-
-    public int getNumberOfEventSessions() { return numberOfEventSessions.get(); }
-    public void setNumberOfEventSessions(int v) { numberOfEventSessions.set(v); }
-    public IntegerProperty numberOfEventSessionsProperty() { return numberOfEventSessions; }
-
-    public String getEventSessionId1() { return eventSessionId1.get(); }
-    public void setEventSessionId1(String v) { eventSessionId1.set(v); }
-    public StringProperty eventSessionId1Property() { return eventSessionId1; }
-
-    public String getEventSessionMode1() { return eventSessionMode1.get(); }
-    public void setEventSessionMode1(String v) { eventSessionMode1.set(v); }
-    public StringProperty eventSessionMode1Property() { return eventSessionMode1; }
-
-    public String getEventSessionStartDate1() { return eventSessionStartDate1.get(); }
-    public void setEventSessionStartDate1(String v) { eventSessionStartDate1.set(v); }
-    public StringProperty eventSessionStartDate1Property() { return eventSessionStartDate1; }
-
-    public String getEventSessionEndDate1() { return eventSessionEndDate1.get(); }
-    public void setEventSessionEndDate1(String v) { eventSessionEndDate1.set(v); }
-    public StringProperty eventSessionEndDate1Property() { return eventSessionEndDate1; }
-
-    public int getEventSessionDuration1() { return eventSessionDuration1.get(); }
-    public void setEventSessionDuration1(int v) { eventSessionDuration1.set(v); }
-    public IntegerProperty eventSessionDuration1Property() { return eventSessionDuration1; }
-
-    public String getEventSessionVenue1() { return eventSessionVenue1.get(); }
-    public void setEventSessionVenue1(String v) { eventSessionVenue1.set(v); }
-    public StringProperty eventSessionVenue1Property() { return eventSessionVenue1; }
-
-    public int getEventSessionCapacity1() { return eventSessionCapacity1.get(); }
-    public void setEventSessionCapacity1(int v) { eventSessionCapacity1.set(v); }
-    public IntegerProperty eventSessionCapacity1Property() { return eventSessionCapacity1; }
-
-    public String getEventSessionPatientReferences1() { return eventSessionPatientReferences1.get(); }
-    public void setEventSessionPatientReferences1(String v) { eventSessionPatientReferences1.set(v); }
-    public StringProperty eventSessionPatientReferences1Property() { return eventSessionPatientReferences1; }
-
-    public boolean isAttendedIndicator() { return attendedIndicator.get(); }
-    public void setAttendedIndicator(boolean b) { attendedIndicator.set(b); }
-    public javafx.beans.property.BooleanProperty attendedIndicatorProperty() { return attendedIndicator; }
-
-    public String getPurposeOfContact() { return purposeOfContact.get(); }
-    public void setPurposeOfContact(String v) { purposeOfContact.set(v); }
-    public StringProperty purposeOfContactProperty() { return purposeOfContact; }
+    private String compositionId;
+    private volatile StringProperty compositionIdProperty;
+    private int numberOfEventSessions = 1;
+    private volatile IntegerProperty numberOfEventSessionsProperty;
+    private String eventSessionId1;
+    private volatile StringProperty eventSessionId1Property;
+    private String eventSessionMode1;
+    private volatile StringProperty eventSessionMode1Property;
+    private String eventSessionStartDate1;
+    private volatile StringProperty eventSessionStartDate1Property;
+    private String eventSessionEndDate1;
+    private volatile StringProperty eventSessionEndDate1Property;
+    private int eventSessionDuration1;
+    private volatile IntegerProperty eventSessionDuration1Property;
+    private String eventSessionVenue1;
+    private volatile StringProperty eventSessionVenue1Property;
+    private int eventSessionCapacity1;
+    private volatile IntegerProperty eventSessionCapacity1Property;
+    private String eventSessionPatientReferences1;
+    private volatile StringProperty eventSessionPatientReferences1Property;
+    private boolean attendedIndicator = true;
+    private volatile BooleanProperty attendedIndicatorProperty;
+    private String purposeOfContact = "";
+    private volatile StringProperty purposeOfContactProperty;
+    // Parsed form of eventSessionPatientReferences1, reused until the cell's value changes
+    private volatile PatientRefs patientRefs = PatientRefs.NONE;
+    // Told after an input of the KPI tallies changes; see setKpiInputListener
+    private Consumer<EventSession> kpiInputListener;
+
+    /**
+     * Sets the one listener told after the mode, start date, patient references, attended flag or
+     * purpose changes, through its setter or through its property once that exists. Listening this
+     * way does not create the properties. Pass null to stop.
+     */
+    public void setKpiInputListener(Consumer<EventSession> listener) { kpiInputListener = listener; }
+
+    private void kpiInputChanged() {
+        Consumer<EventSession> listener = kpiInputListener;
+        if (listener != null) listener.accept(this);
+    }
+
+    public String getCompositionId() { return compositionIdProperty == null ? compositionId : compositionIdProperty.get(); }
+    public void setCompositionId(String v) { if (compositionIdProperty == null) compositionId = v; else compositionIdProperty.set(v); }
+    public StringProperty compositionIdProperty() {
+        if (compositionIdProperty == null) compositionIdProperty = new SimpleStringProperty(this, "compositionId", compositionId);
+        return compositionIdProperty;
+    }
+
+    public int getNumberOfEventSessions() { return numberOfEventSessionsProperty == null ? numberOfEventSessions : numberOfEventSessionsProperty.get(); }
+    public void setNumberOfEventSessions(int v) { if (numberOfEventSessionsProperty == null) numberOfEventSessions = v; else numberOfEventSessionsProperty.set(v); }
+    public IntegerProperty numberOfEventSessionsProperty() {
+        if (numberOfEventSessionsProperty == null) numberOfEventSessionsProperty = new SimpleIntegerProperty(this, "numberOfEventSessions", numberOfEventSessions);
+        return numberOfEventSessionsProperty;
+    }
+
+    public String getEventSessionId1() { return eventSessionId1Property == null ? eventSessionId1 : eventSessionId1Property.get(); }
+    public void setEventSessionId1(String v) { if (eventSessionId1Property == null) eventSessionId1 = v; else eventSessionId1Property.set(v); }
+    public StringProperty eventSessionId1Property() {
+        if (eventSessionId1Property == null) eventSessionId1Property = new SimpleStringProperty(this, "eventSessionId1", eventSessionId1);
+        return eventSessionId1Property;
+    }
+
+    public String getEventSessionMode1() { return eventSessionMode1Property == null ? eventSessionMode1 : eventSessionMode1Property.get(); }
+    public void setEventSessionMode1(String v) { if (eventSessionMode1Property == null) { eventSessionMode1 = v; kpiInputChanged(); } else eventSessionMode1Property.set(v); }
+    public StringProperty eventSessionMode1Property() {
+        if (eventSessionMode1Property == null) {
+            eventSessionMode1Property = new SimpleStringProperty(this, "eventSessionMode1", eventSessionMode1);
+            eventSessionMode1Property.addListener((obs, was, now) -> kpiInputChanged());
+        }
+        return eventSessionMode1Property;
+    }
+
+    public String getEventSessionStartDate1() { return eventSessionStartDate1Property == null ? eventSessionStartDate1 : eventSessionStartDate1Property.get(); }
+    public void setEventSessionStartDate1(String v) { if (eventSessionStartDate1Property == null) { eventSessionStartDate1 = v; kpiInputChanged(); } else eventSessionStartDate1Property.set(v); }
+    public StringProperty eventSessionStartDate1Property() {
+        if (eventSessionStartDate1Property == null) {
+            eventSessionStartDate1Property = new SimpleStringProperty(this, "eventSessionStartDate1", eventSessionStartDate1);
+            eventSessionStartDate1Property.addListener((obs, was, now) -> kpiInputChanged());
+        }
+        return eventSessionStartDate1Property;
+    }
+
+    public String getEventSessionEndDate1() { return eventSessionEndDate1Property == null ? eventSessionEndDate1 : eventSessionEndDate1Property.get(); }
+    public void setEventSessionEndDate1(String v) { if (eventSessionEndDate1Property == null) eventSessionEndDate1 = v; else eventSessionEndDate1Property.set(v); }
+    public StringProperty eventSessionEndDate1Property() {
+        if (eventSessionEndDate1Property == null) eventSessionEndDate1Property = new SimpleStringProperty(this, "eventSessionEndDate1", eventSessionEndDate1);
+        return eventSessionEndDate1Property;
+    }
+
+    public int getEventSessionDuration1() { return eventSessionDuration1Property == null ? eventSessionDuration1 : eventSessionDuration1Property.get(); }
+    public void setEventSessionDuration1(int v) { if (eventSessionDuration1Property == null) eventSessionDuration1 = v; else eventSessionDuration1Property.set(v); }
+    public IntegerProperty eventSessionDuration1Property() {
+        if (eventSessionDuration1Property == null) eventSessionDuration1Property = new SimpleIntegerProperty(this, "eventSessionDuration1", eventSessionDuration1);
+        return eventSessionDuration1Property;
+    }
+
+    public String getEventSessionVenue1() { return eventSessionVenue1Property == null ? eventSessionVenue1 : eventSessionVenue1Property.get(); }
+    public void setEventSessionVenue1(String v) { if (eventSessionVenue1Property == null) eventSessionVenue1 = v; else eventSessionVenue1Property.set(v); }
+    public StringProperty eventSessionVenue1Property() {
+        if (eventSessionVenue1Property == null) eventSessionVenue1Property = new SimpleStringProperty(this, "eventSessionVenue1", eventSessionVenue1);
+        return eventSessionVenue1Property;
+    }
+
+    public int getEventSessionCapacity1() { return eventSessionCapacity1Property == null ? eventSessionCapacity1 : eventSessionCapacity1Property.get(); }
+    public void setEventSessionCapacity1(int v) { if (eventSessionCapacity1Property == null) eventSessionCapacity1 = v; else eventSessionCapacity1Property.set(v); }
+    public IntegerProperty eventSessionCapacity1Property() {
+        if (eventSessionCapacity1Property == null) eventSessionCapacity1Property = new SimpleIntegerProperty(this, "eventSessionCapacity1", eventSessionCapacity1);
+        return eventSessionCapacity1Property;
+    }
+
+    public String getEventSessionPatientReferences1() { return eventSessionPatientReferences1Property == null ? eventSessionPatientReferences1 : eventSessionPatientReferences1Property.get(); }
+    public void setEventSessionPatientReferences1(String v) { if (eventSessionPatientReferences1Property == null) { eventSessionPatientReferences1 = v; kpiInputChanged(); } else eventSessionPatientReferences1Property.set(v); }
+    public StringProperty eventSessionPatientReferences1Property() {
+        if (eventSessionPatientReferences1Property == null) {
+            eventSessionPatientReferences1Property = new SimpleStringProperty(this, "eventSessionPatientReferences1", eventSessionPatientReferences1);
+            eventSessionPatientReferences1Property.addListener((obs, was, now) -> kpiInputChanged());
+        }
+        return eventSessionPatientReferences1Property;
+    }
+
+    /** The patient reference cell split into references; cached against the current cell value. */
+    public PatientRefs getPatientRefs() {
+        String raw = getEventSessionPatientReferences1();
+        PatientRefs refs = patientRefs;
+        if (raw == null ? refs != PatientRefs.NONE : raw != refs.raw()) {
+            refs = PatientRefs.parse(raw);
+            patientRefs = refs;
+        }
+        return refs;
+    }
+
+    public boolean isAttendedIndicator() { return attendedIndicatorProperty == null ? attendedIndicator : attendedIndicatorProperty.get(); }
+    public void setAttendedIndicator(boolean b) { if (attendedIndicatorProperty == null) { attendedIndicator = b; kpiInputChanged(); } else attendedIndicatorProperty.set(b); }
+    public BooleanProperty attendedIndicatorProperty() {
+        if (attendedIndicatorProperty == null) {
+            attendedIndicatorProperty = new SimpleBooleanProperty(this, "attendedIndicator", attendedIndicator);
+            attendedIndicatorProperty.addListener((obs, was, now) -> kpiInputChanged());
+        }
+        return attendedIndicatorProperty;
+    }
+
+    public String getPurposeOfContact() { return purposeOfContactProperty == null ? purposeOfContact : purposeOfContactProperty.get(); }
+    public void setPurposeOfContact(String v) { if (purposeOfContactProperty == null) { purposeOfContact = v; kpiInputChanged(); } else purposeOfContactProperty.set(v); }
+    public StringProperty purposeOfContactProperty() {
+        if (purposeOfContactProperty == null) {
+            purposeOfContactProperty = new SimpleStringProperty(this, "purposeOfContact", purposeOfContact);
+            purposeOfContactProperty.addListener((obs, was, now) -> kpiInputChanged());
+        }
+        return purposeOfContactProperty;
+    }
 }
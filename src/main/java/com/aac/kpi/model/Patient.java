@@ -2,91 +2,196 @@ package com.aac.kpi.model;
 
 import javafx.beans.property.*;
 
+import java.util.function.Consumer;
+
 public class Patient {
-    private final StringProperty patientId = new SimpleStringProperty();
-    private final StringProperty patientIdentifierValue = new SimpleStringProperty();
-    private final StringProperty patientBirthdate = new SimpleStringProperty();
-    private final StringProperty patientPostalCode = new SimpleStringProperty();
-    private final StringProperty attendedEventReferences = new SimpleStringProperty("");
-    private final StringProperty workingRemarks = new SimpleStringProperty("");
-    private final IntegerProperty group = new SimpleIntegerProperty();
-    private final StringProperty type = new SimpleStringProperty();
-    private final StringProperty aac = new SimpleStringProperty();
+    private String patientId;
+    private volatile StringProperty patientIdProperty;
+    private String patientIdentifierValue;
+    private volatile StringProperty patientIdentifierValueProperty;
+    private String patientBirthdate;
+    private volatile StringProperty patientBirthdateProperty;
+    private String patientPostalCode;
+    private volatile StringProperty patientPostalCodeProperty;
+    private String attendedEventReferences = "";
+    private volatile StringProperty attendedEventReferencesProperty;
+    private String workingRemarks = "";
+    private volatile StringProperty workingRemarksProperty;
+    private int group;
+    private volatile IntegerProperty groupProperty;
+    private String type;
+    private volatile StringProperty typeProperty;
+    private String aac;
+    private volatile StringProperty aacProperty;
     // KPI-related fields
-    private final IntegerProperty cfs = new SimpleIntegerProperty(3);
-    private final IntegerProperty socialRiskFactor = new SimpleIntegerProperty(0);
-    private final StringProperty buddyingProgramStartDate = new SimpleStringProperty("");
-    private final StringProperty buddyingProgramEndDate = new SimpleStringProperty("");
-    private final StringProperty befriendingProgramStartDate = new SimpleStringProperty("");
-    private final StringProperty befriendingProgramEndDate = new SimpleStringProperty("");
-    private final StringProperty kpiType = new SimpleStringProperty("");
-    private final StringProperty kpiGroup = new SimpleStringProperty("");
-
-    public String getPatientId() { return patientId.get(); }
-    public void setPatientId(String value) { patientId.set(value); }
-    public StringProperty patientIdProperty() { return patientId; }
-
-    public String getPatientIdentifierValue() { return patientIdentifierValue.get(); }
-    public void setPatientIdentifierValue(String value) { patientIdentifierValue.set(value); }
-    public StringProperty patientIdentifierValueProperty() { return patientIdentifierValue; }
-
-    public String getPatientBirthdate() { return patientBirthdate.get(); }
-    public void setPatientBirthdate(String value) { patientBirthdate.set(value); }
-    public StringProperty patientBirthdateProperty() { return patientBirthdate; }
-
-    public String getPatientPostalCode() { return patientPostalCode.get(); }
-    public void setPatientPostalCode(String value) { patientPostalCode.set(value); }
-    public StringProperty patientPostalCodeProperty() { return patientPostalCode; }
-
-    public String getAttendedEventReferences() { return attendedEventReferences.get(); }
-    public void setAttendedEventReferences(String value) { attendedEventReferences.set(value); }
-    public StringProperty attendedEventReferencesProperty() { return attendedEventReferences; }
-
-    public String getWorkingRemarks() { return workingRemarks.get(); }
-    public void setWorkingRemarks(String value) { workingRemarks.set(value); }
-    public StringProperty workingRemarksProperty() { return workingRemarks; }
-
-    public int getGroup() { return group.get(); }
-    public void setGroup(int value) { group.set(value); }
-    public IntegerProperty groupProperty() { return group; }
-
-    public String getType() { return type.get(); }
-    public void setType(String value) { type.set(value); }
-    public StringProperty typeProperty() { return type; }
-
-    public String getAac() { return aac.get(); }
-    public void setAac(String value) { aac.set(value); }
-    public StringProperty aacProperty() { return aac; }
-
-    public int getCfs() { return cfs.get(); }
-    public void setCfs(int v) { cfs.set(v); }
-    public IntegerProperty cfsProperty() { return cfs; }
-
-    public int getSocialRiskFactor() { return socialRiskFactor.get(); }
-    public void setSocialRiskFactor(int v) { socialRiskFactor.set(v); }
-    public IntegerProperty socialRiskFactorProperty() { return socialRiskFactor; }
-
-    public String getBuddyingProgramStartDate() { return buddyingProgramStartDate.get(); }
-    public void setBuddyingProgramStartDate(String v) { buddyingProgramStartDate.set(v); }
-    public StringProperty buddyingProgramStartDateProperty() { return buddyingProgramStartDate; }
-
-    public String getBuddyingProgramEndDate() { return buddyingProgramEndDate.get(); }
-    public void setBuddyingProgramEndDate(String v) { buddyingProgramEndDate.set(v); }
-    public StringProperty buddyingProgramEndDateProperty() { return buddyingProgramEndDate; }
-
-    public String getBefriendingProgramStartDate() { return befriendingProgramStartDate.get(); }
-    public void setBefriendingProgramStartDate(String v) { befriendingProgramStartDate.set(v); }
-    public StringProperty befriendingProgramStartDateProperty() { return befriendingProgramStartDate; }
-
-    public String getBefriendingProgramEndDate() { return befriendingProgramEndDate.get(); }
-    public void setBefriendingProgramEndDate(String v) { befriendingProgramEndDate.set(v); }
-    public StringProperty befriendingProgramEndDateProperty() { return befriendingProgramEndDate; }
-
-    public String getKpiType() { return kpiType.get(); }
-    public void setKpiType(String v) { kpiType.set(v); }
-    public StringProperty kpiTypeProperty() { return kpiType; }
-
-    public String getKpiGroup() { return kpiGroup.get(); }
-    public void setKpiGroup(String v) { kpiGroup.set(v); }
-    public StringProperty kpiGroupProperty() { return kpiGroup; }
+    private int cfs = 3;
+    private volatile IntegerProperty cfsProperty;
+    private int socialRiskFactor = 0;
+    private volatile IntegerProperty socialRiskFactorProperty;
+    private String buddyingProgramStartDate = "";
+    private volatile StringProperty buddyingProgramStartDateProperty;
+    private String buddyingProgramEndDate = "";
+    private volatile StringProperty buddyingProgramEndDateProperty;
+    private String befriendingProgramStartDate = "";
+    private volatile StringProperty befriendingProgramStartDateProperty;
+    private String befriendingProgramEndDate = "";
+    private volatile StringProperty befriendingProgramEndDateProperty;
+    private String kpiType = "";
+    private volatile StringProperty kpiTypeProperty;
+    private String kpiGroup = "";
+    private volatile StringProperty kpiGroupProperty;
+    // Told after an input of the KPI classification changes; see setKpiInputListener
+    private Consumer<Patient> kpiInputListener;
+
+    /**
+     * Sets the one listener told after patientId, cfs, socialRiskFactor or a programme date
+     * changes, through its setter or through its property once that exists. Listening this way
+     * does not create the properties. Pass null to stop.
+     */
+    public void setKpiInputListener(Consumer<Patient> listener) { kpiInputListener = listener; }
+
+    private void kpiInputChanged() {
+        Consumer<Patient> listener = kpiInputListener;
+        if (listener != null) listener.accept(this);
+    }
+
+    public String getPatientId() { return patientIdProperty == null ? patientId : patientIdProperty.get(); }
+    public void setPatientId(String value) { if (patientIdProperty == null) { patientId = value; kpiInputChanged(); } else patientIdProperty.set(value); }
+    public StringProperty patientIdProperty() {
+        if (patientIdProperty == null) {
+            patientIdProperty = new SimpleStringProperty(this, "patientId", patientId);
+            patientIdProperty.addListener((obs, was, now) -> kpiInputChanged());
+        }
+        return patientIdProperty;
+    }
+
+    public String getPatientIdentifierValue() { return patientIdentifierValueProperty == null ? patientIdentifierValue : patientIdentifierValueProperty.get(); }
+    public void setPatientIdentifierValue(String value) { if (patientIdentifierValueProperty == null) patientIdentifierValue = value; else patientIdentifierValueProperty.set(value); }
+    public StringProperty patientIdentifierValueProperty() {
+        if (patientIdentifierValueProperty == null) patientIdentifierValueProperty = new SimpleStringProperty(this, "patientIdentifierValue", patientIdentifierValue);
+        return patientIdentifierValueProperty;
+    }
+
+    public String getPatientBirthdate() { return patientBirthdateProperty == null ? patientBirthdate : patientBirthdateProperty.get(); }
+    public void setPatientBirthdate(String value) { if (patientBirthdateProperty == null) patientBirthdate = value; else patientBirthdateProperty.set(value); }
+    public StringProperty patientBirthdateProperty() {
+        if (patientBirthdateProperty == null) patientBirthdateProperty = new SimpleStringProperty(this, "patientBirthdate", patientBirthdate);
+        return patientBirthdateProperty;
+    }
+
+    public String getPatientPostalCode() { return patientPostalCodeProperty == null ? patientPostalCode : patientPostalCodeProperty.get(); }
+    public void setPatientPostalCode(String value) { if (patientPostalCodeProperty == null) patientPostalCode = value; else patientPostalCodeProperty.set(value); }
+    public StringProperty patientPostalCodeProperty() {
+        if (patientPostalCodeProperty == null) patientPostalCodeProperty = new SimpleStringProperty(this, "patientPostalCode", patientPostalCode);
+        return patientPostalCodeProperty;
+    }
+
+    public String getAttendedEventReferences() { return attendedEventReferencesProperty == null ? attendedEventReferences : attendedEventReferencesProperty.get(); }
+    public void setAttendedEventReferences(String value) { if (attendedEventReferencesProperty == null) attendedEventReferences = value; else attendedEventReferencesProperty.set(value); }
+    public StringProperty attendedEventReferencesProperty() {
+        if (attendedEventReferencesProperty == null) attendedEventReferencesProperty = new SimpleStringProperty(this, "attendedEventReferences", attendedEventReferences);
+        return attendedEventReferencesProperty;
+    }
+
+    public String getWorkingRemarks() { return workingRemarksProperty == null ? workingRemarks : workingRemarksProperty.get(); }
+    public void setWorkingRemarks(String value) { if (workingRemarksProperty == null) workingRemarks = value; else workingRemarksProperty.set(value); }
+    public StringProperty workingRemarksProperty() {
+        if (workingRemarksProperty == null) workingRemarksProperty = new SimpleStringProperty(this, "workingRemarks", workingRemarks);
+        return workingRemarksProperty;
+    }
+
+    public int getGroup() { return groupProperty == null ? group : groupProperty.get(); }
+    public void setGroup(int value) { if (groupProperty == null) group = value; else groupProperty.set(value); }
+    public IntegerProperty groupProperty() {
+        if (groupProperty == null) groupProperty = new SimpleIntegerProperty(this, "group", group);
+        return groupProperty;
+    }
+
+    public String getType() { return typeProperty == null ? type : typeProperty.get(); }
+    public void setType(String value) { if (typeProperty == null) type = value; else typeProperty.set(value); }
+    public StringProperty typeProperty() {
+        if (typeProperty == null) typeProperty = new SimpleStringProperty(this, "type", type);
+        return typeProperty;
+    }
+
+    public String getAac() { return aacProperty == null ? aac : aacProperty.get(); }
+    public void setAac(String value) { if (aacProperty == null) aac = value; else aacProperty.set(value); }
+    public StringProperty aacProperty() {
+        if (aacProperty == null) aacProperty = new SimpleStringProperty(this, "aac", aac);
+        return aacProperty;
+    }
+
+    public int getCfs() { return cfsProperty == null ? cfs : cfsProperty.get(); }
+    public void setCfs(int v) { if (cfsProperty == null) { cfs = v; kpiInputChanged(); } else cfsProperty.set(v); }
+    public IntegerProperty cfsProperty() {
+        if (cfsProperty == null) {
+            cfsProperty = new SimpleIntegerProperty(this, "cfs", cfs);
+            cfsProperty.addListener((obs, was, now) -> kpiInputChanged());
+        }
+        return cfsProperty;
+    }
+
+    public int getSocialRiskFactor() { return socialRiskFactorProperty == null ? socialRiskFactor : socialRiskFactorProperty.get(); }
+    public void setSocialRiskFactor(int v) { if (socialRiskFactorProperty == null) { socialRiskFactor = v; kpiInputChanged(); } else socialRiskFactorProperty.set(v); }
+    public IntegerProperty socialRiskFactorProperty() {
+        if (socialRiskFactorProperty == null) {
+            socialRiskFactorProperty = new SimpleIntegerProperty(this, "socialRiskFactor", socialRiskFactor);
+            socialRiskFactorProperty.addListener((obs, was, now) -> kpiInputChanged());
+        }
+        return socialRiskFactorProperty;
+    }
+
+    public String getBuddyingProgramStartDate() { return buddyingProgramStartDateProperty == null ? buddyingProgramStartDate : buddyingProgramStartDateProperty.get(); }
+    public void setBuddyingProgramStartDate(String v) { if (buddyingProgramStartDateProperty == null) { buddyingProgramStartDate = v; kpiInputChanged(); } else buddyingProgramStartDateProperty.set(v); }
+    public StringProperty buddyingProgramStartDateProperty() {
+        if (buddyingProgramStartDateProperty == null) {
+            buddyingProgramStartDateProperty = new SimpleStringProperty(this, "buddyingProgramStartDate", buddyingProgramStartDate);
+            buddyingProgramStartDateProperty.addListener((obs, was, now) -> kpiInputChanged());
+        }
+        return buddyingProgramStartDateProperty;
+    }
+
+    public String getBuddyingProgramEndDate() { return buddyingProgramEndDateProperty == null ? buddyingProgramEndDate : buddyingProgramEndDateProperty.get(); }
+    public void setBuddyingProgramEndDate(String v) { if (buddyingProgramEndDateProperty == null) { buddyingProgramEndDate = v; kpiInputChanged(); } else buddyingProgramEndDateProperty.set(v); }
+    public StringProperty buddyingProgramEndDateProperty() {
+        if (buddyingProgramEndDateProperty == null) {
+            buddyingProgramEndDateProperty = new SimpleStringProperty(this, "buddyingProgramEndDate", buddyingProgramEndDate);
+            buddyingProgramEndDateProperty.addListener((obs, was, now) -> kpiInputChanged());
+        }
+        return buddyingProgramEndDateProperty;
+    }
+
+    public String getBefriendingProgramStartDate() { return befriendingProgramStartDateProperty == null ? befriendingProgramStartDate : befriendingProgramStartDateProperty.get(); }
+    public void setBefriendingProgramStartDate(String v) { if (befriendingProgramStartDateProperty == null) { befriendingProgramStartDate = v; kpiInputChanged(); } else befriendingProgramStartDateProperty.set(v); }
+    public StringProperty befriendingProgramStartDateProperty() {
+        if (befriendingProgramStartDateProperty == null) {
+            befriendingProgramStartDateProperty = new SimpleStringProperty(this, "befriendingProgramStartDate", befriendingProgramStartDate);
+            befriendingProgramStartDateProperty.addListener((obs, was, now) -> kpiInputChanged());
+        }
+        return befriendingProgramStartDateProperty;
+    }
+
+    public String getBefriendingProgramEndDate() { return befriendingProgramEndDateProperty == null ? befriendingProgramEndDate : befriendingProgramEndDateProperty.get(); }
+    public void setBefriendingProgramEndDate(String v) { if (befriendingProgramEndDateProperty == null) { befriendingProgramEndDate = v; kpiInputChanged(); } else befriendingProgramEndDateProperty.set(v); }
+    public StringProperty befriendingProgramEndDateProperty() {
+        if (befriendingProgramEndDateProperty == null) {
+            befriendingProgramEndDateProperty = new SimpleStringProperty(this, "befriendingProgramEndDate", befriendingProgramEndDate);
+            befriendingProgramEndDateProperty.addListener((obs, was, now) -> kpiInputChanged());
+        }
+        return befriendingProgramEndDateProperty;
+    }
+
+    public String getKpiType() { return kpiTypeProperty == null ? kpiType : kpiTypeProperty.get(); }
+    public void setKpiType(String v) { if (kpiTypeProperty == null) kpiType = v; else kpiTypeProperty.set(v); }
+    public StringProperty kpiTypeProperty() {
+        if (kpiTypeProperty == null) kpiTypeProperty = new SimpleStringProperty(this, "kpiType", kpiType);
+        return kpiTypeProperty;
+    }
+
+    public String getKpiGroup() { return kpiGroupProperty == null ? kpiGroup : kpiGroupProperty.get(); }
+    public void setKpiGroup(String v) { if (kpiGroupProperty == null) kpiGroup = v; else kpiGroupProperty.set(v); }
+    public StringProperty kpiGroupProperty() {
+        if (kpiGroupProperty == null) kpiGroupProperty = new SimpleStringProperty(this, "kpiGroup", kpiGroup);
+        return kpiGroupProperty;
+    }
 }
@@ -0,0 +1,38 @@
+package com.aac.kpi.model;
+
+import com.aac.kpi.util.CanonicalId;
+import com.aac.kpi.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A "##"-delimited patient reference cell, split once: the first reference as written, every
+ * non-empty trimmed reference, and every non-empty sanitized reference with its canonical id.
+ * Duplicates are kept in listing order.
+ */
+public record PatientRefs(String raw, String primary, List<String> refs,
+                          List<String> sanitizedRefs, List<CanonicalId> ids) {
+    public static final PatientRefs NONE = new PatientRefs("", "", List.of(), List.of(), List.of());
+
+    public static PatientRefs parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return raw == null || raw.isEmpty() ? NONE : new PatientRefs(raw, "", List.of(), List.of(), List.of());
+        }
+        String[] parts = raw.split("##");
+        String primary = parts.length == 0 ? "" : parts[0].trim();
+        List<String> refs = new ArrayList<>(parts.length);
+        List<String> sanitized = new ArrayList<>(parts.length);
+        List<CanonicalId> ids = new ArrayList<>(parts.length);
+        for (String part : parts) {
+            String pid = part.trim();
+            if (!pid.isEmpty()) refs.add(pid);
+            String clean = StringUtils.sanitizeAlphaNum(part);
+            if (!clean.isEmpty()) {
+                sanitized.add(clean);
+                ids.add(CanonicalId.of(clean));
+            }
+        }
+        return new PatientRefs(raw, primary, List.copyOf(refs), List.copyOf(sanitized), List.copyOf(ids));
+    }
+}
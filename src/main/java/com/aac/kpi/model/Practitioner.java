@@ -3,45 +3,77 @@ package com.aac.kpi.model;
 import javafx.beans.property.*;
 
 public class Practitioner {
-    private final StringProperty practitionerId = new SimpleStringProperty();
-    private final StringProperty practitionerIdentifierValue = new SimpleStringProperty();
-    private final StringProperty practitionerIdentifierSystem = new SimpleStringProperty();
-    private final StringProperty practitionerManpowerPosition = new SimpleStringProperty();
-    private final StringProperty practitionerVolunteerName = new SimpleStringProperty();
-    private final DoubleProperty practitionerManpowerCapacity = new SimpleDoubleProperty();
-    private final IntegerProperty practitionerVolunteerAge = new SimpleIntegerProperty();
-    private final StringProperty workingRemarks = new SimpleStringProperty();
-
-    public String getPractitionerId() { return practitionerId.get(); }
-    public void setPractitionerId(String v) { practitionerId.set(v); }
-    public StringProperty practitionerIdProperty() { return practitionerId; }
-
-    public String getPractitionerIdentifierValue() { return practitionerIdentifierValue.get(); }
-    public void setPractitionerIdentifierValue(String v) { practitionerIdentifierValue.set(v); }
-    public StringProperty practitionerIdentifierValueProperty() { return practitionerIdentifierValue; }
-
-    public String getPractitionerIdentifierSystem() { return practitionerIdentifierSystem.get(); }
-    public void setPractitionerIdentifierSystem(String v) { practitionerIdentifierSystem.set(v); }
-    public StringProperty practitionerIdentifierSystemProperty() { return practitionerIdentifierSystem; }
-
-    public String getPractitionerManpowerPosition() { return practitionerManpowerPosition.get(); }
-    public void setPractitionerManpowerPosition(String v) { practitionerManpowerPosition.set(v); }
-    public StringProperty practitionerManpowerPositionProperty() { return practitionerManpowerPosition; }
-
-    public String getPractitionerVolunteerName() { return practitionerVolunteerName.get(); }
-    public void setPractitionerVolunteerName(String v) { practitionerVolunteerName.set(v); }
-    public StringProperty practitionerVolunteerNameProperty() { return practitionerVolunteerName; }
-
-    public double getPractitionerManpowerCapacity() { return practitionerManpowerCapacity.get(); }
-    public void setPractitionerManpowerCapacity(double v) { practitionerManpowerCapacity.set(v); }
-    public DoubleProperty practitionerManpowerCapacityProperty() { return practitionerManpowerCapacity; }
-
-    public int getPractitionerVolunteerAge() { return practitionerVolunteerAge.get(); }
-    public void setPractitionerVolunteerAge(int v) { practitionerVolunteerAge.set(v); }
-    public IntegerProperty practitionerVolunteerAgeProperty() { return practitionerVolunteerAge; }
-
-    public String getWorkingRemarks() { return workingRemarks.get(); }
-    public void setWorkingRemarks(String v) { workingRemarks.set(v); }
-    public StringProperty workingRemarksProperty() { return workingRemarks; }
+    private String practitionerId;
+    private volatile StringProperty practitionerIdProperty;
+    private String practitionerIdentifierValue;
+    private volatile StringProperty practitionerIdentifierValueProperty;
+    private String practitionerIdentifierSystem;
+    private volatile StringProperty practitionerIdentifierSystemProperty;
+    private String practitionerManpowerPosition;
+    private volatile StringProperty practitionerManpowerPositionProperty;
+    private String practitionerVolunteerName;
+    private volatile StringProperty practitionerVolunteerNameProperty;
+    private double practitionerManpowerCapacity;
+    private volatile DoubleProperty practitionerManpowerCapacityProperty;
+    private int practitionerVolunteerAge;
+    private volatile IntegerProperty practitionerVolunteerAgeProperty;
+    private String workingRemarks;
+    private volatile StringProperty workingRemarksProperty;
+
+    public String getPractitionerId() { return practitionerIdProperty == null ? practitionerId : practitionerIdProperty.get(); }
+    public void setPractitionerId(String v) { if (practitionerIdProperty == null) practitionerId = v; else practitionerIdProperty.set(v); }
+    public StringProperty practitionerIdProperty() {
+        if (practitionerIdProperty == null) practitionerIdProperty = new SimpleStringProperty(this, "practitionerId", practitionerId);
+        return practitionerIdProperty;
+    }
+
+    public String getPractitionerIdentifierValue() { return practitionerIdentifierValueProperty == null ? practitionerIdentifierValue : practitionerIdentifierValueProperty.get(); }
+    public void setPractitionerIdentifierValue(String v) { if (practitionerIdentifierValueProperty == null) practitionerIdentifierValue = v; else practitionerIdentifierValueProperty.set(v); }
+    public StringProperty practitionerIdentifierValueProperty() {
+        if (practitionerIdentifierValueProperty == null) practitionerIdentifierValueProperty = new SimpleStringProperty(this, "practitionerIdentifierValue", practitionerIdentifierValue);
+        return practitionerIdentifierValueProperty;
+    }
+
+    public String getPractitionerIdentifierSystem() { return practitionerIdentifierSystemProperty == null ? practitionerIdentifierSystem : practitionerIdentifierSystemProperty.get(); }
+    public void setPractitionerIdentifierSystem(String v) { if (practitionerIdentifierSystemProperty == null) practitionerIdentifierSystem = v; else practitionerIdentifierSystemProperty.set(v); }
+    public StringProperty practitionerIdentifierSystemProperty() {
+        if (practitionerIdentifierSystemProperty == null) practitionerIdentifierSystemProperty = new SimpleStringProperty(this, "practitionerIdentifierSystem", practitionerIdentifierSystem);
+        return practitionerIdentifierSystemProperty;
+    }
+
+    public String getPractitionerManpowerPosition() { return practitionerManpowerPositionProperty == null ? practitionerManpowerPosition : practitionerManpowerPositionProperty.get(); }
+    public void setPractitionerManpowerPosition(String v) { if (practitionerManpowerPositionProperty == null) practitionerManpowerPosition = v; else practitionerManpowerPositionProperty.set(v); }
+    public StringProperty practitionerManpowerPositionProperty() {
+        if (practitionerManpowerPositionProperty == null) practitionerManpowerPositionProperty = new SimpleStringProperty(this, "practitionerManpowerPosition", practitionerManpowerPosition);
+        return practitionerManpowerPositionProperty;
+    }
+
+    public String getPractitionerVolunteerName() { return practitionerVolunteerNameProperty == null ? practitionerVolunteerName : practitionerVolunteerNameProperty.get(); }
+    public void setPractitionerVolunteerName(String v) { if (practitionerVolunteerNameProperty == null) practitionerVolunteerName = v; else practitionerVolunteerNameProperty.set(v); }
+    public StringProperty practitionerVolunteerNameProperty() {
+        if (practitionerVolunteerNameProperty == null) practitionerVolunteerNameProperty = new SimpleStringProperty(this, "practitionerVolunteerName", practitionerVolunteerName);
+        return practitionerVolunteerNameProperty;
+    }
+
+    public double getPractitionerManpowerCapacity() { return practitionerManpowerCapacityProperty == null ? practitionerManpowerCapacity : practitionerManpowerCapacityProperty.get(); }
+    public void setPractitionerManpowerCapacity(double v) { if (practitionerManpowerCapacityProperty == null) practitionerManpowerCapacity = v; else practitionerManpowerCapacityProperty.set(v); }
+    public DoubleProperty practitionerManpowerCapacityProperty() {
+        if (practitionerManpowerCapacityProperty == null) practitionerManpowerCapacityProperty = new SimpleDoubleProperty(this, "practitionerManpowerCapacity", practitionerManpowerCapacity);
+        return practitionerManpowerCapacityProperty;
+    }
+
+    public int getPractitionerVolunteerAge() { return practitionerVolunteerAgeProperty == null ? practitionerVolunteerAge : practitionerVolunteerAgeProperty.get(); }
+    public void setPractitionerVolunteerAge(int v) { if (practitionerVolunteerAgeProperty == null) practitionerVolunteerAge = v; else practitionerVolunteerAgeProperty.set(v); }
+    public IntegerProperty practitionerVolunteerAgeProperty() {
+        if (practitionerVolunteerAgeProperty == null) practitionerVolunteerAgeProperty = new SimpleIntegerProperty(this, "practitionerVolunteerAge", practitionerVolunteerAge);
+        return practitionerVolunteerAgeProperty;
+    }
+
+    public String getWorkingRemarks() { return workingRemarksProperty == null ? workingRemarks : workingRemarksProperty.get(); }
+    public void setWorkingRemarks(String v) { if (workingRemarksProperty == null) workingRemarks = v; else workingRemarksProperty.set(v); }
+    public StringProperty workingRemarksProperty() {
+        if (workingRemarksProperty == null) workingRemarksProperty = new SimpleStringProperty(this, "workingRemarks", workingRemarks);
+        return workingRemarksProperty;
+    }
 }
 
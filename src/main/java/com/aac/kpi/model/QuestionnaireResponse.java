@@ -4,40 +4,121 @@ import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 
 public class QuestionnaireResponse {
-    private final StringProperty questionnaireId = new SimpleStringProperty();
-    private final StringProperty questionnaireStatus = new SimpleStringProperty("completed");
-    private final StringProperty q1 = new SimpleStringProperty();
-    private final StringProperty q2 = new SimpleStringProperty();
-    private final StringProperty q3 = new SimpleStringProperty();
-    private final StringProperty q4 = new SimpleStringProperty();
-    private final StringProperty q5 = new SimpleStringProperty();
-    private final StringProperty q6 = new SimpleStringProperty();
-    private final StringProperty q7 = new SimpleStringProperty();
-    private final StringProperty q8 = new SimpleStringProperty();
-    private final StringProperty q9 = new SimpleStringProperty();
-    private final StringProperty q10 = new SimpleStringProperty();
-    private final StringProperty questionnairePatientReference = new SimpleStringProperty();
-
-    public String getQuestionnaireId() { return questionnaireId.get(); }
-    public void setQuestionnaireId(String v) { questionnaireId.set(v); }
-    public StringProperty questionnaireIdProperty() { return questionnaireId; }
-
-    public String getQuestionnaireStatus() { return questionnaireStatus.get(); }
-    public void setQuestionnaireStatus(String v) { questionnaireStatus.set(v); }
-    public StringProperty questionnaireStatusProperty() { return questionnaireStatus; }
-
-    public String getQ1() { return q1.get(); } public void setQ1(String v) { q1.set(v);} public StringProperty q1Property(){return q1;}
-    public String getQ2() { return q2.get(); } public void setQ2(String v) { q2.set(v);} public StringProperty q2Property(){return q2;}
-    public String getQ3() { return q3.get(); } public void setQ3(String v) { q3.set(v);} public StringProperty q3Property(){return q3;}
-    public String getQ4() { return q4.get(); } public void setQ4(String v) { q4.set(v);} public StringProperty q4Property(){return q4;}
-    public String getQ5() { return q5.get(); } public void setQ5(String v) { q5.set(v);} public StringProperty q5Property(){return q5;}
-    public String getQ6() { return q6.get(); } public void setQ6(String v) { q6.set(v);} public StringProperty q6Property(){return q6;}
-    public String getQ7() { return q7.get(); } public void setQ7(String v) { q7.set(v);} public StringProperty q7Property(){return q7;}
-    public String getQ8() { return q8.get(); } public void setQ8(String v) { q8.set(v);} public StringProperty q8Property(){return q8;}
-    public String getQ9() { return q9.get(); } public void setQ9(String v) { q9.set(v);} public StringProperty q9Property(){return q9;}
-    public String getQ10() { return q10.get(); } public void setQ10(String v) { q10.set(v);} public StringProperty q10Property(){return q10;}
-
-    public String getQuestionnairePatientReference() { return questionnairePatientReference.get(); }
-    public void setQuestionnairePatientReference(String v) { questionnairePatientReference.set(v); }
-    public StringProperty questionnairePatientReferenceProperty() { return questionnairePatientReference; }
+    private String questionnaireId;
+    private volatile StringProperty questionnaireIdProperty;
+    private String questionnaireStatus = "completed";
+    private volatile StringProperty questionnaireStatusProperty;
+    private String q1;
+    private volatile StringProperty q1Property;
+    private String q2;
+    private volatile StringProperty q2Property;
+    private String q3;
+    private volatile StringProperty q3Property;
+    private String q4;
+    private volatile StringProperty q4Property;
+    private String q5;
+    private volatile StringProperty q5Property;
+    private String q6;
+    private volatile StringProperty q6Property;
+    private String q7;
+    private volatile StringProperty q7Property;
+    private String q8;
+    private volatile StringProperty q8Property;
+    private String q9;
+    private volatile StringProperty q9Property;
+    private String q10;
+    private volatile StringProperty q10Property;
+    private String questionnairePatientReference;
+    private volatile StringProperty questionnairePatientReferenceProperty;
+
+    public String getQuestionnaireId() { return questionnaireIdProperty == null ? questionnaireId : questionnaireIdProperty.get(); }
+    public void setQuestionnaireId(String v) { if (questionnaireIdProperty == null) questionnaireId = v; else questionnaireIdProperty.set(v); }
+    public StringProperty questionnaireIdProperty() {
+        if (questionnaireIdProperty == null) questionnaireIdProperty = new SimpleStringProperty(this, "questionnaireId", questionnaireId);
+        return questionnaireIdProperty;
+    }
+
+    public String getQuestionnaireStatus() { return questionnaireStatusProperty == null ? questionnaireStatus : questionnaireStatusProperty.get(); }
+    public void setQuestionnaireStatus(String v) { if (questionnaireStatusProperty == null) questionnaireStatus = v; else questionnaireStatusProperty.set(v); }
+    public StringProperty questionnaireStatusProperty() {
+        if (questionnaireStatusProperty == null) questionnaireStatusProperty = new SimpleStringProperty(this, "questionnaireStatus", questionnaireStatus);
+        return questionnaireStatusProperty;
+    }
+
+    public String getQ1() { return q1Property == null ? q1 : q1Property.get(); }
+    public void setQ1(String v) { if (q1Property == null) q1 = v; else q1Property.set(v); }
+    public StringProperty q1Property() {
+        if (q1Property == null) q1Property = new SimpleStringProperty(this, "q1", q1);
+        return q1Property;
+    }
+
+    public String getQ2() { return q2Property == null ? q2 : q2Property.get(); }
+    public void setQ2(String v) { if (q2Property == null) q2 = v; else q2Property.set(v); }
+    public StringProperty q2Property() {
+        if (q2Property == null) q2Property = new SimpleStringProperty(this, "q2", q2);
+        return q2Property;
+    }
+
+    public String getQ3() { return q3Property == null ? q3 : q3Property.get(); }
+    public void setQ3(String v) { if (q3Property == null) q3 = v; else q3Property.set(v); }
+    public StringProperty q3Property() {
+        if (q3Property == null) q3Property = new SimpleStringProperty(this, "q3", q3);
+        return q3Property;
+    }
+
+    public String getQ4() { return q4Property == null ? q4 : q4Property.get(); }
+    public void setQ4(String v) { if (q4Property == null) q4 = v; else q4Property.set(v); }
+    public StringProperty q4Property() {
+        if (q4Property == null) q4Property = new SimpleStringProperty(this, "q4", q4);
+        return q4Property;
+    }
+
+    public String getQ5() { return q5Property == null ? q5 : q5Property.get(); }
+    public void setQ5(String v) { if (q5Property == null) q5 = v; else q5Property.set(v); }
+    public StringProperty q5Property() {
+        if (q5Property == null) q5Property = new SimpleStringProperty(this, "q5", q5);
+        return q5Property;
+    }
+
+    public String getQ6() { return q6Property == null ? q6 : q6Property.get(); }
+    public void setQ6(String v) { if (q6Property == null) q6 = v; else q6Property.set(v); }
+    public StringProperty q6Property() {
+        if (q6Property == null) q6Property = new SimpleStringProperty(this, "q6", q6);
+        return q6Property;
+    }
+
+    public String getQ7() { return q7Property == null ? q7 : q7Property.get(); }
+    public void setQ7(String v) { if (q7Property == null) q7 = v; else q7Property.set(v); }
+    public StringProperty q7Property() {
+        if (q7Property == null) q7Property = new SimpleStringProperty(this, "q7", q7);
+        return q7Property;
+    }
+
+    public String getQ8() { return q8Property == null ? q8 : q8Property.get(); }
+    public void setQ8(String v) { if (q8Property == null) q8 = v; else q8Property.set(v); }
+    public StringProperty q8Property() {
+        if (q8Property == null) q8Property = new SimpleStringProperty(this, "q8", q8);
+        return q8Property;
+    }
+
+    public String getQ9() { return q9Property == null ? q9 : q9Property.get(); }
+    public void setQ9(String v) { if (q9Property == null) q9 = v; else q9Property.set(v); }
+    public StringProperty q9Property() {
+        if (q9Property == null) q9Property = new SimpleStringProperty(this, "q9", q9);
+        return q9Property;
+    }
+
+    public String getQ10() { return q10Property == null ? q10 : q10Property.get(); }
+    public void setQ10(String v) { if (q10Property == null) q10 = v; else q10Property.set(v); }
+    public StringProperty q10Property() {
+        if (q10Property == null) q10Property = new SimpleStringProperty(this, "q10", q10);
+        return q10Property;
+    }
+
+    public String getQuestionnairePatientReference() { return questionnairePatientReferenceProperty == null ? questionnairePatientReference : questionnairePatientReferenceProperty.get(); }
+    public void setQuestionnairePatientReference(String v) { if (questionnairePatientReferenceProperty == null) questionnairePatientReference = v; else questionnairePatientReferenceProperty.set(v); }
+    public StringProperty questionnairePatientReferenceProperty() {
+        if (questionnairePatientReferenceProperty == null) questionnairePatientReferenceProperty = new SimpleStringProperty(this, "questionnairePatientReference", questionnairePatientReference);
+        return questionnairePatientReferenceProperty;
+    }
 }
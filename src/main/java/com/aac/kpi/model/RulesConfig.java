@@ -16,8 +16,12 @@ public class RulesConfig {
     public ScreeningRule screening = new ScreeningRule();
     public List<PurposeRule> purposes = new ArrayList<>();
     public List<ColumnSpec> columns = new ArrayList<>();
+    /** KPI tiers in evaluation order; the first tier a patient satisfies gives its kpiType/kpiGroup. */
+    public List<KpiTier> tiers = new ArrayList<>();
     public RandomDefaults randomDefaults = new RandomDefaults();
     public boolean applyToGeneration = false;
+    /** Excel export tuning; applied on startup and when the config is saved. */
+    public ExportSettings export = new ExportSettings();
 
     public static RulesConfig defaults() {
         RulesConfig cfg = new RulesConfig();
@@ -25,6 +29,7 @@ public class RulesConfig {
         cfg.thresholds = new Thresholds();
         cfg.screening = new ScreeningRule();
         cfg.randomDefaults = new RandomDefaults();
+        cfg.export = new ExportSettings();
 
         cfg.purposes = new ArrayList<>();
         cfg.purposes.add(new PurposeRule("Robust AAP", "physical-activity", "In-person", 2,
@@ -45,15 +50,37 @@ public class RulesConfig {
         cfg.columns.add(new ColumnSpec("Patient (Master)", "attended_event_references", "Event Session", "composition_id", "yes", "", "List of event IDs this patient attended."));
         cfg.columns.add(new ColumnSpec("Event Session", "event_session_patient_references1", "Patient (Master)", "patient_id", "yes", "", "Attendee list referencing patients (## delimited)."));
 
+        cfg.tiers = defaultTiers();
+
         return cfg;
     }
 
+    /** The built-in KPI classification, expressed as tiers. */
+    public static List<KpiTier> defaultTiers() {
+        List<KpiTier> t = new ArrayList<>();
+        // Robust / Frail: in-person AAP plus a functional screen
+        t.add(KpiTier.screened("Robust", "Group 1", 1, 3, "robust"));
+        t.add(KpiTier.screened("Robust (Group 2 – CFS 6-9)", "Group 2", 6, 9, "robust"));
+        t.add(KpiTier.screened("Frail", "Group 1", 4, 5, "frail"));
+        t.add(KpiTier.screened("Frail (Group 2 – Very Frail)", "Group 2", 6, 9, "frail"));
+        // Buddying: RF = 1, 12 buddying contacts, programme active in the FY
+        t.add(KpiTier.buddying("Buddying", "Group 1 (Robust)", 1, 3));
+        t.add(KpiTier.buddying("Buddying (Frail)", "Group 2", 4, 5));
+        t.add(KpiTier.buddying("Buddying (Very Frail)", "Group 3", 6, 9));
+        // Befriending: RF > 1, 12 AAP and 52 befriending contacts, programme active in the FY
+        t.add(KpiTier.befriending("Befriending (Robust)", "Group 1", 1, 3));
+        t.add(KpiTier.befriending("Befriending (Frail)", "Group 2", 4, 5));
+        t.add(KpiTier.befriending("Befriending (Very Frail)", "Group 3", 6, 9));
+        return t;
+    }
+
     public KpiConfig toKpiConfig() {
         KpiConfig c = new KpiConfig();
         c.robustMinInPerson = thresholds.robustMinInPerson;
         c.frailMinInPerson = thresholds.frailMinInPerson;
         c.buddyingMinInPerson = thresholds.buddyingMinInPerson;
         c.befriendingMinInPerson = thresholds.befriendingMinInPerson;
+        c.tiers = tiers == null || tiers.isEmpty() ? null : tiers;
         return c;
     }
 
@@ -95,6 +122,65 @@ public class RulesConfig {
         }
     }
 
+    /**
+     * One KPI tier. A patient matches when every set condition holds; null RF bounds are open.
+     * The in-person minimum is either a named threshold from {@link KpiConfig}
+     * (robust/frail/buddying/befriending) so threshold edits apply, or the literal
+     * {@code minInPerson} when no threshold is named.
+     */
+    public static final class KpiTier {
+        public String kpiType;
+        public String kpiGroup;
+        public int cfsMin;
+        public int cfsMax;
+        public Integer rfMin;
+        public Integer rfMax;
+        public String inPersonThreshold;
+        public int minInPerson;
+        public boolean requireScreening;
+        public int minBuddying;
+        public int minBefriending;
+        public int minAap;
+        public boolean requireBuddyingActive;
+        public boolean requireBefriendingActive;
+
+        public KpiTier() {}
+
+        static KpiTier screened(String type, String group, int cfsMin, int cfsMax, String threshold) {
+            KpiTier t = tier(type, group, cfsMin, cfsMax, threshold);
+            t.requireScreening = true;
+            return t;
+        }
+
+        static KpiTier buddying(String type, String group, int cfsMin, int cfsMax) {
+            KpiTier t = tier(type, group, cfsMin, cfsMax, "buddying");
+            t.rfMin = 1;
+            t.rfMax = 1;
+            t.minBuddying = 12;
+            t.requireBuddyingActive = true;
+            return t;
+        }
+
+        static KpiTier befriending(String type, String group, int cfsMin, int cfsMax) {
+            KpiTier t = tier(type, group, cfsMin, cfsMax, "befriending");
+            t.rfMin = 2;
+            t.minAap = 12;
+            t.minBefriending = 52;
+            t.requireBefriendingActive = true;
+            return t;
+        }
+
+        private static KpiTier tier(String type, String group, int cfsMin, int cfsMax, String threshold) {
+            KpiTier t = new KpiTier();
+            t.kpiType = type;
+            t.kpiGroup = group;
+            t.cfsMin = cfsMin;
+            t.cfsMax = cfsMax;
+            t.inPersonThreshold = threshold;
+            return t;
+        }
+    }
+
     public static final class ColumnSpec {
         public String sheet;
         public String column;
@@ -132,4 +218,11 @@ public class RulesConfig {
         public int defaultBefriendingContacts = 52;
         public String dateWindow = "FY 01 Apr – 31 Mar";
     }
+
+    public static final class ExportSettings {
+        /** Exports estimated above this many rows are streamed (SXSSF); <= 0 disables streaming. */
+        public int streamingRowThreshold = 200_000;
+        /** Sheets with fewer rows than this get exact column autosizing; larger ones are estimated. */
+        public int exactAutoSizeRowLimit = 2_000;
+    }
 }
@@ -1,5 +1,6 @@
 package com.aac.kpi.service;
 
+import com.aac.kpi.converter.ReportOutput;
 import com.aac.kpi.service.MasterDataService.MasterData;
 
 import java.io.File;
@@ -7,8 +8,8 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class AppState {
     private static volatile File currentExcelFile;
@@ -17,6 +18,10 @@ public final class AppState {
     private static volatile int volunteerPractitionerCount = 0;
     private static volatile MasterData masterData;
     private static volatile String jsonConverterJarPath = "lib/KPITool-1.0-SNAPSHOT-jar-with-dependencies.jar";
+    // Spawn the converter JAR instead of running the bundled converter in-process
+    private static volatile boolean useExternalJsonConverter = false;
+    // How the bundled converter writes report families: per-report files or NDJSON parts
+    private static volatile ReportOutput jsonReportOutput = ReportOutput.FILES;
     private static volatile String javaFxModulePath = "";
     private static volatile String eventReportLabel = "";
     private static volatile int volunteersPerCenter = 3;
@@ -29,7 +34,12 @@ public final class AppState {
     private static volatile int buddingRegistrationCount = 6;
     private static volatile int befriendingRegistrationCount = 12;
     private static volatile String registrationOverrideType = "";
-    private static final Map<String, List<Boolean>> scenarioRegistrationValues = new HashMap<>();
+    // Exports estimated above this many rows are streamed (SXSSF) instead of built in memory; <= 0 disables streaming
+    private static volatile int streamingExportRowThreshold = 200_000;
+    // Sheets with fewer rows than this use exact (font-measured) column autosizing; larger ones are estimated
+    private static volatile int exactAutoSizeRowLimit = 2_000;
+    // Maps read by Save's prepare tasks on the pool while the FX thread may update them: keep them concurrent
+    private static final Map<String, List<Boolean>> scenarioRegistrationValues = new ConcurrentHashMap<>();
     private static volatile boolean scenarioSkipPrompts = false;
     private static final Set<String> scenarioSkipBuddyingDeriveIds = new LinkedHashSet<>();
     private static volatile String scenarioSheetName = "";
@@ -41,8 +51,8 @@ public final class AppState {
     private static final Set<String> highlightedEncounterIds = new LinkedHashSet<>();
     private static final Set<String> highlightedQuestionnaireIds = new LinkedHashSet<>();
     // Track per-id highlight color index so all rows from the same scenario share a color
-    private static final Map<String, Integer> highlightColorById = new HashMap<>();
-    private static final Map<String, Integer> scenarioOrderById = new HashMap<>();
+    private static final Map<String, Integer> highlightColorById = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> scenarioOrderById = new ConcurrentHashMap<>();
 
     private AppState() {}
 
@@ -53,7 +63,17 @@ public final class AppState {
     public static void setDirty(boolean d) { dirty = d; }
 
     public static KpiConfig getKpiConfig() { return kpiConfig; }
-    public static void setKpiConfig(KpiConfig cfg) { if (cfg != null) kpiConfig = cfg; }
+    /** Applies {@code cfg}, compiling its tiers first; invalid tiers throw IllegalArgumentException. */
+    public static void setKpiConfig(KpiConfig cfg) {
+        if (cfg == null) return;
+        cfg.rules();
+        kpiConfig = cfg;
+    }
+    public static void setKpiTiers(List<com.aac.kpi.model.RulesConfig.KpiTier> tiers) {
+        KpiConfig cfg = kpiConfig.copy();
+        cfg.tiers = tiers == null || tiers.isEmpty() ? null : tiers;
+        setKpiConfig(cfg);
+    }
 
     // Preferred number of practitioners to include in volunteer_attendance_report
     public static int getVolunteerPractitionerCount() { return volunteerPractitionerCount; }
@@ -65,6 +85,12 @@ public final class AppState {
     public static String getJsonConverterJarPath() { return jsonConverterJarPath; }
     public static void setJsonConverterJarPath(String path) { if (path != null) jsonConverterJarPath = path; }
 
+    public static boolean isUseExternalJsonConverter() { return useExternalJsonConverter; }
+    public static void setUseExternalJsonConverter(boolean value) { useExternalJsonConverter = value; }
+
+    public static ReportOutput getJsonReportOutput() { return jsonReportOutput; }
+    public static void setJsonReportOutput(ReportOutput output) { if (output != null) jsonReportOutput = output; }
+
     public static String getJavaFxModulePath() { return javaFxModulePath; }
     public static void setJavaFxModulePath(String path) { if (path != null) javaFxModulePath = path; }
 
@@ -108,6 +134,12 @@ public final class AppState {
         registrationOverrideType = value == null ? "" : value.trim();
     }
 
+    public static int getStreamingExportRowThreshold() { return streamingExportRowThreshold; }
+    public static void setStreamingExportRowThreshold(int value) { streamingExportRowThreshold = value; }
+
+    public static int getExactAutoSizeRowLimit() { return exactAutoSizeRowLimit; }
+    public static void setExactAutoSizeRowLimit(int value) { exactAutoSizeRowLimit = Math.max(0, value); }
+
     public static void clearScenarioRegistrationValues() { scenarioRegistrationValues.clear(); }
     public static void putScenarioRegistrationValues(String key, List<Boolean> values) {
         if (key == null || key.isBlank()) return;
@@ -216,6 +248,12 @@ public final class AppState {
 
     public static com.aac.kpi.model.RulesConfig getRulesConfig() { return rulesConfig; }
     public static void setRulesConfig(com.aac.kpi.model.RulesConfig cfg) {
-        if (cfg != null) rulesConfig = cfg;
+        if (cfg == null) return;
+        rulesConfig = cfg;
+        // Older config files have no export section; keep the current settings for them
+        if (cfg.export != null) {
+            setStreamingExportRowThreshold(cfg.export.streamingRowThreshold);
+            setExactAutoSizeRowLimit(cfg.export.exactAutoSizeRowLimit);
+        }
     }
 }
@@ -2,6 +2,7 @@ package com.aac.kpi.service;
 
 import com.aac.kpi.model.*;
 import com.aac.kpi.service.AppState;
+import com.aac.kpi.util.StringUtils;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -19,36 +20,9 @@ public final class CommonBuilderService {
                                         List<Encounter> encounters,
                                         List<QuestionnaireResponse> questionnaires,
                                         List<Practitioner> practitioners) {
-        Map<String, List<EventSession>> byPatientSessions = sessions.stream()
-                .filter(s -> s.getEventSessionPatientReferences1() != null)
-                .collect(Collectors.groupingBy(EventSession::getEventSessionPatientReferences1));
-        Map<String, List<Encounter>> byPatientEnc = encounters.stream()
-                .filter(e -> e.getEncounterPatientReference()!=null)
-                .collect(Collectors.groupingBy(Encounter::getEncounterPatientReference));
-        Map<String, List<QuestionnaireResponse>> byPatientQ = questionnaires.stream()
-                .filter(q -> q.getQuestionnairePatientReference()!=null)
-                .collect(Collectors.groupingBy(QuestionnaireResponse::getQuestionnairePatientReference));
-
-        // Sanitized maps (strip non-alphanumerics) to handle refs like "Patient/<id>"
-        Map<String, List<EventSession>> byPatientSessionsSan = new HashMap<>();
-        for (EventSession s : sessions) {
-            String raw = s.getEventSessionPatientReferences1();
-            if (raw == null || raw.isBlank()) continue;
-            for (String part : raw.split("##")) {
-                String k = sanitizeAlphaNum(part);
-                if (!k.isEmpty()) byPatientSessionsSan.computeIfAbsent(k, x -> new ArrayList<>()).add(s);
-            }
-        }
-        Map<String, List<Encounter>> byPatientEncSan = new HashMap<>();
-        for (Encounter e : encounters) {
-            String k = sanitizeAlphaNum(e.getEncounterPatientReference());
-            if (!k.isEmpty()) byPatientEncSan.computeIfAbsent(k, x -> new ArrayList<>()).add(e);
-        }
-        Map<String, List<QuestionnaireResponse>> byPatientQSan = new HashMap<>();
-        for (QuestionnaireResponse q : questionnaires) {
-            String k = sanitizeAlphaNum(q.getQuestionnairePatientReference());
-            if (!k.isEmpty()) byPatientQSan.computeIfAbsent(k, x -> new ArrayList<>()).add(q);
-        }
+        // Refs like "Patient/<id>" join through their sanitized form, falling back to the raw id
+        ReferenceIndex index = ReferenceIndex.of(patients, sessions, encounters, questionnaires);
+        SessionStore store = SessionStore.of(sessions);
 
         List<CommonRow> rows = new ArrayList<>();
         Map<String, Long> aacCounts = patients.stream()
@@ -85,10 +59,7 @@ public final class CommonBuilderService {
             r.setPatientReference(patientRef);
 
             // encounters for patient (finished only) and valid purposes; join with '#'
-            String pidSan = sanitizeAlphaNum(p.getPatientId());
-            List<Encounter> encList = !byPatientEncSan.getOrDefault(pidSan, List.of()).isEmpty()
-                    ? byPatientEncSan.get(pidSan)
-                    : byPatientEnc.getOrDefault(p.getPatientId(), List.of());
+            List<Encounter> encList = index.encountersForPatient(p.getPatientId());
             // Prefer finished encounters, but include all for the resident if none are marked finished.
             java.util.LinkedHashSet<String> finishedIds = encList.stream()
                     .filter(e -> "finished".equalsIgnoreCase(e.getEncounterStatus()))
@@ -110,9 +81,7 @@ public final class CommonBuilderService {
             r.setEncounterReferences(String.join("##", encRefs));
 
             // questionnaire: latest completed questionnaire reference per resident (by latest date found in answers)
-            List<QuestionnaireResponse> qList = !byPatientQSan.getOrDefault(pidSan, List.of()).isEmpty()
-                    ? byPatientQSan.get(pidSan)
-                    : byPatientQ.getOrDefault(p.getPatientId(), List.of());
+            List<QuestionnaireResponse> qList = index.questionnairesForPatient(p.getPatientId());
             String qRef = qList.stream()
                     .filter(q -> "completed".equalsIgnoreCase(q.getQuestionnaireStatus()))
                     .sorted((a,b) -> latestDateIn(b).compareTo(latestDateIn(a)))
@@ -152,31 +121,30 @@ public final class CommonBuilderService {
             if (isBlank(r.getAsgReferralAcceptedBy())) r.setAsgReferralAcceptedBy("Mr Staff A");
 
             // sessions attended (by event_id, joined with '##')
-            List<EventSession> sessList = !byPatientSessionsSan.getOrDefault(pidSan, List.of()).isEmpty()
-                    ? byPatientSessionsSan.get(pidSan)
-                    : byPatientSessions.getOrDefault(p.getPatientId(), List.of());
+            List<EventSession> sessList = index.sessionsForPatient(p.getPatientId());
             List<String> sessionRefs = sessList.stream()
                     .filter(EventSession::isAttendedIndicator)
                     .map(EventSession::getEventSessionId1)
                     .filter(Objects::nonNull)
-                    .map(CommonBuilderService::sanitizeAlphaNum)
+                    .map(StringUtils::sanitizeAlphaNum)
                     .filter(s -> !s.isEmpty())
                     .collect(Collectors.toList());
             r.setAttendedEventReferences(String.join("##", sessionRefs));
 
             // Derive programme period start/end from attended sessions (min start, max end)
-            LocalDateTime minStart = null;
-            LocalDateTime maxEnd = null;
+            long minStartSec = SessionStore.NO_TIME;
+            long maxEndSec = SessionStore.NO_TIME;
             for (EventSession s : sessList) {
-                if (!s.isAttendedIndicator()) continue;
-                LocalDateTime st = parseDateTime(s.getEventSessionStartDate1());
-                LocalDateTime en = parseDateTime(Optional.ofNullable(s.getEventSessionEndDate1()).orElse(""));
-                if (st != null) {
-                    if (minStart == null || st.isBefore(minStart)) minStart = st;
-                    if (en == null) en = st;
-                    if (maxEnd == null || en.isAfter(maxEnd)) maxEnd = en;
-                }
+                int i = store.indexOf(s);
+                if (i < 0 || !store.attended(i)) continue;
+                long st = store.startSecond(i);
+                if (st == SessionStore.NO_TIME) continue;
+                long en = store.endSecond(i) == SessionStore.NO_TIME ? st : store.endSecond(i);
+                if (minStartSec == SessionStore.NO_TIME || st < minStartSec) minStartSec = st;
+                if (maxEndSec == SessionStore.NO_TIME || en > maxEndSec) maxEndSec = en;
             }
+            LocalDateTime minStart = SessionStore.toDateTime(minStartSec);
+            LocalDateTime maxEnd = SessionStore.toDateTime(maxEndSec);
             java.time.format.DateTimeFormatter D_ONLY = java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd");
             if (minStart != null) {
                 String d = minStart.toLocalDate().format(D_ONLY);
@@ -254,27 +222,10 @@ public final class CommonBuilderService {
         return latest;
     }
 
-    private static String sanitizeAlphaNum(String s) {
-        if (s == null) return "";
-        return s.replaceAll("[^A-Za-z0-9]", "");
-    }
-
     private static boolean isBlank(String s) { return s == null || s.isBlank(); }
 
+    // Same formats as the session columns, so encounter and session dates compare alike
     private static LocalDateTime parseDateTime(String s) {
-        if (s == null || s.isBlank()) return null;
-        try {
-            return LocalDateTime.parse(s, java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-        } catch (Exception ignored) {}
-        try {
-            return LocalDateTime.parse(s, java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-        } catch (Exception ignored) {}
-        try {
-            return java.time.OffsetDateTime.parse(s, java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssXXX")).toLocalDateTime();
-        } catch (Exception ignored) {}
-        try {
-            return LocalDate.parse(s).atStartOfDay();
-        } catch (Exception ignored) {}
-        return null;
+        return SessionStore.toDateTime(SessionStore.parseSeconds(s));
     }
 }
@@ -0,0 +1,290 @@
+package com.aac.kpi.service;
+
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads xlsx sheets through the XSSF event model: the sheet XML is SAX-parsed and each row is
+ * handed to a {@link RowHandler} as soon as it ends, so memory stays bounded by one row plus the
+ * shared strings table regardless of sheet size. Several sheets can be read from one open package,
+ * including concurrently from different threads.
+ */
+final class ExcelStreamReader implements AutoCloseable {
+
+    @FunctionalInterface
+    interface RowHandler {
+        void row(int rowIndex, SheetRow row);
+    }
+
+    private final OPCPackage pkg;
+    private final ReadOnlySharedStringsTable strings;
+    private final StylesTable styles;
+    private final Map<String, PackagePart> sheetsByName = new LinkedHashMap<>();
+    // Style index -> whether its number format is a date format; sheets may be read concurrently
+    private final Map<Integer, Boolean> dateStyles = new ConcurrentHashMap<>();
+
+    ExcelStreamReader(File file) throws IOException {
+        try {
+            this.pkg = OPCPackage.open(file, PackageAccess.READ);
+        } catch (InvalidFormatException e) {
+            throw new IOException("Not a valid xlsx file: " + file, e);
+        }
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            this.strings = new ReadOnlySharedStringsTable(pkg);
+            this.styles = reader.getStylesTable();
+            XSSFReader.SheetIterator it = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (it.hasNext()) {
+                // Only the part is kept; each sheet is opened again when it is read
+                it.next().close();
+                sheetsByName.putIfAbsent(it.getSheetName(), it.getSheetPart());
+            }
+        } catch (OpenXML4JException | SAXException | RuntimeException e) {
+            pkg.revert();
+            throw new IOException("Unable to read workbook structure: " + e.getMessage(), e);
+        } catch (IOException e) {
+            pkg.revert();
+            throw e;
+        }
+    }
+
+    boolean hasSheet(String name) {
+        return sheetsByName.containsKey(name);
+    }
+
+    /**
+     * Streams the first sheet found among {@code names} (in preference order) through
+     * {@code handler}. Returns false when none of the sheets exist.
+     */
+    boolean readSheet(List<String> names, RowHandler handler) throws IOException {
+        PackagePart part = null;
+        for (String name : names) {
+            part = sheetsByName.get(name);
+            if (part != null) break;
+        }
+        if (part == null) return false;
+        try (InputStream in = part.getInputStream()) {
+            XMLReader xml = XMLHelper.newXMLReader();
+            xml.setContentHandler(new SheetHandler(handler));
+            xml.parse(new InputSource(in));
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IOException("Unable to parse sheet " + part.getPartName() + ": " + e.getMessage(), e);
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        // Read-only packages are reverted rather than closed so nothing is written back
+        pkg.revert();
+    }
+
+    private boolean isDateStyle(int styleIndex) {
+        return dateStyles.computeIfAbsent(styleIndex, idx -> {
+            if (styles == null || idx < 0 || idx >= styles.getNumCellStyles()) return false;
+            XSSFCellStyle style = styles.getStyleAt(idx);
+            return style != null && DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        });
+    }
+
+    private final class SheetHandler extends DefaultHandler {
+        private final RowHandler handler;
+        private final SheetRow row = new SheetRow();
+        private final StringBuilder text = new StringBuilder();
+        private boolean capture;
+        private boolean inRow;
+        private int rowIndex = -1;
+        private int col;
+        private int nextCol;
+        private String type;
+        private int style;
+        private boolean formula;
+
+        SheetHandler(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attrs) {
+            switch (localName(localName, qName)) {
+                case "row" -> {
+                    String r = attrs.getValue("r");
+                    rowIndex = r != null ? Integer.parseInt(r) - 1 : rowIndex + 1;
+                    nextCol = 0;
+                    inRow = true;
+                    row.clear();
+                }
+                case "c" -> {
+                    String ref = attrs.getValue("r");
+                    col = ref != null ? columnIndex(ref) : nextCol;
+                    type = attrs.getValue("t");
+                    String s = attrs.getValue("s");
+                    style = s != null ? Integer.parseInt(s) : -1;
+                    formula = false;
+                    text.setLength(0);
+                }
+                case "f" -> formula = true;
+                case "v", "t" -> capture = true;
+                default -> { }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName(localName, qName)) {
+                case "v", "t" -> capture = false;
+                case "c" -> {
+                    nextCol = col + 1;
+                    if (inRow && text.length() > 0) storeCell();
+                }
+                case "row" -> {
+                    inRow = false;
+                    handler.row(rowIndex, row);
+                }
+                default -> { }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (capture) text.append(ch, start, length);
+        }
+
+        private void storeCell() {
+            String raw = text.toString();
+            if (type == null || type.equals("n")) {
+                double value;
+                try {
+                    value = Double.parseDouble(raw);
+                } catch (NumberFormatException e) {
+                    row.set(col, SheetRow.STRING, raw, 0d, false, formula);
+                    return;
+                }
+                boolean date = style >= 0 && isDateStyle(style) && DateUtil.isValidExcelDate(value);
+                // Keep the stored text, as the DOM setCellType(STRING) did: POI writes 1 as "1.0", Excel as "1"
+                row.set(col, SheetRow.NUMERIC, raw, value, date, formula);
+                return;
+            }
+            switch (type) {
+                case "s" -> row.set(col, SheetRow.STRING,
+                        strings.getItemAt(Integer.parseInt(raw.trim())).getString(), 0d, false, formula);
+                case "b" -> row.set(col, SheetRow.BOOLEAN, "1".equals(raw.trim()) ? "TRUE" : "FALSE", 0d, false, formula);
+                default -> row.set(col, SheetRow.STRING, raw, 0d, false, formula); // inlineStr, str, e
+            }
+        }
+    }
+
+    private static String localName(String localName, String qName) {
+        if (localName != null && !localName.isEmpty()) return localName;
+        int colon = qName.indexOf(':');
+        return colon >= 0 ? qName.substring(colon + 1) : qName;
+    }
+
+    private static int columnIndex(String ref) {
+        int col = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char c = ref.charAt(i);
+            if (c < 'A' || c > 'Z') break;
+            col = col * 26 + (c - 'A' + 1);
+        }
+        return col - 1;
+    }
+
+    /**
+     * One parsed row. Accessors mirror the old DOM helpers: missing cells read as "" / 0, numbers
+     * read as the text stored in the sheet, and formula cells never read as numbers.
+     */
+    static final class SheetRow {
+        static final byte BLANK = 0;
+        static final byte STRING = 1;
+        static final byte NUMERIC = 2;
+        static final byte BOOLEAN = 3;
+
+        private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+        private byte[] kinds = new byte[16];
+        private String[] texts = new String[16];
+        private double[] numbers = new double[16];
+        private boolean[] dates = new boolean[16];
+        private boolean[] formulas = new boolean[16];
+        private int width;
+
+        void clear() {
+            Arrays.fill(kinds, 0, width, BLANK);
+            Arrays.fill(texts, 0, width, null);
+            width = 0;
+        }
+
+        void set(int col, byte kind, String text, double number, boolean date, boolean formula) {
+            if (col < 0) return;
+            if (col >= kinds.length) grow(col + 1);
+            kinds[col] = kind;
+            texts[col] = text;
+            numbers[col] = number;
+            dates[col] = date;
+            formulas[col] = formula;
+            width = Math.max(width, col + 1);
+        }
+
+        private void grow(int min) {
+            int size = Math.max(min, kinds.length * 2);
+            kinds = Arrays.copyOf(kinds, size);
+            texts = Arrays.copyOf(texts, size);
+            numbers = Arrays.copyOf(numbers, size);
+            dates = Arrays.copyOf(dates, size);
+            formulas = Arrays.copyOf(formulas, size);
+        }
+
+        int width() {
+            return width;
+        }
+
+        String str(int col) {
+            if (col < 0 || col >= width || kinds[col] == BLANK) return "";
+            return texts[col].trim();
+        }
+
+        double num(int col) {
+            if (col < 0 || col >= width || formulas[col]) return 0d;
+            if (kinds[col] == NUMERIC) return numbers[col];
+            if (kinds[col] == STRING) {
+                try { return Double.parseDouble(texts[col].trim()); } catch (Exception ignored) {}
+            }
+            return 0d;
+        }
+
+        String dateStr(int col) {
+            if (col >= 0 && col < width && kinds[col] == NUMERIC && dates[col] && !formulas[col]) {
+                LocalDate date = DateUtil.getLocalDateTime(numbers[col]).toLocalDate();
+                return date.format(DATE_FORMAT);
+            }
+            return str(col);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.aac.kpi.service;
 
+import com.aac.kpi.converter.ReportTables;
 import com.aac.kpi.model.EventSession;
 import com.aac.kpi.model.Patient;
 import com.aac.kpi.model.Practitioner;
@@ -11,9 +12,10 @@ import java.awt.Color;
 import java.util.stream.Collectors;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddressList;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFColor;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.File;
@@ -23,8 +25,14 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.aac.kpi.converter.ReportConstants.*;
+
 public class ExcelWriter {
 
     public static File defaultExportPath() {
@@ -64,30 +72,44 @@ public class ExcelWriter {
             File file) throws IOException {
         if (file == null)
             file = defaultExportPath();
-        MasterData masterData = AppState.getMasterData();
-        if (masterData == null) {
-            masterData = MasterDataService.generate();
-            AppState.setMasterData(masterData);
-        }
-
-        RegistrationConfig registrationConfig = RegistrationConfig.fromAppState();
-        RegistrationData registrationData = buildRegistrationData(patients, registrationConfig, AppState.getRegistrationOverrideType());
-
-        try (XSSFWorkbook wb = new XSSFWorkbook()) {
-            CellStyle highlightStyle = createHighlightStyle(wb);
-            writeMasterDataSheet(wb, masterData);
-            writeCombinedCommonSheet(wb, patients, sessions, practitioners, encounters, questionnaires, commonRows,
-                    masterData, highlightStyle, registrationData);
-            writeEventSessionSheet(wb, sessions, highlightStyle, registrationData);
-            writeEventSessionsNricSheet(wb, patients, highlightStyle, registrationData);
-            writePatientSheet(wb, patients, sessions, highlightStyle);
-            writePractitionerSheet(wb, practitioners, masterData, highlightStyle);
-            if (encounters != null && !encounters.isEmpty())
-                writeEncounterSheet(wb, encounters, highlightStyle);
-            if (questionnaires != null && !questionnaires.isEmpty())
-                writeQuestionnaireSheet(wb, questionnaires, highlightStyle);
+        export(patients, sessions, practitioners, encounters, questionnaires, commonRows, file, null);
+        return file;
+    }
 
-            reorderSheetsForKpiTool(wb);
+    /**
+     * Builds the JSON converter's report tables straight from the model lists, without a workbook
+     * round trip. When {@code excelCopy} is non-null the same rows are also saved there as the
+     * export workbook, so the copy and the JSON share every generated id and sample value.
+     */
+    public static ReportTables buildReportTables(List<Patient> patients, List<EventSession> sessions,
+            List<com.aac.kpi.model.Practitioner> practitioners,
+            List<com.aac.kpi.model.Encounter> encounters,
+            List<com.aac.kpi.model.QuestionnaireResponse> questionnaires,
+            List<com.aac.kpi.model.CommonRow> commonRows,
+            File excelCopy) throws IOException {
+        ReportTables tables = new ReportTables();
+        export(patients, sessions, practitioners, encounters, questionnaires, commonRows, excelCopy,
+                new ReportTableSink(tables));
+        return tables;
+    }
+
+    // Writes every sheet once: to the workbook saved at file (when non-null) and to extra (when non-null)
+    private static void export(List<Patient> patients, List<EventSession> sessions,
+            List<com.aac.kpi.model.Practitioner> practitioners,
+            List<com.aac.kpi.model.Encounter> encounters,
+            List<com.aac.kpi.model.QuestionnaireResponse> questionnaires,
+            List<com.aac.kpi.model.CommonRow> commonRows,
+            File file, SheetSink extra) throws IOException {
+        if (file == null) {
+            writeSheets(extra, patients, sessions, practitioners, encounters, questionnaires, commonRows);
+            return;
+        }
+        int estimatedRows = estimateRowCount(patients, sessions, practitioners, encounters, questionnaires, commonRows);
+        Workbook wb = createWorkbook(estimatedRows);
+        try {
+            SheetSink workbook = new WorkbookSink(wb);
+            writeSheets(extra == null ? workbook : new BothSinks(workbook, extra),
+                    patients, sessions, practitioners, encounters, questionnaires, commonRows);
 
             if (file.getParentFile() != null && !file.getParentFile().exists()) {
                 if (!file.getParentFile().mkdirs()) {
@@ -97,14 +119,105 @@ public class ExcelWriter {
             try (FileOutputStream out = new FileOutputStream(file)) {
                 wb.write(out);
             }
+        } finally {
+            if (wb instanceof SXSSFWorkbook streaming) {
+                // Remove the compressed temp parts backing each streamed sheet
+                streaming.dispose();
+            }
+            wb.close();
         }
+    }
 
-        return file;
+    private static void writeSheets(SheetSink out, List<Patient> patients, List<EventSession> sessions,
+            List<com.aac.kpi.model.Practitioner> practitioners,
+            List<com.aac.kpi.model.Encounter> encounters,
+            List<com.aac.kpi.model.QuestionnaireResponse> questionnaires,
+            List<com.aac.kpi.model.CommonRow> commonRows) {
+        PreparedExport prepared = PreparedExport.start(patients, sessions, practitioners, encounters, questionnaires);
+        MasterData master = prepared.masterData();
+
+        // The sink is only written from this thread, in sheet order, as each stage completes
+        writeMasterDataSheet(out, master);
+        writeCombinedCommonSheet(out, patients, practitioners, commonRows, master,
+                await(prepared.aacReport()), await(prepared.eventReport()), await(prepared.organizationReport()));
+        writeEventSessionSheet(out, await(prepared.eventSessionRows()));
+        writeEventSessionsNricSheet(out, await(prepared.nricSheet()));
+        writePatientSheet(out, await(prepared.patientRows()));
+        writePractitionerSheet(out, await(prepared.practitioners()), master);
+        if (encounters != null && !encounters.isEmpty())
+            writeEncounterSheet(out, await(prepared.encounters()));
+        if (questionnaires != null && !questionnaires.isEmpty())
+            writeQuestionnaireSheet(out, await(prepared.questionnaires()));
+        out.finish();
+    }
+
+    /**
+     * Picks the workbook implementation for an export. Small exports stay on the in-memory
+     * XSSFWorkbook; above {@link AppState#getStreamingExportRowThreshold()} rows the sheets are
+     * streamed through an SXSSF window so only the most recent rows of each sheet stay on the heap.
+     */
+    private static Workbook createWorkbook(int estimatedRows) {
+        int threshold = AppState.getStreamingExportRowThreshold();
+        if (threshold <= 0 || estimatedRows < threshold)
+            return new XSSFWorkbook();
+        SXSSFWorkbook wb = new SXSSFWorkbook(STREAMING_WINDOW_ROWS);
+        wb.setCompressTempFiles(true);
+        return wb;
+    }
+
+    private static int estimateRowCount(List<Patient> patients, List<EventSession> sessions,
+            List<com.aac.kpi.model.Practitioner> practitioners,
+            List<com.aac.kpi.model.Encounter> encounters,
+            List<com.aac.kpi.model.QuestionnaireResponse> questionnaires,
+            List<com.aac.kpi.model.CommonRow> commonRows) {
+        long total = 0;
+        // Patients appear on Patient (Master) and Event Sessions NRIC; sessions on Event Sessions and event_report
+        total += patients == null ? 0 : 2L * patients.size();
+        total += sessions == null ? 0 : 2L * sessions.size();
+        total += practitioners == null ? 0 : practitioners.size();
+        total += encounters == null ? 0 : encounters.size();
+        total += questionnaires == null ? 0 : questionnaires.size();
+        total += commonRows == null ? 0 : commonRows.size();
+        return (int) Math.min(Integer.MAX_VALUE, total);
+    }
+
+    private static <T> List<T> sortByScenarioOrder(List<T> items, Function<T, String> idOf) {
+        if (items == null || items.isEmpty())
+            return List.of();
+        List<T> ordered = new ArrayList<>(items);
+        ordered.sort(Comparator.comparingInt(item -> {
+            Integer o = AppState.getScenarioOrder(nvl(idOf.apply(item)));
+            return o == null ? Integer.MAX_VALUE : o;
+        }));
+        return Collections.unmodifiableList(ordered);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re)
+                throw re;
+            if (e.getCause() instanceof Error err)
+                throw err;
+            throw e;
+        }
     }
 
-    private static void writePatientSheet(XSSFWorkbook wb, List<Patient> patients, List<EventSession> sessions, CellStyle highlightStyle) {
+    private static List<PatientSheetRow> preparePatientRows(ExportContext ctx) {
+        List<PatientSheetRow> rows = new ArrayList<>(ctx.orderedPatients.size());
+        for (PatientInfo info : ctx.orderedPatients) {
+            // attended_event_references holds only alphanumeric event composition_ids (##-delimited)
+            List<String> comps = ctx.eventIdsByPatientRef.getOrDefault(info.patient().getPatientId(), Collections.emptyList());
+            String patientId = info.id();
+            Integer color = patientId.isEmpty() ? null : AppState.getHighlightColorIndex(patientId);
+            rows.add(new PatientSheetRow(info.patient(), String.join("##", comps), color));
+        }
+        return Collections.unmodifiableList(rows);
+    }
+
+    private static void writePatientSheet(SheetSink out, List<PatientSheetRow> rows) {
         // Rename sheet to match expected name
-        XSSFSheet sheet = wb.createSheet("Patient (Master)");
         String[] headers = new String[] {
                 "patient_id",
                 "patient_identifier_value",
@@ -129,129 +242,92 @@ public class ExcelWriter {
                 "KPI Type",
                 "KPI Group"
         };
+        out.sheet("Patient (Master)", PATIENT_TYPE, headers);
 
-        Map<String, List<String>> patientToEvents = new HashMap<>();
-        List<EventSession> orderedSessions = new ArrayList<>(sessions);
-        orderedSessions.sort(Comparator.comparingInt(s -> {
-            Integer o = AppState.getScenarioOrder(StringUtils.sanitizeAlphaNum(nvl(s.getCompositionId())));
-            return o == null ? Integer.MAX_VALUE : o;
-        }));
-        for (EventSession s : orderedSessions) {
-            String raw = s.getEventSessionPatientReferences1();
-            if (raw == null || raw.isBlank())
-                continue;
-            // Use sanitized composition_id so references in the patient sheet
-            // line up with the Event Sessions sheet.
-            String eventId = StringUtils.sanitizeAlphaNum(s.getCompositionId());
-            if (eventId.isEmpty())
-                continue;
-            for (String part : raw.split("##")) {
-                String pid = part == null ? "" : part.trim();
-                if (pid.isEmpty())
-                    continue;
-                patientToEvents.computeIfAbsent(pid, k -> new ArrayList<>()).add(eventId);
-            }
-        }
-
-        createHeaderRow(sheet, headers);
-        // Date style for birthdate
-        CellStyle birthDateStyle = sheet.getWorkbook().createCellStyle();
-        birthDateStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd"));
         int r = 1;
-        List<Patient> orderedPatients = new ArrayList<>(patients);
-        orderedPatients.sort(Comparator.comparingInt(p -> {
-            Integer o = AppState.getScenarioOrder(nvl(p.getPatientId()));
-            return o == null ? Integer.MAX_VALUE : o;
-        }));
-        for (Patient p : orderedPatients) {
-            Row row = sheet.createRow(r++);
-            int c = 0;
+        for (PatientSheetRow model : rows) {
+            Patient p = model.patient();
+            SheetSink.Row row = out.row();
             String patientId = nvl(p.getPatientId());
-            row.createCell(c++).setCellValue(patientId);
-            row.createCell(c++).setCellValue(nvl(p.getPatientIdentifierValue()));
+            row.text(patientId);
+            row.text(nvl(p.getPatientIdentifierValue()));
             // Newly added random columns
-            row.createCell(c++).setCellValue("Befriending_data_" + (r - 1)); // patient_name sample value
-            row.createCell(c++).setCellValue("phone"); // patient_telecom_system
-            row.createCell(c++).setCellValue("99999999"); // patient_telecom_value
-            row.createCell(c++).setCellValue(RandomDataUtil.randomGender()); // patient_gender
+            row.text("Befriending_data_" + r++); // patient_name sample value
+            row.text("phone"); // patient_telecom_system
+            row.text("99999999"); // patient_telecom_value
+            row.text(RandomDataUtil.randomGender()); // patient_gender
             String bd = nvl(p.getPatientBirthdate());
             if (bd.isEmpty())
                 bd = RandomDataUtil.randomDOB60Plus();
-            setDateCell(row, c++, bd, birthDateStyle);
-            row.createCell(c++).setCellValue(RandomDataUtil.randomPostal6()); // patient_postalcode
+            setDateCell(row, bd);
+            row.text(RandomDataUtil.randomPostal6()); // patient_postalcode
             String[] residentialStatus = RandomDataUtil.randomResidentialStatus();
-            row.createCell(c++).setCellValue(residentialStatus[0]);
-            row.createCell(c++).setCellValue(residentialStatus[1]);
+            row.text(residentialStatus[0]);
+            row.text(residentialStatus[1]);
             String[] race = RandomDataUtil.randomRace();
-            row.createCell(c++).setCellValue(race[0]);
-            row.createCell(c++).setCellValue(race[1]);
-            // Ensure attended_event_references contains only alphanumeric event composition_ids (##-delimited)
-            List<String> comps = patientToEvents.getOrDefault(p.getPatientId(), Collections.emptyList());
-            StringBuilder sb = new StringBuilder();
-            for (String id : comps) {
-                String clean = StringUtils.sanitizeAlphaNum(id);
-                if (clean.isEmpty())
-                    continue;
-                if (sb.length() > 0)
-                    sb.append("##");
-                sb.append(clean);
-            }
-            String refs = sb.toString();
-            row.createCell(c++).setCellValue(refs);
-            row.createCell(c++).setCellValue(nvl(p.getWorkingRemarks()));
-            row.createCell(c++).setCellValue(p.getGroup());
-            row.createCell(c++).setCellValue(nvl(p.getType()));
-            row.createCell(c++).setCellValue(nvl(p.getAac()));
-            row.createCell(c++).setCellValue(p.getCfs());
-            row.createCell(c++).setCellValue(p.getSocialRiskFactor());
-            row.createCell(c++).setCellValue(nvl(p.getKpiType()));
-            row.createCell(c++).setCellValue(nvl(p.getKpiGroup()));
-            if (highlightStyle != null && !patientId.isEmpty()) {
-                applyHighlight(row, highlightStyle, AppState.getHighlightColorIndex(patientId));
+            row.text(race[0]);
+            row.text(race[1]);
+            row.text(model.attendedRefs());
+            row.text(nvl(p.getWorkingRemarks()));
+            row.number(p.getGroup());
+            row.text(nvl(p.getType()));
+            row.text(nvl(p.getAac()));
+            row.number(p.getCfs());
+            row.number(p.getSocialRiskFactor());
+            row.text(nvl(p.getKpiType()));
+            row.text(nvl(p.getKpiGroup()));
+            if (!patientId.isEmpty()) {
+                row.highlight(model.colorIndex());
             }
         }
-
-        autoSize(sheet, headers.length);
     }
 
-    private static void writeMasterDataSheet(XSSFWorkbook wb, MasterData masterData) {
-        XSSFSheet sheet = wb.createSheet("AAC_Organization_Location_Master");
+    private static void writeMasterDataSheet(SheetSink out, MasterData masterData) {
         String[] headers = {
                 "aac_center_id", "aac_center_name", "organization_id", "organization_name", "organization_type",
                 "location_id", "location_name", "postal_code", "volunteer_id", "volunteer_name", "volunteer_role",
                 "active", "working_remarks"
         };
-        createHeaderRow(sheet, headers);
-        int r = 1;
+        // Not read by the JSON converter
+        out.sheet("AAC_Organization_Location_Master", null, headers);
         for (MasterDataService.AacCenter center : masterData.getAacCenters()) {
-            Row excelRow = sheet.createRow(r++);
-            int c = 0;
+            SheetSink.Row row = out.row();
             MasterDataService.Organization org = masterData.getOrganization(center.organizationId());
             MasterDataService.Location location = masterData.getPrimaryLocation(center.organizationId());
-            excelRow.createCell(c++).setCellValue(center.aacCenterId());
-            excelRow.createCell(c++).setCellValue(center.aacCenterName());
-            excelRow.createCell(c++).setCellValue(org != null ? org.organizationId() : "");
-            excelRow.createCell(c++).setCellValue(org != null ? org.name() : "");
-            excelRow.createCell(c++).setCellValue(org != null ? org.organizationType() : "");
-            excelRow.createCell(c++).setCellValue(location != null ? location.locationId() : "");
-            excelRow.createCell(c++).setCellValue(location != null ? location.locationName() : "");
-            excelRow.createCell(c++).setCellValue(location != null ? location.postalCode() : "");
+            row.text(center.aacCenterId());
+            row.text(center.aacCenterName());
+            row.text(org != null ? org.organizationId() : "");
+            row.text(org != null ? org.name() : "");
+            row.text(org != null ? org.organizationType() : "");
+            row.text(location != null ? location.locationId() : "");
+            row.text(location != null ? location.locationName() : "");
+            row.text(location != null ? location.postalCode() : "");
             List<String> volunteerIds = masterData.getVolunteerIds(center.aacCenterId());
             List<String> volunteerNames = masterData.getVolunteerNames(center.aacCenterId());
             String joinedIds = volunteerIds.isEmpty() ? "" : String.join("##", volunteerIds);
             String patrolNames = volunteerNames.isEmpty() ? "" : String.join(", ", volunteerNames);
-            excelRow.createCell(c++).setCellValue(joinedIds);
-            excelRow.createCell(c++).setCellValue(patrolNames);
-            excelRow.createCell(c++).setCellValue("Administrative Support");
-            excelRow.createCell(c++).setCellValue("TRUE");
-            excelRow.createCell(c).setCellValue("Linked to Befriending KPI");
+            row.text(joinedIds);
+            row.text(patrolNames);
+            row.text("Administrative Support");
+            row.text("TRUE");
+            row.text("Linked to Befriending KPI");
         }
-        autoSize(sheet, headers.length);
     }
 
-    private static void writeEventSessionSheet(XSSFWorkbook wb, List<EventSession> sessions, CellStyle highlightStyle, RegistrationData registrationData) {
+    private static List<EventSessionSheetRow> prepareEventSessionRows(ExportContext ctx, RegistrationData registrationData) {
+        List<EventSessionSheetRow> rows = new ArrayList<>(ctx.sessions.size());
+        for (SessionInfo info : ctx.sessions) {
+            String compId = info.compositionId();
+            String regJoined = String.join("##", registrationData.lookupRegistrationIds(info.primaryPatientRef()));
+            if (regJoined.isBlank()) regJoined = info.rawPatientRefs();
+            Integer color = compId.isEmpty() ? null : AppState.getHighlightColorIndex(compId);
+            rows.add(new EventSessionSheetRow(info.session(), compId, regJoined, color));
+        }
+        return Collections.unmodifiableList(rows);
+    }
+
+    private static void writeEventSessionSheet(SheetSink out, List<EventSessionSheetRow> rows) {
         // Rename sheet to match expected name
-        XSSFSheet sheet = wb.createSheet("Event Sessions");
         String[] headers = new String[] {
                 "composition_id",
                 "number_of_event_sessions",
@@ -266,47 +342,34 @@ public class ExcelWriter {
                 "attended_indicator",
                 "purpose_of_contact"
         };
-
-        createHeaderRow(sheet, headers);
-        // Keep a datetime style available for any future numeric date usage, but
-        // for scenario-driven data we now store ISO+08:00 strings directly.
-        CellStyle dateTimeStyleES = sheet.getWorkbook().createCellStyle();
-        dateTimeStyleES.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
-        int r = 1;
-        CellStyle dateTimeStyle = sheet.getWorkbook().createCellStyle();
-        dateTimeStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
-        for (EventSession s : sessions) {
-            String compId = StringUtils.sanitizeAlphaNum(s.getCompositionId());
-            Row row = sheet.createRow(r++);
-            int c = 0;
-            row.createCell(c++).setCellValue(compId);
-            row.createCell(c++).setCellValue(s.getNumberOfEventSessions());
-            row.createCell(c++).setCellValue(nvl(s.getEventSessionId1()));
-            row.createCell(c++).setCellValue(nvl(s.getEventSessionMode1()));
+        out.sheet("Event Sessions", EVENT_SESSIONS_TYPE, headers);
+
+        for (EventSessionSheetRow model : rows) {
+            EventSession s = model.session();
+            String compId = model.compositionId();
+            SheetSink.Row row = out.row();
+            row.text(compId);
+            row.number(s.getNumberOfEventSessions());
+            row.text(nvl(s.getEventSessionId1()));
+            row.text(nvl(s.getEventSessionMode1()));
             // Store start/end as ISO 8601 offset text (e.g. 2025-08-24T09:00:00+08:00)
-            row.createCell(c++).setCellValue(nvl(s.getEventSessionStartDate1()));
-            row.createCell(c++).setCellValue(nvl(s.getEventSessionEndDate1()));
-            row.createCell(c++).setCellValue(s.getEventSessionDuration1());
-            row.createCell(c++).setCellValue(nvl(s.getEventSessionVenue1()));
-            row.createCell(c++).setCellValue(s.getEventSessionCapacity1());
-            String regJoined = String.join("##", registrationData.lookupRegistrationIds(nvl(s.getEventSessionPatientReferences1())));
-            if (regJoined.isBlank()) regJoined = nvl(s.getEventSessionPatientReferences1());
-            row.createCell(c++).setCellValue(regJoined);
-            row.createCell(c++).setCellValue(s.isAttendedIndicator() ? "TRUE" : "FALSE");
-            row.createCell(c++).setCellValue(nvl(s.getPurposeOfContact()));
-            if (highlightStyle != null && !compId.isEmpty()) {
-                applyHighlight(row, highlightStyle, AppState.getHighlightColorIndex(compId));
+            row.text(nvl(s.getEventSessionStartDate1()));
+            row.text(nvl(s.getEventSessionEndDate1()));
+            row.number(s.getEventSessionDuration1());
+            row.text(nvl(s.getEventSessionVenue1()));
+            row.number(s.getEventSessionCapacity1());
+            row.text(model.patientReferences());
+            row.text(s.isAttendedIndicator() ? "TRUE" : "FALSE");
+            row.text(nvl(s.getPurposeOfContact()));
+            if (!compId.isEmpty()) {
+                row.highlight(model.colorIndex());
             }
         }
-
-        autoSize(sheet, headers.length);
     }
 
-    private static void writePractitionerSheet(XSSFWorkbook wb,
+    private static void writePractitionerSheet(SheetSink out,
                                                List<Practitioner> practitioners,
-                                               MasterData masterData,
-                                               CellStyle highlightStyle) {
-        XSSFSheet sheet = wb.createSheet("Practitioner (Master)");
+                                               MasterData masterData) {
         String[] headers = new String[] {
                 "practitioner_id",
                 "practitioner_identifier_value",
@@ -317,52 +380,40 @@ public class ExcelWriter {
                 "practitioner_volunteer_age",
                 "Working Remarks"
         };
-        createHeaderRow(sheet, headers);
-        int r = 1;
+        out.sheet("Practitioner (Master)", PRACTITIONER_TYPE, headers);
         if (practitioners != null && !practitioners.isEmpty()) {
-        List<Practitioner> ordered = new ArrayList<>(practitioners);
-        ordered.sort(Comparator.comparingInt(p -> {
-            Integer o = AppState.getScenarioOrder(nvl(p.getPractitionerId()));
-            return o == null ? Integer.MAX_VALUE : o;
-        }));
-        for (Practitioner p : ordered) {
-            Row row = sheet.createRow(r++);
-            int c = 0;
-            String pid = nvl(p.getPractitionerId());
-                row.createCell(c++).setCellValue(pid);
-                row.createCell(c++).setCellValue(nvl(p.getPractitionerIdentifierValue()));
-                row.createCell(c++).setCellValue(nvl(p.getPractitionerIdentifierSystem()));
-                row.createCell(c++).setCellValue(nvl(p.getPractitionerManpowerPosition()));
-                row.createCell(c++).setCellValue(nvl(p.getPractitionerVolunteerName()));
-                row.createCell(c++).setCellValue(p.getPractitionerManpowerCapacity());
-                row.createCell(c++).setCellValue(p.getPractitionerVolunteerAge());
-                row.createCell(c++).setCellValue(nvl(p.getWorkingRemarks()));
-            if (highlightStyle != null && !pid.isEmpty()) {
-                applyHighlight(row, highlightStyle, AppState.getHighlightColorIndex(pid));
-            }
+            for (Practitioner p : practitioners) {
+                SheetSink.Row row = out.row();
+                String pid = nvl(p.getPractitionerId());
+                row.text(pid);
+                row.text(nvl(p.getPractitionerIdentifierValue()));
+                row.text(nvl(p.getPractitionerIdentifierSystem()));
+                row.text(nvl(p.getPractitionerManpowerPosition()));
+                row.text(nvl(p.getPractitionerVolunteerName()));
+                row.number(p.getPractitionerManpowerCapacity());
+                row.number(p.getPractitionerVolunteerAge());
+                row.text(nvl(p.getWorkingRemarks()));
+                if (!pid.isEmpty()) {
+                    row.highlight(AppState.getHighlightColorIndex(pid));
+                }
             }
         } else {
             for (MasterDataService.Volunteer v : masterData.getVolunteers()) {
-                Row row = sheet.createRow(r++);
-                int c = 0;
-                row.createCell(c++).setCellValue(nvl(v.volunteerId()));
-                row.createCell(c++).setCellValue(NRICGeneratorUtil.generateFakeNRIC());
-                row.createCell(c++).setCellValue(RandomDataUtil.randomPractitionerIdentifierSystem());
-                row.createCell(c++).setCellValue(nvl(v.volunteerRole()));
-                row.createCell(c++).setCellValue(nvl(v.volunteerName()));
-                row.createCell(c++).setCellValue(0.8);
-                row.createCell(c++).setCellValue(35);
-                row.createCell(c++).setCellValue("Linked via AAC master");
-                if (highlightStyle != null) {
-                    applyHighlight(row, highlightStyle, AppState.getHighlightColorIndex(nvl(v.volunteerId())));
-                }
+                SheetSink.Row row = out.row();
+                row.text(nvl(v.volunteerId()));
+                row.text(NRICGeneratorUtil.generateFakeNRIC());
+                row.text(RandomDataUtil.randomPractitionerIdentifierSystem());
+                row.text(nvl(v.volunteerRole()));
+                row.text(nvl(v.volunteerName()));
+                row.number(0.8);
+                row.number(35);
+                row.text("Linked via AAC master");
+                row.highlight(AppState.getHighlightColorIndex(nvl(v.volunteerId())));
             }
         }
-        autoSize(sheet, headers.length);
     }
 
-    private static void writeEncounterSheet(XSSFWorkbook wb, List<com.aac.kpi.model.Encounter> list, CellStyle highlightStyle) {
-        XSSFSheet sheet = wb.createSheet("Encounter (Master)");
+    private static void writeEncounterSheet(SheetSink out, List<com.aac.kpi.model.Encounter> list) {
         String[] headers = new String[] {
                 "encounter_id",
                 "encounter_status",
@@ -373,44 +424,28 @@ public class ExcelWriter {
                 "encounter_referredby",
                 "encounter_patient_reference"
         };
-        createHeaderRow(sheet, headers);
-        CellStyle dateTimeStyleEN = sheet.getWorkbook().createCellStyle();
-        dateTimeStyleEN.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
-        int r = 1;
-        List<com.aac.kpi.model.Encounter> ordered = new ArrayList<>(list);
-        ordered.sort(Comparator.comparingInt(e -> {
-            Integer o = AppState.getScenarioOrder(nvl(e.getEncounterId()));
-            return o == null ? Integer.MAX_VALUE : o;
-        }));
-        for (com.aac.kpi.model.Encounter e : ordered) {
-            Row row = sheet.createRow(r++);
-            int c = 0;
+        out.sheet("Encounter (Master)", ENCOUNTER_TYPE, headers);
+        for (com.aac.kpi.model.Encounter e : list) {
+            SheetSink.Row row = out.row();
             String encounterId = nvl(e.getEncounterId());
-            row.createCell(c++).setCellValue(encounterId);
-            row.createCell(c++).setCellValue(nvl(e.getEncounterStatus()));
-            row.createCell(c++).setCellValue(nvl(e.getEncounterDisplay()));
+            row.text(encounterId);
+            row.text(nvl(e.getEncounterStatus()));
+            row.text(nvl(e.getEncounterDisplay()));
             // encounter_start should be stored as ISO offset text (e.g. 2025-09-09T10:30:01+08:00)
             String encStart = nvl(e.getEncounterStart());
-            if (!encStart.isBlank()) {
-                row.createCell(c++).setCellValue(toIsoOffset(encStart));
-            } else {
-                row.createCell(c++).setCellValue("");
-            }
-            row.createCell(c++).setCellValue(nvl(e.getEncounterPurpose()));
-            row.createCell(c++).setCellValue(nvl(e.getEncounterContactedStaffName()));
-            row.createCell(c++).setCellValue(nvl(e.getEncounterReferredBy()));
-            row.createCell(c++).setCellValue(nvl(e.getEncounterPatientReference()));
-            if (highlightStyle != null && !encounterId.isEmpty()) {
-                applyHighlight(row, highlightStyle, AppState.getHighlightColorIndex(encounterId));
+            row.text(encStart.isBlank() ? "" : toIsoOffset(encStart));
+            row.text(nvl(e.getEncounterPurpose()));
+            row.text(nvl(e.getEncounterContactedStaffName()));
+            row.text(nvl(e.getEncounterReferredBy()));
+            row.text(nvl(e.getEncounterPatientReference()));
+            if (!encounterId.isEmpty()) {
+                row.highlight(AppState.getHighlightColorIndex(encounterId));
             }
         }
-        autoSize(sheet, headers.length);
     }
 
-    private static void writeQuestionnaireSheet(XSSFWorkbook wb,
-                                               List<com.aac.kpi.model.QuestionnaireResponse> list,
-                                               CellStyle highlightStyle) {
-        XSSFSheet sheet = wb.createSheet("QuestionnaireResponse (Master)");
+    private static void writeQuestionnaireSheet(SheetSink out,
+                                               List<com.aac.kpi.model.QuestionnaireResponse> list) {
         String[] headers = new String[] {
                 "questionnaire_id",
                 "questionnaire_status",
@@ -426,259 +461,117 @@ public class ExcelWriter {
                 "questionnaire_q10_answer",
                 "questionnaire_patient_reference"
         };
-        createHeaderRow(sheet, headers);
-        // Date style for Q1..Q9 answers
-        CellStyle dateStyle = sheet.getWorkbook().createCellStyle();
-        dateStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd"));
-        int r = 1;
-        List<com.aac.kpi.model.QuestionnaireResponse> ordered = new ArrayList<>(list);
-        ordered.sort(Comparator.comparingInt(qr -> {
-            Integer o = AppState.getScenarioOrder(nvl(qr.getQuestionnaireId()));
-            return o == null ? Integer.MAX_VALUE : o;
-        }));
-        for (com.aac.kpi.model.QuestionnaireResponse q : ordered) {
-            Row row = sheet.createRow(r++);
-            int c = 0;
+        out.sheet("QuestionnaireResponse (Master)", QUESTIONNAIRE_TYPE, headers);
+        // Q1, Q3, ... Q9 are date answers
+        for (com.aac.kpi.model.QuestionnaireResponse q : list) {
+            SheetSink.Row row = out.row();
             String questionnaireId = nvl(q.getQuestionnaireId());
-            row.createCell(c++).setCellValue(questionnaireId);
-            row.createCell(c++).setCellValue(nvl(q.getQuestionnaireStatus()));
-            setDateCell(row, c++, q.getQ1(), dateStyle);
-            row.createCell(c++).setCellValue(nvl(q.getQ2()));
-            setDateCell(row, c++, q.getQ3(), dateStyle);
-            row.createCell(c++).setCellValue(nvl(q.getQ4()));
-            setDateCell(row, c++, q.getQ5(), dateStyle);
-            row.createCell(c++).setCellValue(nvl(q.getQ6()));
-            setDateCell(row, c++, q.getQ7(), dateStyle);
-            row.createCell(c++).setCellValue(nvl(q.getQ8()));
-            setDateCell(row, c++, q.getQ9(), dateStyle);
-            row.createCell(c++).setCellValue(nvl(q.getQ10()));
-            row.createCell(c++).setCellValue(nvl(q.getQuestionnairePatientReference()));
-            if (highlightStyle != null && !questionnaireId.isEmpty()) {
-                applyHighlight(row, highlightStyle, AppState.getHighlightColorIndex(questionnaireId));
+            row.text(questionnaireId);
+            row.text(nvl(q.getQuestionnaireStatus()));
+            setDateCell(row, q.getQ1());
+            row.text(nvl(q.getQ2()));
+            setDateCell(row, q.getQ3());
+            row.text(nvl(q.getQ4()));
+            setDateCell(row, q.getQ5());
+            row.text(nvl(q.getQ6()));
+            setDateCell(row, q.getQ7());
+            row.text(nvl(q.getQ8()));
+            setDateCell(row, q.getQ9());
+            row.text(nvl(q.getQ10()));
+            row.text(nvl(q.getQuestionnairePatientReference()));
+            if (!questionnaireId.isEmpty()) {
+                row.highlight(AppState.getHighlightColorIndex(questionnaireId));
             }
         }
-        autoSize(sheet, headers.length);
     }
 
-    private static void writeCommonSheet(XSSFWorkbook wb, List<com.aac.kpi.model.CommonRow> list) {
-        XSSFSheet sheet = wb.createSheet("Common");
-        String[] headers = new String[] {
-                "composition_id", "version_id", "last_updated", "meta_code", "reporting_month",
-                "total_operating_days", "total_clients", "status", "author_value", "author_display",
-                "patient_reference", "encounter_references", "questionnaire_reference", "attended_event_references"
-        };
-        createHeaderRow(sheet, headers);
-        int r = 1;
-        for (com.aac.kpi.model.CommonRow c : list) {
-            Row row = sheet.createRow(r++);
-            int i = 0;
-            row.createCell(i++).setCellValue(nvl(c.getCompositionId()));
-            row.createCell(i++).setCellValue(c.getVersionId());
-            row.createCell(i++).setCellValue(toIsoOffset(reportDateWithOverride(nvl(c.getLastUpdated()))));
-            row.createCell(i++).setCellValue(nvl(c.getMetaCode()));
-            row.createCell(i++).setCellValue(reportingMonthWithOverride(nvl(c.getReportingMonth())));
-            row.createCell(i++).setCellValue(c.getTotalOperatingDays());
-            row.createCell(i++).setCellValue(c.getTotalClients());
-            row.createCell(i++).setCellValue(nvl(c.getStatus()));
-            row.createCell(i++).setCellValue(nvl(c.getAuthorValue()));
-            row.createCell(i++).setCellValue(nvl(c.getAuthorDisplay()));
-            row.createCell(i++).setCellValue(nvl(c.getPatientReference()));
-            row.createCell(i++).setCellValue(nvl(c.getEncounterReferences()));
-            row.createCell(i++).setCellValue(nvl(c.getQuestionnaireReference()));
-            row.createCell(i++).setCellValue(nvl(c.getAttendedEventReferences()));
-        }
-        autoSize(sheet, headers.length);
-    }
-
-    private static void writeCombinedCommonSheet(XSSFWorkbook wb,
+    private static void writeCombinedCommonSheet(SheetSink out,
             List<Patient> patients,
-            List<EventSession> sessions,
             List<com.aac.kpi.model.Practitioner> practitioners,
-            List<com.aac.kpi.model.Encounter> encounters,
-            List<com.aac.kpi.model.QuestionnaireResponse> questionnaires,
             List<com.aac.kpi.model.CommonRow> residentRows,
             MasterData masterData,
-            CellStyle highlightStyle,
-            RegistrationData registrationData) {
-        XSSFSheet sheet = wb.createSheet("Common");
-
-        // Styles
-        CellStyle baseBold = wb.createCellStyle();
-        Font bold = wb.createFont();
-        bold.setBold(true);
-        baseBold.setFont(bold);
-        // Table Header Row (Title) - Green #00B050
-        CellStyle titleStyle = wb.createCellStyle();
-        titleStyle.cloneStyleFrom(baseBold);
-        ((org.apache.poi.xssf.usermodel.XSSFCellStyle) titleStyle)
-                .setFillForegroundColor(
-                        new org.apache.poi.xssf.usermodel.XSSFColor(new java.awt.Color(0, 176, 80), null));
-        titleStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        // Column Header Row - Light Blue #BDD7EE
-        CellStyle columnHeaderStyle = wb.createCellStyle();
-        columnHeaderStyle.cloneStyleFrom(baseBold);
-        ((org.apache.poi.xssf.usermodel.XSSFCellStyle) columnHeaderStyle)
-                .setFillForegroundColor(
-                        new org.apache.poi.xssf.usermodel.XSSFColor(new java.awt.Color(189, 215, 238), null));
-        columnHeaderStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
-        int r = 0;
+            AacReportModel aacReport,
+            EventReportModel eventReport,
+            List<OrganizationReportRow> organizationReport) {
         // Section 1: aac_report
-        r = writeSectionTitle(sheet, r, "aac_report", titleStyle);
-        r = writeAacReportSection(sheet, r, patients, sessions, practitioners, columnHeaderStyle, masterData);
+        writeAacReportSection(out, aacReport, masterData);
 
         // Section 2: resident_report (from residentRows/CommonRow)
-        r = writeSectionTitle(sheet, r, "resident_report", titleStyle);
-        r = writeResidentReportSection(sheet, r, residentRows, columnHeaderStyle, highlightStyle);
+        writeResidentReportSection(out, residentRows);
 
         // Section 2.5: volunteer_attendance_report (between resident and event)
-        r = writeSectionTitle(sheet, r, "volunteer_attendance_report", titleStyle);
-        r = writeVolunteerAttendanceReportSection(sheet, r, patients, practitioners, masterData, columnHeaderStyle);
+        writeVolunteerAttendanceReportSection(out, patients, practitioners, masterData);
 
         // Section 3: event_report
-        r = writeSectionTitle(sheet, r, "event_report", titleStyle);
-        r = writeEventReportSection(sheet, r, patients, sessions, practitioners, columnHeaderStyle, masterData, registrationData);
+        writeEventReportSection(out, eventReport);
 
         // Section 4: organization_report
-        r = writeSectionTitle(sheet, r, "organization_report", titleStyle);
-        r = writeOrganizationReportSection(sheet, r, patients, sessions, practitioners, columnHeaderStyle, masterData);
+        writeOrganizationReportSection(out, organizationReport);
 
         // Section 5: location_report
-        r = writeSectionTitle(sheet, r, "location_report", titleStyle);
-        r = writeLocationReportSection(sheet, r, sessions, columnHeaderStyle, masterData);
-
-        // Autosize columns (cover extended resident_report columns)
-        for (int c = 0; c < 40; c++)
-            sheet.autoSizeColumn(c);
-    }
-
-    private static void reorderSheetsForKpiTool(XSSFWorkbook wb) {
-        // JSON exporter relies on fixed sheet indexes beyond the Common tab.
-        List<String> desiredOrder = List.of(
-                "Common",
-                "Event Sessions",
-                "Event Sessions NRIC",
-                "Patient (Master)",
-                "Practitioner (Master)",
-                "Encounter (Master)",
-                "QuestionnaireResponse (Master)");
-        int position = 0;
-        for (String name : desiredOrder) {
-            int idx = wb.getSheetIndex(name);
-            if (idx < 0)
-                continue;
-            wb.setSheetOrder(name, position++);
-        }
+        writeLocationReportSection(out, masterData);
     }
 
-    private static void applyCfsValidation(Sheet sheet, int startRow, int endRow, int columnIndex) {
-        if (endRow < startRow)
-            return;
-        DataValidationHelper helper = sheet.getDataValidationHelper();
-        String[] options = new String[] { "1-3", "4-5", "4", "5", "6", "7", "8", "9" };
-        DataValidationConstraint constraint = helper.createExplicitListConstraint(options);
-        CellRangeAddressList regions = new CellRangeAddressList(startRow, endRow, columnIndex, columnIndex);
-        DataValidation validation = helper.createValidation(constraint, regions);
-        validation.setSuppressDropDownArrow(false);
-        validation.setShowErrorBox(true);
-        validation.createPromptBox("CFS selection", "Choose the grouped range (1-3, 4-5) or a single value.");
-        validation.setShowPromptBox(true);
-        sheet.addValidationData(validation);
-    }
-
-    private static void applySocialRiskValidation(Sheet sheet, int startRow, int endRow, int columnIndex) {
-        if (endRow < startRow)
-            return;
-        DataValidationHelper helper = sheet.getDataValidationHelper();
-        String[] options = new String[] { "1", ">1" };
-        DataValidationConstraint constraint = helper.createExplicitListConstraint(options);
-        CellRangeAddressList regions = new CellRangeAddressList(startRow, endRow, columnIndex, columnIndex);
-        DataValidation validation = helper.createValidation(constraint, regions);
-        validation.setSuppressDropDownArrow(false);
-        validation.setShowErrorBox(true);
-        validation.createPromptBox("Social risk selection", "Pick either 1 or >1 for the social risk factor column.");
-        validation.setShowPromptBox(true);
-        sheet.addValidationData(validation);
-    }
-
-    private static int writeSectionTitle(Sheet sheet, int rowIndex, String title, CellStyle style) {
-        Row row = sheet.createRow(rowIndex++);
-        Cell c = row.createCell(0);
-        c.setCellValue(title);
-        c.setCellStyle(style);
-        return rowIndex;
-    }
-
-    private static int writeAacReportSection(Sheet sheet, int rowIndex,
-            List<Patient> patients,
-            List<EventSession> sessions,
-            List<com.aac.kpi.model.Practitioner> practitioners,
-            CellStyle headerStyle,
-            MasterData masterData) {
-        CellStyle monthStyle = sheet.getWorkbook().createCellStyle();
-        monthStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM"));
-        CellStyle dateTimeStyle = sheet.getWorkbook().createCellStyle();
-        dateTimeStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
-        String[] headers = { "S.No", "composition_id", "version_id", "last_updated", "meta_code",
-                "extension_reporting_month", "extension_total_operating_days", "extension_total_clients",
-                "status", "date", "author_value", "author_display", "practitioner_references" };
-        createHeaderRow(sheet, headers, rowIndex++, headerStyle);
-
+    private static AacReportModel prepareAacReport(ExportContext ctx,
+            List<com.aac.kpi.model.Practitioner> practitioners) {
         Map<String, Long> clientsByAac = new HashMap<>();
-        for (Patient p : patients)
-            clientsByAac.merge(nvl(p.getAac()), 1L, Long::sum);
+        for (PatientInfo info : ctx.patients)
+            clientsByAac.merge(nvl(info.patient().getAac()), 1L, Long::sum);
         Map<String, LocalDateTime> latestByAac = new HashMap<>();
-        Map<String, Patient> pIndex = new HashMap<>();
-        for (Patient p : patients)
-            pIndex.put(p.getPatientId(), p);
-        for (EventSession s : sessions) {
-            Patient p = pIndex.getOrDefault(s.getEventSessionPatientReferences1(), null);
+        for (SessionInfo s : ctx.sessions) {
+            Patient p = ctx.refs.patientById(s.rawPatientRefs());
             if (p == null)
                 continue;
             String aac = nvl(p.getAac());
-            LocalDateTime dt = parseDateTime(s.getEventSessionStartDate1());
+            LocalDateTime dt = s.start();
             if (dt != null)
                 latestByAac.merge(aac, dt, (a, b) -> a.isAfter(b) ? a : b);
         }
         List<String> practitionerIds = practitioners.stream()
                 .map(com.aac.kpi.model.Practitioner::getPractitionerId)
                 .filter(Objects::nonNull).toList();
+        return new AacReportModel(Map.copyOf(clientsByAac), Map.copyOf(latestByAac), practitionerIds);
+    }
+
+    private static void writeAacReportSection(SheetSink out, AacReportModel model, MasterData masterData) {
+        out.section("aac_report", AAC_TYPE, "S.No", "composition_id", "version_id", "last_updated", "meta_code",
+                "extension_reporting_month", "extension_total_operating_days", "extension_total_clients",
+                "status", "date", "author_value", "author_display", "practitioner_references");
+
+        Map<String, Long> clientsByAac = model.clientsByAac();
+        Map<String, LocalDateTime> latestByAac = model.latestByAac();
+        List<String> practitionerIds = model.practitionerIds();
         DateTimeFormatter monthFmt = DateTimeFormatter.ofPattern("yyyy-MM");
         int sno = 1;
         for (MasterDataService.AacCenter center : masterData.getAacCenters()) {
             String aac = center.aacCenterId();
-            Row row = sheet.createRow(rowIndex++);
-            int i = 0;
-            row.createCell(i++).setCellValue("aac_report_" + sno++);
-            row.createCell(i++).setCellValue(RandomDataUtil.uuid32().toUpperCase());
-            row.createCell(i++).setCellValue(1);
-            setDateTimeCell(row, i++, nowIsoOffset("+08:00"), dateTimeStyle);
-            row.createCell(i++).setCellValue(RandomDataUtil.uuid32().substring(0, 20));
+            SheetSink.Row row = out.row();
+            row.text("aac_report_" + sno++);
+            row.text(RandomDataUtil.uuid32().toUpperCase());
+            row.number(1);
+            setDateTimeCell(row, nowIsoOffset("+08:00"));
+            row.text(RandomDataUtil.uuid32().substring(0, 20));
             LocalDateTime dt = latestByAac.getOrDefault(aac, LocalDateTime.now());
-            setMonthCell(row, i++, reportingMonthWithOverride(dt.format(monthFmt)), monthStyle);
-            row.createCell(i++).setCellValue(240);
-            row.createCell(i++).setCellValue(clientsByAac.getOrDefault(aac, 0L).intValue());
-            row.createCell(i++).setCellValue("final");
-            setDateTimeCell(row, i++, reportDateWithOverride(nowIsoOffset("+08:00")), dateTimeStyle);
-            row.createCell(i++).setCellValue(aac);
-            row.createCell(i++).setCellValue(center.aacCenterName());
+            setMonthCell(row, reportingMonthWithOverride(dt.format(monthFmt)));
+            row.number(240);
+            row.number(clientsByAac.getOrDefault(aac, 0L).intValue());
+            row.text("final");
+            setDateTimeCell(row, reportDateWithOverride(nowIsoOffset("+08:00")));
+            row.text(aac);
+            row.text(center.aacCenterName());
             List<String> references = selectPractitionerSubset(
                     practitionerIds,
                     sno,
                     Math.max(1, Math.min(3, practitionerIds.size()))
             );
-            row.createCell(i).setCellValue(String.join("##", references));
+            row.text(String.join("##", references));
         }
-        return rowIndex; // no blank line between sections
+        // no blank line between sections
     }
 
-    private static int writeResidentReportSection(Sheet sheet, int rowIndex,
-            List<com.aac.kpi.model.CommonRow> residents,
-            CellStyle headerStyle,
-            CellStyle highlightStyle) {
-        CellStyle monthStyle = sheet.getWorkbook().createCellStyle();
-        monthStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM"));
-        String[] headers = { "S. No", "composition_id", "version_id", "last_updated", "meta_code",
+    private static void writeResidentReportSection(SheetSink out, List<com.aac.kpi.model.CommonRow> residents) {
+        out.section("resident_report", RESIDENT_TYPE, "S. No", "composition_id", "version_id", "last_updated",
+                "meta_code",
                 "extension_reporting_month", "status", "date", "author_value", "author_display",
                 "resident_volunteer_status", "cst_date", "cfs", "social_risk_factor_score", "aap_recommendation",
                 "social_support_recommendation", "aac_opt_out_status", "aap_opt_out_status",
@@ -687,154 +580,90 @@ public class ExcelWriter {
                 "resident_befriending_programme_period_end", "resident_buddying_programme_period_start",
                 "resident_buddying_programme_period_end", "irms_referral_raised_date", "irms_referral_accepted_date",
                 "asg_referral_raised_by", "asg_referral_accepted_by", "patient_reference", "encounter_references",
-                "questionnaire_reference" };
-        createHeaderRow(sheet, headers, rowIndex++, headerStyle);
-        int dataStartRow = rowIndex;
+                "questionnaire_reference");
         int sno = 1;
-        // Prepare date style for yyyy-MM-dd (Excel date type) and datetime style
-        CellStyle dateStyle = sheet.getWorkbook().createCellStyle();
-        dateStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd"));
-        CellStyle dateTimeStyle = sheet.getWorkbook().createCellStyle();
-        dateTimeStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
         for (com.aac.kpi.model.CommonRow c : residents) {
             if (c.getPatientReference() == null || c.getPatientReference().isBlank())
                 continue; // only resident rows
-            Row row = sheet.createRow(rowIndex++);
-            int i = 0;
-            row.createCell(i++).setCellValue("resident_report_" + sno++);
-            row.createCell(i++).setCellValue(nvl(c.getCompositionId()));
-            row.createCell(i++).setCellValue(c.getVersionId());
-            setDateTimeCell(row, i++, nowIsoOffset("+08:00"), dateTimeStyle);
-            row.createCell(i++).setCellValue(nvl(c.getMetaCode()));
-            setMonthCell(row, i++, reportingMonthWithOverride(nvl(c.getReportingMonth())), monthStyle);
-            row.createCell(i++).setCellValue(nvl(c.getStatus()));
+            SheetSink.Row row = out.row();
+            row.text("resident_report_" + sno++);
+            row.text(nvl(c.getCompositionId()));
+            row.number(c.getVersionId());
+            setDateTimeCell(row, nowIsoOffset("+08:00"));
+            row.text(nvl(c.getMetaCode()));
+            setMonthCell(row, reportingMonthWithOverride(nvl(c.getReportingMonth())));
+            row.text(nvl(c.getStatus()));
             String last = reportDateWithOverride(nvl(c.getLastUpdated()));
             if (last.isBlank()) last = reportDateWithOverride(nowStamp());
-            setDateTimeCell(row, i++, last, dateTimeStyle);
-            row.createCell(i++).setCellValue(nvl(c.getAuthorValue()));
-            row.createCell(i++).setCellValue(nvl(c.getAuthorDisplay()));
-            row.createCell(i++).setCellValue(nvl(c.getResidentVolunteerStatus()));
-            setDateCell(row, i++, c.getCstDate(), dateStyle);
+            setDateTimeCell(row, last);
+            row.text(nvl(c.getAuthorValue()));
+            row.text(nvl(c.getAuthorDisplay()));
+            row.text(nvl(c.getResidentVolunteerStatus()));
+            setDateCell(row, c.getCstDate());
             String cfsText = c.getCfsLabel();
             if (cfsText == null || cfsText.isBlank())
                 cfsText = CfsUtil.formatCfs(c.getCfs());
-            row.createCell(i++).setCellValue(cfsText);
+            row.text(cfsText);
             String srValue = nvl(c.getSocialRiskLabel());
             if (srValue.isBlank())
                 srValue = String.valueOf(c.getSocialRiskFactorScore());
-            row.createCell(i++).setCellValue(srValue);
-            row.createCell(i++).setCellValue(nvl(c.getAapRecommendation()));
-            row.createCell(i++).setCellValue(nvl(c.getSocialSupportRecommendation()));
-            row.createCell(i++).setCellValue(nvl(c.getAacOptOutStatus()));
-            row.createCell(i++).setCellValue(nvl(c.getAapOptOutStatus()));
-            setDateCell(row, i++, c.getScreeningDeclarationDate(), dateStyle);
-            row.createCell(i++).setCellValue(nvl(c.getBefriendingOptOutStatus()));
-            row.createCell(i++).setCellValue(nvl(c.getBuddyingOptOutStatus()));
-            setDateCell(row, i++, c.getResidentBefriendingProgrammePeriodStart(), dateStyle);
-            setDateCell(row, i++, c.getResidentBefriendingProgrammePeriodEnd(), dateStyle);
-            setDateCell(row, i++, c.getResidentBuddyingProgrammePeriodStart(), dateStyle);
-            setDateCell(row, i++, c.getResidentBuddyingProgrammePeriodEnd(), dateStyle);
-            setDateCell(row, i++, c.getIrmsReferralRaisedDate(), dateStyle);
-            setDateCell(row, i++, c.getIrmsReferralAcceptedDate(), dateStyle);
-            row.createCell(i++).setCellValue(nvl(c.getAsgReferralRaisedBy()));
-            row.createCell(i++).setCellValue(nvl(c.getAsgReferralAcceptedBy()));
+            row.text(srValue);
+            row.text(nvl(c.getAapRecommendation()));
+            row.text(nvl(c.getSocialSupportRecommendation()));
+            row.text(nvl(c.getAacOptOutStatus()));
+            row.text(nvl(c.getAapOptOutStatus()));
+            setDateCell(row, c.getScreeningDeclarationDate());
+            row.text(nvl(c.getBefriendingOptOutStatus()));
+            row.text(nvl(c.getBuddyingOptOutStatus()));
+            setDateCell(row, c.getResidentBefriendingProgrammePeriodStart());
+            setDateCell(row, c.getResidentBefriendingProgrammePeriodEnd());
+            setDateCell(row, c.getResidentBuddyingProgrammePeriodStart());
+            setDateCell(row, c.getResidentBuddyingProgrammePeriodEnd());
+            setDateCell(row, c.getIrmsReferralRaisedDate());
+            setDateCell(row, c.getIrmsReferralAcceptedDate());
+            row.text(nvl(c.getAsgReferralRaisedBy()));
+            row.text(nvl(c.getAsgReferralAcceptedBy()));
             String patientRef = nvl(c.getPatientReference());
-            row.createCell(i++).setCellValue(patientRef);
-            row.createCell(i++).setCellValue(nvl(c.getEncounterReferences()));
-            row.createCell(i).setCellValue(nvl(c.getQuestionnaireReference()));
-            if (highlightStyle != null && !patientRef.isEmpty()) {
+            row.text(patientRef);
+            row.text(nvl(c.getEncounterReferences()));
+            row.text(nvl(c.getQuestionnaireReference()));
+            if (!patientRef.isEmpty()) {
                 Integer idxColor = AppState.getHighlightColorIndex(patientRef);
                 if (idxColor == null) idxColor = AppState.getHighlightColorIndex(StringUtils.sanitizeAlphaNum(patientRef));
-                applyHighlight(row, highlightStyle, idxColor);
+                row.highlight(idxColor);
             }
         }
-        int dataEndRow = rowIndex - 1;
-        applyCfsValidation(sheet, dataStartRow, dataEndRow, 12);
-        applySocialRiskValidation(sheet, dataStartRow, dataEndRow, 13);
-        return rowIndex;
+        out.listValidation(12, "CFS selection", "Choose the grouped range (1-3, 4-5) or a single value.",
+                "1-3", "4-5", "4", "5", "6", "7", "8", "9");
+        out.listValidation(13, "Social risk selection", "Pick either 1 or >1 for the social risk factor column.",
+                "1", ">1");
     }
 
-    private static int writeEventReportSection(Sheet sheet, int rowIndex,
-            List<Patient> patients,
-            List<EventSession> sessions,
+    private static EventReportModel prepareEventReport(ExportContext ctx,
             List<com.aac.kpi.model.Practitioner> practitioners,
-            CellStyle headerStyle,
-            MasterData masterData,
             RegistrationData registrationData) {
-        CellStyle monthStyle = sheet.getWorkbook().createCellStyle();
-        monthStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM"));
-        CellStyle dateTimeStyle = sheet.getWorkbook().createCellStyle();
-        dateTimeStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
-        // Columns as requested
-        // Build dynamic headers: add is_attended_session_patientN only up to max refs
-        // across events
-        // We'll compute the groups first to derive maxRefs
-        // Index patients by ID and AAC/KPI metadata
-        Map<String, Patient> patientIndex = new HashMap<>();
-        Map<String, Patient> patientIndexSan = new HashMap<>();
-        Map<String, Patient> patientIndexIdent = new HashMap<>();
-        Map<String, Patient> patientIndexIdentSan = new HashMap<>();
-        for (Patient p : patients) {
-            if (p.getPatientId() != null) {
-                patientIndex.put(p.getPatientId(), p);
-                patientIndexSan.put(StringUtils.sanitizeAlphaNum(p.getPatientId()), p);
-            }
-            String ident = nvl(p.getPatientIdentifierValue());
-            if (!ident.isBlank()) {
-                patientIndexIdent.put(ident, p);
-                patientIndexIdentSan.put(StringUtils.sanitizeAlphaNum(ident), p);
-            }
-        }
-
-        // Group sessions by event_id
-        Map<String, List<EventSession>> byEventId = new HashMap<>();
-        for (EventSession s : sessions) {
-            String ev = nvl(s.getEventSessionId1());
-            byEventId.computeIfAbsent(ev, k -> new ArrayList<>()).add(s);
-        }
-
+        // Resolve each attended session's references to NRICs once; the widest session drives the
+        // number of is_attended_session_patientN columns.
+        Map<EventSession, List<String>> resolvedRefs = new IdentityHashMap<>();
         int maxRefs = 0;
-        for (EventSession s : sessions) {
-            if (!s.isAttendedIndicator())
+        for (SessionInfo s : ctx.sessions) {
+            if (!s.session().isAttendedIndicator() || s.sanitizedPatientRefs().isEmpty())
                 continue;
-            String raw = nvl(s.getEventSessionPatientReferences1());
-            if (raw.isBlank()) continue;
             LinkedHashSet<String> refs = new LinkedHashSet<>();
-            for (String part : raw.split("##")) {
-                String clean = StringUtils.sanitizeAlphaNum(part);
-                if (clean.isBlank()) continue;
+            for (String clean : s.sanitizedPatientRefs()) {
+                // Prefer NRIC for the patient reference; map registration ID -> NRIC when possible
                 String nric = registrationData.lookupNricByRegistrationId(clean);
                 if (nric.isBlank()) {
-                    Patient p = patientIndex.get(clean);
-                    if (p == null) p = patientIndexSan.get(clean);
-                    if (p == null) p = patientIndexIdent.get(clean);
-                    if (p == null) p = patientIndexIdentSan.get(clean);
+                    Patient p = ctx.findPatient(clean);
                     if (p != null) nric = nvl(p.getPatientIdentifierValue());
                 }
                 if (nric.isBlank()) nric = clean;
                 refs.add(nric);
             }
+            resolvedRefs.put(s.session(), List.copyOf(refs));
             maxRefs = Math.max(maxRefs, refs.size());
         }
 
-        List<String> headerList = new ArrayList<>(List.of(
-                "S. No", "composition_id", "version_id", "last_updated", "meta_code",
-                "extension_reporting_month", "status", "date", "author_value", "author_display",
-                "event_id", "event_name", "event_type", "event_domain", "event_target_attendees", "event_category",
-                "aap_provider", "minimum_required_sessions", "event_is_gui", "gui_partner",
-                "number_of_event_sessions", "patient_references", "total_patient_references"));
-        for (int n = 1; n <= Math.max(1, maxRefs); n++) {
-            headerList.add("is_attended_session_patient" + n);
-        }
-        headerList.add("Working Remarks");
-        createHeaderRow(sheet, headerList.toArray(new String[0]), rowIndex++, headerStyle);
-        // Working Remarks body cell style (Light Yellow #FFF2CC)
-        CellStyle workingRemarksStyle = sheet.getWorkbook().createCellStyle();
-        ((org.apache.poi.xssf.usermodel.XSSFCellStyle) workingRemarksStyle)
-                .setFillForegroundColor(
-                        new org.apache.poi.xssf.usermodel.XSSFColor(new java.awt.Color(255, 242, 204), null));
-        workingRemarksStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
         // Practitioner fallback (no linkage available in data)
         String authorValue = "";
         String authorDisplay = "";
@@ -845,45 +674,35 @@ public class ExcelWriter {
             authorDisplay = name.isBlank() ? authorValue : name;
         }
 
-        int sno = 1;
-        DateTimeFormatter monthFmt = DateTimeFormatter.ofPattern("yyyy-MM");
-        DateTimeFormatter stampFmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
-        for (Map.Entry<String, List<EventSession>> e : byEventId.entrySet()) {
+        List<EventReportRow> rows = new ArrayList<>();
+        for (Map.Entry<String, List<SessionInfo>> e : ctx.sessionsByEventId.entrySet()) {
             String eventIdRaw = nvl(e.getKey());
             if (eventIdRaw.isBlank())
                 continue;
-            List<EventSession> list = e.getValue();
+            List<SessionInfo> list = e.getValue();
 
             // Derive earliest start and name
             LocalDateTime earliest = null;
             LocalDateTime latest = null;
             int capacitySum = 0;
-            for (EventSession s : list) {
-                LocalDateTime st = parseDateTime(s.getEventSessionStartDate1());
-                LocalDateTime en = parseDateTime(nvl(s.getEventSessionEndDate1()));
+            for (SessionInfo s : list) {
+                LocalDateTime st = s.start();
+                LocalDateTime en = s.end();
                 if (en == null)
                     en = st;
                 if (st != null)
                     earliest = (earliest == null || st.isBefore(earliest)) ? st : earliest;
                 if (en != null)
                     latest = (latest == null || en.isAfter(latest)) ? en : latest;
-                capacitySum += Math.max(0, s.getEventSessionCapacity1());
+                capacitySum += Math.max(0, s.session().getEventSessionCapacity1());
             }
 
             // Collect attending registration references (unique) from sessions where
             // attendedIndicator = true, and track patient IDs for KPI lookups
             LinkedHashSet<String> attendeePatientIds = new LinkedHashSet<>();
-            for (EventSession s : list) {
-                if (!s.isAttendedIndicator())
-                    continue;
-                String raw = nvl(s.getEventSessionPatientReferences1());
-                if (raw.isBlank()) continue;
-                for (String part : raw.split("##")) {
-                    String clean = StringUtils.sanitizeAlphaNum(part);
-                    if (clean.isBlank()) continue;
-                    attendeePatientIds.add(clean);
-                }
+            for (SessionInfo s : list) {
+                if (s.session().isAttendedIndicator())
+                    attendeePatientIds.addAll(s.sanitizedPatientRefs());
             }
 
             // Compute event_type by majority of attendees' KPI type (if available)
@@ -891,7 +710,7 @@ public class ExcelWriter {
             if (!attendeePatientIds.isEmpty()) {
                 Map<String, Integer> counts = new HashMap<>();
                 for (String pid : attendeePatientIds) {
-                    Patient p = patientIndexSan.get(pid);
+                    Patient p = ctx.refs.patientBySanitizedId(pid);
                     String t = p != null ? nvl(p.getKpiType()) : "";
                     if (!t.isBlank())
                         counts.merge(t.trim(), 1, Integer::sum);
@@ -923,7 +742,7 @@ public class ExcelWriter {
             // available)
             String aac = "";
             for (String pid : attendeePatientIds) {
-                Patient p = patientIndexSan.get(pid);
+                Patient p = ctx.refs.patientBySanitizedId(pid);
                 if (p != null) {
                     aac = nvl(p.getAac());
                     break;
@@ -957,85 +776,95 @@ public class ExcelWriter {
 
             String eventName = eventIdRaw.replaceAll("[0-9-]", "");
             if (eventName.isBlank() && !list.isEmpty()) {
-                String venue = list.get(0).getEventSessionVenue1();
+                String venue = list.get(0).session().getEventSessionVenue1();
                 eventName = nvl(venue);
             }
 
-            for (EventSession session : list) {
-                LinkedHashSet<String> sessionRefs = new LinkedHashSet<>();
-                if (session.isAttendedIndicator()) {
-                    String raw = nvl(session.getEventSessionPatientReferences1());
-                    if (!raw.isBlank()) {
-                        for (String part : raw.split("##")) {
-                            String clean = StringUtils.sanitizeAlphaNum(part);
-                            if (clean.isBlank()) continue;
-                            // Prefer NRIC for the patient reference; map registration ID -> NRIC when possible
-                            String nric = registrationData.lookupNricByRegistrationId(clean);
-                            if (nric.isBlank()) {
-                                Patient p = patientIndex.get(clean);
-                                if (p == null) p = patientIndexSan.get(clean);
-                                if (p == null) p = patientIndexIdent.get(clean);
-                                if (p == null) p = patientIndexIdentSan.get(clean);
-                                if (p != null) nric = nvl(p.getPatientIdentifierValue());
-                            }
-                            if (nric.isBlank()) nric = clean;
-                            sessionRefs.add(nric);
-                        }
-                    }
-                }
-                String joinedRefs = String.join("##", sessionRefs);
-                int totalRefs = sessionRefs.size();
-
-                Row row = sheet.createRow(rowIndex++);
-                int i = 0;
-                row.createCell(i++).setCellValue("event_report_" + sno++);
-                String compFromSession = StringUtils.sanitizeAlphaNum(nvl(session.getCompositionId()));
-                row.createCell(i++).setCellValue(compFromSession);
-                row.createCell(i++).setCellValue(1);
-                setDateTimeCell(row, i++, nowIsoOffset("+08:00"), dateTimeStyle);
-                row.createCell(i++).setCellValue(RandomDataUtil.uuid32().substring(0, 20));
-                setMonthCell(row, i++, reportingMonthWithOverride(earliest != null ? earliest.format(monthFmt) : ""), monthStyle);
-                row.createCell(i++).setCellValue("completed");
-                {
-                    String dtStr = earliest != null ? earliest.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : "";
-                    dtStr = reportDateWithOverride(dtStr);
-                    setDateTimeCell(row, i++, dtStr, dateTimeStyle);
-                }
-                row.createCell(i++).setCellValue(eventAuthorValue);
-                row.createCell(i++).setCellValue(eventAuthorDisplay);
-                row.createCell(i++).setCellValue(StringUtils.sanitizeAlphaNum(eventIdRaw));
-                row.createCell(i++).setCellValue(eventName);
-                row.createCell(i++)
-                        .setCellValue(eventType == null || eventType.isBlank() ? "Physical activity" : eventType);
-                row.createCell(i++).setCellValue("Community Well-Being");
-                String targetAttendees = "AAC " + (eventType.isBlank() ? "Robust" : eventType);
-                row.createCell(i++).setCellValue(targetAttendees);
-                row.createCell(i++).setCellValue(eventCategory);
-                row.createCell(i++).setCellValue(StringUtils.sanitizeAlphaNum(aapProvider));
-                row.createCell(i++).setCellValue(minReq);
-                row.createCell(i++).setCellValue(eventIsGui);
-                row.createCell(i++).setCellValue(guiPartner);
-                row.createCell(i++).setCellValue(sessionsCount);
-                row.createCell(i++).setCellValue(joinedRefs);
-                row.createCell(i++).setCellValue(totalRefs);
-
-                for (int idx = 0; idx < Math.max(1, maxRefs); idx++) {
-                    boolean present = idx < totalRefs;
-                    row.createCell(i++).setCellValue(present ? "TRUE" : "");
-                }
-                Cell wr = row.createCell(i);
-                wr.setCellValue("");
-                wr.setCellStyle(workingRemarksStyle);
+            for (SessionInfo info : list) {
+                List<String> sessionRefs = resolvedRefs.getOrDefault(info.session(), List.of());
+                rows.add(new EventReportRow(
+                        info.compositionId(),
+                        earliest,
+                        eventAuthorValue,
+                        eventAuthorDisplay,
+                        StringUtils.sanitizeAlphaNum(eventIdRaw),
+                        eventName,
+                        eventType,
+                        eventCategory,
+                        StringUtils.sanitizeAlphaNum(aapProvider),
+                        minReq,
+                        eventIsGui,
+                        guiPartner,
+                        sessionsCount,
+                        String.join("##", sessionRefs),
+                        sessionRefs.size()));
+            }
+        }
+        return new EventReportModel(maxRefs, Collections.unmodifiableList(rows));
+    }
+
+    private static void writeEventReportSection(SheetSink out, EventReportModel model) {
+        // Columns as requested
+        int maxRefs = model.maxRefs();
+        List<String> headerList = new ArrayList<>(List.of(
+                "S. No", "composition_id", "version_id", "last_updated", "meta_code",
+                "extension_reporting_month", "status", "date", "author_value", "author_display",
+                "event_id", "event_name", "event_type", "event_domain", "event_target_attendees", "event_category",
+                "aap_provider", "minimum_required_sessions", "event_is_gui", "gui_partner",
+                "number_of_event_sessions", "patient_references", "total_patient_references"));
+        for (int n = 1; n <= Math.max(1, maxRefs); n++) {
+            headerList.add("is_attended_session_patient" + n);
+        }
+        headerList.add("Working Remarks");
+        out.section("event_report", EVENT_TYPE, headerList.toArray(new String[0]));
+
+        int sno = 1;
+        DateTimeFormatter monthFmt = DateTimeFormatter.ofPattern("yyyy-MM");
+        for (EventReportRow ev : model.rows()) {
+            LocalDateTime earliest = ev.earliest();
+            String eventType = ev.eventType();
+            SheetSink.Row row = out.row();
+            row.text("event_report_" + sno++);
+            row.text(ev.compositionId());
+            row.number(1);
+            setDateTimeCell(row, nowIsoOffset("+08:00"));
+            row.text(RandomDataUtil.uuid32().substring(0, 20));
+            setMonthCell(row, reportingMonthWithOverride(earliest != null ? earliest.format(monthFmt) : ""));
+            row.text("completed");
+            {
+                String dtStr = earliest != null ? earliest.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : "";
+                dtStr = reportDateWithOverride(dtStr);
+                setDateTimeCell(row, dtStr);
             }
+            row.text(ev.authorValue());
+            row.text(ev.authorDisplay());
+            row.text(ev.eventId());
+            row.text(ev.eventName());
+            row.text(eventType == null || eventType.isBlank() ? "Physical activity" : eventType);
+            row.text("Community Well-Being");
+            String targetAttendees = "AAC " + (eventType.isBlank() ? "Robust" : eventType);
+            row.text(targetAttendees);
+            row.text(ev.eventCategory());
+            row.text(ev.aapProvider());
+            row.number(ev.minimumRequiredSessions());
+            row.text(ev.eventIsGui());
+            row.text(ev.guiPartner());
+            row.number(ev.sessionsCount());
+            row.text(ev.patientReferences());
+            row.number(ev.totalPatientReferences());
+
+            for (int idx = 0; idx < Math.max(1, maxRefs); idx++) {
+                boolean present = idx < ev.totalPatientReferences();
+                row.text(present ? "TRUE" : "");
+            }
+            row.remark("");
         }
-        return rowIndex;
     }
 
-    private static int writeVolunteerAttendanceReportSection(Sheet sheet, int rowIndex,
+    private static void writeVolunteerAttendanceReportSection(SheetSink out,
             List<Patient> patients,
             List<com.aac.kpi.model.Practitioner> practitioners,
-            MasterData masterData,
-            CellStyle headerStyle) {
+            MasterData masterData) {
         int requested = com.aac.kpi.service.AppState.getVolunteerPractitionerCount();
         if (requested <= 0)
             requested = 1;
@@ -1048,12 +877,7 @@ public class ExcelWriter {
             headerList.add("volunteered_activity_name_practitioner" + n);
             headerList.add("volunteered_activity_date_practitioner" + n);
         }
-        createHeaderRow(sheet, headerList.toArray(new String[0]), rowIndex++, headerStyle);
-
-        CellStyle dateStyle = sheet.getWorkbook().createCellStyle();
-        dateStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd"));
-        CellStyle dateTimeStyle = sheet.getWorkbook().createCellStyle();
-        dateTimeStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
+        out.section("volunteer_attendance_report", VOLUNTEER_ATTENDANCE_TYPE, headerList.toArray(new String[0]));
 
         List<MasterDataService.AacCenter> centers = masterData.getAacCenters();
         java.util.List<String> practitionerIds = practitioners == null ? java.util.List.of()
@@ -1069,85 +893,62 @@ public class ExcelWriter {
             } else {
                 refs = selectPractitionerSubset(practitionerIds, sno, requested);
             }
-            rowIndex = writeAttendanceRow(sheet, rowIndex, dateStyle, dateTimeStyle, sno++,
-                    center, refs, patients, requested);
-        }
-        return rowIndex;
-    }
-
-    private static int writeAttendanceRow(Sheet sheet,
-                                          int rowIndex,
-                                          CellStyle dateStyle,
-                                          CellStyle dateTimeStyle,
-                                          int sno,
-                                          MasterDataService.AacCenter center,
-                                          List<String> practitionerRefs,
-                                          List<Patient> patients,
-                                          int activityColumns) {
-        Row row = sheet.createRow(rowIndex++);
-        int i = 0;
-        row.createCell(i++).setCellValue("volunteer_attendance_report_" + sno);
-        row.createCell(i++).setCellValue(RandomDataUtil.uuid32().toUpperCase());
-        row.createCell(i++).setCellValue(1);
-        row.createCell(i++).setCellValue(nowIsoOffset("+08:00"));
-        row.createCell(i++).setCellValue(RandomDataUtil.uuid32().substring(0, 20));
-        row.createCell(i++).setCellValue(reportingMonthWithOverride(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM"))));
-        row.createCell(i++).setCellValue("final");
-        row.createCell(i++).setCellValue(toIsoOffset(reportDateWithOverride(nowIsoOffset("+08:00"))));
+            writeAttendanceRow(out.row(), sno++, center, refs, patients, requested);
+        }
+    }
+
+    private static void writeAttendanceRow(SheetSink.Row row,
+                                           int sno,
+                                           MasterDataService.AacCenter center,
+                                           List<String> practitionerRefs,
+                                           List<Patient> patients,
+                                           int activityColumns) {
+        row.text("volunteer_attendance_report_" + sno);
+        row.text(RandomDataUtil.uuid32().toUpperCase());
+        row.number(1);
+        row.text(nowIsoOffset("+08:00"));
+        row.text(RandomDataUtil.uuid32().substring(0, 20));
+        row.text(reportingMonthWithOverride(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM"))));
+        row.text("final");
+        row.text(toIsoOffset(reportDateWithOverride(nowIsoOffset("+08:00"))));
 
         String aac = center != null ? center.aacCenterId() : (patients.isEmpty() ? "AAC" : nvl(patients.get(0).getAac()));
         String centerName = center != null ? center.aacCenterName() : "Active Ageing Centre";
-        row.createCell(i++).setCellValue(aac);
-        row.createCell(i++).setCellValue("Active Ageing Centre " + centerName.replaceAll("[^0-9]", ""));
+        row.text(aac);
+        row.text("Active Ageing Centre " + centerName.replaceAll("[^0-9]", ""));
 
         List<String> sanitized = practitionerRefs.stream()
                 .filter(ref -> ref != null && !ref.isBlank())
                 .toList();
         String joined = String.join("##", sanitized);
-        row.createCell(i++).setCellValue(joined);
-        row.createCell(i++).setCellValue(sanitized.size());
+        row.text(joined);
+        row.number(sanitized.size());
 
         for (int n = 0; n < activityColumns; n++) {
             if (n < sanitized.size()) {
-                row.createCell(i++).setCellValue("Painting class");
-                setDateCell(row, i++, "2024-02-11", dateStyle);
+                row.text("Painting class");
+                setDateCell(row, "2024-02-11");
             } else {
-                row.createCell(i++).setCellValue("");
-                row.createCell(i++).setCellValue("");
+                row.text("");
+                row.text("");
             }
         }
-
-        return rowIndex;
     }
 
-    private static int writeOrganizationReportSection(Sheet sheet, int rowIndex,
-            List<Patient> patients,
-            List<EventSession> sessions,
-            List<com.aac.kpi.model.Practitioner> practitioners,
-            CellStyle headerStyle,
+    private static List<OrganizationReportRow> prepareOrganizationReport(ExportContext ctx,
             MasterData masterData) {
-        // Per request: columns for organization_report in Common sheet
-        String[] headers = { "S. No", "id", "version_id", "last_updated", "meta_code",
-                "start", "end", "aac_center_ids", "uen", "active", "organization_type_code",
-                "organization_type_display", "name" };
-        createHeaderRow(sheet, headers, rowIndex++, headerStyle);
-
-        Map<String, Patient> pIndex = new HashMap<>();
-        for (Patient p : patients) {
-            pIndex.put(p.getPatientId(), p);
-        }
         Map<String, List<MasterDataService.AacCenter>> centersByOrg = masterData.getAacCenters().stream()
                 .collect(Collectors.groupingBy(MasterDataService.AacCenter::organizationId));
 
         Map<String, LocalDateTime> earliestStartByAac = new HashMap<>();
         Map<String, LocalDateTime> latestEndByAac = new HashMap<>();
-        for (EventSession s : sessions) {
-            Patient p = pIndex.get(s.getEventSessionPatientReferences1());
+        for (SessionInfo s : ctx.sessions) {
+            Patient p = ctx.refs.patientById(s.rawPatientRefs());
             if (p == null)
                 continue;
             String aac = nvl(p.getAac());
-            LocalDateTime startDt = parseDateTime(s.getEventSessionStartDate1());
-            LocalDateTime endDt = parseDateTime(nvl(s.getEventSessionEndDate1()));
+            LocalDateTime startDt = s.start();
+            LocalDateTime endDt = s.end();
             if (endDt == null)
                 endDt = startDt;
             if (startDt != null)
@@ -1156,18 +957,8 @@ public class ExcelWriter {
                 latestEndByAac.merge(aac, endDt, (a, b) -> a.isAfter(b) ? a : b);
         }
 
-        int sno = 1;
-        // For organization_report, start and end should be dates (yyyy-MM-dd)
-        CellStyle dateStyleOrg = sheet.getWorkbook().createCellStyle();
-        dateStyleOrg.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd"));
+        List<OrganizationReportRow> rows = new ArrayList<>();
         for (MasterDataService.Organization org : masterData.getOrganizations()) {
-            Row row = sheet.createRow(rowIndex++);
-            int i = 0;
-            row.createCell(i++).setCellValue("organization_report_" + sno++);
-            row.createCell(i++).setCellValue(org.organizationId());
-            row.createCell(i++).setCellValue(1);
-            row.createCell(i++).setCellValue(nowIsoOffset("+08:00"));
-            row.createCell(i++).setCellValue(RandomDataUtil.uuid32().substring(0, 20));
             LocalDateTime sdt = null;
             LocalDateTime edt = null;
             List<MasterDataService.AacCenter> related = centersByOrg.getOrDefault(org.organizationId(), List.of());
@@ -1179,55 +970,70 @@ public class ExcelWriter {
                 if (end != null && (edt == null || end.isAfter(edt)))
                     edt = end;
             }
-            setDateCell(row, i++, dateOrDefault(sdt).format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), dateStyleOrg);
-            setDateCell(row, i++, dateOrDefault(edt).format(DateTimeFormatter.ofPattern("yyyy-MM-dd")), dateStyleOrg);
+            rows.add(new OrganizationReportRow(org, sdt, edt, related));
+        }
+        return Collections.unmodifiableList(rows);
+    }
+
+    private static void writeOrganizationReportSection(SheetSink out, List<OrganizationReportRow> rows) {
+        // Per request: columns for organization_report in Common sheet
+        out.section("organization_report", ORGANIZATION_TYPE, "S. No", "id", "version_id", "last_updated",
+                "meta_code", "start", "end", "aac_center_ids", "uen", "active", "organization_type_code",
+                "organization_type_display", "name");
+
+        int sno = 1;
+        // For organization_report, start and end should be dates (yyyy-MM-dd)
+        for (OrganizationReportRow orgRow : rows) {
+            MasterDataService.Organization org = orgRow.organization();
+            LocalDateTime sdt = orgRow.start();
+            LocalDateTime edt = orgRow.end();
+            List<MasterDataService.AacCenter> related = orgRow.centers();
+            SheetSink.Row row = out.row();
+            row.text("organization_report_" + sno++);
+            row.text(org.organizationId());
+            row.number(1);
+            row.text(nowIsoOffset("+08:00"));
+            row.text(RandomDataUtil.uuid32().substring(0, 20));
+            setDateCell(row, dateOrDefault(sdt).format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
+            setDateCell(row, dateOrDefault(edt).format(DateTimeFormatter.ofPattern("yyyy-MM-dd")));
             String aacList = related.stream().map(MasterDataService.AacCenter::aacCenterId)
                     .collect(Collectors.joining("##"));
-            row.createCell(i++).setCellValue(aacList);
-            row.createCell(i++).setCellValue(RandomDataUtil.randomUen());
-            row.createCell(i++).setCellValue("TRUE");
+            row.text(aacList);
+            row.text(RandomDataUtil.randomUen());
+            row.text("TRUE");
             if (org != null) {
-                row.createCell(i++).setCellValue(org.organizationType());
-                row.createCell(i++).setCellValue("AAC");
+                row.text(org.organizationType());
+                row.text("AAC");
                 String centerNames = related.stream()
                         .map(MasterDataService.AacCenter::aacCenterName)
                         .collect(Collectors.joining("##"));
-                row.createCell(i++).setCellValue(centerNames);
+                row.text(centerNames);
             } else {
-                row.createCell(i++).setCellValue("");
-                row.createCell(i++).setCellValue("");
-                row.createCell(i++).setCellValue("");
+                row.text("");
+                row.text("");
+                row.text("");
             }
         }
-        return rowIndex;
     }
 
-    private static int writeLocationReportSection(Sheet sheet, int rowIndex,
-            List<EventSession> sessions,
-            CellStyle headerStyle,
-            MasterData masterData) {
-        String[] headers = { "S. No", "id", "version_id", "last_updated", "meta_code",
-                "start", "end", "postal_code", "reference" };
-        createHeaderRow(sheet, headers, rowIndex++, headerStyle);
+    private static void writeLocationReportSection(SheetSink out, MasterData masterData) {
+        out.section("location_report", LOCATION_TYPE, "S. No", "id", "version_id", "last_updated", "meta_code",
+                "start", "end", "postal_code", "reference");
 
-        CellStyle dateStyleLoc = sheet.getWorkbook().createCellStyle();
-        dateStyleLoc.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd"));
         String urlPrefix = "https://pophealth.healthdpx.com/Organisation/";
         int sno = 1;
         for (MasterDataService.Location location : masterData.getLocations()) {
-            Row row = sheet.createRow(rowIndex++);
-            int i = 0;
-            row.createCell(i++).setCellValue("location_report_" + sno++);
-            row.createCell(i++).setCellValue(RandomDataUtil.uuid32().toUpperCase());
-            row.createCell(i++).setCellValue(1);
-            row.createCell(i++).setCellValue(nowIsoOffset("+08:00"));
-            row.createCell(i++).setCellValue(RandomDataUtil.uuid32().substring(0, 20));
-            setDateCell(row, i++, LocalDate.of(2025, 4, 1), dateStyleLoc);
-            setDateCell(row, i++, LocalDate.of(2026, 3, 31), dateStyleLoc);
-            row.createCell(i++).setCellValue(location.postalCode());
-            row.createCell(i).setCellValue(urlPrefix + location.organizationId());
+            SheetSink.Row row = out.row();
+            row.text("location_report_" + sno++);
+            row.text(RandomDataUtil.uuid32().toUpperCase());
+            row.number(1);
+            row.text(nowIsoOffset("+08:00"));
+            row.text(RandomDataUtil.uuid32().substring(0, 20));
+            setDateCell(row, LocalDate.of(2025, 4, 1));
+            setDateCell(row, LocalDate.of(2026, 3, 31));
+            row.text(location.postalCode());
+            row.text(urlPrefix + location.organizationId());
         }
-        return rowIndex;
     }
 
     private static String randomOrganizationReference() {
@@ -1251,310 +1057,475 @@ public class ExcelWriter {
         return subset;
     }
 
-    private static void writeAacReportSheet(XSSFWorkbook wb, List<Patient> patients, List<EventSession> sessions,
-            List<com.aac.kpi.model.Practitioner> practitioners) {
-        XSSFSheet sheet = wb.createSheet("aac_report");
-        String[] headers = new String[] {
-                "composition_id", "version_id", "last_updated", "meta_code",
-                "extension_reporting_month", "extension_total_operating_days", "extension_total_clients",
-                "status", "date", "author_value", "author_display", "practitioner_references"
-        };
-        createHeaderRow(sheet, headers);
-
-        Map<String, Long> clientsByAac = new HashMap<>();
-        for (Patient p : patients)
-            clientsByAac.merge(nvl(p.getAac()), 1L, Long::sum);
-
-        Map<String, LocalDateTime> latestByAac = new HashMap<>();
-        Map<String, Patient> patientIndex = new HashMap<>();
-        for (Patient p : patients)
-            patientIndex.put(p.getPatientId(), p);
-        for (EventSession s : sessions) {
-            Patient p = patientIndex.get(s.getEventSessionPatientReferences1());
-            if (p == null)
-                continue;
-            String aac = nvl(p.getAac());
-            LocalDateTime dt = parseDateTime(s.getEventSessionStartDate1());
-            if (dt != null)
-                latestByAac.merge(aac, dt, (a, b) -> a.isAfter(b) ? a : b);
-        }
+    private static NricSheetModel prepareEventSessionsNricSheet(ExportContext ctx, RegistrationData registrationData) {
+        List<NricSheetRow> rows = new ArrayList<>(ctx.orderedPatients.size());
+        for (PatientInfo info : ctx.orderedPatients) {
+            boolean hasIdentifier = !info.identifier().isBlank();
+            String identifier = hasIdentifier ? info.identifier() : info.id();
+            String idKey = hasIdentifier ? info.sanitizedIdentifier() : info.sanitizedId();
+            Integer idxColor = AppState.getHighlightColorIndex(identifier);
+            if (idxColor == null) idxColor = AppState.getHighlightColorIndex(idKey);
+            rows.add(new NricSheetRow(identifier,
+                    registrationData.lookupRegistrationIds(idKey),
+                    registrationData.lookupRegistrationValues(idKey),
+                    idxColor));
+        }
+        return new NricSheetModel(Math.max(1, registrationData.maxRegistrationPerPatient()),
+                Collections.unmodifiableList(rows));
+    }
 
-        DateTimeFormatter monthFmt = DateTimeFormatter.ofPattern("yyyy-MM");
-        int r = 1;
-        CellStyle dateTimeStyle = sheet.getWorkbook().createCellStyle();
-        dateTimeStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
-        for (Map.Entry<String, Long> e : clientsByAac.entrySet()) {
-            String aac = e.getKey();
-            int rowNumber = r;
-            Row row = sheet.createRow(r++);
-            int i = 0;
-            row.createCell(i++).setCellValue(RandomDataUtil.uuid32().toUpperCase());
-            row.createCell(i++).setCellValue(1);
-            row.createCell(i++).setCellValue(nowIsoOffset("+08:00"));
-            row.createCell(i++).setCellValue(RandomDataUtil.uuid32().substring(0, 20));
-            LocalDateTime ldt = latestByAac.getOrDefault(aac, LocalDateTime.now());
-            row.createCell(i++).setCellValue(reportingMonthWithOverride(ldt.format(monthFmt)));
-            row.createCell(i++).setCellValue(240);
-            row.createCell(i++).setCellValue(e.getValue().intValue());
-            row.createCell(i++).setCellValue("final");
-            setDateTimeCell(row, i++, reportDateWithOverride(nowStamp()), dateTimeStyle);
-            row.createCell(i++).setCellValue(aac);
-            row.createCell(i++).setCellValue("Active Ageing Centre " + aac.replaceAll("[^0-9]", ""));
-            row.createCell(i).setCellValue(String.join("##", practitioners.stream()
-                    .map(com.aac.kpi.model.Practitioner::getPractitionerId)
-                    .filter(Objects::nonNull).toList()));
-        }
-        autoSize(sheet, headers.length);
-    }
-
-    private static void writeEventSessionsNricSheet(XSSFWorkbook wb, List<Patient> patients, CellStyle highlightStyle, RegistrationData registrationData) {
-        XSSFSheet sheet = wb.createSheet("Event Sessions NRIC");
+    private static void writeEventSessionsNricSheet(SheetSink out, NricSheetModel model) {
         java.util.List<String> headerList = new java.util.ArrayList<>();
         headerList.add("patient_identifier_value");
         headerList.add("number_of_attended_indicator");
-        int maxCols = Math.max(1, registrationData.maxRegistrationPerPatient());
+        int maxCols = model.maxColumns();
         for (int n = 1; n <= maxCols; n++) {
             headerList.add("registration_id" + n);
             headerList.add("registration_value" + n);
         }
-        String[] headers = headerList.toArray(new String[0]);
-        createHeaderRow(sheet, headers);
+        out.sheet("Event Sessions NRIC", EVENT_SESSIONS_NRIC_TYPE, headerList.toArray(new String[0]));
 
-        int r = 1;
-        List<Patient> orderedPatients = new ArrayList<>(patients);
-        orderedPatients.sort(Comparator.comparingInt(p -> {
-            Integer o = AppState.getScenarioOrder(nvl(p.getPatientId()));
-            return o == null ? Integer.MAX_VALUE : o;
-        }));
-        for (Patient p : orderedPatients) {
-            Row row = sheet.createRow(r++);
-            int c = 0;
-            String identifier = nvl(p.getPatientIdentifierValue());
-            if (identifier.isBlank())
-                identifier = nvl(p.getPatientId());
-            String idKey = StringUtils.sanitizeAlphaNum(identifier);
-            java.util.List<String> regIds = registrationData.lookupRegistrationIds(idKey);
-            java.util.List<Boolean> regVals = registrationData.lookupRegistrationValues(idKey);
+        for (NricSheetRow nricRow : model.rows()) {
+            SheetSink.Row row = out.row();
+            String identifier = nricRow.identifier();
+            java.util.List<String> regIds = nricRow.registrationIds();
+            java.util.List<Boolean> regVals = nricRow.registrationValues();
             int count = regIds.size();
 
-            row.createCell(c++).setCellValue(identifier);
-            row.createCell(c++).setCellValue(count);
+            row.text(identifier);
+            row.number(count);
             for (int idx = 0; idx < maxCols; idx++) {
                 if (idx < regIds.size()) {
-                    row.createCell(c++).setCellValue(regIds.get(idx));
+                    row.text(regIds.get(idx));
                     boolean val = idx < regVals.size() ? Boolean.TRUE.equals(regVals.get(idx)) : false;
-                    row.createCell(c++).setCellValue(val ? "TRUE" : "FALSE");
+                    row.text(val ? "TRUE" : "FALSE");
                 } else {
-                    row.createCell(c++).setCellValue("");
-                    row.createCell(c++).setCellValue("");
+                    row.text("");
+                    row.text("");
                 }
             }
-            if (highlightStyle != null) {
-                String idSan = StringUtils.sanitizeAlphaNum(identifier);
-                Integer idxColor = AppState.getHighlightColorIndex(identifier);
-                if (idxColor == null) idxColor = AppState.getHighlightColorIndex(idSan);
-                applyHighlight(row, highlightStyle, idxColor);
+            row.highlight(nricRow.colorIndex());
+        }
+    }
+
+    /**
+     * Receives the export one sheet and one row at a time, in sheet order. The workbook and the
+     * JSON converter's report tables both implement it, so one pass over the prepared rows fills
+     * either or both with the same values.
+     */
+    private interface SheetSink {
+        String DATE_FORMAT = "yyyy-MM-dd";
+        String MONTH_FORMAT = "yyyy-MM";
+
+        /** Starts a master sheet; {@code reportType} is null for sheets the converter does not read. */
+        void sheet(String name, String reportType, String... headers);
+
+        /** Starts a titled section of the Common sheet, creating the sheet on first use. */
+        void section(String title, String reportType, String... headers);
+
+        /** Starts the next data row of the current sheet or section. */
+        Row row();
+
+        /** Adds a drop-down over one column of the current section's data rows, if it has any. */
+        void listValidation(int column, String promptTitle, String promptText, String... options);
+
+        void finish();
+
+        /** Cells of the current row, written left to right. */
+        interface Row {
+            void text(String value);
+
+            void number(double value);
+
+            /** A date cell in {@code format}; a null date writes an empty cell in that format. */
+            void date(LocalDate value, String format);
+
+            /** A Working Remarks cell, filled light yellow in the workbook. */
+            void remark(String value);
+
+            void highlight(Integer colorIndex);
+        }
+    }
+
+    private static final class WorkbookSink implements SheetSink, SheetSink.Row {
+        // Autosize columns (cover extended resident_report columns)
+        private static final int COMMON_SHEET_COLUMNS = 40;
+
+        private final Workbook wb;
+        private final CellStyle headerStyle;
+        private final CellStyle titleStyle;
+        private final CellStyle remarkStyle;
+        private final Map<String, CellStyle> dateStyles = new HashMap<>();
+        private final HighlightStylePool highlights;
+        private Sheet sheet;
+        private Sheet common;
+        private int columns;
+        private int rowIndex;
+        private int sectionStart;
+        private org.apache.poi.ss.usermodel.Row current;
+        private int cellIndex;
+
+        WorkbookSink(Workbook wb) {
+            this.wb = wb;
+            // Column Header Row - Light Blue #BDD7EE
+            this.headerStyle = boldFill(new java.awt.Color(189, 215, 238));
+            // Table Header Row (Title) - Green #00B050
+            this.titleStyle = boldFill(new java.awt.Color(0, 176, 80));
+            // Working Remarks body cell style (Light Yellow #FFF2CC)
+            this.remarkStyle = wb.createCellStyle();
+            ((XSSFCellStyle) remarkStyle).setFillForegroundColor(new XSSFColor(new Color(255, 242, 204), null));
+            remarkStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            this.highlights = new HighlightStylePool(wb, createHighlightStyle(wb));
+        }
+
+        private CellStyle boldFill(Color fill) {
+            CellStyle style = wb.createCellStyle();
+            Font bold = wb.createFont();
+            bold.setBold(true);
+            style.setFont(bold);
+            ((XSSFCellStyle) style).setFillForegroundColor(new XSSFColor(fill, null));
+            style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            return style;
+        }
+
+        @Override
+        public void sheet(String name, String reportType, String... headers) {
+            closeSheet();
+            sheet = wb.createSheet(name);
+            columns = headers.length;
+            rowIndex = 0;
+            writeHeaders(headers);
+        }
+
+        @Override
+        public void section(String title, String reportType, String... headers) {
+            if (common == null) {
+                closeSheet();
+                common = wb.createSheet("Common");
+                sheet = common;
+                columns = COMMON_SHEET_COLUMNS;
+                rowIndex = 0;
+            }
+            Cell cell = sheet.createRow(rowIndex++).createCell(0);
+            cell.setCellValue(title);
+            cell.setCellStyle(titleStyle);
+            writeHeaders(headers);
+        }
+
+        private void writeHeaders(String[] headers) {
+            org.apache.poi.ss.usermodel.Row header = sheet.createRow(rowIndex++);
+            for (int i = 0; i < headers.length; i++) {
+                Cell cell = header.createCell(i);
+                cell.setCellValue(headers[i]);
+                cell.setCellStyle(headerStyle);
+            }
+            fitColumnsToHeaders(sheet, headers);
+            sectionStart = rowIndex;
+        }
+
+        private void closeSheet() {
+            if (sheet != null)
+                autoSize(sheet, columns);
+        }
+
+        @Override
+        public SheetSink.Row row() {
+            current = sheet.createRow(rowIndex++);
+            cellIndex = 0;
+            return this;
+        }
+
+        @Override
+        public void listValidation(int column, String promptTitle, String promptText, String... options) {
+            int endRow = rowIndex - 1;
+            if (endRow < sectionStart)
+                return;
+            DataValidationHelper helper = sheet.getDataValidationHelper();
+            DataValidationConstraint constraint = helper.createExplicitListConstraint(options);
+            CellRangeAddressList regions = new CellRangeAddressList(sectionStart, endRow, column, column);
+            DataValidation validation = helper.createValidation(constraint, regions);
+            validation.setSuppressDropDownArrow(false);
+            validation.setShowErrorBox(true);
+            validation.createPromptBox(promptTitle, promptText);
+            validation.setShowPromptBox(true);
+            sheet.addValidationData(validation);
+        }
+
+        @Override
+        public void finish() {
+            closeSheet();
+            reorderSheetsForKpiTool(wb);
+        }
+
+        @Override
+        public void text(String value) {
+            current.createCell(cellIndex++).setCellValue(value);
+        }
+
+        @Override
+        public void number(double value) {
+            current.createCell(cellIndex++).setCellValue(value);
+        }
+
+        @Override
+        public void date(LocalDate value, String format) {
+            Cell cell = current.createCell(cellIndex++);
+            if (value == null)
+                cell.setCellValue("");
+            else
+                cell.setCellValue(java.sql.Date.valueOf(value));
+            cell.setCellStyle(dateStyles.computeIfAbsent(format, f -> {
+                CellStyle style = wb.createCellStyle();
+                style.setDataFormat(wb.createDataFormat().getFormat(f));
+                return style;
+            }));
+        }
+
+        @Override
+        public void remark(String value) {
+            Cell cell = current.createCell(cellIndex++);
+            cell.setCellValue(value);
+            cell.setCellStyle(remarkStyle);
+        }
+
+        @Override
+        public void highlight(Integer colorIndex) {
+            applyHighlight(current, highlights, colorIndex);
+        }
+
+        private static void reorderSheetsForKpiTool(Workbook wb) {
+            // JSON exporter relies on fixed sheet indexes beyond the Common tab.
+            List<String> desiredOrder = List.of(
+                    "Common",
+                    "Event Sessions",
+                    "Event Sessions NRIC",
+                    "Patient (Master)",
+                    "Practitioner (Master)",
+                    "Encounter (Master)",
+                    "QuestionnaireResponse (Master)");
+            int position = 0;
+            for (String name : desiredOrder) {
+                int idx = wb.getSheetIndex(name);
+                if (idx < 0)
+                    continue;
+                wb.setSheetOrder(name, position++);
             }
         }
-        autoSize(sheet, headers.length);
     }
 
-    private static void writeVolunteerAttendanceReportSheet(XSSFWorkbook wb, List<Patient> patients,
-            List<EventSession> sessions,
-            List<com.aac.kpi.model.Practitioner> practitioners) {
-        XSSFSheet sheet = wb.createSheet("volunteer_attendance_report");
-        String[] headers = new String[] {
-                "composition_id", "version_id", "last_updated", "meta_code",
-                "extension_reporting_month", "status", "date", "author_value", "author_display",
-                "practitioner_references", "number_of_practitioners"
-        };
-        createHeaderRow(sheet, headers);
-        Row row = sheet.createRow(1);
-        int i = 0;
-        CellStyle dateTimeStyle = sheet.getWorkbook().createCellStyle();
-        dateTimeStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
-        CellStyle monthStyle = sheet.getWorkbook().createCellStyle();
-        monthStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM"));
-        row.createCell(i++).setCellValue(RandomDataUtil.uuid32().toUpperCase());
-        row.createCell(i++).setCellValue(1);
-        setDateTimeCell(row, i++, nowIsoOffset("+08:00"), dateTimeStyle);
-        row.createCell(i++).setCellValue(RandomDataUtil.uuid32().substring(0, 20));
-        setMonthCell(row, i++, reportingMonthWithOverride(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM"))), monthStyle);
-        row.createCell(i++).setCellValue("final");
-        setDateTimeCell(row, i++, reportDateWithOverride(nowStamp()), dateTimeStyle);
-        String aac = patients.isEmpty() ? "AAC" : nvl(patients.get(0).getAac());
-        row.createCell(i++).setCellValue(aac);
-        row.createCell(i++).setCellValue("Active Ageing Centre " + aac.replaceAll("[^0-9]", ""));
-        String joined = String.join("##", practitioners.stream().map(com.aac.kpi.model.Practitioner::getPractitionerId)
-                .filter(Objects::nonNull).toList());
-        row.createCell(i++).setCellValue(joined);
-        row.createCell(i).setCellValue(practitioners.size());
-        autoSize(sheet, headers.length);
-    }
-
-    private static void writeEventReportSheet(XSSFWorkbook wb, List<Patient> patients, List<EventSession> sessions,
-            List<com.aac.kpi.model.Practitioner> practitioners) {
-        XSSFSheet sheet = wb.createSheet("event_report");
-        String[] headers = new String[] {
-                "composition_id", "version_id", "last_updated", "meta_code", "extension_reporting_month", "status",
-                "date",
-                "author_value", "author_display", "event_id", "event_name"
-        };
-        createHeaderRow(sheet, headers);
-        CellStyle dateTimeStyle = sheet.getWorkbook().createCellStyle();
-        dateTimeStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM-dd HH:mm:ss"));
-        CellStyle monthStyle = sheet.getWorkbook().createCellStyle();
-        monthStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("yyyy-MM"));
-        Map<String, Patient> patientIndex = new HashMap<>();
-        for (Patient p : patients)
-            patientIndex.put(p.getPatientId(), p);
-        int r = 1;
-        for (EventSession s : sessions) {
-            Row row = sheet.createRow(r++);
-            int i = 0;
-            row.createCell(i++).setCellValue(RandomDataUtil.uuid32().toUpperCase());
-            row.createCell(i++).setCellValue(1);
-            setDateTimeCell(row, i++, nowIsoOffset("+08:00"), dateTimeStyle);
-            row.createCell(i++).setCellValue(RandomDataUtil.uuid32().substring(0, 20));
-            LocalDateTime dt = parseDateTime(s.getEventSessionStartDate1());
-            setMonthCell(row, i++,
-                    reportingMonthWithOverride((dt != null ? dt : LocalDateTime.now()).format(DateTimeFormatter.ofPattern("yyyy-MM"))),
-                    monthStyle);
-            row.createCell(i++).setCellValue("final");
-            setDateTimeCell(row, i++, reportDateWithOverride(nowStamp()), dateTimeStyle);
-            Patient p = patientIndex.get(s.getEventSessionPatientReferences1());
-            String aac = p != null ? nvl(p.getAac()) : "AAC";
-            row.createCell(i++).setCellValue(aac);
-            row.createCell(i++).setCellValue("Active Ageing Centre " + aac.replaceAll("[^0-9]", ""));
-            row.createCell(i++).setCellValue(nvl(s.getEventSessionId1()));
-            String name = nvl(s.getEventSessionId1()).replaceAll("[0-9-]", "");
-            if (name.isEmpty())
-                name = nvl(s.getEventSessionVenue1());
-            row.createCell(i).setCellValue(name);
-        }
-        autoSize(sheet, headers.length);
-    }
-
-    private static void writeOrganizationReportSheet(XSSFWorkbook wb, List<Patient> patients,
-            List<EventSession> sessions,
-            List<com.aac.kpi.model.Practitioner> practitioners) {
-        XSSFSheet sheet = wb.createSheet("organization_report");
-        String[] headers = new String[] {
-                "organization_id", "organization_name", "total_sessions_held", "total_volunteers", "total_participants"
-        };
-        createHeaderRow(sheet, headers);
-        Map<String, Long> participants = new HashMap<>();
-        Map<String, Long> sessionsCount = new HashMap<>();
-        Map<String, Patient> pIndex = new HashMap<>();
-        for (Patient p : patients) {
-            pIndex.put(p.getPatientId(), p);
-            participants.merge(nvl(p.getAac()), 1L, Long::sum);
-        }
-        for (EventSession s : sessions) {
-            Patient p = pIndex.get(s.getEventSessionPatientReferences1());
-            if (p == null)
-                continue;
-            sessionsCount.merge(nvl(p.getAac()), 1L, Long::sum);
+    /** Fills the converter's {@link ReportTables}; formatting and highlights only exist in the workbook. */
+    private static final class ReportTableSink implements SheetSink, SheetSink.Row {
+        private final ReportTables tables;
+        // Null while writing a sheet the converter does not read
+        private ReportTables.Table table;
+        private ReportTables.Table current;
+
+        ReportTableSink(ReportTables tables) {
+            this.tables = tables;
         }
-        int r = 1;
-        for (String aac : participants.keySet()) {
-            Row row = sheet.createRow(r++);
-            int i = 0;
-            row.createCell(i++).setCellValue(aac);
-            row.createCell(i++).setCellValue("Active Ageing Centre " + aac.replaceAll("[^0-9]", ""));
-            row.createCell(i++).setCellValue(sessionsCount.getOrDefault(aac, 0L));
-            row.createCell(i++).setCellValue(practitioners.size());
-            row.createCell(i).setCellValue(participants.getOrDefault(aac, 0L));
+
+        @Override
+        public void sheet(String name, String reportType, String... headers) {
+            table = reportType == null ? null : tables.addMasterSheet(reportType, headers);
+        }
+
+        @Override
+        public void section(String title, String reportType, String... headers) {
+            table = tables.addReports(reportType, headers);
+        }
+
+        @Override
+        public SheetSink.Row row() {
+            current = table == null ? null : table.addRow();
+            return this;
+        }
+
+        @Override
+        public void listValidation(int column, String promptTitle, String promptText, String... options) {
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        @Override
+        public void text(String value) {
+            if (current != null)
+                current.text(value);
+        }
+
+        @Override
+        public void number(double value) {
+            if (current != null)
+                current.number(value);
+        }
+
+        @Override
+        public void date(LocalDate value, String format) {
+            if (value == null)
+                text("");
+            else if (current != null)
+                current.date(value);
+        }
+
+        @Override
+        public void remark(String value) {
+            text(value);
+        }
+
+        @Override
+        public void highlight(Integer colorIndex) {
         }
-        autoSize(sheet, headers.length);
     }
 
-    private static void writeLocationReportSheet(XSSFWorkbook wb, List<EventSession> sessions) {
-        XSSFSheet sheet = wb.createSheet("location_report");
-        String[] headers = new String[] {
-                "location_id", "location_name", "sessions_held", "total_attendance"
-        };
-        createHeaderRow(sheet, headers);
-        Map<String, long[]> stats = new HashMap<>(); // [sessions, attendance]
-        for (EventSession s : sessions) {
-            String v = nvl(s.getEventSessionVenue1());
-            long[] arr = stats.computeIfAbsent(v, k -> new long[2]);
-            arr[0] += 1;
-            if (s.isAttendedIndicator())
-                arr[1] += 1;
+    /** Writes every sheet and row to two sinks at once. */
+    private static final class BothSinks implements SheetSink, SheetSink.Row {
+        private final SheetSink first;
+        private final SheetSink second;
+        private SheetSink.Row firstRow;
+        private SheetSink.Row secondRow;
+
+        BothSinks(SheetSink first, SheetSink second) {
+            this.first = first;
+            this.second = second;
         }
-        int r = 1;
-        for (Map.Entry<String, long[]> e : stats.entrySet()) {
-            Row row = sheet.createRow(r++);
-            String id = e.getKey().replaceAll("[^A-Za-z0-9]", "");
-            row.createCell(0).setCellValue(id);
-            row.createCell(1).setCellValue(e.getKey());
-            row.createCell(2).setCellValue(e.getValue()[0]);
-            row.createCell(3).setCellValue(e.getValue()[1]);
+
+        @Override
+        public void sheet(String name, String reportType, String... headers) {
+            first.sheet(name, reportType, headers);
+            second.sheet(name, reportType, headers);
+        }
+
+        @Override
+        public void section(String title, String reportType, String... headers) {
+            first.section(title, reportType, headers);
+            second.section(title, reportType, headers);
+        }
+
+        @Override
+        public SheetSink.Row row() {
+            firstRow = first.row();
+            secondRow = second.row();
+            return this;
+        }
+
+        @Override
+        public void listValidation(int column, String promptTitle, String promptText, String... options) {
+            first.listValidation(column, promptTitle, promptText, options);
+            second.listValidation(column, promptTitle, promptText, options);
+        }
+
+        @Override
+        public void finish() {
+            first.finish();
+            second.finish();
+        }
+
+        @Override
+        public void text(String value) {
+            firstRow.text(value);
+            secondRow.text(value);
+        }
+
+        @Override
+        public void number(double value) {
+            firstRow.number(value);
+            secondRow.number(value);
+        }
+
+        @Override
+        public void date(LocalDate value, String format) {
+            firstRow.date(value, format);
+            secondRow.date(value, format);
+        }
+
+        @Override
+        public void remark(String value) {
+            firstRow.remark(value);
+            secondRow.remark(value);
+        }
+
+        @Override
+        public void highlight(Integer colorIndex) {
+            firstRow.highlight(colorIndex);
+            secondRow.highlight(colorIndex);
         }
-        autoSize(sheet, headers.length);
     }
 
-    private static LocalDateTime parseDateTime(String s) {
-        if (s == null || s.isBlank())
-            return null;
-        try {
-            return LocalDateTime.parse(s, DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm"));
-        } catch (Exception e) {
-            try {
-                return java.time.OffsetDateTime.parse(s, DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssXXX"))
-                        .toLocalDateTime();
-            } catch (Exception ignored) {
-                return null;
+    /**
+     * Sizes the first {@code cols} columns. Small in-memory sheets keep POI's exact
+     * autoSizeColumn; larger or streamed sheets use a character-count estimate over a bounded
+     * sample of rows, since font-metric measurement of every cell dominates export time.
+     */
+    private static void autoSize(Sheet sheet, int cols) {
+        if (!(sheet instanceof SXSSFSheet) && sheet.getLastRowNum() < AppState.getExactAutoSizeRowLimit()) {
+            for (int i = 0; i < cols; i++)
+                sheet.autoSizeColumn(i);
+            return;
+        }
+        int[] maxChars = new int[cols];
+        if (sheet instanceof SXSSFSheet) {
+            // Only rows still inside the streaming window can be read back; headers were fitted when written
+            for (Row row : sheet)
+                measureRow(row, maxChars);
+        } else {
+            int last = sheet.getLastRowNum();
+            int step = Math.max(1, (last + 1) / WIDTH_SAMPLE_ROWS);
+            for (int r = 0; r <= last; r += step) {
+                Row row = sheet.getRow(r);
+                if (row != null)
+                    measureRow(row, maxChars);
             }
         }
+        for (int i = 0; i < cols; i++) {
+            if (maxChars[i] > 0)
+                widenColumn(sheet, i, maxChars[i]);
+        }
     }
 
-    private static void createHeaderRow(Sheet sheet, String[] headers) {
-        Row header = sheet.createRow(0);
-        CellStyle style = sheet.getWorkbook().createCellStyle();
-        Font font = sheet.getWorkbook().createFont();
-        font.setBold(true);
-        style.setFont(font);
-        // Apply light blue fill to header row for all non-Common sheets
-        try {
-            ((org.apache.poi.xssf.usermodel.XSSFCellStyle) style)
-                    .setFillForegroundColor(
-                            new org.apache.poi.xssf.usermodel.XSSFColor(new java.awt.Color(189, 215, 238), null));
-            style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        } catch (Exception ignored) {
-            // If not XSSF, ignore fill color
-        }
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = header.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(style);
+    private static void measureRow(Row row, int[] maxChars) {
+        for (Cell cell : row) {
+            int col = cell.getColumnIndex();
+            if (col >= maxChars.length)
+                continue;
+            int len = displayLength(cell);
+            if (len > maxChars[col])
+                maxChars[col] = len;
         }
     }
 
-    // Overload to place a styled header at an arbitrary row index
-    private static void createHeaderRow(Sheet sheet, String[] headers, int rowIndex, CellStyle style) {
-        Row header = sheet.createRow(rowIndex);
-        CellStyle useStyle = style;
-        if (useStyle == null) {
-            useStyle = sheet.getWorkbook().createCellStyle();
-            Font f = sheet.getWorkbook().createFont();
-            f.setBold(true);
-            useStyle.setFont(f);
+    private static int displayLength(Cell cell) {
+        switch (cell.getCellType()) {
+            case STRING:
+                return cell.getStringCellValue().length();
+            case NUMERIC:
+                if (DateUtil.isCellDateFormatted(cell))
+                    return cell.getCellStyle().getDataFormatString().length();
+                double v = cell.getNumericCellValue();
+                return v == Math.rint(v) && Math.abs(v) < 1e15
+                        ? Long.toString((long) v).length()
+                        : Double.toString(v).length();
+            case BOOLEAN:
+                return 5;
+            default:
+                return 0;
         }
+    }
+
+    private static void fitColumnsToHeaders(Sheet sheet, String[] headers) {
         for (int i = 0; i < headers.length; i++) {
-            Cell cell = header.createCell(i);
-            cell.setCellValue(headers[i]);
-            cell.setCellStyle(useStyle);
+            // +1 for the bold header font
+            widenColumn(sheet, i, nvl(headers[i]).length() + 1);
         }
     }
 
-    private static void autoSize(Sheet sheet, int cols) {
-        for (int i = 0; i < cols; i++)
-            sheet.autoSizeColumn(i);
+    private static void widenColumn(Sheet sheet, int col, int chars) {
+        int width = Math.min(MAX_COLUMN_WIDTH, (chars + 2) * 256);
+        if (width > sheet.getColumnWidth(col))
+            sheet.setColumnWidth(col, width);
     }
 
-    private static CellStyle createHighlightStyle(XSSFWorkbook wb) {
+    private static CellStyle createHighlightStyle(Workbook wb) {
         CellStyle style = wb.createCellStyle();
         style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
         if (style instanceof XSSFCellStyle) {
@@ -1565,26 +1536,55 @@ public class ExcelWriter {
         return style;
     }
 
-    private static void applyHighlight(Row row, CellStyle template) {
-        applyHighlight(row, template, null);
+    private static void applyHighlight(Row row, HighlightStylePool pool) {
+        applyHighlight(row, pool, null);
     }
 
-    private static void applyHighlight(Row row, CellStyle template, Integer colorIndex) {
-        if (row == null || template == null) return;
-        Sheet sheet = row.getSheet();
-        if (sheet == null) return;
-        Workbook wb = sheet.getWorkbook();
-        XSSFColor scenarioColor = null;
-        if (colorIndex != null && wb instanceof XSSFWorkbook xssfWb) {
-            scenarioColor = colorForIndex(colorIndex, xssfWb);
-        }
+    private static void applyHighlight(Row row, HighlightStylePool pool, Integer colorIndex) {
+        if (row == null || pool == null) return;
         for (Cell cell : row) {
-            CellStyle base = cell.getCellStyle();
+            cell.setCellStyle(pool.styleFor(cell.getCellStyle(), colorIndex));
+        }
+    }
+
+    /**
+     * Workbook-scoped cache of highlighted cell styles. Each (base style, scenario colour) pair is
+     * cloned once and shared by every highlighted row across all sheets, keeping the workbook well
+     * below Excel's 64k cell-style limit.
+     */
+    private static final class HighlightStylePool {
+        // Slot used when no scenario colour applies and the template fill is kept
+        private static final int TEMPLATE_SLOT = -1;
+
+        private final Workbook wb;
+        private final CellStyle template;
+        private final Map<Long, CellStyle> styles = new HashMap<>();
+        private final XSSFColor[] scenarioColors = new XSSFColor[HIGHLIGHT_PALETTE.length];
+
+        HighlightStylePool(Workbook wb, CellStyle template) {
+            this.wb = wb;
+            this.template = template;
+        }
+
+        CellStyle styleFor(CellStyle base, Integer colorIndex) {
+            int slot = colorIndex == null ? TEMPLATE_SLOT : Math.floorMod(colorIndex, HIGHLIGHT_PALETTE.length);
+            int baseIndex = base == null ? 0 : base.getIndex() & 0xFFFF;
+            long key = ((long) baseIndex << 32) | (slot & 0xFFFFFFFFL);
+            CellStyle style = styles.get(key);
+            if (style == null) {
+                style = createStyle(base, slot);
+                styles.put(key, style);
+            }
+            return style;
+        }
+
+        private CellStyle createStyle(CellStyle base, int slot) {
             CellStyle clone = wb.createCellStyle();
             if (base != null) {
                 clone.cloneStyleFrom(base);
             }
             clone.setFillPattern(template.getFillPattern());
+            XSSFColor scenarioColor = slot == TEMPLATE_SLOT ? null : scenarioColor(slot);
             if (clone instanceof XSSFCellStyle xssfClone) {
                 if (scenarioColor != null) {
                     xssfClone.setFillForegroundColor(scenarioColor);
@@ -1596,29 +1596,48 @@ public class ExcelWriter {
             } else {
                 clone.setFillForegroundColor(template.getFillForegroundColor());
             }
-            cell.setCellStyle(clone);
+            return clone;
+        }
+
+        private XSSFColor scenarioColor(int slot) {
+            XSSFWorkbook xssfWb = xssfBacking(wb);
+            if (xssfWb == null)
+                return null;
+            if (scenarioColors[slot] == null)
+                scenarioColors[slot] = colorForIndex(slot, xssfWb);
+            return scenarioColors[slot];
         }
     }
 
+    private static XSSFWorkbook xssfBacking(Workbook wb) {
+        if (wb instanceof XSSFWorkbook xssf)
+            return xssf;
+        if (wb instanceof SXSSFWorkbook streaming)
+            return streaming.getXSSFWorkbook();
+        return null;
+    }
+
+    private static final Color[] HIGHLIGHT_PALETTE = new Color[] {
+            new Color(255, 235, 238), // light red
+            new Color(232, 245, 233), // light green
+            new Color(232, 234, 246), // light indigo
+            new Color(227, 242, 253), // light blue
+            new Color(255, 249, 230), // light amber
+            new Color(241, 248, 233), // light lime
+            new Color(252, 228, 236), // light pink
+            new Color(236, 239, 241)  // light gray
+    };
+
     private static XSSFColor colorForIndex(int idx, XSSFWorkbook wb) {
-        Color[] palette = new Color[] {
-                new Color(255, 235, 238), // light red
-                new Color(232, 245, 233), // light green
-                new Color(232, 234, 246), // light indigo
-                new Color(227, 242, 253), // light blue
-                new Color(255, 249, 230), // light amber
-                new Color(241, 248, 233), // light lime
-                new Color(252, 228, 236), // light pink
-                new Color(236, 239, 241)  // light gray
-        };
-        Color selected = palette[Math.floorMod(idx, palette.length)];
+        Color selected = HIGHLIGHT_PALETTE[Math.floorMod(idx, HIGHLIGHT_PALETTE.length)];
         return new XSSFColor(selected, wb.getStylesSource().getIndexedColors());
     }
 
-    private static RegistrationData buildRegistrationData(List<Patient> patients, RegistrationConfig cfg, String overrideType) {
+    private static RegistrationData buildRegistrationData(ExportContext ctx, RegistrationConfig cfg, String overrideType) {
         RegistrationData data = new RegistrationData();
-        for (Patient p : patients) {
-            List<Boolean> scenarioValues = scenarioRegValuesFor(p);
+        for (PatientInfo info : ctx.patients) {
+            Patient p = info.patient();
+            List<Boolean> scenarioValues = scenarioRegValuesFor(info);
             int count = !scenarioValues.isEmpty()
                     ? scenarioValues.size()
                     : resolveRegistrationCountForType(
@@ -1632,17 +1651,16 @@ public class ExcelWriter {
             }
             List<Boolean> values = alignRegistrationValues(count, scenarioValues);
             ids.sort(String.CASE_INSENSITIVE_ORDER);
-            data.registerPatient(p, ids, values);
+            data.registerPatient(info, ids, values);
         }
         return data;
     }
 
-    private static List<Boolean> scenarioRegValuesFor(Patient p) {
-        if (p == null) return List.of();
-        List<Boolean> vals = AppState.getScenarioRegistrationValues(nvl(p.getPatientId()));
-        if (vals.isEmpty()) vals = AppState.getScenarioRegistrationValues(StringUtils.sanitizeAlphaNum(nvl(p.getPatientId())));
-        if (vals.isEmpty()) vals = AppState.getScenarioRegistrationValues(nvl(p.getPatientIdentifierValue()));
-        if (vals.isEmpty()) vals = AppState.getScenarioRegistrationValues(StringUtils.sanitizeAlphaNum(nvl(p.getPatientIdentifierValue())));
+    private static List<Boolean> scenarioRegValuesFor(PatientInfo info) {
+        List<Boolean> vals = AppState.getScenarioRegistrationValues(info.id());
+        if (vals.isEmpty()) vals = AppState.getScenarioRegistrationValues(info.sanitizedId());
+        if (vals.isEmpty()) vals = AppState.getScenarioRegistrationValues(info.identifier());
+        if (vals.isEmpty()) vals = AppState.getScenarioRegistrationValues(info.sanitizedIdentifier());
         return vals;
     }
 
@@ -1691,15 +1709,15 @@ public class ExcelWriter {
         private final Map<String, String> registrationIdToNric = new HashMap<>();
         private int maxPerPatient = 0;
 
-        void registerPatient(Patient p, List<String> registrationIds, List<Boolean> registrationValues) {
-            if (registrationIds == null || registrationIds.isEmpty() || p == null) return;
+        void registerPatient(PatientInfo info, List<String> registrationIds, List<Boolean> registrationValues) {
+            if (registrationIds == null || registrationIds.isEmpty() || info == null) return;
             List<String> copyIds = List.copyOf(registrationIds);
             List<Boolean> copyVals = registrationValues == null ? List.of() : List.copyOf(registrationValues);
             maxPerPatient = Math.max(maxPerPatient, copyIds.size());
-            String pid = nvl(p.getPatientId());
-            String ident = nvl(p.getPatientIdentifierValue());
-            String pidSan = StringUtils.sanitizeAlphaNum(pid);
-            String identSan = StringUtils.sanitizeAlphaNum(ident);
+            String pid = info.id();
+            String ident = info.identifier();
+            String pidSan = info.sanitizedId();
+            String identSan = info.sanitizedIdentifier();
             putIfPresent(pid, copyIds, copyVals);
             putIfPresent(ident, copyIds, copyVals);
             putIfPresent(pidSan, copyIds, copyVals);
@@ -1753,7 +1771,186 @@ public class ExcelWriter {
         }
     }
 
+    /**
+     * Join indexes shared by every sheet and Common section of one export: patients by id,
+     * sanitized id and NRIC, pre-split session references, parsed session dates and the
+     * scenario-ordered patient list. Built once per saveToExcel call and read-only afterwards.
+     */
+    private static final class ExportContext {
+        final List<PatientInfo> patients;
+        final List<PatientInfo> orderedPatients;
+        final List<SessionInfo> sessions;
+        final ReferenceIndex refs;
+        // event_session_id1 -> sessions, in first-seen order of the source list
+        final Map<String, List<SessionInfo>> sessionsByEventId = new HashMap<>();
+        // raw patient reference -> sanitized composition_ids of its sessions, in scenario order
+        final Map<String, List<String>> eventIdsByPatientRef = new HashMap<>();
+
+        private ExportContext(List<PatientInfo> patients, List<SessionInfo> sessions, ReferenceIndex refs) {
+            this.patients = patients;
+            this.sessions = sessions;
+            this.refs = refs;
+            this.orderedPatients = sortByScenarioOrder(patients, PatientInfo::id);
+        }
+
+        static ExportContext build(List<Patient> patients, List<EventSession> sessions) {
+            List<PatientInfo> patientInfos = new ArrayList<>(patients.size());
+            for (Patient p : patients) {
+                String id = nvl(p.getPatientId());
+                String ident = nvl(p.getPatientIdentifierValue());
+                patientInfos.add(new PatientInfo(p, id, StringUtils.sanitizeAlphaNum(id),
+                        ident, StringUtils.sanitizeAlphaNum(ident)));
+            }
+            ReferenceIndex refs = ReferenceIndex.of(patients, sessions);
+            SessionStore store = SessionStore.of(sessions);
+            List<SessionInfo> sessionInfos = new ArrayList<>(store.size());
+            for (int i = 0; i < store.size(); i++) {
+                EventSession s = store.session(i);
+                sessionInfos.add(SessionInfo.of(s, refs.refs(s), store, i));
+            }
+            ExportContext ctx = new ExportContext(Collections.unmodifiableList(patientInfos),
+                    Collections.unmodifiableList(sessionInfos), refs);
+
+            for (SessionInfo info : sessionInfos) {
+                ctx.sessionsByEventId.computeIfAbsent(nvl(info.session().getEventSessionId1()), k -> new ArrayList<>())
+                        .add(info);
+            }
+            // Use sanitized composition_id so references in the patient sheet line up with the
+            // Event Sessions sheet.
+            for (SessionInfo info : sortByScenarioOrder(sessionInfos, SessionInfo::compositionId)) {
+                if (info.compositionId().isEmpty())
+                    continue;
+                for (String pid : info.patientRefs()) {
+                    ctx.eventIdsByPatientRef.computeIfAbsent(pid, k -> new ArrayList<>()).add(info.compositionId());
+                }
+            }
+            return ctx;
+        }
+
+        Patient findPatient(String ref) {
+            return refs.findPatient(ref);
+        }
+    }
+
+    private record PatientInfo(Patient patient, String id, String sanitizedId, String identifier,
+            String sanitizedIdentifier) {
+    }
+
+    /**
+     * One event session with its "##" references split once: trimmed (as written) and sanitized,
+     * plus start/end timestamps from the session store's columns.
+     */
+    private record SessionInfo(EventSession session, String compositionId, String rawPatientRefs,
+            String primaryPatientRef, List<String> patientRefs, List<String> sanitizedPatientRefs,
+            LocalDateTime start, LocalDateTime end) {
+
+        static SessionInfo of(EventSession s, ReferenceIndex.SessionRefs refs, SessionStore store, int row) {
+            return new SessionInfo(s,
+                    refs.compositionId(),
+                    refs.raw(),
+                    refs.primary(),
+                    refs.refs(),
+                    refs.sanitizedRefs(),
+                    SessionStore.toDateTime(store.startSecond(row)),
+                    SessionStore.toDateTime(store.endSecond(row)));
+        }
+    }
+
+    /**
+     * The prepare stages of one export, started concurrently on the common pool as soon as
+     * {@link #start} returns. Each sheet or Common section awaits only its own stage, so writing
+     * overlaps with the preparation still running.
+     */
+    private record PreparedExport(MasterData masterData,
+            CompletableFuture<AacReportModel> aacReport,
+            CompletableFuture<EventReportModel> eventReport,
+            CompletableFuture<List<OrganizationReportRow>> organizationReport,
+            CompletableFuture<List<EventSessionSheetRow>> eventSessionRows,
+            CompletableFuture<NricSheetModel> nricSheet,
+            CompletableFuture<List<PatientSheetRow>> patientRows,
+            CompletableFuture<List<Practitioner>> practitioners,
+            CompletableFuture<List<com.aac.kpi.model.Encounter>> encounters,
+            CompletableFuture<List<com.aac.kpi.model.QuestionnaireResponse>> questionnaires) {
+
+        static PreparedExport start(List<Patient> patients, List<EventSession> sessions,
+                List<com.aac.kpi.model.Practitioner> practitioners,
+                List<com.aac.kpi.model.Encounter> encounters,
+                List<com.aac.kpi.model.QuestionnaireResponse> questionnaires) {
+            MasterData masterData = AppState.getMasterData();
+            if (masterData == null) {
+                masterData = MasterDataService.generate();
+                AppState.setMasterData(masterData);
+            }
+
+            RegistrationConfig registrationConfig = RegistrationConfig.fromAppState();
+            String registrationOverrideType = AppState.getRegistrationOverrideType();
+            MasterData master = masterData;
+
+            // Joins, reference strings and registration lookups for each sheet/section are prepared
+            // concurrently; every section reads from one ExportContext built in a single pass over
+            // patients and sessions.
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            CompletableFuture<ExportContext> context = CompletableFuture.supplyAsync(
+                    () -> ExportContext.build(patients, sessions), pool);
+            CompletableFuture<RegistrationData> registrationData = context.thenApplyAsync(
+                    ctx -> buildRegistrationData(ctx, registrationConfig, registrationOverrideType), pool);
+            return new PreparedExport(master,
+                    context.thenApplyAsync(ctx -> prepareAacReport(ctx, practitioners), pool),
+                    context.thenCombineAsync(registrationData,
+                            (ctx, reg) -> prepareEventReport(ctx, practitioners, reg), pool),
+                    context.thenApplyAsync(ctx -> prepareOrganizationReport(ctx, master), pool),
+                    context.thenCombineAsync(registrationData, (ctx, reg) -> prepareEventSessionRows(ctx, reg), pool),
+                    context.thenCombineAsync(registrationData, (ctx, reg) -> prepareEventSessionsNricSheet(ctx, reg), pool),
+                    context.thenApplyAsync(ExcelWriter::preparePatientRows, pool),
+                    CompletableFuture.supplyAsync(
+                            () -> sortByScenarioOrder(practitioners, Practitioner::getPractitionerId), pool),
+                    CompletableFuture.supplyAsync(
+                            () -> sortByScenarioOrder(encounters, com.aac.kpi.model.Encounter::getEncounterId), pool),
+                    CompletableFuture.supplyAsync(
+                            () -> sortByScenarioOrder(questionnaires,
+                                    com.aac.kpi.model.QuestionnaireResponse::getQuestionnaireId), pool));
+        }
+    }
+
+    // Immutable per-sheet row models produced by the prepare* tasks and consumed by the sheet writers
+    private record PatientSheetRow(Patient patient, String attendedRefs, Integer colorIndex) {
+    }
+
+    private record EventSessionSheetRow(EventSession session, String compositionId, String patientReferences,
+            Integer colorIndex) {
+    }
+
+    private record NricSheetRow(String identifier, List<String> registrationIds, List<Boolean> registrationValues,
+            Integer colorIndex) {
+    }
+
+    private record NricSheetModel(int maxColumns, List<NricSheetRow> rows) {
+    }
+
+    private record AacReportModel(Map<String, Long> clientsByAac, Map<String, LocalDateTime> latestByAac,
+            List<String> practitionerIds) {
+    }
+
+    private record EventReportRow(String compositionId, LocalDateTime earliest, String authorValue,
+            String authorDisplay, String eventId, String eventName, String eventType, String eventCategory,
+            String aapProvider, int minimumRequiredSessions, String eventIsGui, String guiPartner,
+            int sessionsCount, String patientReferences, int totalPatientReferences) {
+    }
+
+    private record EventReportModel(int maxRefs, List<EventReportRow> rows) {
+    }
+
+    private record OrganizationReportRow(MasterDataService.Organization organization, LocalDateTime start,
+            LocalDateTime end, List<MasterDataService.AacCenter> centers) {
+    }
+
     private static final int EXCEL_TEXT_LIMIT = 32767;
+    // Rows kept in memory per sheet when exporting through SXSSF
+    private static final int STREAMING_WINDOW_ROWS = 500;
+    // Rows sampled per sheet by the column-width estimator
+    private static final int WIDTH_SAMPLE_ROWS = 2000;
+    // Excel's maximum column width (255 characters)
+    private static final int MAX_COLUMN_WIDTH = 255 * 256;
 
     private static String reportingMonthWithOverride(String fallback) {
         String override = AppState.getReportingMonthOverride();
@@ -1797,24 +1994,18 @@ public class ExcelWriter {
     private static final java.time.format.DateTimeFormatter ISO_OFFSET_NO_MS = java.time.format.DateTimeFormatter
             .ofPattern("yyyy-MM-dd'T'HH:mm:ssXXX");
 
-    private static void setDateCell(Row row, int idx, String value, CellStyle dateStyle) {
+    private static void setDateCell(SheetSink.Row row, String value) {
         String v = nvl(value);
         if (v.isEmpty()) {
-            Cell cell = row.createCell(idx);
-            cell.setCellValue("");
-            if (dateStyle != null)
-                cell.setCellStyle(dateStyle);
+            row.date(null, SheetSink.DATE_FORMAT);
             return;
         }
         java.time.LocalDate d = parseLocalDateFlexible(v);
         if (d != null) {
-            Cell cell = row.createCell(idx);
-            cell.setCellValue(java.sql.Date.valueOf(d));
-            if (dateStyle != null)
-                cell.setCellStyle(dateStyle);
+            row.date(d, SheetSink.DATE_FORMAT);
         } else {
             // Fallback: write the raw string; caller may adjust if needed
-            row.createCell(idx).setCellValue(v);
+            row.text(v);
         }
     }
 
@@ -1869,49 +2060,33 @@ public class ExcelWriter {
         return null;
     }
 
-    private static void setMonthCell(Row row, int idx, String value, CellStyle monthStyle) {
+    private static void setMonthCell(SheetSink.Row row, String value) {
         String v = nvl(value);
         if (v.isEmpty()) {
-            row.createCell(idx).setCellValue("");
-            if (monthStyle != null)
-                row.getCell(idx).setCellStyle(monthStyle);
+            row.date(null, SheetSink.MONTH_FORMAT);
             return;
         }
         java.time.YearMonth ym = parseYearMonthFlexible(v);
         if (ym != null) {
-            java.time.LocalDate d = ym.atDay(1);
-            Cell cell = row.createCell(idx);
-            cell.setCellValue(java.sql.Date.valueOf(d));
-            if (monthStyle != null)
-                cell.setCellStyle(monthStyle);
+            row.date(ym.atDay(1), SheetSink.MONTH_FORMAT);
         } else {
-            row.createCell(idx).setCellValue(v);
+            row.text(v);
         }
     }
 
-    private static void setDateCell(Row row, int idx, LocalDate date, CellStyle dateStyle) {
-        if (date == null) {
-            Cell cell = row.createCell(idx);
-            cell.setCellValue("");
-            if (dateStyle != null)
-                cell.setCellStyle(dateStyle);
-            return;
-        }
-        Cell cell = row.createCell(idx);
-        cell.setCellValue(java.sql.Date.valueOf(date));
-        if (dateStyle != null)
-            cell.setCellStyle(dateStyle);
+    private static void setDateCell(SheetSink.Row row, LocalDate date) {
+        row.date(date, SheetSink.DATE_FORMAT);
     }
 
-    private static void setDateTimeCell(Row row, int idx, String value, CellStyle dateTimeStyle) {
+    private static void setDateTimeCell(SheetSink.Row row, String value) {
         String v = nvl(value);
         if (v.isEmpty()) {
-            row.createCell(idx).setCellValue("");
+            row.text("");
             return;
         }
         // Always write as ISO text with explicit +08:00 so Excel shows the offset.
         String iso = toIsoOffset(v);
-        row.createCell(idx).setCellValue(iso.isEmpty() ? v : iso);
+        row.text(iso.isEmpty() ? v : iso);
     }
 
     private static String toIsoOffset(String s) {
@@ -0,0 +1,214 @@
+package com.aac.kpi.service;
+
+import com.aac.kpi.model.EventSession;
+import com.aac.kpi.model.Patient;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Keeps kpiType/kpiGroup current while the patient and session tables are edited. The per-patient
+ * tallies behind {@link KpiService#computeForFY} are built once on {@link #start()}; after that each
+ * list change or edit of a KPI-relevant field only subtracts/re-adds the touched sessions and
+ * reclassifies the patients they reference. Edits arrive through the rows' KPI input listeners, so
+ * watching a row does not create its JavaFX properties. Must be used from the thread that mutates
+ * the lists (the FX application thread).
+ */
+public final class IncrementalKpiEngine {
+    private final ObservableList<Patient> patients;
+    private final ObservableList<EventSession> sessions;
+    private final LocalDate fyStart;
+    private final LocalDate fyEnd;
+
+    private final Map<String, KpiService.Tally> tallies = new HashMap<>();
+    private final Map<EventSession, KpiService.Contribution> contributions = new IdentityHashMap<>();
+    // Rows whose KPI input listener is set to this engine
+    private final Set<EventSession> attachedSessions = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Patient> attachedPatients = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Patients currently indexed under each patient_id (ids are not guaranteed unique while editing)
+    private final Map<String, List<Patient>> patientsById = new HashMap<>();
+    private final Map<Patient, String> indexedIds = new IdentityHashMap<>();
+
+    private final ListChangeListener<EventSession> sessionListListener = this::onSessionsChanged;
+    private final ListChangeListener<Patient> patientListListener = this::onPatientsChanged;
+    // One instance each, shared by every row
+    private final Consumer<EventSession> sessionEdited = this::onSessionEdited;
+    private final Consumer<Patient> patientEdited = this::onPatientEdited;
+    private boolean running;
+
+    public IncrementalKpiEngine(ObservableList<Patient> patients, ObservableList<EventSession> sessions,
+                                LocalDate fyStart, LocalDate fyEnd) {
+        this.patients = patients;
+        this.sessions = sessions;
+        this.fyStart = fyStart;
+        this.fyEnd = fyEnd;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Indexes both tables, classifies every patient once and starts listening for changes. */
+    public void start() {
+        if (running) return;
+        running = true;
+        for (EventSession s : sessions) attach(s);
+        for (Patient p : patients) attach(p);
+        sessions.addListener(sessionListListener);
+        patients.addListener(patientListListener);
+        KpiConfig config = AppState.getKpiConfig();
+        for (Patient p : patients) classify(p, config);
+    }
+
+    /** Stops listening and drops the index; kpiType/kpiGroup keep their last values. */
+    public void stop() {
+        if (!running) return;
+        running = false;
+        sessions.removeListener(sessionListListener);
+        patients.removeListener(patientListListener);
+        for (EventSession s : new ArrayList<>(attachedSessions)) detach(s);
+        for (Patient p : new ArrayList<>(attachedPatients)) detach(p);
+        tallies.clear();
+        contributions.clear();
+        patientsById.clear();
+        indexedIds.clear();
+    }
+
+    private void onSessionsChanged(ListChangeListener.Change<? extends EventSession> change) {
+        Set<String> affected = new HashSet<>();
+        while (change.next()) {
+            if (change.wasPermutated()) continue;
+            for (EventSession s : change.getRemoved()) {
+                // setAll/replace may report a session as removed and re-added in one change
+                if (attachedSessions.contains(s)) collect(affected, detach(s));
+            }
+            for (EventSession s : change.getAddedSubList()) {
+                if (!attachedSessions.contains(s)) collect(affected, attach(s));
+            }
+        }
+        reclassify(affected);
+    }
+
+    private void onPatientsChanged(ListChangeListener.Change<? extends Patient> change) {
+        List<Patient> added = new ArrayList<>();
+        while (change.next()) {
+            if (change.wasPermutated()) continue;
+            for (Patient p : change.getRemoved()) {
+                if (attachedPatients.contains(p)) detach(p);
+            }
+            for (Patient p : change.getAddedSubList()) {
+                if (!attachedPatients.contains(p)) {
+                    attach(p);
+                    added.add(p);
+                }
+            }
+        }
+        KpiConfig config = AppState.getKpiConfig();
+        for (Patient p : added) classify(p, config);
+    }
+
+    private KpiService.Contribution attach(EventSession s) {
+        attachedSessions.add(s);
+        s.setKpiInputListener(sessionEdited);
+        KpiService.Contribution c = KpiService.Contribution.of(s, fyStart, fyEnd);
+        if (c != null) {
+            contributions.put(s, c);
+            c.addTo(tallies);
+        }
+        return c;
+    }
+
+    private KpiService.Contribution detach(EventSession s) {
+        if (attachedSessions.remove(s)) s.setKpiInputListener(null);
+        KpiService.Contribution c = contributions.remove(s);
+        if (c != null) c.removeFrom(tallies);
+        return c;
+    }
+
+    private void onSessionEdited(EventSession s) {
+        Set<String> affected = new HashSet<>();
+        KpiService.Contribution old = contributions.remove(s);
+        if (old != null) {
+            old.removeFrom(tallies);
+            collect(affected, old);
+        }
+        KpiService.Contribution now = KpiService.Contribution.of(s, fyStart, fyEnd);
+        if (now != null) {
+            contributions.put(s, now);
+            now.addTo(tallies);
+            collect(affected, now);
+        }
+        reclassify(affected);
+    }
+
+    private void attach(Patient p) {
+        attachedPatients.add(p);
+        p.setKpiInputListener(patientEdited);
+        index(p);
+    }
+
+    private void detach(Patient p) {
+        if (attachedPatients.remove(p)) p.setKpiInputListener(null);
+        unindex(p);
+    }
+
+    private void onPatientEdited(Patient p) {
+        if (!Objects.equals(indexedIds.get(p), blankToNull(p.getPatientId()))) {
+            unindex(p);
+            index(p);
+        }
+        classify(p, AppState.getKpiConfig());
+    }
+
+    private void index(Patient p) {
+        String id = p.getPatientId();
+        if (id == null || id.isBlank()) return;
+        indexedIds.put(p, id);
+        patientsById.computeIfAbsent(id, k -> new ArrayList<>(1)).add(p);
+    }
+
+    private void unindex(Patient p) {
+        String id = indexedIds.remove(p);
+        if (id == null) return;
+        List<Patient> list = patientsById.get(id);
+        if (list == null) return;
+        list.remove(p);
+        if (list.isEmpty()) patientsById.remove(id);
+    }
+
+    private static String blankToNull(String id) {
+        return id == null || id.isBlank() ? null : id;
+    }
+
+    private static void collect(Set<String> affected, KpiService.Contribution c) {
+        if (c == null) return;
+        for (String pid : c.patientIds()) affected.add(pid);
+    }
+
+    private void reclassify(Set<String> patientIds) {
+        if (patientIds.isEmpty()) return;
+        KpiConfig config = AppState.getKpiConfig();
+        for (String pid : patientIds) {
+            List<Patient> list = patientsById.get(pid);
+            if (list == null) continue;
+            for (Patient p : list) classify(p, config);
+        }
+    }
+
+    private void classify(Patient p, KpiConfig config) {
+        String pid = p.getPatientId();
+        KpiService.Tally t = pid == null || pid.isBlank() ? null : tallies.get(pid);
+        KpiService.classify(p, t == null ? KpiService.Tally.EMPTY : t, fyStart, fyEnd, config.rules());
+    }
+}
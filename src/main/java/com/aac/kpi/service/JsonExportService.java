@@ -1,15 +1,34 @@
 package com.aac.kpi.service;
 
+import com.aac.kpi.converter.ReportConfig;
 import com.aac.kpi.converter.ReportCounts;
+import com.aac.kpi.converter.ReportRunner;
+import com.aac.kpi.converter.ReportTables;
+import com.aac.kpi.model.CommonRow;
+import com.aac.kpi.model.Encounter;
+import com.aac.kpi.model.EventSession;
+import com.aac.kpi.model.Patient;
+import com.aac.kpi.model.Practitioner;
+import com.aac.kpi.model.QuestionnaireResponse;
 import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
 
 public final class JsonExportService {
     private JsonExportService() {}
@@ -17,6 +36,18 @@ public final class JsonExportService {
     // Allow larger compression ratios when reading XLSX files in the embedded converter
     private static final String MIN_INFLATE_RATIO = "0.0";
 
+    // Exit code reported when the user cancels an in-process conversion
+    public static final int CANCELLED_EXIT_CODE = 130;
+
+    private static final Set<String> COMMON_SECTIONS = Set.of(
+            "aac_report",
+            "resident_report",
+            "volunteer_attendance_report",
+            "event_report",
+            "organization_report",
+            "location_report"
+    );
+
     public static class Result {
         private final int exitCode;
         private final String output;
@@ -35,7 +66,7 @@ public final class JsonExportService {
     }
 
     /**
-     * Runs the external KPI-to-JSON converter JAR using the provided inputs.
+     * Converts the given workbook to JSON reports using the bundled converter.
      */
     public static Result run(File excel,
                              File outputFolder,
@@ -45,7 +76,84 @@ public final class JsonExportService {
                              int eventCount,
                              int organizationCount,
                              int locationCount) {
+        return run(excel, outputFolder, aacCount, residentCount, volunteerCount, eventCount,
+                organizationCount, locationCount, ReportRunner.ProgressListener.NONE, () -> false);
+    }
+
+    /**
+     * Runs {@link ReportRunner} on the calling (worker) thread, forwarding its progress to
+     * {@code listener} and stopping between steps once {@code cancelled} returns true. Reports are
+     * written as {@link AppState#getJsonReportOutput()} says. The external converter JAR, which
+     * always writes one file per report, is only used when
+     * {@link AppState#isUseExternalJsonConverter()} is set or the bundled converter cannot be loaded.
+     */
+    public static Result run(File excel,
+                             File outputFolder,
+                             int aacCount,
+                             int residentCount,
+                             int volunteerCount,
+                             int eventCount,
+                             int organizationCount,
+                             int locationCount,
+                             ReportRunner.ProgressListener listener,
+                             BooleanSupplier cancelled) {
         ZipSecureFile.setMinInflateRatio(Double.parseDouble(MIN_INFLATE_RATIO));
+        if (AppState.isUseExternalJsonConverter()) {
+            return runExternal(excel, outputFolder, aacCount, residentCount, volunteerCount, eventCount,
+                    organizationCount, locationCount);
+        }
+
+        String command = "in-process converter: " + excel.getAbsolutePath() + " -> " + outputFolder.getAbsolutePath();
+        StringBuilder log = new StringBuilder();
+        try {
+            ReportConfig config = new ReportConfig(
+                    excel.getAbsolutePath(),
+                    outputFolder.getAbsolutePath(),
+                    aacCount,
+                    residentCount,
+                    volunteerCount,
+                    eventCount,
+                    organizationCount,
+                    locationCount,
+                    AppState.getJsonReportOutput());
+            new ReportRunner().generateReports(config, logging(log, listener), cancelled);
+            return new Result(0, log.toString(), command);
+        } catch (CancellationException ex) {
+            log.append("Cancelled").append(System.lineSeparator());
+            return new Result(CANCELLED_EXIT_CODE, log.toString(), command);
+        } catch (LinkageError err) {
+            log.append("Bundled converter unavailable (").append(err).append("), falling back to converter JAR")
+                    .append(System.lineSeparator());
+            Result external = runExternal(excel, outputFolder, aacCount, residentCount, volunteerCount, eventCount,
+                    organizationCount, locationCount);
+            return new Result(external.getExitCode(), log + external.getOutput(), external.getCommand());
+        } catch (Exception ex) {
+            String message = ex.getMessage() == null ? ex.toString() : ex.getMessage();
+            log.append(message).append(System.lineSeparator());
+            return new Result(1, log.toString(), command);
+        }
+    }
+
+    private static ReportRunner.ProgressListener logging(StringBuilder log, ReportRunner.ProgressListener listener) {
+        ReportRunner.ProgressListener target = listener == null ? ReportRunner.ProgressListener.NONE : listener;
+        return (step, completed, total) -> {
+            log.append('[').append(completed).append('/').append(total).append("] ").append(step)
+                    .append(System.lineSeparator());
+            target.onProgress(step, completed, total);
+        };
+    }
+
+    /**
+     * Runs the external KPI-to-JSON converter JAR using the provided inputs.
+     */
+    private static Result runExternal(File excel,
+                                      File outputFolder,
+                                      int aacCount,
+                                      int residentCount,
+                                      int volunteerCount,
+                                      int eventCount,
+                                      int organizationCount,
+                                      int locationCount) {
         File jarFile = resolveJarFile(AppState.getJsonConverterJarPath());
         if (jarFile == null || !jarFile.isFile()) {
             String msg = "Converter JAR not found at " + AppState.getJsonConverterJarPath();
@@ -79,13 +187,106 @@ public final class JsonExportService {
         }
     }
 
+    /**
+     * Converts the in-memory tables straight to JSON: the converter's report tables and master
+     * sheets are built directly from the model lists, so no workbook is re-parsed and no converter
+     * process is spawned. When {@code excelCopy} is non-null the same rows are also saved there as
+     * the export workbook, so its generated ids and sample values match the JSON's.
+     */
+    public static Result runInProcess(List<Patient> patients,
+                                      List<EventSession> sessions,
+                                      List<Practitioner> practitioners,
+                                      List<Encounter> encounters,
+                                      List<QuestionnaireResponse> questionnaires,
+                                      List<CommonRow> commonRows,
+                                      File outputFolder,
+                                      File excelCopy) {
+        return runInProcess(patients, sessions, practitioners, encounters, questionnaires, commonRows,
+                outputFolder, excelCopy, ReportRunner.ProgressListener.NONE, () -> false);
+    }
+
+    public static Result runInProcess(List<Patient> patients,
+                                      List<EventSession> sessions,
+                                      List<Practitioner> practitioners,
+                                      List<Encounter> encounters,
+                                      List<QuestionnaireResponse> questionnaires,
+                                      List<CommonRow> commonRows,
+                                      File outputFolder,
+                                      File excelCopy,
+                                      ReportRunner.ProgressListener listener,
+                                      BooleanSupplier cancelled) {
+        String command = "in-process export to " + outputFolder.getAbsolutePath();
+        try {
+            StringBuilder log = new StringBuilder();
+            ReportTables tables = ExcelWriter.buildReportTables(patients, sessions, practitioners, encounters,
+                    questionnaires, commonRows, excelCopy);
+            if (excelCopy != null) {
+                AppState.setCurrentExcelFile(excelCopy);
+                log.append("Saved workbook to ").append(excelCopy.getAbsolutePath()).append(System.lineSeparator());
+            }
+            ReportCounts counts = tables.counts();
+            new ReportRunner().generateReports(tables, outputFolder.getAbsolutePath(),
+                    AppState.getJsonReportOutput(), listener, cancelled);
+            log.append("Generated ")
+                    .append(counts.aac()).append(" AAC, ")
+                    .append(counts.resident()).append(" resident, ")
+                    .append(counts.volunteerAttendance()).append(" volunteer attendance, ")
+                    .append(counts.eventReports()).append(" event, ")
+                    .append(counts.organization()).append(" organization and ")
+                    .append(counts.location()).append(" location reports");
+            return new Result(0, log.toString(), command);
+        } catch (CancellationException ex) {
+            return new Result(CANCELLED_EXIT_CODE, "Cancelled", command);
+        } catch (Exception ex) {
+            String message = ex.getMessage() == null ? ex.toString() : ex.getMessage();
+            return new Result(1, message, command);
+        }
+    }
+
+    /**
+     * Counts the data rows under each section title (aac_report, resident_report, ...) of the
+     * Common sheet, skipping the header row that follows each title.
+     */
+    public static Map<String, Integer> countCommonSections(Workbook wb) {
+        Map<String, Integer> counts = new HashMap<>();
+        Sheet sheet = wb.getSheet("Common");
+        if (sheet == null) return counts;
+        String currentSection = null;
+        boolean skipHeader = false;
+        for (Row row : sheet) {
+            Cell first = row.getCell(0);
+            String text = first != null ? first.toString().trim() : "";
+            if (!text.isBlank() && COMMON_SECTIONS.contains(text)) {
+                currentSection = text;
+                skipHeader = true;
+                continue;
+            }
+            if (currentSection == null) continue;
+            if (skipHeader) {
+                skipHeader = false;
+                continue;
+            }
+            if (isRowEmpty(row)) continue;
+            counts.merge(currentSection, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static boolean isRowEmpty(Row row) {
+        for (Cell cell : row) {
+            if (cell == null) continue;
+            if (cell.getCellType() == CellType.BLANK) continue;
+            if (!cell.toString().isBlank()) return false;
+        }
+        return true;
+    }
+
     /**
      * Attempts to detect report counts from the Common sheet if the user leaves fields blank.
      */
     public static ReportCounts detectCounts(File excel) {
         ZipSecureFile.setMinInflateRatio(Double.parseDouble(MIN_INFLATE_RATIO));
-        try {
-            com.aac.kpi.converter.ExcelOperations ops = new com.aac.kpi.converter.ExcelOperations(excel.getAbsolutePath());
+        try (com.aac.kpi.converter.ExcelOperations ops = new com.aac.kpi.converter.ExcelOperations(excel.getAbsolutePath())) {
             return ops.detectCountsFromCommonSheet();
         } catch (Exception ex) {
             return null;
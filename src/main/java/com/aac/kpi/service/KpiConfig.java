@@ -1,19 +1,41 @@
 package com.aac.kpi.service;
 
+import com.aac.kpi.model.RulesConfig;
+
+import java.util.List;
+
 public class KpiConfig {
     public int robustMinInPerson = 2;
     public int frailMinInPerson = 6;
     public int buddyingMinInPerson = 6;
     public int befriendingMinInPerson = 12;
+    // Tiers from rules-config.json; null means the built-in tiers
+    public List<RulesConfig.KpiTier> tiers;
+    // Tiers compiled against the thresholds above; rebuilt only when either has changed
+    private transient volatile KpiRuleTable rules;
 
     public KpiConfig() {}
 
+    /**
+     * The tiers compiled into a decision table. Compiled on first use (AppState does this when a
+     * config is applied) and reused by every classification until the tiers or a threshold change.
+     */
+    KpiRuleTable rules() {
+        KpiRuleTable table = rules;
+        if (table == null || !table.compiledFrom(this)) {
+            rules = table = KpiRuleTable.compile(this);
+        }
+        return table;
+    }
+
     public KpiConfig copy() {
         KpiConfig c = new KpiConfig();
         c.robustMinInPerson = this.robustMinInPerson;
         c.frailMinInPerson = this.frailMinInPerson;
         c.buddyingMinInPerson = this.buddyingMinInPerson;
         c.befriendingMinInPerson = this.befriendingMinInPerson;
+        c.tiers = this.tiers;
+        c.rules = this.rules;
         return c;
     }
 }
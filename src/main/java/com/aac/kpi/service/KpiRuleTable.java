@@ -0,0 +1,186 @@
+package com.aac.kpi.service;
+
+import com.aac.kpi.model.RulesConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * KPI tiers compiled against one {@link KpiConfig} into a decision table: each condition is a
+ * flat int/boolean column and rows are pre-bucketed by CFS, so matching a patient only walks the
+ * tiers that can apply to its CFS, in tier order, comparing plain ints.
+ */
+final class KpiRuleTable {
+    /** Row index returned by {@link #match} when no tier applies. */
+    static final int NO_MATCH = -1;
+
+    private static final int[] NO_ROWS = new int[0];
+    // Clinical Frailty Scale values run from 1 to 9; 0 is an unset CFS
+    private static final int MAX_CFS = 9;
+
+    private final String[] types;
+    private final String[] groups;
+    private final int[] rfMin;
+    private final int[] rfMax;
+    private final int[] minInPerson;
+    private final boolean[] requireScreening;
+    private final int[] minBuddying;
+    private final int[] minBefriending;
+    private final int[] minAap;
+    private final boolean[] requireBuddyingActive;
+    private final boolean[] requireBefriendingActive;
+    // Row indices in tier order, per CFS value from 0 to the largest cfsMax
+    private final int[][] rowsByCfs;
+    private final boolean needsProgramDates;
+    // What the table was compiled from, so KpiConfig can tell when its cached table is stale
+    private final List<RulesConfig.KpiTier> source;
+    private final int[] thresholds;
+
+    private KpiRuleTable(List<RulesConfig.KpiTier> tiers, KpiConfig config) {
+        source = config.tiers;
+        thresholds = thresholds(config);
+        int n = tiers.size();
+        types = new String[n];
+        groups = new String[n];
+        rfMin = new int[n];
+        rfMax = new int[n];
+        minInPerson = new int[n];
+        requireScreening = new boolean[n];
+        minBuddying = new int[n];
+        minBefriending = new int[n];
+        minAap = new int[n];
+        requireBuddyingActive = new boolean[n];
+        requireBefriendingActive = new boolean[n];
+
+        int maxCfs = -1;
+        boolean dates = false;
+        for (int i = 0; i < n; i++) {
+            RulesConfig.KpiTier t = tiers.get(i);
+            types[i] = t.kpiType == null ? "" : t.kpiType;
+            groups[i] = t.kpiGroup == null ? "" : t.kpiGroup;
+            rfMin[i] = t.rfMin == null ? Integer.MIN_VALUE : t.rfMin;
+            rfMax[i] = t.rfMax == null ? Integer.MAX_VALUE : t.rfMax;
+            minInPerson[i] = inPersonMinimum(t, config);
+            requireScreening[i] = t.requireScreening;
+            minBuddying[i] = t.minBuddying;
+            minBefriending[i] = t.minBefriending;
+            minAap[i] = t.minAap;
+            requireBuddyingActive[i] = t.requireBuddyingActive;
+            requireBefriendingActive[i] = t.requireBefriendingActive;
+            dates |= t.requireBuddyingActive || t.requireBefriendingActive;
+            maxCfs = Math.max(maxCfs, t.cfsMax);
+        }
+        needsProgramDates = dates;
+
+        rowsByCfs = new int[maxCfs + 1][];
+        List<Integer> rows = new ArrayList<>();
+        for (int cfs = 0; cfs <= maxCfs; cfs++) {
+            rows.clear();
+            for (int i = 0; i < n; i++) {
+                RulesConfig.KpiTier t = tiers.get(i);
+                if (cfs >= t.cfsMin && cfs <= t.cfsMax) rows.add(i);
+            }
+            rowsByCfs[cfs] = rows.isEmpty() ? NO_ROWS : rows.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Compiles {@code config.tiers}, or the built-in tiers when the config has none. Callers go
+     * through {@link KpiConfig#rules()}, which keeps the result until the config changes.
+     */
+    static KpiRuleTable compile(KpiConfig config) {
+        List<RulesConfig.KpiTier> tiers = config.tiers == null || config.tiers.isEmpty()
+                ? RulesConfig.defaultTiers() : config.tiers;
+        validate(tiers);
+        return new KpiRuleTable(tiers, config);
+    }
+
+    /**
+     * Rejects tiers the table cannot evaluate: an unknown named in-person threshold, a CFS range
+     * outside 0-9 or reversed, a reversed RF range or a negative minimum. Called when tiers are
+     * loaded, saved or applied, so a bad rules-config.json fails there instead of in Analyze.
+     */
+    static void validate(List<RulesConfig.KpiTier> tiers) {
+        if (tiers == null) return;
+        for (int i = 0; i < tiers.size(); i++) {
+            RulesConfig.KpiTier t = tiers.get(i);
+            String name = "KPI tier " + (i + 1);
+            if (t == null) throw new IllegalArgumentException(name + " is empty");
+            if (t.kpiType != null && !t.kpiType.isBlank()) name += " (" + t.kpiType + ")";
+            if (t.cfsMin < 0 || t.cfsMax > MAX_CFS || t.cfsMin > t.cfsMax) {
+                throw new IllegalArgumentException(name + ": CFS range " + t.cfsMin + "-" + t.cfsMax
+                        + " must lie within 0-" + MAX_CFS);
+            }
+            if (t.rfMin != null && t.rfMax != null && t.rfMin > t.rfMax) {
+                throw new IllegalArgumentException(name + ": RF range " + t.rfMin + "-" + t.rfMax + " is reversed");
+            }
+            if (t.minInPerson < 0 || t.minBuddying < 0 || t.minBefriending < 0 || t.minAap < 0) {
+                throw new IllegalArgumentException(name + ": minimum counts cannot be negative");
+            }
+            if (t.inPersonThreshold != null && !t.inPersonThreshold.isBlank() && thresholdIndex(t.inPersonThreshold) < 0) {
+                throw new IllegalArgumentException(name + ": unknown in-person threshold '" + t.inPersonThreshold
+                        + "' (expected robust, frail, buddying or befriending)");
+            }
+        }
+    }
+
+    /** Whether this table was compiled from {@code config}'s current tiers and thresholds. */
+    boolean compiledFrom(KpiConfig config) {
+        return source == config.tiers && Arrays.equals(thresholds, thresholds(config));
+    }
+
+    int size() {
+        return types.length;
+    }
+
+    String type(int row) {
+        return row == NO_MATCH ? "" : types[row];
+    }
+
+    String group(int row) {
+        return row == NO_MATCH ? "" : groups[row];
+    }
+
+    /** Whether any tier looks at programme dates; when false callers may skip parsing them. */
+    boolean needsProgramDates() {
+        return needsProgramDates;
+    }
+
+    /** Index of the first tier the patient satisfies, or {@link #NO_MATCH}. */
+    int match(int cfs, int rf, KpiService.Tally t, boolean buddyActive, boolean befActive) {
+        if (cfs < 0 || cfs >= rowsByCfs.length) return NO_MATCH;
+        for (int i : rowsByCfs[cfs]) {
+            if (rf < rfMin[i] || rf > rfMax[i]) continue;
+            if (t.inPerson < minInPerson[i]) continue;
+            if (requireScreening[i] && t.functionalScreens == 0) continue;
+            if (t.buddying < minBuddying[i] || t.befriending < minBefriending[i] || t.aap < minAap[i]) continue;
+            if (requireBuddyingActive[i] && !buddyActive) continue;
+            if (requireBefriendingActive[i] && !befActive) continue;
+            return i;
+        }
+        return NO_MATCH;
+    }
+
+    private static int inPersonMinimum(RulesConfig.KpiTier t, KpiConfig config) {
+        if (t.inPersonThreshold == null || t.inPersonThreshold.isBlank()) return t.minInPerson;
+        return thresholds(config)[thresholdIndex(t.inPersonThreshold)];
+    }
+
+    // Named thresholds in the order of thresholds(config); -1 for an unknown name
+    private static int thresholdIndex(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "robust" -> 0;
+            case "frail" -> 1;
+            case "buddying" -> 2;
+            case "befriending" -> 3;
+            default -> -1;
+        };
+    }
+
+    private static int[] thresholds(KpiConfig config) {
+        return new int[] {config.robustMinInPerson, config.frailMinInPerson,
+                config.buddyingMinInPerson, config.befriendingMinInPerson};
+    }
+}
@@ -4,14 +4,21 @@ import com.aac.kpi.model.EventSession;
 import com.aac.kpi.model.Patient;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 public final class KpiService {
-    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd[ HH:mm][ HH:mm:ss]");
     private static final DateTimeFormatter DATE_ONLY = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final String FUNCTIONAL_SCREEN = "Functional or Health Screening Client Self-Declaration";
+    // Below this many patients the fork-join overhead outweighs the classification work
+    private static final int PARALLEL_THRESHOLD = 4096;
 
     private KpiService() {}
 
@@ -22,104 +29,362 @@ public final class KpiService {
 
     public static void computeForFY(List<Patient> patients, List<EventSession> sessions,
                                     LocalDate fyStart, LocalDate fyEnd, KpiConfig config) {
-        for (Patient p : patients) {
-            p.setKpiType("");
-            p.setKpiGroup("");
+        classifyAll(patients, sessions, fyStart, fyEnd, config).apply();
+    }
 
-            int cfs = p.getCfs();
-            int rf = p.getSocialRiskFactor();
+    /**
+     * Classifies every patient without touching them, partitioning large cohorts across the
+     * common fork-join pool. Each patient's result lands in its own slot, so the outcome is the
+     * same as a sequential pass. Call {@link Classification#apply()} on the thread that owns the
+     * patients (the FX thread for UI lists) to write kpiType/kpiGroup back in one batch.
+     */
+    public static Classification classifyAll(List<Patient> patients, List<EventSession> sessions,
+                                             LocalDate fyStart, LocalDate fyEnd, KpiConfig config) {
+        SessionStore store = SessionStore.of(sessions);
+        Tally[] tallies = tally(store, List.of(new FyWindow(fyStart, fyEnd)))[0];
+        KpiRuleTable rules = config.rules();
+        List<Patient> snapshot = List.copyOf(patients);
+        int[] rows = new int[snapshot.size()];
+        IntStream range = IntStream.range(0, rows.length);
+        if (rows.length >= PARALLEL_THRESHOLD) range = range.parallel();
+        range.forEach(i -> {
+            Patient p = snapshot.get(i);
+            rows[i] = match(p, lookup(tallies, store, p.getPatientId()), fyStart, fyEnd, rules);
+        });
+        return new Classification(snapshot, rows, rules);
+    }
 
-            long inPersonCount = countInPerson(p.getPatientId(), sessions, fyStart, fyEnd, true);
-            boolean hasFunctionalScreen = hasPurpose(p.getPatientId(), sessions,
-                    "Functional or Health Screening Client Self-Declaration", fyStart, fyEnd);
+    /** kpiType/kpiGroup results for a list of patients, computed but not yet written back. */
+    public static final class Classification {
+        private final List<Patient> patients;
+        private final int[] rows;
+        private final KpiRuleTable rules;
 
-            // Robust
-            if (inRange(cfs,1,3)) {
-                if (inPersonCount >= config.robustMinInPerson && hasFunctionalScreen) { p.setKpiType("Robust"); p.setKpiGroup("Group 1"); continue; }
-            }
-            if (inRange(cfs,6,9)) {
-                if (inPersonCount >= config.robustMinInPerson && hasFunctionalScreen) { p.setKpiType("Robust (Group 2 – CFS 6-9)"); p.setKpiGroup("Group 2"); continue; }
+        private Classification(List<Patient> patients, int[] rows, KpiRuleTable rules) {
+            this.patients = patients;
+            this.rows = rows;
+            this.rules = rules;
+        }
+
+        public int size() {
+            return rows.length;
+        }
+
+        public String kpiType(int index) {
+            return rules.type(rows[index]);
+        }
+
+        public String kpiGroup(int index) {
+            return rules.group(rows[index]);
+        }
+
+        /** Writes the results to the patients they were computed for. */
+        public void apply() {
+            for (int i = 0; i < rows.length; i++) {
+                Patient p = patients.get(i);
+                p.setKpiType(rules.type(rows[i]));
+                p.setKpiGroup(rules.group(rows[i]));
             }
+        }
+    }
+
+    static void classify(Patient p, Tally t, LocalDate fyStart, LocalDate fyEnd, KpiRuleTable rules) {
+        int row = match(p, t, fyStart, fyEnd, rules);
+        p.setKpiType(rules.type(row));
+        p.setKpiGroup(rules.group(row));
+    }
 
-            // Frail
-            if (inRange(cfs,4,5)) {
-                if (inPersonCount >= config.frailMinInPerson && hasFunctionalScreen) { p.setKpiType("Frail"); p.setKpiGroup("Group 1"); continue; }
+    private static int match(Patient p, Tally t, LocalDate fyStart, LocalDate fyEnd, KpiRuleTable rules) {
+        boolean buddyActive = false;
+        boolean befActive = false;
+        if (rules.needsProgramDates()) {
+            buddyActive = programActiveWithinFY(parseDate(p.getBuddyingProgramStartDate()),
+                    parseDate(p.getBuddyingProgramEndDate()), fyStart, fyEnd);
+            befActive = programActiveWithinFY(parseDate(p.getBefriendingProgramStartDate()),
+                    parseDate(p.getBefriendingProgramEndDate()), fyStart, fyEnd);
+        }
+        return rules.match(p.getCfs(), p.getSocialRiskFactor(), t, buddyActive, befActive);
+    }
+
+    /** One financial-year window for {@link #evaluate}. */
+    public record FyWindow(LocalDate start, LocalDate end) {}
+
+    /**
+     * Patient counts for one config in one FY window, keyed by kpiType and by kpiGroup in rule
+     * order. Patients matching no rule are counted in {@code unclassified} only.
+     */
+    public record KpiCounts(KpiConfig config, FyWindow window, Map<String, Integer> byType,
+                            Map<String, Integer> byGroup, int unclassified) {
+        public int count(java.util.function.Predicate<String> kpiType) {
+            int n = 0;
+            for (Map.Entry<String, Integer> e : byType.entrySet()) {
+                if (kpiType.test(e.getKey())) n += e.getValue();
             }
-            if (inRange(cfs,6,9)) {
-                if (inPersonCount >= config.frailMinInPerson && hasFunctionalScreen) { p.setKpiType("Frail (Group 2 – Very Frail)"); p.setKpiGroup("Group 2"); continue; }
+            return n;
+        }
+    }
+
+    /**
+     * What-if evaluation: classifies every patient under each config in each window without
+     * touching the patients or sessions. Sessions are scanned once for all windows and each
+     * patient's inputs are read once for all configs. Results are ordered by window, then config.
+     */
+    public static List<KpiCounts> evaluate(List<Patient> patients, List<EventSession> sessions,
+                                           List<KpiConfig> configs, List<FyWindow> windows) {
+        return Evaluation.prepare(patients, sessions, windows).counts(configs);
+    }
+
+    /**
+     * The config-independent half of {@link #evaluate}: session tallies and each patient's CFS,
+     * RF and programme activity per window, read once. {@link #counts} then only matches rule
+     * tables, so callers that vary thresholds over the same cohort (the rules preview) keep one
+     * Evaluation until the patients or sessions change. Holds no reference to the model objects.
+     */
+    public static final class Evaluation {
+        private final List<FyWindow> windows;
+        private final int[] cfs;
+        private final int[] rf;
+        // Per window, per patient in list order
+        private final Tally[][] tallies;
+        private final boolean[][] buddyActive;
+        private final boolean[][] befActive;
+
+        private Evaluation(List<FyWindow> windows, int patients) {
+            this.windows = List.copyOf(windows);
+            cfs = new int[patients];
+            rf = new int[patients];
+            tallies = new Tally[windows.size()][patients];
+            buddyActive = new boolean[windows.size()][patients];
+            befActive = new boolean[windows.size()][patients];
+        }
+
+        public static Evaluation prepare(List<Patient> patients, List<EventSession> sessions, List<FyWindow> windows) {
+            SessionStore store = SessionStore.of(sessions);
+            Tally[][] byOrdinal = tally(store, windows);
+            Evaluation e = new Evaluation(windows, patients.size());
+            int i = 0;
+            for (Patient p : patients) {
+                String pid = p.getPatientId();
+                e.cfs[i] = p.getCfs();
+                e.rf[i] = p.getSocialRiskFactor();
+                LocalDate buddyStart = parseDate(p.getBuddyingProgramStartDate());
+                LocalDate buddyEnd = parseDate(p.getBuddyingProgramEndDate());
+                LocalDate befStart = parseDate(p.getBefriendingProgramStartDate());
+                LocalDate befEnd = parseDate(p.getBefriendingProgramEndDate());
+                for (int w = 0; w < windows.size(); w++) {
+                    FyWindow window = windows.get(w);
+                    e.tallies[w][i] = lookup(byOrdinal[w], store, pid);
+                    e.buddyActive[w][i] = programActiveWithinFY(buddyStart, buddyEnd, window.start(), window.end());
+                    e.befActive[w][i] = programActiveWithinFY(befStart, befEnd, window.start(), window.end());
+                }
+                i++;
             }
+            return e;
+        }
 
-            // Buddying
-            boolean buddyActive = programActiveWithinFY(p.getBuddyingProgramStartDate(), p.getBuddyingProgramEndDate(), fyStart, fyEnd);
-            long buddyCount = countPurpose(p.getPatientId(), sessions, "buddying", fyStart, fyEnd);
-            if (rf == 1) {
-                if (inRange(cfs,1,3) && inPersonCount >= config.buddyingMinInPerson && buddyCount >= 12 && buddyActive) { p.setKpiType("Buddying"); p.setKpiGroup("Group 1 (Robust)"); continue; }
-                if (inRange(cfs,4,5) && inPersonCount >= config.buddyingMinInPerson && buddyCount >= 12 && buddyActive) { p.setKpiType("Buddying (Frail)"); p.setKpiGroup("Group 2"); continue; }
-                if (inRange(cfs,6,9) && inPersonCount >= config.buddyingMinInPerson && buddyCount >= 12 && buddyActive) { p.setKpiType("Buddying (Very Frail)"); p.setKpiGroup("Group 3"); continue; }
+        /** Counts for each config in each prepared window, ordered by window, then config. */
+        public List<KpiCounts> counts(List<KpiConfig> configs) {
+            List<KpiRuleTable> rules = new ArrayList<>(configs.size());
+            for (KpiConfig config : configs) rules.add(config.rules());
+            // Per window and config, patients per matched tier; slot 0 counts unclassified patients
+            int[][] counts = new int[windows.size() * configs.size()][];
+            for (int i = 0; i < counts.length; i++) counts[i] = new int[rules.get(i % configs.size()).size() + 1];
+            for (int w = 0; w < windows.size(); w++) {
+                Tally[] t = tallies[w];
+                boolean[] buddy = buddyActive[w];
+                boolean[] bef = befActive[w];
+                for (int c = 0; c < configs.size(); c++) {
+                    KpiRuleTable table = rules.get(c);
+                    int[] row = counts[w * configs.size() + c];
+                    for (int i = 0; i < cfs.length; i++) {
+                        row[table.match(cfs[i], rf[i], t[i], buddy[i], bef[i]) + 1]++;
+                    }
+                }
             }
 
-            // Befriending (assumption: RF > 1)
-            boolean befActive = programActiveWithinFY(p.getBefriendingProgramStartDate(), p.getBefriendingProgramEndDate(), fyStart, fyEnd);
-            long befCount = countPurpose(p.getPatientId(), sessions, "befriending", fyStart, fyEnd);
-            long aap12 = countAAP(p.getPatientId(), sessions, fyStart, fyEnd);
-            if (rf > 1) {
-                if (inRange(cfs,1,3) && inPersonCount >= config.befriendingMinInPerson && aap12 >= 12 && befCount >= 52 && befActive) { p.setKpiType("Befriending (Robust)"); p.setKpiGroup("Group 1"); continue; }
-                if (inRange(cfs,4,5) && inPersonCount >= config.befriendingMinInPerson && aap12 >= 12 && befCount >= 52 && befActive) { p.setKpiType("Befriending (Frail)"); p.setKpiGroup("Group 2"); continue; }
-                if (inRange(cfs,6,9) && inPersonCount >= config.befriendingMinInPerson && aap12 >= 12 && befCount >= 52 && befActive) { p.setKpiType("Befriending (Very Frail)"); p.setKpiGroup("Group 3"); }
+            List<KpiCounts> result = new ArrayList<>(counts.length);
+            for (int w = 0; w < windows.size(); w++) {
+                for (int c = 0; c < configs.size(); c++) {
+                    int[] row = counts[w * configs.size() + c];
+                    KpiRuleTable table = rules.get(c);
+                    Map<String, Integer> byType = new LinkedHashMap<>();
+                    Map<String, Integer> byGroup = new LinkedHashMap<>();
+                    for (int i = 0; i < table.size(); i++) {
+                        byType.merge(table.type(i), row[i + 1], Integer::sum);
+                        byGroup.merge(table.group(i), row[i + 1], Integer::sum);
+                    }
+                    result.add(new KpiCounts(configs.get(c), windows.get(w), byType, byGroup, row[0]));
+                }
             }
+            return result;
         }
     }
 
-    private static boolean inRange(int v, int lo, int hi) { return v >= lo && v <= hi; }
+    /**
+     * Per-window tallies indexed by the store's patient ordinals, from one pass over the session
+     * columns. Purpose and mode criteria are decided once per dictionary entry, not per session.
+     */
+    private static Tally[][] tally(SessionStore store, List<FyWindow> windows) {
+        int patients = store.patientIds().size();
+        Tally[][] out = new Tally[windows.size()][patients];
+        long[] from = new long[windows.size()];
+        long[] to = new long[windows.size()];
+        for (int w = 0; w < windows.size(); w++) {
+            from[w] = windows.get(w).start().toEpochDay();
+            to[w] = windows.get(w).end().toEpochDay();
+        }
+
+        SessionStore.Dictionary purposes = store.purposes();
+        boolean[] screening = new boolean[purposes.size()];
+        boolean[] buddying = new boolean[purposes.size()];
+        boolean[] befriending = new boolean[purposes.size()];
+        boolean[] aapPurpose = new boolean[purposes.size()];
+        for (int c = 0; c < purposes.size(); c++) {
+            String purpose = purposes.value(c);
+            screening[c] = purpose.equalsIgnoreCase(FUNCTIONAL_SCREEN);
+            buddying[c] = purpose.equalsIgnoreCase("buddying");
+            befriending[c] = purpose.equalsIgnoreCase("befriending");
+            aapPurpose[c] = isAapPurpose(purpose);
+        }
+        SessionStore.Dictionary modes = store.modes();
+        boolean[] inPerson = new boolean[modes.size()];
+        for (int c = 0; c < modes.size(); c++) inPerson[c] = modes.value(c).equalsIgnoreCase("In-person");
 
-    private static long countInPerson(String pid, List<EventSession> sessions,
-                                      LocalDate fyStart, LocalDate fyEnd, boolean attendedOnly) {
-        return sessions.stream().filter(s -> sessionHasPatient(s, pid))
-                .filter(s -> eqIgnoreCase(s.getEventSessionMode1(), "In-person"))
-                .filter(s -> !attendedOnly || s.isAttendedIndicator())
-                .filter(s -> inFY(s.getEventSessionStartDate1(), fyStart, fyEnd))
-                .count();
+        // A patient listed twice on one session still counts that session once
+        int[] lastSession = new int[patients];
+        Arrays.fill(lastSession, -1);
+        int[] unique = new int[16];
+        for (int i = 0; i < store.size(); i++) {
+            int refCount = store.refCount(i);
+            if (refCount == 0) continue;
+            long day = store.startDay(i);
+            if (day == Long.MIN_VALUE) continue;
+            int purpose = store.purpose(i);
+            boolean attendedInPerson = inPerson[store.mode(i)] && store.attended(i);
+            if (!attendedInPerson && !screening[purpose] && !buddying[purpose] && !befriending[purpose]) continue;
+            boolean aap = attendedInPerson && aapPurpose[purpose];
+
+            int n = 0;
+            if (unique.length < refCount) unique = new int[refCount];
+            for (int k = 0; k < refCount; k++) {
+                int ord = store.ref(i, k);
+                if (lastSession[ord] == i) continue;
+                lastSession[ord] = i;
+                unique[n++] = ord;
+            }
+            for (int w = 0; w < windows.size(); w++) {
+                if (day < from[w] || day > to[w]) continue;
+                Tally[] tallies = out[w];
+                for (int k = 0; k < n; k++) {
+                    Tally t = tallies[unique[k]];
+                    if (t == null) tallies[unique[k]] = t = new Tally();
+                    if (attendedInPerson) t.inPerson++;
+                    if (screening[purpose]) t.functionalScreens++;
+                    if (buddying[purpose]) t.buddying++;
+                    if (befriending[purpose]) t.befriending++;
+                    if (aap) t.aap++;
+                }
+            }
+        }
+        return out;
     }
 
-    private static long countPurpose(String pid, List<EventSession> sessions, String purpose,
-                                     LocalDate fyStart, LocalDate fyEnd) {
-        return sessions.stream().filter(s -> sessionHasPatient(s, pid))
-                .filter(s -> eqIgnoreCase(s.getPurposeOfContact(), purpose))
-                .filter(s -> inFY(s.getEventSessionStartDate1(), fyStart, fyEnd))
-                .count();
+    private static Tally lookup(Tally[] tallies, SessionStore store, String pid) {
+        if (pid == null || pid.isBlank()) return Tally.EMPTY;
+        int ord = store.patientIds().find(pid);
+        Tally t = ord < 0 ? null : tallies[ord];
+        return t == null ? Tally.EMPTY : t;
     }
 
-    private static boolean hasPurpose(String pid, List<EventSession> sessions, String purpose,
-                                      LocalDate fyStart, LocalDate fyEnd) {
-        return countPurpose(pid, sessions, purpose, fyStart, fyEnd) > 0;
+    // Counts of one patient's in-FY sessions, by the criteria the classification rules use
+    static final class Tally {
+        static final Tally EMPTY = new Tally();
+
+        int inPerson;          // attended in-person sessions
+        int functionalScreens;
+        int buddying;
+        int befriending;
+        int aap;               // attended in-person sessions that are not buddying/befriending/screening
+
+        boolean isEmpty() {
+            return inPerson == 0 && functionalScreens == 0 && buddying == 0 && befriending == 0 && aap == 0;
+        }
+    }
+
+    /**
+     * What one session adds to the tallies of the patients it references. Kept per session by
+     * the incremental engine so an edited session can be subtracted and re-added.
+     */
+    record Contribution(String[] patientIds, boolean attendedInPerson, boolean screening,
+                        boolean buddying, boolean befriending, boolean aap) {
+
+        /** Returns null when the session is outside the FY, unreferenced, or matches no rule criterion. */
+        static Contribution of(EventSession s, LocalDate fyStart, LocalDate fyEnd) {
+            String raw = s.getEventSessionPatientReferences1();
+            if (raw == null || raw.isBlank()) return null;
+            if (!inFY(s.getEventSessionStartDate1(), fyStart, fyEnd)) return null;
+
+            boolean attendedInPerson = eqIgnoreCase(s.getEventSessionMode1(), "In-person") && s.isAttendedIndicator();
+            String purpose = s.getPurposeOfContact();
+            boolean screening = eqIgnoreCase(purpose, FUNCTIONAL_SCREEN);
+            boolean buddying = eqIgnoreCase(purpose, "buddying");
+            boolean befriending = eqIgnoreCase(purpose, "befriending");
+            if (!attendedInPerson && !screening && !buddying && !befriending) return null;
+            boolean aap = attendedInPerson && isAapPurpose(purpose);
+
+            // A patient listed twice on one session still counts that session once
+            List<String> refs = s.getPatientRefs().refs();
+            String[] ids = new String[refs.size()];
+            int n = 0;
+            outer:
+            for (String pid : refs) {
+                for (int i = 0; i < n; i++) {
+                    if (ids[i].equals(pid)) continue outer;
+                }
+                ids[n++] = pid;
+            }
+            if (n == 0) return null;
+            return new Contribution(n == ids.length ? ids : Arrays.copyOf(ids, n),
+                    attendedInPerson, screening, buddying, befriending, aap);
+        }
+
+        void addTo(Map<String, Tally> tallies) {
+            for (String pid : patientIds) {
+                apply(tallies.computeIfAbsent(pid, k -> new Tally()), 1);
+            }
+        }
+
+        void removeFrom(Map<String, Tally> tallies) {
+            for (String pid : patientIds) {
+                Tally t = tallies.get(pid);
+                if (t == null) continue;
+                apply(t, -1);
+                if (t.isEmpty()) tallies.remove(pid);
+            }
+        }
+
+        private void apply(Tally t, int sign) {
+            if (attendedInPerson) t.inPerson += sign;
+            if (screening) t.functionalScreens += sign;
+            if (buddying) t.buddying += sign;
+            if (befriending) t.befriending += sign;
+            if (aap) t.aap += sign;
+        }
     }
 
-    private static long countAAP(String pid, List<EventSession> sessions,
-                                 LocalDate fyStart, LocalDate fyEnd) {
-        // Treat any attended in-person session that is not a buddying/befriending/screening contact as AAP
-        return sessions.stream().filter(s -> sessionHasPatient(s, pid))
-                .filter(s -> eqIgnoreCase(s.getEventSessionMode1(), "In-person"))
-                .filter(EventSession::isAttendedIndicator)
-                .filter(s -> inFY(s.getEventSessionStartDate1(), fyStart, fyEnd))
-                .filter(s -> {
-                    String p = s.getPurposeOfContact();
-                    if (p == null) return true; // assume AAP
-                    String x = p.toLowerCase(Locale.ROOT);
-                    return !(x.contains("buddying") || x.contains("befriending")
-                            || x.contains("functional") || x.contains("screening"));
-                })
-                .count();
+    // Treat any attended in-person session that is not a buddying/befriending/screening contact as AAP
+    private static boolean isAapPurpose(String purpose) {
+        if (purpose == null) return true; // assume AAP
+        String x = purpose.toLowerCase(Locale.ROOT);
+        return !(x.contains("buddying") || x.contains("befriending")
+                || x.contains("functional") || x.contains("screening"));
     }
 
-    private static boolean programActiveWithinFY(String start, String end,
+    // Unset or unparseable dates leave that end of the programme open
+    private static boolean programActiveWithinFY(LocalDate start, LocalDate end,
                                                  LocalDate fyStart, LocalDate fyEnd) {
-        if ((start == null || start.isBlank()) && (end == null || end.isBlank())) return true; // assume active
-        LocalDate s = parseDate(start);
-        LocalDate e = parseDate(end);
-        if (s == null) s = LocalDate.MIN;
-        if (e == null) e = LocalDate.MAX;
         // Active if start <= fyEnd and (end is null or end >= fyStart)
-        return !s.isAfter(fyEnd) && !e.isBefore(fyStart);
+        return (start == null || !start.isAfter(fyEnd)) && (end == null || !end.isBefore(fyStart));
     }
 
     private static boolean eqIgnoreCase(String a, String b) {
@@ -127,42 +392,14 @@ public final class KpiService {
     }
 
     private static boolean inFY(String dateTimeStr, LocalDate fyStart, LocalDate fyEnd) {
-        LocalDate d = parseDateTime(dateTimeStr);
-        if (d == null) return false;
-        return !(d.isBefore(fyStart) || d.isAfter(fyEnd));
-    }
-
-    private static LocalDate parseDateTime(String s) {
-        if (s == null || s.isBlank()) return null;
-        try {
-            // Try plain local datetime (yyyy-MM-dd, with optional time)
-            LocalDateTime dt = LocalDateTime.parse(s, DATE_TIME);
-            return dt.toLocalDate();
-        } catch (Exception ignored) {
-            try {
-                // Try ISO 8601 with offset, e.g. 2025-08-24T09:00:00+08:00
-                java.time.OffsetDateTime odt = java.time.OffsetDateTime.parse(s);
-                return odt.toLocalDate();
-            } catch (Exception ignored2) {
-                try {
-                    return LocalDate.parse(s, DATE_ONLY);
-                } catch (Exception e) { return null; }
-            }
-        }
+        long seconds = SessionStore.parseSeconds(dateTimeStr);
+        if (seconds == SessionStore.NO_TIME) return false;
+        long day = Math.floorDiv(seconds, 86_400L);
+        return day >= fyStart.toEpochDay() && day <= fyEnd.toEpochDay();
     }
 
     private static LocalDate parseDate(String s) {
         if (s == null || s.isBlank()) return null;
         try { return LocalDate.parse(s, DATE_ONLY); } catch (Exception e) { return null; }
     }
-
-    private static boolean sessionHasPatient(EventSession s, String pid) {
-        if (pid == null || pid.isBlank()) return false;
-        String raw = s.getEventSessionPatientReferences1();
-        if (raw == null || raw.isBlank()) return false;
-        for (String part : raw.split("##")) {
-            if (pid.equals(part.trim())) return true;
-        }
-        return false;
-    }
 }
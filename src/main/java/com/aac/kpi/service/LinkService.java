@@ -12,28 +12,19 @@ public final class LinkService {
     private LinkService() {}
 
     public static void fillPatientAttendedRefs(List<Patient> patients, List<EventSession> sessions) {
-        Map<String, List<String>> map = new HashMap<>();
-        for (EventSession s : sessions) {
-            String raw = s.getEventSessionPatientReferences1();
-            if (raw == null || raw.isBlank()) continue;
+        fillPatientAttendedRefs(patients, ReferenceIndex.of(patients, sessions));
+    }
+
+    public static void fillPatientAttendedRefs(List<Patient> patients, ReferenceIndex index) {
+        for (Patient p : patients) {
             // Use the event composition_id (sanitized) so patient references
             // align with the Event Sessions sheet and downstream exports.
-            String eventId = sanitizeAlphaNum(s.getCompositionId());
-            if (eventId.isEmpty()) continue;
-            for (String part : raw.split("##")) {
-                String pid = part == null ? "" : part.trim();
-                if (pid.isEmpty()) continue;
-                map.computeIfAbsent(pid, k -> new ArrayList<>()).add(eventId);
+            List<String> refs = new ArrayList<>();
+            for (EventSession s : index.sessionsFor(p.getPatientId())) {
+                String eventId = index.refs(s).compositionId();
+                if (!eventId.isEmpty()) refs.add(eventId);
             }
-        }
-        for (Patient p : patients) {
-            List<String> refs = map.getOrDefault(p.getPatientId(), Collections.emptyList());
             p.setAttendedEventReferences(String.join("##", refs));
         }
     }
-
-    private static String sanitizeAlphaNum(String s) {
-        if (s == null) return "";
-        return s.replaceAll("[^A-Za-z0-9]", "");
-    }
 }
@@ -64,7 +64,14 @@ public class RagRuleService {
         this.commons = commons;
         this.scenarios = scenarios;
         this.ruleGraph = RuleGraphService.ensureFile();
-        this.rulesConfig = RulesConfigService.ensureFile();
+        RulesConfig loaded;
+        try {
+            loaded = RulesConfigService.ensureFile();
+        } catch (IllegalArgumentException ex) {
+            // The Rules tab reports the bad tiers; RAG checks only need the other settings
+            loaded = RulesConfig.defaults();
+        }
+        this.rulesConfig = loaded;
         memoryStore.load();
     }
 
@@ -0,0 +1,169 @@
+package com.aac.kpi.service;
+
+import com.aac.kpi.model.Encounter;
+import com.aac.kpi.model.EventSession;
+import com.aac.kpi.model.Patient;
+import com.aac.kpi.model.PatientRefs;
+import com.aac.kpi.model.QuestionnaireResponse;
+import com.aac.kpi.util.CanonicalId;
+import com.aac.kpi.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Patient links across the master lists, built in one pass: each session's "##" patient
+ * references are split, trimmed and sanitized once, and sessions, encounters and questionnaires
+ * are indexed by the patient reference they carry, both as written and sanitized (so
+ * "Patient/&lt;id&gt;" style references still join). Patients resolve by id or NRIC, raw or
+ * sanitized. A snapshot: build a new index after the lists change.
+ */
+public final class ReferenceIndex {
+    private final Map<EventSession, SessionRefs> sessionRefs = new IdentityHashMap<>();
+    // Reference -> sessions, one entry per occurrence, in session list order
+    private final Map<String, List<EventSession>> sessionsByRef = new HashMap<>();
+    private final Map<CanonicalId, List<EventSession>> sessionsBySanitizedRef = new HashMap<>();
+    private final Map<String, List<EventSession>> sessionsByRawRefs = new HashMap<>();
+    private final Map<String, List<Encounter>> encountersByRef = new HashMap<>();
+    private final Map<CanonicalId, List<Encounter>> encountersBySanitizedRef = new HashMap<>();
+    private final Map<String, List<QuestionnaireResponse>> questionnairesByRef = new HashMap<>();
+    private final Map<CanonicalId, List<QuestionnaireResponse>> questionnairesBySanitizedRef = new HashMap<>();
+    private final Map<String, Patient> byId = new HashMap<>();
+    private final Map<CanonicalId, Patient> bySanitizedId = new HashMap<>();
+    private final Map<String, Patient> byIdentifier = new HashMap<>();
+    private final Map<CanonicalId, Patient> byIdentifierSanitized = new HashMap<>();
+
+    /** One session's parsed patient references plus its sanitized composition_id. */
+    public record SessionRefs(String compositionId, PatientRefs patientRefs) {
+        static final SessionRefs NONE = new SessionRefs("", PatientRefs.NONE);
+
+        public String raw() { return patientRefs.raw(); }
+        public String primary() { return patientRefs.primary(); }
+        public List<String> refs() { return patientRefs.refs(); }
+        public List<String> sanitizedRefs() { return patientRefs.sanitizedRefs(); }
+    }
+
+    private ReferenceIndex() {}
+
+    public static ReferenceIndex of(List<Patient> patients, List<EventSession> sessions) {
+        return of(patients, sessions, List.of(), List.of());
+    }
+
+    public static ReferenceIndex of(List<Patient> patients, List<EventSession> sessions,
+                                    List<Encounter> encounters, List<QuestionnaireResponse> questionnaires) {
+        ReferenceIndex idx = new ReferenceIndex();
+        for (Patient p : patients) {
+            String id = p.getPatientId();
+            if (id != null) {
+                idx.byId.put(id, p);
+                idx.bySanitizedId.put(CanonicalId.of(id), p);
+            }
+            String ident = p.getPatientIdentifierValue() == null ? "" : p.getPatientIdentifierValue();
+            if (!ident.isBlank()) {
+                idx.byIdentifier.put(ident, p);
+                idx.byIdentifierSanitized.put(CanonicalId.of(ident), p);
+            }
+        }
+        for (EventSession s : sessions) {
+            PatientRefs refs = s.getPatientRefs();
+            idx.sessionRefs.put(s, new SessionRefs(StringUtils.sanitizeAlphaNum(s.getCompositionId()), refs));
+            if (s.getEventSessionPatientReferences1() != null) {
+                add(idx.sessionsByRawRefs, s.getEventSessionPatientReferences1(), s);
+            }
+            for (String ref : refs.refs()) add(idx.sessionsByRef, ref, s);
+            for (CanonicalId id : refs.ids()) add(idx.sessionsBySanitizedRef, id, s);
+        }
+        for (Encounter e : encounters) {
+            String ref = e.getEncounterPatientReference();
+            if (ref == null) continue;
+            add(idx.encountersByRef, ref, e);
+            CanonicalId id = CanonicalId.of(ref);
+            if (!id.isEmpty()) add(idx.encountersBySanitizedRef, id, e);
+        }
+        for (QuestionnaireResponse q : questionnaires) {
+            String ref = q.getQuestionnairePatientReference();
+            if (ref == null) continue;
+            add(idx.questionnairesByRef, ref, q);
+            CanonicalId id = CanonicalId.of(ref);
+            if (!id.isEmpty()) add(idx.questionnairesBySanitizedRef, id, q);
+        }
+        return idx;
+    }
+
+    private static <K, T> void add(Map<K, List<T>> map, K key, T value) {
+        map.computeIfAbsent(key, k -> new ArrayList<>(2)).add(value);
+    }
+
+    /** Split references of a session in this index; sessions added later read as unreferenced. */
+    public SessionRefs refs(EventSession s) {
+        SessionRefs r = sessionRefs.get(s);
+        return r == null ? SessionRefs.NONE : r;
+    }
+
+    /** Sessions listing {@code ref} (trimmed, as written), once per listing. */
+    public List<EventSession> sessionsFor(String ref) {
+        return get(sessionsByRef, ref);
+    }
+
+    /** Sessions whose patient reference cell is exactly {@code raw}. */
+    public List<EventSession> sessionsWithRawRefs(String raw) {
+        return get(sessionsByRawRefs, raw);
+    }
+
+    /**
+     * Sessions for a patient: by sanitized id first, falling back to the unsanitized reference
+     * cell when nothing matches sanitized.
+     */
+    public List<EventSession> sessionsForPatient(String patientId) {
+        List<EventSession> list = get(sessionsBySanitizedRef, CanonicalId.of(patientId));
+        return list.isEmpty() ? get(sessionsByRawRefs, patientId) : list;
+    }
+
+    /** Encounters for a patient, sanitized match first, then the exact reference. */
+    public List<Encounter> encountersForPatient(String patientId) {
+        List<Encounter> list = get(encountersBySanitizedRef, CanonicalId.of(patientId));
+        return list.isEmpty() ? get(encountersByRef, patientId) : list;
+    }
+
+    /** Questionnaires for a patient, sanitized match first, then the exact reference. */
+    public List<QuestionnaireResponse> questionnairesForPatient(String patientId) {
+        List<QuestionnaireResponse> list = get(questionnairesBySanitizedRef, CanonicalId.of(patientId));
+        return list.isEmpty() ? get(questionnairesByRef, patientId) : list;
+    }
+
+    public boolean hasPatientId(String id) {
+        return byId.containsKey(id);
+    }
+
+    /** Patient with exactly this patient_id; the last one wins when ids repeat. */
+    public Patient patientById(String id) {
+        return id == null ? null : byId.get(id);
+    }
+
+    /** Patient whose sanitized patient_id is {@code sanitizedId}; other strings never match. */
+    public Patient patientBySanitizedId(String sanitizedId) {
+        return StringUtils.isAlphaNum(sanitizedId) ? bySanitizedId.get(CanonicalId.of(sanitizedId)) : null;
+    }
+
+    /** Resolves a reference as a patient id, then sanitized id, then NRIC, then sanitized NRIC. */
+    public Patient findPatient(String ref) {
+        if (ref == null) return null;
+        Patient p = byId.get(ref);
+        // Only an already-sanitized reference can equal a sanitized key
+        CanonicalId id = StringUtils.isAlphaNum(ref) ? CanonicalId.of(ref) : null;
+        if (p == null && id != null) p = bySanitizedId.get(id);
+        if (p == null) p = byIdentifier.get(ref);
+        if (p == null && id != null) p = byIdentifierSanitized.get(id);
+        return p;
+    }
+
+    private static <K, T> List<T> get(Map<K, List<T>> map, K key) {
+        if (key == null) return List.of();
+        List<T> list = map.get(key);
+        return list == null ? List.of() : Collections.unmodifiableList(list);
+    }
+}
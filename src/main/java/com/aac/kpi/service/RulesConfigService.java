@@ -27,21 +27,30 @@ public final class RulesConfigService {
         return load(defaultFile());
     }
 
+    /**
+     * Reads {@code file}, falling back to defaults when it is missing or unreadable. KPI tiers that
+     * parse but cannot be evaluated are not replaced silently: they throw IllegalArgumentException.
+     */
     public static RulesConfig load(File file) {
         if (file == null) {
             return RulesConfig.defaults();
         }
+        RulesConfig cfg;
         try {
             if (!file.exists()) {
                 return RulesConfig.defaults();
             }
             try (FileReader reader = new FileReader(file)) {
-                RulesConfig cfg = GSON.fromJson(reader, RulesConfig.class);
-                return cfg == null ? RulesConfig.defaults() : cfg;
+                cfg = GSON.fromJson(reader, RulesConfig.class);
             }
         } catch (Exception ex) {
             return RulesConfig.defaults();
         }
+        if (cfg == null) {
+            return RulesConfig.defaults();
+        }
+        validateTiers(cfg, file);
+        return cfg;
     }
 
     public static void save(RulesConfig cfg) throws Exception {
@@ -55,6 +64,7 @@ public final class RulesConfigService {
         if (file == null) {
             file = defaultFile();
         }
+        validateTiers(cfg, file);
         File parent = file.getParentFile();
         if (parent != null && !parent.exists()) {
             Files.createDirectories(parent.toPath());
@@ -64,6 +74,14 @@ public final class RulesConfigService {
         }
     }
 
+    private static void validateTiers(RulesConfig cfg, File file) {
+        try {
+            KpiRuleTable.validate(cfg.tiers);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid KPI tiers in " + file.getPath() + ": " + ex.getMessage(), ex);
+        }
+    }
+
     public static RulesConfig ensureFile() {
         File f = defaultFile();
         if (!f.exists()) {
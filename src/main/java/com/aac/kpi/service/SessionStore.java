@@ -0,0 +1,214 @@
+package com.aac.kpi.service;
+
+import com.aac.kpi.model.EventSession;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Event sessions as columns for the engine layer (KPI, Common building, export). Start/end are
+ * parsed once into epoch seconds of the local date-time; mode, purpose and venue are dictionary
+ * codes; patient references are ordinals into a dictionary of trimmed patient ids, stored as one
+ * flat array with per-session offsets. Built once per operation from the UI's EventSession rows,
+ * which remain the editable view; the store is a read-only snapshot.
+ */
+public final class SessionStore {
+    /** Value of a start/end column when the cell is blank or not a recognised date. */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final DateTimeFormatter LOCAL_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm[:ss]");
+
+    private final List<EventSession> rows;
+    private final Map<EventSession, Integer> indexOf;
+    private final long[] start;
+    private final long[] end;
+    private final int[] mode;
+    private final int[] purpose;
+    private final int[] venue;
+    private final BitSet attended;
+    private final int[] refOffsets;
+    private final int[] refs;
+    private final Dictionary modes;
+    private final Dictionary purposes;
+    private final Dictionary venues;
+    private final Dictionary patientIds;
+
+    private SessionStore(List<EventSession> sessions) {
+        int n = sessions.size();
+        rows = List.copyOf(sessions);
+        indexOf = new IdentityHashMap<>(n);
+        start = new long[n];
+        end = new long[n];
+        mode = new int[n];
+        purpose = new int[n];
+        venue = new int[n];
+        attended = new BitSet(n);
+        refOffsets = new int[n + 1];
+        modes = new Dictionary();
+        purposes = new Dictionary();
+        venues = new Dictionary();
+        patientIds = new Dictionary();
+
+        int[] flat = new int[Math.max(16, n * 2)];
+        int used = 0;
+        for (int i = 0; i < n; i++) {
+            EventSession s = rows.get(i);
+            indexOf.putIfAbsent(s, i);
+            start[i] = parseSeconds(s.getEventSessionStartDate1());
+            end[i] = parseSeconds(s.getEventSessionEndDate1());
+            mode[i] = modes.code(s.getEventSessionMode1());
+            purpose[i] = purposes.code(s.getPurposeOfContact());
+            venue[i] = venues.code(s.getEventSessionVenue1());
+            if (s.isAttendedIndicator()) attended.set(i);
+            refOffsets[i] = used;
+            for (String ref : s.getPatientRefs().refs()) {
+                if (used == flat.length) flat = Arrays.copyOf(flat, flat.length * 2);
+                flat[used++] = patientIds.code(ref);
+            }
+        }
+        refOffsets[n] = used;
+        refs = Arrays.copyOf(flat, used);
+    }
+
+    public static SessionStore of(List<EventSession> sessions) {
+        return new SessionStore(sessions);
+    }
+
+    public int size() {
+        return start.length;
+    }
+
+    /** Row index of {@code s}, or -1 when it is not part of this snapshot. */
+    public int indexOf(EventSession s) {
+        Integer i = indexOf.get(s);
+        return i == null ? -1 : i;
+    }
+
+    /** The UI row a column index was built from. */
+    public EventSession session(int i) {
+        return rows.get(i);
+    }
+
+    public long startSecond(int i) {
+        return start[i];
+    }
+
+    public long endSecond(int i) {
+        return end[i];
+    }
+
+    /** Start date as an epoch day, or {@link Long#MIN_VALUE} when unparsed. */
+    public long startDay(int i) {
+        return start[i] == NO_TIME ? Long.MIN_VALUE : Math.floorDiv(start[i], 86_400L);
+    }
+
+    public int mode(int i) {
+        return mode[i];
+    }
+
+    public int purpose(int i) {
+        return purpose[i];
+    }
+
+    public int venue(int i) {
+        return venue[i];
+    }
+
+    public boolean attended(int i) {
+        return attended.get(i);
+    }
+
+    public int refCount(int i) {
+        return refOffsets[i + 1] - refOffsets[i];
+    }
+
+    /** Ordinal in {@link #patientIds()} of the k-th patient reference of session i. */
+    public int ref(int i, int k) {
+        return refs[refOffsets[i] + k];
+    }
+
+    public Dictionary modes() {
+        return modes;
+    }
+
+    public Dictionary purposes() {
+        return purposes;
+    }
+
+    public Dictionary venues() {
+        return venues;
+    }
+
+    public Dictionary patientIds() {
+        return patientIds;
+    }
+
+    /** {@code seconds} as a LocalDateTime, or null for {@link #NO_TIME}. */
+    public static LocalDateTime toDateTime(long seconds) {
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Parses a session timestamp to epoch seconds of its local date-time (the offset is not
+     * applied): ISO with offset as the tool writes it, "yyyy-MM-dd HH:mm[:ss]" or a bare date.
+     */
+    public static long parseSeconds(String s) {
+        if (s == null || s.isBlank()) return NO_TIME;
+        LocalDateTime dt;
+        try {
+            dt = OffsetDateTime.parse(s).toLocalDateTime();
+        } catch (Exception e) {
+            try {
+                dt = LocalDateTime.parse(s, LOCAL_TIME);
+            } catch (Exception e2) {
+                try {
+                    dt = LocalDate.parse(s).atStartOfDay();
+                } catch (Exception e3) {
+                    return NO_TIME;
+                }
+            }
+        }
+        return dt.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /** Interns strings to dense int codes in first-seen order; null is stored as "". */
+    public static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int code(String value) {
+            String v = value == null ? "" : value;
+            Integer c = codes.get(v);
+            if (c == null) {
+                c = values.size();
+                codes.put(v, c);
+                values.add(v);
+            }
+            return c;
+        }
+
+        /** Code of {@code value}, or -1 when it never occurs. */
+        public int find(String value) {
+            Integer c = codes.get(value == null ? "" : value);
+            return c == null ? -1 : c;
+        }
+
+        public String value(int code) {
+            return values.get(code);
+        }
+
+        public int size() {
+            return values.size();
+        }
+    }
+}
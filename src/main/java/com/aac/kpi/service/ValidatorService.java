@@ -43,8 +43,7 @@ public class ValidatorService {
     public static List<String> validateSessions(List<EventSession> sessions, List<Patient> patients) {
         List<String> issues = new ArrayList<>();
         Set<String> comp = new HashSet<>();
-        Set<String> patientIds = new HashSet<>();
-        for (Patient p : patients) patientIds.add(p.getPatientId());
+        ReferenceIndex index = ReferenceIndex.of(patients, sessions);
 
         for (int i = 0; i < sessions.size(); i++) {
             EventSession s = sessions.get(i);
@@ -59,10 +58,8 @@ public class ValidatorService {
                 issues.add(row + "Missing patient reference");
             } else {
                 boolean anyValid = false;
-                for (String part : raw.split("##")) {
-                    String pid = part == null ? "" : part.trim();
-                    if (pid.isEmpty()) continue;
-                    if (!patientIds.contains(pid)) {
+                for (String pid : index.refs(s).refs()) {
+                    if (!index.hasPatientId(pid)) {
                         issues.add(row + "Unknown patient reference: " + pid);
                     } else {
                         anyValid = true;
@@ -0,0 +1,105 @@
+package com.aac.kpi.service;
+
+import com.aac.kpi.model.CommonRow;
+import com.aac.kpi.model.Encounter;
+import com.aac.kpi.model.EventSession;
+import com.aac.kpi.model.Patient;
+import com.aac.kpi.model.Practitioner;
+import com.aac.kpi.model.QuestionnaireResponse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Every master table decoded from one workbook. The file is opened once and the requested
+ * sheets are streamed concurrently from that single package; parts that were not requested, or
+ * whose sheet is missing, come back as empty lists.
+ */
+public record WorkbookSnapshot(List<Patient> patients,
+                               List<EventSession> sessions,
+                               List<Practitioner> practitioners,
+                               List<Encounter> encounters,
+                               List<QuestionnaireResponse> questionnaires,
+                               List<CommonRow> commonRows) {
+
+    public enum Part { PATIENTS, SESSIONS, PRACTITIONERS, ENCOUNTERS, QUESTIONNAIRES, COMMON }
+
+    public static WorkbookSnapshot load(File file) throws IOException {
+        return load(file, EnumSet.allOf(Part.class));
+    }
+
+    public static WorkbookSnapshot load(File file, Set<Part> parts) throws IOException {
+        try (ExcelStreamReader reader = new ExcelStreamReader(file)) {
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            CompletableFuture<List<Patient>> patients = read(parts, Part.PATIENTS, pool,
+                    sink -> ExcelReader.readPatients(reader, sink::add));
+            CompletableFuture<List<EventSession>> sessions = read(parts, Part.SESSIONS, pool,
+                    sink -> ExcelReader.readEventSessions(reader, sink::add));
+            CompletableFuture<List<Practitioner>> practitioners = read(parts, Part.PRACTITIONERS, pool,
+                    sink -> ExcelReader.readPractitioners(reader, sink::add));
+            CompletableFuture<List<Encounter>> encounters = read(parts, Part.ENCOUNTERS, pool,
+                    sink -> ExcelReader.readEncounters(reader, sink::add));
+            CompletableFuture<List<QuestionnaireResponse>> questionnaires = read(parts, Part.QUESTIONNAIRES, pool,
+                    sink -> ExcelReader.readQuestionnaires(reader, sink::add));
+            CompletableFuture<List<CommonRow>> commonRows = read(parts, Part.COMMON, pool,
+                    sink -> ExcelReader.readCommon(reader, sink::add));
+            try {
+                return new WorkbookSnapshot(
+                        await(patients),
+                        await(sessions),
+                        await(practitioners),
+                        await(encounters),
+                        await(questionnaires),
+                        await(commonRows));
+            } finally {
+                // Let every sheet finish, even after a failure, before the package is closed
+                CompletableFuture.allOf(patients, sessions, practitioners, encounters, questionnaires, commonRows)
+                        .exceptionally(t -> null)
+                        .join();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SheetLoader<T> {
+        void load(List<T> sink) throws IOException;
+    }
+
+    private static <T> CompletableFuture<List<T>> read(Set<Part> parts, Part part, ForkJoinPool pool,
+                                                        SheetLoader<T> loader) {
+        if (!parts.contains(part)) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            List<T> list = new ArrayList<>();
+            try {
+                loader.load(list);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return list;
+        }, pool);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io)
+                throw io.getCause();
+            if (e.getCause() instanceof RuntimeException re)
+                throw re;
+            if (e.getCause() instanceof Error err)
+                throw err;
+            throw e;
+        }
+    }
+}
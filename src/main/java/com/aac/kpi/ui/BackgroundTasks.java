@@ -0,0 +1,204 @@
+package com.aac.kpi.ui;
+
+import javafx.concurrent.Task;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Label;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs heavy operations (load, save, generate, KPI) off the JavaFX application thread. All work
+ * goes to one shared daemon worker, so operations on the master lists never overlap; the result
+ * comes back on the FX thread, where callers apply it with one setAll/addAll per list. While a
+ * task runs the status label follows its phase messages; when it finishes the time spent in each
+ * phase is appended to whatever status the caller left, and the label goes back to the newest
+ * operation still queued on it. Read-only previews run on a separate worker (see {@link #preview}).
+ */
+public final class BackgroundTasks {
+    private static final ExecutorService WORKER = newWorker("aac-worker");
+    private static final ExecutorService PREVIEW_WORKER = newWorker("aac-preview");
+    // Submitted and not yet finished; touched on the FX thread only
+    private static final List<Task<?>> active = new ArrayList<>();
+
+    private BackgroundTasks() {}
+
+    private static ExecutorService newWorker(String name) {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** The background part of an operation. Must not touch scene graph nodes or the shared lists. */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(Progress progress) throws Exception;
+    }
+
+    /** Passed to {@link Work} for phase messages, progress and cancellation checks. */
+    public static final class Progress {
+        private final OperationTask<?> task;
+        private final StringBuilder timings = new StringBuilder();
+        private String phase;
+        private long phaseStart;
+
+        private Progress(OperationTask<?> task) {
+            this.task = task;
+        }
+
+        /** Starts a named phase, ending the previous one, and shows it in the status label. */
+        public void phase(String name) {
+            endPhase();
+            phase = name;
+            phaseStart = System.nanoTime();
+            task.message(name + "…");
+        }
+
+        public void progress(long done, long total) {
+            task.progress(done, total);
+        }
+
+        public boolean isCancelled() {
+            return task.isCancelled();
+        }
+
+        /** Stops the work between steps once the user has cancelled it. */
+        public void checkCancelled() {
+            if (task.isCancelled()) throw new CancellationException();
+        }
+
+        private void endPhase() {
+            if (phase == null) return;
+            if (timings.length() > 0) timings.append(", ");
+            timings.append(String.format("%s %.1fs", phase, (System.nanoTime() - phaseStart) / 1e9));
+            phase = null;
+        }
+
+        private String timings() {
+            endPhase();
+            return timings.toString();
+        }
+    }
+
+    /**
+     * Runs {@code work} on the worker and hands its result to {@code onSuccess} on the FX thread.
+     * Failures are shown in an error alert titled by {@code name}; a cancelled task's result is
+     * dropped. Must be called on the FX thread.
+     */
+    public static <T> Task<T> run(String name, Label status, Work<T> work, Consumer<T> onSuccess) {
+        OperationTask<T> task = new OperationTask<>(name, status, work, onSuccess);
+        active.add(task);
+        if (status != null) status.textProperty().bind(task.messageProperty());
+        WORKER.execute(task);
+        return task;
+    }
+
+    /**
+     * Runs a read-only preview over snapshots on its own worker, so it never waits behind a load
+     * or save and is left out of {@link #isBusy()} and {@link #cancelAll()}. It has no status label;
+     * callers drop stale results themselves. Must be called on the FX thread.
+     */
+    public static <T> Task<T> preview(String name, Work<T> work, Consumer<T> onSuccess) {
+        OperationTask<T> task = new OperationTask<>(name, null, work, onSuccess);
+        PREVIEW_WORKER.execute(task);
+        return task;
+    }
+
+    /** Whether an operation is queued or running. */
+    public static boolean isBusy() {
+        return !active.isEmpty();
+    }
+
+    /**
+     * Cancels every queued or running operation. Running work stops at its next
+     * {@link Progress#checkCancelled()}; a write already in progress is left to finish so no
+     * half-written file is produced.
+     */
+    public static void cancelAll() {
+        for (Task<?> task : List.copyOf(active)) task.cancel(false);
+    }
+
+    private static final class OperationTask<T> extends Task<T> {
+        private final String name;
+        private final Label status;
+        private final Work<T> work;
+        private final Consumer<T> onSuccess;
+        private final Progress progress = new Progress(this);
+
+        OperationTask(String name, Label status, Work<T> work, Consumer<T> onSuccess) {
+            this.name = name;
+            this.status = status;
+            this.work = work;
+            this.onSuccess = onSuccess;
+            updateMessage(name + "…");
+        }
+
+        @Override
+        protected T call() throws Exception {
+            progress.checkCancelled();
+            return work.run(progress);
+        }
+
+        void message(String text) {
+            updateMessage(text);
+        }
+
+        void progress(long done, long total) {
+            updateProgress(done, total);
+        }
+
+        @Override
+        protected void succeeded() {
+            finish(name + " finished");
+            try {
+                onSuccess.accept(getValue());
+                String timings = progress.timings();
+                if (status != null && !timings.isEmpty()) status.setText(status.getText() + " | " + timings);
+            } finally {
+                handOffStatus();
+            }
+        }
+
+        @Override
+        protected void cancelled() {
+            finish(name + " cancelled");
+            handOffStatus();
+        }
+
+        @Override
+        protected void failed() {
+            finish(name + " failed");
+            handOffStatus();
+            Throwable t = getException();
+            new Alert(Alert.AlertType.ERROR, name + " failed: " + (t == null ? "unknown error" : t.getMessage()),
+                    ButtonType.OK).showAndWait();
+        }
+
+        // The label may be bound to a later operation; it is freed here so onSuccess can set it
+        private void finish(String text) {
+            active.remove(this);
+            if (status != null) {
+                status.textProperty().unbind();
+                status.setText(text);
+            }
+        }
+
+        // Rebinds the label to the newest operation still queued or running on it, if any
+        private void handOffStatus() {
+            if (status == null) return;
+            for (int i = active.size() - 1; i >= 0; i--) {
+                if (active.get(i) instanceof OperationTask<?> next && next.status == status) {
+                    status.textProperty().bind(next.messageProperty());
+                    return;
+                }
+            }
+        }
+    }
+}
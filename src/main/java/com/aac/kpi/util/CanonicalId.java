@@ -0,0 +1,145 @@
+package com.aac.kpi.util;
+
+/**
+ * An id in its sanitized form ({@link StringUtils#sanitizeAlphaNum}), used as a join key. The
+ * two shapes this tool generates are packed instead of stored as text: 32-character hex uuids
+ * as two longs and NRICs (letter, seven digits, letter) as one. They are built straight from the
+ * raw reference with no intermediate strings. Anything else keeps its sanitized text. Two ids
+ * are equal exactly when their sanitized strings are equal.
+ */
+public final class CanonicalId {
+    public static final CanonicalId EMPTY = new CanonicalId(Kind.TEXT, 0, 0, "");
+
+    private enum Kind { TEXT, UUID_LOWER, UUID_UPPER, NRIC }
+
+    private final Kind kind;
+    private final long hi;
+    private final long lo;
+    private final String text;
+
+    private CanonicalId(Kind kind, long hi, long lo, String text) {
+        this.kind = kind;
+        this.hi = hi;
+        this.lo = lo;
+        this.text = text;
+    }
+
+    public static CanonicalId of(String raw) {
+        if (raw == null) return EMPTY;
+        int n = raw.length();
+        int len = 0;
+        boolean hex = true;
+        boolean lower = false;
+        boolean upper = false;
+        for (int i = 0; i < n; i++) {
+            char c = raw.charAt(i);
+            if (!StringUtils.isAlphaNum(c)) continue;
+            len++;
+            if (c >= 'a' && c <= 'z') {
+                lower = true;
+                if (c > 'f') hex = false;
+            } else if (c >= 'A' && c <= 'Z') {
+                upper = true;
+                if (c > 'F') hex = false;
+            }
+        }
+        if (len == 0) return EMPTY;
+        if (len == 32 && hex && !(lower && upper)) return packUuid(raw, upper);
+        if (len == 9 && upper && !lower) {
+            CanonicalId nric = packNric(raw);
+            if (nric != null) return nric;
+        }
+        return new CanonicalId(Kind.TEXT, 0, 0, StringUtils.sanitizeAlphaNum(raw));
+    }
+
+    private static CanonicalId packUuid(String raw, boolean upper) {
+        long hi = 0;
+        long lo = 0;
+        int nibble = 0;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (!StringUtils.isAlphaNum(c)) continue;
+            int v = Character.digit(c, 16);
+            if (nibble < 16) hi = (hi << 4) | v;
+            else lo = (lo << 4) | v;
+            nibble++;
+        }
+        return new CanonicalId(upper ? Kind.UUID_UPPER : Kind.UUID_LOWER, hi, lo, null);
+    }
+
+    // S1234567A -> prefix letter (5 bits) | seven digits (24 bits) | suffix letter (5 bits)
+    private static CanonicalId packNric(String raw) {
+        long packed = 0;
+        int pos = 0;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (!StringUtils.isAlphaNum(c)) continue;
+            boolean letter = c >= 'A' && c <= 'Z';
+            if (pos == 0 || pos == 8) {
+                if (!letter) return null;
+                packed = pos == 0 ? c - 'A' : (packed << 5) | (c - 'A');
+            } else {
+                if (letter) return null;
+                if (pos == 1) packed <<= 24;
+                packed += (long) (c - '0') * POW10[7 - pos];
+            }
+            pos++;
+        }
+        return new CanonicalId(Kind.NRIC, 0, packed, null);
+    }
+
+    private static final int[] POW10 = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+
+    public boolean isEmpty() {
+        return kind == Kind.TEXT && text.isEmpty();
+    }
+
+    /** The sanitized id. */
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case TEXT -> text;
+            case UUID_LOWER, UUID_UPPER -> {
+                char[] out = new char[32];
+                writeHex(out, 0, hi);
+                writeHex(out, 16, lo);
+                yield new String(out);
+            }
+            case NRIC -> {
+                char[] out = new char[9];
+                out[0] = (char) ('A' + (lo >>> 29));
+                int digits = (int) ((lo >>> 5) & 0xFFFFFF);
+                for (int i = 7; i >= 1; i--) {
+                    out[i] = (char) ('0' + digits % 10);
+                    digits /= 10;
+                }
+                out[8] = (char) ('A' + (lo & 0x1F));
+                yield new String(out);
+            }
+        };
+    }
+
+    private void writeHex(char[] out, int offset, long v) {
+        char base = kind == Kind.UUID_UPPER ? 'A' : 'a';
+        for (int i = 15; i >= 0; i--) {
+            int d = (int) (v & 0xF);
+            out[offset + i] = (char) (d < 10 ? '0' + d : base + d - 10);
+            v >>>= 4;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CanonicalId other)) return false;
+        return kind == other.kind && hi == other.hi && lo == other.lo
+                && (kind != Kind.TEXT || text.equals(other.text));
+    }
+
+    @Override
+    public int hashCode() {
+        if (kind == Kind.TEXT) return text.hashCode();
+        long h = hi * 31 + lo;
+        return (int) (h ^ (h >>> 32)) * 31 + kind.ordinal();
+    }
+}
@@ -3,8 +3,36 @@ package com.aac.kpi.util;
 public final class StringUtils {
     private StringUtils() {}
 
+    /**
+     * Strips everything but ASCII letters and digits. Ids are usually clean already, in which
+     * case the same instance is returned without allocating.
+     */
     public static String sanitizeAlphaNum(String s) {
         if (s == null) return "";
-        return s.replaceAll("[^A-Za-z0-9]", "");
+        int n = s.length();
+        int first = 0;
+        while (first < n && isAlphaNum(s.charAt(first))) first++;
+        if (first == n) return s;
+        char[] out = new char[n - 1];
+        s.getChars(0, first, out, 0);
+        int len = first;
+        for (int i = first + 1; i < n; i++) {
+            char c = s.charAt(i);
+            if (isAlphaNum(c)) out[len++] = c;
+        }
+        return new String(out, 0, len);
+    }
+
+    /** Whether {@code s} is non-null and consists only of ASCII letters and digits. */
+    public static boolean isAlphaNum(CharSequence s) {
+        if (s == null) return false;
+        for (int i = 0; i < s.length(); i++) {
+            if (!isAlphaNum(s.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    public static boolean isAlphaNum(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
     }
 }
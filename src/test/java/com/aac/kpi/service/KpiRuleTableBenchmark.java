@@ -0,0 +1,144 @@
+package com.aac.kpi.service;
+
+import java.util.Random;
+
+/**
+ * Plain timing comparison of {@link KpiRuleTable#match} against the hard-coded if/continue
+ * classifier it replaced, over random patient inputs with the default tiers. Every input is also
+ * checked to classify the same under both, so the run fails if the default tiers drift from the
+ * original rules.
+ *
+ * <p>Run with {@code java -cp target/classes:target/test-classes com.aac.kpi.service.KpiRuleTableBenchmark [patients] [rounds]}.
+ */
+public final class KpiRuleTableBenchmark {
+    private KpiRuleTableBenchmark() {}
+
+    public static void main(String[] args) {
+        int patients = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+
+        Random random = new Random(42);
+        int[] cfs = new int[patients];
+        int[] rf = new int[patients];
+        boolean[] buddyActive = new boolean[patients];
+        boolean[] befActive = new boolean[patients];
+        KpiService.Tally[] tallies = new KpiService.Tally[patients];
+        for (int i = 0; i < patients; i++) {
+            cfs[i] = random.nextInt(10);
+            rf[i] = random.nextInt(4);
+            buddyActive[i] = random.nextBoolean();
+            befActive[i] = random.nextBoolean();
+            KpiService.Tally t = new KpiService.Tally();
+            t.inPerson = random.nextInt(16);
+            t.functionalScreens = random.nextInt(3);
+            t.buddying = random.nextInt(20);
+            t.befriending = random.nextInt(70);
+            t.aap = random.nextInt(20);
+            tallies[i] = t;
+        }
+
+        KpiConfig config = new KpiConfig();
+        KpiRuleTable table = config.rules();
+        int matched = 0;
+        for (int i = 0; i < patients; i++) {
+            Outcome expected = baseline(cfs[i], rf[i], tallies[i], buddyActive[i], befActive[i], config);
+            int row = table.match(cfs[i], rf[i], tallies[i], buddyActive[i], befActive[i]);
+            if (!expected.type.equals(table.type(row)) || !expected.group.equals(table.group(row))) {
+                throw new IllegalStateException("Patient " + i + " classified as '" + table.type(row)
+                        + "' by the table but '" + expected.type + "' by the baseline");
+            }
+            if (row != KpiRuleTable.NO_MATCH) matched++;
+        }
+        System.out.printf("%,d patients, %,d classified, results identical%n", patients, matched);
+
+        long baselineBest = Long.MAX_VALUE;
+        long tableBest = Long.MAX_VALUE;
+        long compileBest = Long.MAX_VALUE;
+        long sink = 0;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < patients; i++) {
+                sink += baseline(cfs[i], rf[i], tallies[i], buddyActive[i], befActive[i], config).ordinal();
+            }
+            baselineBest = Math.min(baselineBest, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            KpiRuleTable compiled = KpiRuleTable.compile(config);
+            compileBest = Math.min(compileBest, System.nanoTime() - start);
+            sink += compiled.size();
+
+            start = System.nanoTime();
+            for (int i = 0; i < patients; i++) {
+                sink += table.match(cfs[i], rf[i], tallies[i], buddyActive[i], befActive[i]);
+            }
+            tableBest = Math.min(tableBest, System.nanoTime() - start);
+        }
+        System.out.printf("baseline if/continue: %8.2f ms (%.1f ns/patient)%n",
+                baselineBest / 1e6, (double) baselineBest / patients);
+        System.out.printf("compiled rule table:  %8.2f ms (%.1f ns/patient)%n",
+                tableBest / 1e6, (double) tableBest / patients);
+        System.out.printf("table compile:        %8.3f ms (once per config)%n", compileBest / 1e6);
+        System.out.println("(checksum " + sink + ")");
+    }
+
+    // The classifier as it stood before tiers became configurable
+    private static Outcome baseline(int cfs, int rf, KpiService.Tally t, boolean buddyActive, boolean befActive, KpiConfig config) {
+        long inPersonCount = t.inPerson;
+        boolean hasFunctionalScreen = t.functionalScreens > 0;
+
+        if (inRange(cfs, 1, 3)) {
+            if (inPersonCount >= config.robustMinInPerson && hasFunctionalScreen) return Outcome.ROBUST;
+        }
+        if (inRange(cfs, 6, 9)) {
+            if (inPersonCount >= config.robustMinInPerson && hasFunctionalScreen) return Outcome.ROBUST_GROUP_2;
+        }
+        if (inRange(cfs, 4, 5)) {
+            if (inPersonCount >= config.frailMinInPerson && hasFunctionalScreen) return Outcome.FRAIL;
+        }
+        if (inRange(cfs, 6, 9)) {
+            if (inPersonCount >= config.frailMinInPerson && hasFunctionalScreen) return Outcome.FRAIL_GROUP_2;
+        }
+
+        long buddyCount = t.buddying;
+        if (rf == 1) {
+            if (inRange(cfs, 1, 3) && inPersonCount >= config.buddyingMinInPerson && buddyCount >= 12 && buddyActive) return Outcome.BUDDYING;
+            if (inRange(cfs, 4, 5) && inPersonCount >= config.buddyingMinInPerson && buddyCount >= 12 && buddyActive) return Outcome.BUDDYING_FRAIL;
+            if (inRange(cfs, 6, 9) && inPersonCount >= config.buddyingMinInPerson && buddyCount >= 12 && buddyActive) return Outcome.BUDDYING_VERY_FRAIL;
+        }
+
+        long befCount = t.befriending;
+        long aap12 = t.aap;
+        if (rf > 1) {
+            if (inRange(cfs, 1, 3) && inPersonCount >= config.befriendingMinInPerson && aap12 >= 12 && befCount >= 52 && befActive) return Outcome.BEFRIENDING_ROBUST;
+            if (inRange(cfs, 4, 5) && inPersonCount >= config.befriendingMinInPerson && aap12 >= 12 && befCount >= 52 && befActive) return Outcome.BEFRIENDING_FRAIL;
+            if (inRange(cfs, 6, 9) && inPersonCount >= config.befriendingMinInPerson && aap12 >= 12 && befCount >= 52 && befActive) return Outcome.BEFRIENDING_VERY_FRAIL;
+        }
+        return Outcome.NONE;
+    }
+
+    private static boolean inRange(int v, int lo, int hi) {
+        return v >= lo && v <= hi;
+    }
+
+    private enum Outcome {
+        NONE("", ""),
+        ROBUST("Robust", "Group 1"),
+        ROBUST_GROUP_2("Robust (Group 2 – CFS 6-9)", "Group 2"),
+        FRAIL("Frail", "Group 1"),
+        FRAIL_GROUP_2("Frail (Group 2 – Very Frail)", "Group 2"),
+        BUDDYING("Buddying", "Group 1 (Robust)"),
+        BUDDYING_FRAIL("Buddying (Frail)", "Group 2"),
+        BUDDYING_VERY_FRAIL("Buddying (Very Frail)", "Group 3"),
+        BEFRIENDING_ROBUST("Befriending (Robust)", "Group 1"),
+        BEFRIENDING_FRAIL("Befriending (Frail)", "Group 2"),
+        BEFRIENDING_VERY_FRAIL("Befriending (Very Frail)", "Group 3");
+
+        final String type;
+        final String group;
+
+        Outcome(String type, String group) {
+            this.type = type;
+            this.group = group;
+        }
+    }
+}